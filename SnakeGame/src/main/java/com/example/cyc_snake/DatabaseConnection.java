@@ -1,11 +1,27 @@
 package com.example.cyc_snake;
 
 import com.example.cyc_snake.models.Player;
+import com.example.cyc_snake.models.PlayerStats;
+import com.example.cyc_snake.persistence.ConnectionPool;
+import com.example.cyc_snake.persistence.CsvExporter;
+import com.example.cyc_snake.persistence.FileScoreRepository;
+import com.example.cyc_snake.persistence.InMemoryScoreRepository;
+import com.example.cyc_snake.persistence.JdbcScoreRepository;
+import com.example.cyc_snake.persistence.LeaderboardOrder;
+import com.example.cyc_snake.persistence.LeaderboardPage;
+import com.example.cyc_snake.persistence.ScoreRepository;
+import com.example.cyc_snake.persistence.StorageException;
 
-import java.io.*;
-import java.sql.*;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Handles database connections and operations for the Snake Game application.
@@ -17,8 +33,20 @@ import java.util.List;
  * </p>
  *
  * <p>
- * The class uses JDBC to connect to a MySQL database and perform SQL queries. It provides methods to interact with
- * the database, retrieve data, and perform necessary operations for the game's functionality.
+ * Every operation is delegated to a {@link ScoreRepository}, chosen by the {@value #STORAGE_PROPERTY} system property
+ * when it is first needed:
+ * </p>
+ * <ul>
+ *   <li>{@code mysql}, the default: the MySQL server, through a {@link JdbcScoreRepository} on a
+ *       {@link ConnectionPool}. Games are made durable in a local journal before they are sent.</li>
+ *   <li>{@code file}: a {@link FileScoreRepository} in the file named by {@value #STORAGE_FILE_PROPERTY}, by default
+ *       {@code data/scores.log}, for playing without a server.</li>
+ *   <li>{@code memory}: an {@link InMemoryScoreRepository}, which keeps nothing after the game is closed.</li>
+ * </ul>
+ *
+ * <p>
+ * The repository can be replaced through {@link #setRepository(ScoreRepository)}, or with a JDBC repository on
+ * another database through {@link #setDataSource(DataSource)}.
  * </p>
  *
  * @version 1.0
@@ -40,29 +68,174 @@ public class DatabaseConnection {
     }
 
     /**
-     * Retrieves a list of player rankings from the database.
+     * The system property that chooses the storage: {@code mysql}, {@code file} or {@code memory}.
+     */
+    public static final String STORAGE_PROPERTY = "snake.storage";
+
+    /**
+     * The system property that names the score file of the {@code file} storage.
+     */
+    public static final String STORAGE_FILE_PROPERTY = "snake.storage.file";
+
+    // Connection pool parameters
+    static final int POOL_SIZE = 4;
+    static final long POOL_IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000;
+    static final long POOL_BORROW_TIMEOUT_MILLIS = 10 * 1000;
+
+    // Records are made durable here before they are sent, so a score survives an unreachable server or a crash
+    static final Path JOURNAL_FILE = Paths.get("data", "pending_records.journal");
+
+    // The score file of the file storage, unless configured otherwise
+    static final Path STORAGE_FILE = Paths.get("data", "scores.log");
+
+    // The number of entries getLeaderboard returns
+    static final int LEADERBOARD_SIZE = 100;
+
+    // The page size getPlayerRankings reads the whole leaderboard with
+    private static final int RANKINGS_PAGE_SIZE = 1000;
+
+    // Created with the first operation, from the configuration
+    private static ScoreRepository repository;
+
+    /**
+     * Gets the repository every operation is delegated to, opening the configured one first if none is open.
+     *
+     * @return The current repository.
+     */
+    public static synchronized ScoreRepository getRepository() {
+        if (repository == null) {
+            repository = openRepository(System.getProperty(STORAGE_PROPERTY, "mysql"));
+        }
+        return repository;
+    }
+
+    /**
+     * Replaces the repository every operation is delegated to. The previous repository is not closed.
+     *
+     * @param newRepository The repository to use from now on, or {@code null} to open the configured one when it is
+     *                      next needed.
+     * @return The previous repository, or {@code null} if none was open.
+     */
+    public static synchronized ScoreRepository setRepository(ScoreRepository newRepository) {
+        ScoreRepository previous = repository;
+        repository = newRepository;
+        return previous;
+    }
+
+    /**
+     * Replaces the repository with one on another database, for example a pool on an embedded test database. Games
+     * saved through it are not journaled. The previous repository and its data source are not closed.
+     *
+     * @param dataSource The database to use from now on.
+     * @return The previous repository, or {@code null} if none was open.
+     */
+    public static ScoreRepository setDataSource(DataSource dataSource) {
+        return setRepository(new JdbcScoreRepository(Objects.requireNonNull(dataSource), null));
+    }
+
+    /**
+     * Opens the repository for a storage name.
+     *
+     * @param storage {@code mysql}, {@code file} or {@code memory}.
+     * @return The repository. If the score file cannot be opened, an in-memory repository.
+     */
+    static ScoreRepository openRepository(String storage) {
+        switch (storage.toLowerCase(Locale.ROOT)) {
+            case "mysql":
+                return new JdbcScoreRepository(
+                        new ConnectionPool(url, user, password, POOL_SIZE, POOL_IDLE_TIMEOUT_MILLIS, POOL_BORROW_TIMEOUT_MILLIS),
+                        JOURNAL_FILE);
+            case "file":
+                Path file = Paths.get(System.getProperty(STORAGE_FILE_PROPERTY, STORAGE_FILE.toString()));
+                try {
+                    return new FileScoreRepository(file);
+                } catch (IOException e) {
+                    System.out.println("Could not open the score file " + file + ", scores will not be kept:");
+                    e.printStackTrace();
+                    return new InMemoryScoreRepository();
+                }
+            case "memory":
+                return new InMemoryScoreRepository();
+            default:
+                throw new IllegalArgumentException("Unknown " + STORAGE_PROPERTY + " '" + storage
+                        + "', expected mysql, file or memory");
+        }
+    }
+
+    /**
+     * Writes the game records still queued and closes the repository, and its connection pool if it has one.
+     */
+    public static synchronized void shutdown() {
+        if (repository == null) {
+            return;
+        }
+        repository.close();
+        if (repository instanceof JdbcScoreRepository
+                && ((JdbcScoreRepository) repository).getDataSource() instanceof ConnectionPool) {
+            ((ConnectionPool) ((JdbcScoreRepository) repository).getDataSource()).close();
+        }
+        repository = null;
+    }
+
+    /**
+     * Retrieves every game in leaderboard order, read page by page.
      *
-     * @return A list of Player objects representing player rankings.
+     * @return A list of Player objects representing player rankings, or the games read before a failure.
      */
     public static List<Player> getPlayerRankings() {
         List<Player> rankings = new ArrayList<>();
-        String sql = "SELECT playerName, gamescore, GameTimeInMilliseconds FROM gamescores ORDER BY gamescore DESC, GameTimeInMilliseconds ASC";
+        try {
+            LeaderboardPage page;
+            do {
+                Player after = rankings.isEmpty() ? null : rankings.get(rankings.size() - 1);
+                page = getLeaderboardPage(LeaderboardOrder.BY_SCORE, after, RANKINGS_PAGE_SIZE);
+                rankings.addAll(page.getPlayers());
+            } while (page.hasMore());
+        } catch (StorageException e) {
+            e.printStackTrace();
+        }
+        return rankings;
+    }
 
-        try (Connection connection = DriverManager.getConnection(url, user, password);
-             PreparedStatement preparedStatement = connection.prepareStatement(sql);
-             ResultSet resultSet = preparedStatement.executeQuery()) {
+    /**
+     * Retrieves the best entries of the leaderboard.
+     *
+     * @param limit The maximum number of entries to retrieve.
+     * @return Up to {@code limit} players, highest score first and shortest game first among equal scores.
+     * @throws StorageException If the scores could not be read.
+     */
+    public static List<Player> getTopPlayers(int limit) throws StorageException {
+        return getLeaderboardPage(LeaderboardOrder.BY_SCORE, null, limit).getPlayers();
+    }
 
-            while (resultSet.next()) {
-                String playerName = resultSet.getString("playerName");
-                int score = resultSet.getInt("gamescore");
-                long gameTime = resultSet.getLong("GameTimeInMilliseconds");
+    /**
+     * Retrieves one page of the leaderboard, continued from the last player of the previous page.
+     *
+     * @param order    The order of the leaderboard.
+     * @param after    The last player of the previous page, or {@code null} for the first page. Must come from a
+     *                 page in the same order.
+     * @param pageSize The maximum number of players on the page.
+     * @return The page.
+     * @throws StorageException If the scores could not be read.
+     */
+    public static LeaderboardPage getLeaderboardPage(LeaderboardOrder order, Player after, int pageSize)
+            throws StorageException {
+        return getRepository().getLeaderboardPage(order, after, pageSize);
+    }
 
-                rankings.add(new Player(playerName, score, gameTime));
-            }
-        } catch (SQLException e) {
+    /**
+     * Retrieves the top of the leaderboard.
+     *
+     * @return Up to {@link #LEADERBOARD_SIZE} players in leaderboard order, or an empty list if the scores could not
+     * be read.
+     */
+    public static List<Player> getLeaderboard() {
+        try {
+            return getTopPlayers(LEADERBOARD_SIZE);
+        } catch (StorageException e) {
             e.printStackTrace();
+            return new ArrayList<>();
         }
-        return rankings;
     }
 
     /**
@@ -75,136 +248,115 @@ public class DatabaseConnection {
     }
 
     /**
-     * Retrieves a list of unique player names from the database.
+     * Retrieves a list of unique player names, read from the per-player statistics instead of the games.
      *
-     * @return A list of unique player names.
+     * @return A list of unique player names, best player first, or an empty list if they could not be read.
      */
     public static List<String> getUniquePlayerNames() {
-        List<String> playerNames = new ArrayList<>();
-        String sql = "SELECT DISTINCT playerName FROM gamescores WHERE playerName IS NOT NULL";
-
-        try (Connection connection = DriverManager.getConnection(url, user, password);
-             PreparedStatement preparedStatement = connection.prepareStatement(sql);
-             ResultSet resultSet = preparedStatement.executeQuery()) {
+        try {
+            return getRepository().getPlayerNames();
+        } catch (StorageException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
 
-            while (resultSet.next()) {
-                playerNames.add(resultSet.getString("playerName"));
-            }
-        } catch (SQLException e) {
+    /**
+     * Retrieves the statistics of every player: best score, number of games, total play time and last game.
+     *
+     * @return The statistics, best score first, or an empty list if they could not be read.
+     */
+    public static List<PlayerStats> getPlayerStats() {
+        try {
+            return getRepository().getPlayerStats();
+        } catch (StorageException e) {
             e.printStackTrace();
+            return new ArrayList<>();
         }
-        return playerNames;
     }
 
     /**
-     * Saves a game record to the database.
+     * Saves a game record and waits until it is saved. Failures are printed rather than thrown.
      *
      * @param playerName The name of the player.
      * @param score      The score achieved in the game.
      * @param playTime   The duration of the game in milliseconds.
      */
     public static void saveGameRecord(String playerName, int score, long playTime) {
-        try (Connection connection = DriverManager.getConnection(url, user, password)) {
-            String query = "INSERT INTO gamescores (playerName, gamescore, GameTimeInMilliseconds) VALUES (?, ?, ?)";
-            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-                preparedStatement.setString(1, playerName);
-                preparedStatement.setInt(2, score);
-                preparedStatement.setLong(3, playTime);
-                preparedStatement.executeUpdate();
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+        try {
+            saveGameRecordAsync(playerName, score, playTime).get();
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
     /**
-     * Deletes a player from the database.
+     * Saves a game record without waiting for the storage, so the caller does not wait for the database or the disk.
      *
-     * @param playerName The name of the player to be deleted.
-     * @throws SQLException If an SQL exception occurs.
+     * @param playerName The name of the player.
+     * @param score      The score achieved in the game.
+     * @param playTime   The duration of the game in milliseconds.
+     * @return A future that completes with the {@code PlayerID} of the new record, or {@code null} if the storage did
+     * not report it, when the record is saved, or exceptionally if saving failed.
      */
-    public static void deletePlayer(String playerName) throws SQLException {
-        String sql = "DELETE FROM gamescores WHERE playerName = ?";
+    public static CompletableFuture<Integer> saveGameRecordAsync(String playerName, int score, long playTime) {
+        return getRepository().save(playerName, score, playTime);
+    }
 
-        try (Connection connection = DriverManager.getConnection(url, user, password);
-             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+    /**
+     * Starts sending the game records left in the local journal by an earlier run that could not reach the
+     * database. Returns immediately.
+     */
+    public static void replayPendingRecords() {
+        getRepository().replayPending();
+    }
 
-            preparedStatement.setString(1, playerName);
-            preparedStatement.executeUpdate();
-        } catch (SQLException e) {
-            throw e;
-        }
+    /**
+     * Deletes a player and every game of the player.
+     *
+     * @param playerName The name of the player to be deleted.
+     * @throws StorageException If the player could not be deleted.
+     */
+    public static void deletePlayer(String playerName) throws StorageException {
+        getRepository().deletePlayer(playerName);
     }
 
     /**
-     * Exports data from the database to a CSV file.
+     * Exports data from the database to a CSV file in the {@code data} directory. Failures are printed rather than
+     * thrown.
      *
-     * @param fileName The name of the CSV file.
+     * @param fileName The name of the CSV file. A name ending in {@code .gz} is compressed with gzip.
      */
     public static void exportDataToCSV(String fileName) {
-        // Print the current working directory
-        System.out.println("Working Directory = " + System.getProperty("user.dir"));
-
-        String directoryPath = "data"; // Target folder
-        String filePath = directoryPath + File.separator + fileName;
-        File directory = new File(directoryPath);
-
-        // If the data directory does not exist, try to create it
-        if (!directory.exists()) {
-            if (directory.mkdir()) {
-                System.out.println("Directory created: " + directory.getAbsolutePath());
-            } else {
-                System.out.println("Failed to create directory: " + directory.getAbsolutePath());
-                return; // If the directory creation fails, stop execution
-            }
-        }
-
-        File csvFile = new File(filePath);
-        // Print the absolute path of the file
-        System.out.println("Absolute Path = " + csvFile.getAbsolutePath());
-
-        // If a CSV file with the same name exists, delete it
-        if (csvFile.exists() && csvFile.delete()) {
-            System.out.println("Deleted existing CSV file: " + csvFile.getAbsolutePath());
-        }
-
-        String sql = "SELECT PlayerID, PlayerName, GameScore, GameTimeInMilliseconds FROM gamescores ORDER BY GameScore DESC, GameTimeInMilliseconds ASC";
-
-        try (Connection connection = DriverManager.getConnection(url, user, password);
-             PreparedStatement preparedStatement = connection.prepareStatement(sql);
-             ResultSet resultSet = preparedStatement.executeQuery();
-             PrintWriter writer = new PrintWriter(filePath)) {
-
-            writer.println("PlayerID,PlayerName,GameScore,GameTimeInMilliseconds");
-
-            // Verify data is written
-            boolean hasData = false;
-
-            while (resultSet.next()) {
-                hasData = true;
-                int playerId = resultSet.getInt("PlayerID");
-                String playerName = resultSet.getString("PlayerName");
-                int score = resultSet.getInt("GameScore");
-                long gameTime = resultSet.getLong("GameTimeInMilliseconds");
-
-                writer.println(playerId + "," + playerName + "," + score + "," + gameTime);
-            }
-
-            if (!hasData) {
-                System.out.println("No data to write to CSV file, query result is empty.");
-            } else {
-                System.out.println("Data successfully written to CSV file.");
-            }
-        } catch (SQLException e) {
+        Path target = Paths.get("data", fileName);
+        try {
+            long rows = exportLeaderboard(target, fileName.endsWith(".gz"), null);
+            System.out.println("Exported " + rows + " rows to " + target.toAbsolutePath());
+        } catch (StorageException e) {
             System.out.println("Database access error:");
             e.printStackTrace();
         } catch (IOException e) {
             System.out.println("Error writing file:");
             e.printStackTrace();
-        } catch (Exception e) {
-            System.out.println("Unknown error:");
-            e.printStackTrace();
         }
     }
 
+    /**
+     * Writes every game record to a CSV file, in leaderboard order. Call it off the JavaFX Application Thread;
+     * interrupting the calling thread cancels it.
+     *
+     * @param target   The CSV file to write. It is only replaced once the export is complete.
+     * @param gzip     Whether to compress the file with gzip.
+     * @param progress Receives the progress of the export, or {@code null}.
+     * @return The number of rows exported.
+     * @throws StorageException If the scores could not be read.
+     * @throws IOException      If the file could not be written, or the export was cancelled.
+     */
+    public static long exportLeaderboard(Path target, boolean gzip, CsvExporter.Progress progress)
+            throws StorageException, IOException {
+        return getRepository().export(target, gzip, progress);
+    }
+
 }
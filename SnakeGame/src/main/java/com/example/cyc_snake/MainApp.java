@@ -3,6 +3,9 @@ package com.example.cyc_snake;
 import com.example.cyc_snake.adapters.*;
 import com.example.cyc_snake.controllers.*;
 import com.example.cyc_snake.managers.StateManager;
+import com.example.cyc_snake.ui.SpriteAtlas;
+import com.example.cyc_snake.utils.AssetPreloader;
+import com.example.cyc_snake.utils.SoundEffects;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -10,6 +13,9 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static com.example.cyc_snake.utils.PlayMusic.playGameBGM;
 
@@ -22,20 +28,35 @@ import static com.example.cyc_snake.utils.PlayMusic.playGameBGM;
  * It includes methods for showing the game, leaderboard, new player, start menu, game information, and settings views.
  * </p>
  *
+ * <p>
+ * Each view is built once, on its first visit: the FXML file is parsed, the controller is connected to the
+ * application and a scene is created. Later visits show the same scene again and only refresh the data the view
+ * shows, so navigating between menus parses nothing and registers no new listeners.
+ * </p>
+ *
  * @author wjscyc
  * @version 1.0
  * @since 21/11/2023
  */
 public class MainApp extends Application {
+    private static final String INITIALIZING_VIEW = "/com/example/cyc_snake/InitializingView.fxml";
+    private static final String START_MENU_VIEW = "/com/example/cyc_snake/StartMenuView.fxml";
+    private static final String NEW_PLAYER_VIEW = "/com/example/cyc_snake/NewPlayer.fxml";
+    private static final String GAME_VIEW = "/com/example/cyc_snake/GameView.fxml";
+    private static final String LEADERBOARD_VIEW = "/com/example/cyc_snake/Leaderboard.fxml";
+    private static final String HISTORY_PLAYER_VIEW = "/com/example/cyc_snake/HistoryPlayerView.fxml";
+    private static final String GAME_INFO_VIEW = "/com/example/cyc_snake/GameInfo.fxml";
+    private static final String OPTION_VIEW = "/com/example/cyc_snake/OptionView.fxml";
+
+    /** The end game view, loaded by the game view controller. */
+    public static final String END_GAME_VIEW = "/com/example/cyc_snake/EndGameView.fxml";
+
+    private final AssetPreloader assets = AssetPreloader.getShared();
+    // Every view built so far, keyed by FXML file; each is built on its first visit and reused afterwards
+    private final Map<String, View<?>> views = new HashMap<>();
     private Stage primaryStage;
     private StateManager stateManager;
-    private GameViewController gameViewController;
-    private HistoryPlayerViewController historyPlayerViewController;
-    private LeaderboardViewController leaderboardController;
-    private EndGameViewController endGameViewController;
-    private Parent gameViewRoot;
-    private Parent historyPlayerViewRoot;
-    private Scene gameScene; // New game scene
+    private View<GameViewController> gameView;
 
     /**
      * Default constructor for the {@code MainApp} class.
@@ -56,44 +77,65 @@ public class MainApp extends Application {
      */
     @Override
     public void start(Stage primaryStage) throws IOException {
+        preloadAssets(); // Decode views, images and sounds while the initializing view is shown
+        DatabaseConnection.replayPendingRecords(); // Send scores an earlier run could not deliver
         this.primaryStage = primaryStage;
         this.stateManager = new StateManager();
         initializing();
     }
 
+    /**
+     * Starts loading every view, the sprite atlas and the sound effects in the background, the initializing view
+     * first since it is shown at once.
+     */
+    private void preloadAssets() {
+        assets.preloadView(INITIALIZING_VIEW);
+        assets.preloadView(START_MENU_VIEW);
+        assets.preloadView(NEW_PLAYER_VIEW);
+        assets.preloadView(GAME_VIEW);
+        assets.preloadView(END_GAME_VIEW);
+        assets.preloadView(LEADERBOARD_VIEW);
+        assets.preloadView(HISTORY_PLAYER_VIEW);
+        assets.preloadView(GAME_INFO_VIEW);
+        assets.preloadView(OPTION_VIEW);
+        assets.preload(SpriteAtlas::getShared);
+        assets.preload(SoundEffects::getShared);
+    }
+
+    /**
+     * Called when the application exits.
+     * Closes the pooled database connections and releases the sound effects.
+     */
+    @Override
+    public void stop() {
+        DatabaseConnection.shutdown();
+        SoundEffects.disposeShared();
+    }
+
     /**
      * Shows the history player information view.
-     * Loads the FXML file, initializes the controller, and sets up the primary stage.
+     * Builds the view on the first visit; later visits reload the player statistics.
      *
      * @throws IOException If an error occurs during loading.
      */
     public void showHistoryPlayer() throws IOException {
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/example/cyc_snake/HistoryPlayerView.fxml"));
-        this.historyPlayerViewRoot = loader.load();
-        this.historyPlayerViewController = loader.getController();
-
-        HistoryPlayerViewAdapter adapter = new HistoryPlayerViewAdapter(historyPlayerViewController, this.stateManager, this);
-        adapter.initializeController();
-
-        primaryStage.setTitle("historyPlayer");
-        primaryStage.setScene(new Scene(historyPlayerViewRoot));
-        primaryStage.centerOnScreen();
-        primaryStage.show();
+        View<HistoryPlayerViewController> view = view(HISTORY_PLAYER_VIEW, null,
+                controller -> new HistoryPlayerViewAdapter(controller, this.stateManager, this).initializeController(),
+                HistoryPlayerViewController::refresh);
+        show(view, "historyPlayer");
     }
 
     /**
      * Initializes the game view controller.
-     * Loads the FXML file, initializes the controller, and sets up the game view root.
+     * Builds the game view on the first call; later games reuse it.
      *
      * @throws IOException If an error occurs during loading.
      */
     public void initializeGameViewController() throws IOException {
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/example/cyc_snake/GameView.fxml"));
-        this.gameViewRoot = loader.load();
-        this.gameViewController = loader.getController();
-        this.gameViewController.setMainApp(this);
-        this.gameViewController.setStateManager(this.stateManager);
-        this.gameScene = new Scene(gameViewRoot); // Create the game scene
+        this.gameView = view(GAME_VIEW, null, controller -> {
+            controller.setMainApp(this);
+            controller.setStateManager(this.stateManager);
+        }, null);
     }
 
     /**
@@ -101,32 +143,22 @@ public class MainApp extends Application {
      * Resets and starts the game, plays the game background music, and sets up the primary stage.
      */
     public void showGameView() {
-        gameViewController.resetGame();
-        gameViewController.startGame();
+        gameView.controller.resetGame();
+        gameView.controller.startGame();
         playGameBGM();
-        primaryStage.setScene(gameScene);
-        primaryStage.centerOnScreen();
-        primaryStage.show();
+        show(gameView, null);
     }
 
     /**
      * Shows the leaderboard view.
-     * Loads the FXML file, initializes the controller, and sets up the primary stage.
+     * Builds the view on the first visit; later visits reload the leaderboard from its first page.
      */
     public void showLeaderBoard() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/example/cyc_snake/Leaderboard.fxml"));
-            Parent root = loader.load();
-
-            LeaderboardViewController controller = loader.getController();
-
-            LeaderboardViewAdapter adapter = new LeaderboardViewAdapter(controller, this.stateManager, this);
-            adapter.initializeController();
-
-            primaryStage.setTitle("SnakeGame Leaderboard");
-            primaryStage.setScene(new Scene(root));
-            primaryStage.centerOnScreen();
-            primaryStage.show();
+            View<LeaderboardViewController> view = view(LEADERBOARD_VIEW, null,
+                    controller -> new LeaderboardViewAdapter(controller, this.stateManager, this).initializeController(),
+                    LeaderboardViewController::refresh);
+            show(view, "SnakeGame Leaderboard");
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -134,23 +166,14 @@ public class MainApp extends Application {
 
     /**
      * Shows the new player view.
-     * Loads the FXML file, initializes the controller, and sets up the primary stage.
+     * Builds the view on the first visit.
      */
     public void showNewPlayer() {
         try {
-            FXMLLoader newPlayerLoader = new FXMLLoader(getClass().getResource("/com/example/cyc_snake/NewPlayer.fxml"));
-            NewPlayerController newPlayerController = new NewPlayerController();
-
-            NewPlayerViewAdapter adapter = new NewPlayerViewAdapter(newPlayerController, this.stateManager, this);
-            adapter.initializeController();
-
-            newPlayerLoader.setController(newPlayerController);
-            Parent newPlayerView = newPlayerLoader.load();
-
-            primaryStage.setTitle("SnakeGame");
-            primaryStage.setScene(new Scene(newPlayerView));
-            primaryStage.centerOnScreen();
-            primaryStage.show();
+            View<NewPlayerController> view = view(NEW_PLAYER_VIEW, new NewPlayerController(),
+                    controller -> new NewPlayerViewAdapter(controller, this.stateManager, this).initializeController(),
+                    null);
+            show(view, "SnakeGame");
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -158,23 +181,16 @@ public class MainApp extends Application {
 
     /**
      * Initializes the initializing view.
-     * Loads the FXML file, initializes the controller, and sets up the primary stage.
+     * Builds the view on the first visit, showing the progress of the assets loading in the background.
      */
     public void initializing() {
         try {
-            FXMLLoader initializeLoader = new FXMLLoader(getClass().getResource("/com/example/cyc_snake/InitializingView.fxml"));
-            InitializingViewController initializingViewController = new InitializingViewController();
-
-            InitializingViewAdapter adapter = new InitializingViewAdapter(initializingViewController, this.stateManager, this);
-            adapter.initializeController();
-
-            initializeLoader.setController(initializingViewController);
-            Parent initializeView = initializeLoader.load();
-
-            primaryStage.setTitle("SnakeGame");
-            primaryStage.setScene(new Scene(initializeView));
-            primaryStage.centerOnScreen();
-            primaryStage.show();
+            View<InitializingViewController> view = view(INITIALIZING_VIEW, new InitializingViewController(),
+                    controller -> {
+                        new InitializingViewAdapter(controller, this.stateManager, this).initializeController();
+                        controller.showLoadingProgress(assets);
+                    }, null);
+            show(view, "SnakeGame");
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -182,21 +198,15 @@ public class MainApp extends Application {
 
     /**
      * Shows the start menu view.
-     * Loads the FXML file, initializes the controller, and sets up the primary stage.
+     * Builds the view on the first visit.
      */
     public void showStartMenu() {
         try {
-            FXMLLoader startMenuLoader = new FXMLLoader(getClass().getResource("/com/example/cyc_snake/StartMenuView.fxml"));
-            StartMenuController startMenuController = new StartMenuController();
-            startMenuController.setStateManager(this.stateManager);
-            startMenuController.setMainApp(this);
-            startMenuLoader.setController(startMenuController);
-            Parent startMenuView = startMenuLoader.load();
-
-            primaryStage.setTitle("SnakeGame");
-            primaryStage.setScene(new Scene(startMenuView));
-            primaryStage.centerOnScreen();
-            primaryStage.show();
+            View<StartMenuController> view = view(START_MENU_VIEW, new StartMenuController(), controller -> {
+                controller.setStateManager(this.stateManager);
+                controller.setMainApp(this);
+            }, null);
+            show(view, "SnakeGame");
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -204,20 +214,13 @@ public class MainApp extends Application {
 
     /**
      * Shows the game information view.
-     * Loads the FXML file, initializes the controller, and sets up the primary stage.
+     * Builds the view on the first visit.
      */
     public void showGameInfo() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/example/cyc_snake/GameInfo.fxml"));
-            Parent gamerulesRoot = loader.load();
-
-            GameinforController gameinforController = loader.getController();
-            gameinforController.setMainApp(this);
-
-            primaryStage.setTitle("SnakeGame Rules");
-            primaryStage.setScene(new Scene(gamerulesRoot));
-            primaryStage.centerOnScreen();
-            primaryStage.show();
+            View<GameinforController> view = view(GAME_INFO_VIEW, null,
+                    controller -> controller.setMainApp(this), null);
+            show(view, "SnakeGame Rules");
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -225,25 +228,89 @@ public class MainApp extends Application {
 
     /**
      * Shows the settings view.
-     * Loads the FXML file, initializes the controller, and sets up the primary stage.
+     * Builds the view on the first visit.
      *
      * @throws IOException If an error occurs during loading.
      */
     public void showSettings() throws IOException {
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/example/cyc_snake/OptionView.fxml"));
-        OptionViewController settingsController = new OptionViewController(this.stateManager);
-        loader.setController(settingsController);
+        View<OptionViewController> view = view(OPTION_VIEW, new OptionViewController(this.stateManager),
+                controller -> new OptionViewAdapter(controller, this.stateManager, this).initializeController(),
+                null);
+        show(view, "SnakeGame");
+    }
 
-        OptionViewAdapter adapter = new OptionViewAdapter(settingsController, this.stateManager, this);
-        adapter.initializeController();
-        Parent settingsRoot = loader.load();
+    /**
+     * Gets a view, building it on the first visit and reusing its scene and controller afterwards.
+     *
+     * @param fxml       The resource path of the FXML file.
+     * @param controller The controller of the view, or {@code null} if the FXML file names its own. Only used on the
+     *                   first visit.
+     * @param wiring     Connects the controller to the application, once, after the view is loaded.
+     * @param refresh    Updates the data shown by the view on later visits, or {@code null} if it shows none.
+     * @param <C>        The type of the controller.
+     * @return The view.
+     * @throws IOException If an error occurs during loading.
+     */
+    @SuppressWarnings("unchecked")
+    private <C> View<C> view(String fxml, C controller, Wiring<C> wiring, Consumer<C> refresh) throws IOException {
+        View<C> view = (View<C>) views.get(fxml);
+        if (view != null) {
+            if (refresh != null) {
+                refresh.accept(view.controller);
+            }
+            return view;
+        }
+        FXMLLoader loader = assets.newLoader(fxml);
+        if (controller != null) {
+            loader.setController(controller);
+        }
+        Parent root = assets.load(loader);
+        C loaded = loader.getController();
+        wiring.wire(loaded);
+        view = new View<>(new Scene(root), loaded);
+        views.put(fxml, view);
+        return view;
+    }
 
-        primaryStage.setTitle("SnakeGame");
-        primaryStage.setScene(new Scene(settingsRoot));
+    /**
+     * Shows a view on the primary stage.
+     *
+     * @param view  The view to show.
+     * @param title The title of the stage, or {@code null} to keep the current one.
+     */
+    private void show(View<?> view, String title) {
+        if (title != null) {
+            primaryStage.setTitle(title);
+        }
+        primaryStage.setScene(view.scene);
         primaryStage.centerOnScreen();
         primaryStage.show();
     }
 
+    /**
+     * Connects the controller of a newly built view to the application.
+     *
+     * @param <C> The type of the controller.
+     */
+    private interface Wiring<C> {
+        void wire(C controller) throws IOException;
+    }
+
+    /**
+     * A view built once: its scene, with the node graph, and its controller.
+     *
+     * @param <C> The type of the controller.
+     */
+    private static final class View<C> {
+        private final Scene scene;
+        private final C controller;
+
+        private View(Scene scene, C controller) {
+            this.scene = scene;
+            this.controller = controller;
+        }
+    }
+
     /**
      * The main method that launches the JavaFX application.
      *
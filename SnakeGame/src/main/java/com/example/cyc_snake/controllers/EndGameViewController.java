@@ -1,8 +1,11 @@
 package com.example.cyc_snake.controllers;
 
 import com.example.cyc_snake.MainApp;
+import com.example.cyc_snake.managers.ListenerRegistry;
 import com.example.cyc_snake.managers.StateManager;
 import com.example.cyc_snake.models.GameModel;
+import com.example.cyc_snake.persistence.GameRecordWriter;
+import com.example.cyc_snake.utils.UiUpdateDispatcher;
 import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -16,6 +19,7 @@ import javafx.scene.layout.CornerRadii;
 import javafx.scene.paint.Color;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 import static com.example.cyc_snake.utils.PlayMusic.clickSound;
 
@@ -38,6 +42,9 @@ public class EndGameViewController {
     @FXML
     Label scoreLabel;
 
+    @FXML
+    Label saveStatusLabel;
+
     @FXML
     private Button restartButton;
 
@@ -48,9 +55,12 @@ public class EndGameViewController {
     private Button backButton;
 
     private StateManager stateManager;
+    private ListenerRegistry.Subscription backgroundColorSubscription;
 
     private GameModel gameModel;
 
+    private CompletableFuture<?> shownSave;
+
     /**
      * Default constructor for the {@code EndGameViewController} class.
      * This constructor is used when an instance of the class is created without parameters.
@@ -85,8 +95,12 @@ public class EndGameViewController {
      * @param stateManager The {@code StateManager} instance.
      */
     public void setStateManager(StateManager stateManager) {
+        if (this.stateManager != null) {
+            backgroundColorSubscription.cancel();
+        }
         this.stateManager = stateManager;
-        stateManager.addBackgroundColorChangeListener(this::updateBackgroundColor);
+        backgroundColorSubscription = stateManager.addBackgroundColorChangeListener(this,
+                EndGameViewController::updateBackgroundColor);
         if (stateManager.getBackgroundColor() != null) {
             updateBackgroundColor(stateManager.getBackgroundColor());
         }
@@ -98,9 +112,8 @@ public class EndGameViewController {
      * @param color The {@code Color} to set as the background.
      */
     private void updateBackgroundColor(Color color) {
-        Platform.runLater(() -> {
-            backGround.setBackground(new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY)));
-        });
+        Background background = new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY));
+        UiUpdateDispatcher.getShared().post(backGround, "background", () -> backGround.setBackground(background));
     }
 
     /**
@@ -132,6 +145,32 @@ public class EndGameViewController {
         scoreLabel.setText("Game Over! Your score: " + gameModel.getScore());
     }
 
+    /**
+     * Shows whether the score of the finished game has been saved, updating the status when saving completes.
+     * Does not wait for the save.
+     *
+     * @param saved The future of the save, as returned by {@code DatabaseConnection.saveGameRecordAsync}.
+     */
+    public void showSaveStatus(CompletableFuture<?> saved) {
+        if (saveStatusLabel == null) {
+            return;
+        }
+        shownSave = saved;
+        saveStatusLabel.setText("Saving score...");
+        saved.whenComplete((ignored, failure) -> Platform.runLater(() -> {
+            // A save from an earlier game must not overwrite the status of the current one
+            if (shownSave == saved) {
+                if (failure == null) {
+                    saveStatusLabel.setText("Score saved");
+                } else if (failure instanceof GameRecordWriter.DeferredException) {
+                    saveStatusLabel.setText("Score saved offline, it will be uploaded later");
+                } else {
+                    saveStatusLabel.setText("Score could not be saved");
+                }
+            }
+        }));
+    }
+
     /**
      * Exit the game
      *
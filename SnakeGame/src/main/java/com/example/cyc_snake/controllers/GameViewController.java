@@ -6,18 +6,19 @@ package com.example.cyc_snake.controllers;
  * @date: 22/11/2023 22:47
  * @Version: V1.0
  */
-import com.example.cyc_snake.managers.TimeObserver;
-import com.example.cyc_snake.states.RunningState;
+import com.example.cyc_snake.utils.AssetPreloader;
 import com.example.cyc_snake.utils.PlayMusic;
+import com.example.cyc_snake.utils.UiUpdateDispatcher;
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
 import com.example.cyc_snake.DatabaseConnection;
 import com.example.cyc_snake.MainApp;
+import com.example.cyc_snake.managers.ListenerRegistry;
 import com.example.cyc_snake.managers.StateManager;
 import com.example.cyc_snake.models.GameModel;
+import com.example.cyc_snake.ui.GameHud;
 import com.example.cyc_snake.ui.GamePanelFX;
 import javafx.animation.AnimationTimer;
-import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
@@ -34,8 +35,7 @@ import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 
 import static com.example.cyc_snake.utils.PlayMusic.*;
@@ -99,8 +99,7 @@ import static com.example.cyc_snake.utils.PlayMusic.*;
  * @author scyyc19
  * @since 2023-11-22
  */
-public class GameViewController implements TimeObserver{
-    private List<TimeObserver> timeObservers = new ArrayList<>();
+public class GameViewController {
 
     /**
      * The JavaFX Label used to display the elapsed time in the Snake Game.
@@ -182,6 +181,12 @@ public class GameViewController implements TimeObserver{
      */
     private StateManager stateManager;
 
+    /**
+     * The color listeners registered with the state manager, which only refers to this controller weakly.
+     */
+    private ListenerRegistry.Subscription backgroundColorSubscription;
+    private ListenerRegistry.Subscription snakeColorSubscription;
+
     /**
      * Reference to the main application class.
      */
@@ -209,9 +214,9 @@ public class GameViewController implements TimeObserver{
     private boolean isSecondBGMPlayed = false;
 
     /**
-     * Timer for controlling game updates and rendering.
+     * Timer for controlling game updates and rendering, created once and restarted after every pause.
      */
-    private AnimationTimer gameLoop;
+    private GameLoop gameLoop;
 
     /**
      * Update interval for the game loop, defining how often the game state is updated.
@@ -224,14 +229,14 @@ public class GameViewController implements TimeObserver{
     private static final long BASE_UPDATE_INTERVAL = 1000000000 / 10;
 
     /**
-     * Time at which the speed effect ends in the game.
+     * Maximum number of game updates run in a single frame to catch up after late frames.
      */
-    private long speedEffectEndTime = 0;
+    private static final int MAX_CATCH_UP_UPDATES = 5;
 
     /**
-     * Timestamp of the last game update.
+     * Sets the time, score and length labels when the values they show change.
      */
-    private long lastUpdate = 0;
+    private GameHud hud;
 
     /**
      * Media player for playing game background music.
@@ -249,38 +254,6 @@ public class GameViewController implements TimeObserver{
         // Note: Avoid including parameters in this constructor as JavaFX initializes controllers using this constructor.
     }
 
-    /**
-     * Adds a {@link TimeObserver} to the list of observers.
-     * <p>
-     * This method registers an observer that will be notified of time updates.
-     * It allows for multiple observers to be added, each of which will receive
-     * time updates when they occur.
-     * </p>
-     *
-     * @param observer The {@link TimeObserver} to be added to the list of observers.
-     *                 It cannot be null.
-     */
-    public void addTimeObserver(TimeObserver observer) {
-        timeObservers.add(observer);
-    }
-
-    /**
-     * Notifies all registered {@link TimeObserver} instances about a time update.
-     * <p>
-     * This method is called to update all registered observers with the current time.
-     * Each observer's {@code onTimeUpdate} method will be invoked with the updated time.
-     * </p>
-     *
-     * @param time The current time to be passed to the observers. This should be a
-     *             long value representing a specific time measure (e.g., milliseconds since
-     *             a certain event or epoch).
-     */
-    private void notifyTimeObservers(long time) {
-        for (TimeObserver observer : timeObservers) {
-            observer.onTimeUpdate(time);
-        }
-    }
-
 
 
     /**
@@ -292,11 +265,11 @@ public class GameViewController implements TimeObserver{
     @FXML
     private void initialize() throws IOException {
         // Ensure that gameModel and gamePanelFX are not null
-        gameModel = GameModel.getInstance(); // 替代 new GameModel()
+        gameModel = new GameModel();
         gamePanelFX.setGameModel(gameModel); // Pass the game model to the game panel
-        addTimeObserver(gameModel);
-        scoreLabel.textProperty().bind(gameModel.scoreProperty().asString("Score: %d"));
-        lengthLabel.textProperty().bind(gameModel.lengthProperty().asString("Length: %d"));
+        // The labels only change when the model publishes a new value
+        hud = new GameHud(timeLabel::setText, scoreLabel::setText, lengthLabel::setText);
+        hud.bind(gameModel.scoreProperty(), gameModel.lengthProperty());
         // Listener for changes in speed multiplier property of the game model
         gameModel.speedMultiplierProperty().addListener((observable, oldValue, newValue) -> {
             // Adjust game update frequency based on the new speed multiplier
@@ -333,7 +306,6 @@ public class GameViewController implements TimeObserver{
         playTime = 0;
         pausedTime = 0;
         gameModel.resetGame();
-        gameModel.changeState(new RunningState());
         gamePanelFX.setGameModel(gameModel);
         gamePanelFX.draw();
 
@@ -347,9 +319,10 @@ public class GameViewController implements TimeObserver{
     private void initializeEndGameView() throws IOException {
         if (!endGameViewInitialized) {
             try {
-                FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/example/cyc_snake/EndGameView.fxml"));
-                Parent endGameRoot = loader.load();
-                EndGameViewController endGameViewController = loader.getController();
+                AssetPreloader assets = AssetPreloader.getShared();
+                FXMLLoader loader = assets.newLoader(MainApp.END_GAME_VIEW);
+                Parent endGameRoot = assets.load(loader);
+                endGameViewController = loader.getController();
                 endGameViewController.setGameModel(gameModel);
                 endGameViewController.setMainApp(this.mainApp);
                 endGameViewController.setStateManager(stateManager);
@@ -361,31 +334,6 @@ public class GameViewController implements TimeObserver{
         }
         endGameViewInitialized = true;
     }
-    /**
-     * Sets the update interval for the game loop.
-     *
-     * @param interval The new update interval in nanoseconds.
-     */
-    // Method used to adjust the frequency of game updates
-    private void setUpdateInterval(long interval) {
-        this.updateInterval = interval;
-        this.speedEffectEndTime = System.nanoTime() + 5_000_000_000L; // Set the end time 5 seconds later
-
-    }
-
-    /**
-     * Checks and resets the speed effect based on the current time.
-     *
-     * @param now The current time in nanoseconds.
-     */
-    // This method is called in the handle method of gameLoop to check if the speed needs to be restored
-    private void checkAndResetSpeed(long now) {
-        if (speedEffectEndTime != 0 && now > speedEffectEndTime) {
-            this.updateInterval = 1000000000 / 10; // Restore the default update frequency
-            this.speedEffectEndTime = 0; // Reset the end time of the speed effect
-        }
-    }
-
     /**
      * Sets the main application instance.
      *
@@ -403,9 +351,15 @@ public class GameViewController implements TimeObserver{
      * @throws IOException If an error occurs during initialization.
      */
     public void setStateManager(StateManager stateManager) throws IOException {
+        if (this.stateManager != null) {
+            backgroundColorSubscription.cancel();
+            snakeColorSubscription.cancel();
+        }
         this.stateManager = stateManager;
-        this.stateManager.addBackgroundColorChangeListener(this::updateBackgroundColor);
-        this.stateManager.addSnakeColorChangeListener(this::updateSnackColor);
+        backgroundColorSubscription = this.stateManager.addBackgroundColorChangeListener(this,
+                GameViewController::updateBackgroundColor);
+        snakeColorSubscription = this.stateManager.addSnakeColorChangeListener(this,
+                GameViewController::updateSnackColor);
         if (stateManager.getBackgroundColor() != null) {
             updateBackgroundColor(stateManager.getBackgroundColor());
             updateSnackColor(stateManager.getSnakeColor());
@@ -413,8 +367,12 @@ public class GameViewController implements TimeObserver{
         initializeEndGameView();
         gameModel.gameOverProperty().addListener((obs, oldVal, newVal) -> {
             if (newVal) {
-                DatabaseConnection.saveGameRecord(stateManager.getPlayerName(), gameModel.getScore(), getPlayTime());
+                CompletableFuture<Integer> saved = DatabaseConnection.saveGameRecordAsync(
+                        stateManager.getPlayerName(), gameModel.getScore(), getPlayTime());
                 showEndGameView();
+                if (endGameViewController != null) {
+                    endGameViewController.showSaveStatus(saved);
+                }
                 // Trigger the sound effect for game over
                 gameOverSound();
                 if (firstBGM != null && firstBGM.getStatus() == MediaPlayer.Status.PLAYING) {
@@ -430,21 +388,17 @@ public class GameViewController implements TimeObserver{
 
 
     private void updateBackgroundColor(Color color) {
-        Platform.runLater(() -> {
-            if (gamePanelFX != null) {
-                gamePanelFX.setBackgroundColor(color);
-            }
-        });
-        Platform.runLater(() -> {
-            gameAnchorPane.setBackground(new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY)));
-        });
+        UiUpdateDispatcher ui = UiUpdateDispatcher.getShared();
+        if (gamePanelFX != null) {
+            ui.post(gamePanelFX, "backgroundColor", () -> gamePanelFX.setBackgroundColor(color));
+        }
+        Background background = new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY));
+        ui.post(gameAnchorPane, "background", () -> gameAnchorPane.setBackground(background));
     }
     private void updateSnackColor(Color color) {
-        Platform.runLater(() -> {
-            if (gamePanelFX != null) {
-                gamePanelFX.setSnakeColor(color);
-            }
-        });
+        if (gamePanelFX != null) {
+            UiUpdateDispatcher.getShared().post(gamePanelFX, "snakeColor", () -> gamePanelFX.setSnakeColor(color));
+        }
     }
 
     /**
@@ -464,37 +418,69 @@ public class GameViewController implements TimeObserver{
         pausedTime = playTime;
     }
     private void startGameLoop() {
-        gameLoop = new AnimationTimer() {
-            private long startTime = -1;
-            private long elapsedSeconds;
-            @Override
-            public void handle(long now) {
-                if (isPaused) {
-                    return; // If the game is paused, do not perform updates and rendering
-                }
-                if (startTime < 0) {
-                    startTime = now - pausedTime * 1_000_000_000;
-                }
+        if (gameLoop == null) {
+            gameLoop = new GameLoop();
+        }
+        gameLoop.start();
+        gamePanelFX.requestFocusForGamePanel();
+    }
 
-                // Update the time display
-                elapsedSeconds = (now - startTime) / 1_000_000_000;
-                timeLabel.setText(String.format("Time: %d", elapsedSeconds));
+    /**
+     * Fixed-timestep game loop.
+     * <p>
+     * Each frame adds the elapsed time to an accumulator and runs one game update for every full
+     * {@code updateInterval} it holds, so late frames are caught up instead of dropping updates. At most
+     * {@link #MAX_CATCH_UP_UPDATES} updates run per frame; time beyond that is discarded so a long stall does not
+     * make the game race ahead. The leftover fraction of an interval is passed to the game panel, which interpolates
+     * the snake between its previous and current positions for smooth motion at any display refresh rate.
+     * </p>
+     */
+    private class GameLoop extends AnimationTimer {
+        private long startTime = -1;
+        private long lastFrame = -1;
+        private long accumulator;
+
+        @Override
+        public void start() {
+            // Time spent paused must neither count as play time nor be caught up
+            startTime = -1;
+            lastFrame = -1;
+            accumulator = 0;
+            hud.resetTime();
+            super.start();
+        }
+
+        @Override
+        public void handle(long now) {
+            if (isPaused) {
+                return; // If the game is paused, do not perform updates and rendering
+            }
+            if (startTime < 0) {
+                startTime = now - pausedTime * 1_000_000_000;
+                lastFrame = now;
+            }
 
-                // Update the total game time
-                playTime = elapsedSeconds;
+            // The time label only changes once per second, not every frame
+            playTime = hud.showElapsed(now - startTime);
 
-                notifyTimeObservers(playTime);
-                // Check if the time interval between now and the last update is greater than the set interval
-                if ((now - lastUpdate) >= updateInterval) {
-                    gameModel.update(); // Update the game model state
-                    gamePanelFX.draw(); // Redraw the view based on the model state
-                    lastUpdate = now; // Update the last update time
+            accumulator += now - lastFrame;
+            lastFrame = now;
+            int updates = 0;
+            while (accumulator >= updateInterval && gameModel.isRunning()) {
+                if (updates == MAX_CATCH_UP_UPDATES) {
+                    accumulator = 0; // Give up on the rest rather than spiral behind
+                    break;
                 }
+                gameModel.update(); // Update the game model state
+                accumulator -= updateInterval;
+                updates++;
             }
-
-        };
-        gameLoop.start();
-        gamePanelFX.requestFocusForGamePanel();
+            if (!gameModel.isRunning()) {
+                accumulator = 0;
+            }
+            // Redraw the view between the previous and the current update
+            gamePanelFX.draw(Math.min(1.0, (double) accumulator / updateInterval));
+        }
     }
 
     /**
@@ -507,16 +493,16 @@ public class GameViewController implements TimeObserver{
     public void handleKeyPressed(KeyEvent event) {
         switch (event.getCode()) {
             case LEFT:
-                if(gameModel.getDirection() != 'R') gameModel.setDirection('L');
+                gameModel.turn('L');
                 break;
             case UP:
-                if(gameModel.getDirection() != 'D') gameModel.setDirection('U');
+                gameModel.turn('U');
                 break;
             case RIGHT:
-                if(gameModel.getDirection() != 'L') gameModel.setDirection('R');
+                gameModel.turn('R');
                 break;
             case DOWN:
-                if(gameModel.getDirection() != 'U') gameModel.setDirection('D');
+                gameModel.turn('D');
                 break;
             case ESCAPE:
                 isPaused = !isPaused;
@@ -562,9 +548,4 @@ public class GameViewController implements TimeObserver{
     public long getPlayTime() {
         return playTime;
     }
-
-    @Override
-    public void onTimeUpdate(long time) {
-        playTime = time;
-    }
 }
@@ -2,13 +2,18 @@ package com.example.cyc_snake.controllers;
 
 import com.example.cyc_snake.DatabaseConnection;
 import com.example.cyc_snake.MainApp;
+import com.example.cyc_snake.managers.ListenerRegistry;
 import com.example.cyc_snake.managers.StateManager;
+import com.example.cyc_snake.models.PlayerStats;
+import com.example.cyc_snake.persistence.StorageException;
+import com.example.cyc_snake.utils.UiUpdateDispatcher;
 import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.Background;
@@ -16,8 +21,7 @@ import javafx.scene.layout.BackgroundFill;
 import javafx.scene.layout.CornerRadii;
 import javafx.scene.paint.Color;
 
-import java.sql.SQLException;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static com.example.cyc_snake.utils.PlayMusic.clickSound;
 
@@ -27,7 +31,8 @@ import static com.example.cyc_snake.utils.PlayMusic.clickSound;
  * <p>
  * The {@code HistoryPlayerViewController} class manages user interactions in the history player view. It allows users
  * to select a player from the list, delete player data, and navigate back to the new player view. The class provides
- * methods for handling these interactions and updating the UI accordingly.
+ * methods for handling these interactions and updating the UI accordingly. Each player is listed with their best
+ * score, number of games and total play time, read from the per-player statistics rather than from every game.
  * </p>
  *
  * @version 1.0
@@ -36,14 +41,16 @@ import static com.example.cyc_snake.utils.PlayMusic.clickSound;
 public class HistoryPlayerViewController {
 
     @FXML
-    private ListView<String> playerList;
+    private ListView<PlayerStats> playerList;
 
     @FXML
     private AnchorPane backGround;
 
     private DatabaseConnection databaseConnection;
     private StateManager stateManager;
+    private ListenerRegistry.Subscription backgroundColorSubscription;
     private MainApp mainApp;
+    private int generation;
 
     /**
      * Default constructor for the HistoryPlayerViewController.
@@ -56,13 +63,46 @@ public class HistoryPlayerViewController {
     }
 
     /**
-     * Initializes the history player view by loading unique player names into the list.
+     * Initializes the history player view by loading every player's statistics into the list, best player first.
      */
     @FXML
     public void initialize() {
         databaseConnection = new DatabaseConnection();
-        List<String> names = databaseConnection.getUniquePlayerNames();
-        playerList.getItems().setAll(names);
+        playerList.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(PlayerStats stats, boolean empty) {
+                super.updateItem(stats, empty);
+                setText(empty || stats == null ? null : describe(stats));
+            }
+        });
+        refresh();
+    }
+
+    /**
+     * Reloads every player's statistics into the list on a background thread, so a view shown again includes the
+     * games played since without waiting for the database on the application thread.
+     */
+    public void refresh() {
+        int requested = ++generation;
+        CompletableFuture.supplyAsync(DatabaseConnection::getPlayerStats)
+                .thenAccept(stats -> Platform.runLater(() -> {
+                    // A later refresh may have finished first
+                    if (requested == generation) {
+                        playerList.getItems().setAll(stats);
+                    }
+                }));
+    }
+
+    /**
+     * Describes a player's statistics for the list.
+     *
+     * @param stats The statistics of the player.
+     * @return The player's name, best score, number of games and total play time.
+     */
+    static String describe(PlayerStats stats) {
+        long seconds = stats.getTotalPlayTime() / 1000;
+        return String.format("%s  -  best %d, %d %s, %d:%02d played", stats.getPlayerName(), stats.getBestScore(),
+                stats.getTotalGames(), stats.getTotalGames() == 1 ? "game" : "games", seconds / 60, seconds % 60);
     }
 
     /**
@@ -71,8 +111,9 @@ public class HistoryPlayerViewController {
     @FXML
     private void handleSelectPlayer() {
         clickSound();
-        String selectedName = playerList.getSelectionModel().getSelectedItem();
-        if (selectedName != null) {
+        PlayerStats selected = playerList.getSelectionModel().getSelectedItem();
+        if (selected != null) {
+            String selectedName = selected.getPlayerName();
             stateManager.setPlayerName(selectedName);
             mainApp.showStartMenu();
         }
@@ -84,16 +125,17 @@ public class HistoryPlayerViewController {
     @FXML
     private void handleDeletePlayer() {
         clickSound();
-        String selectedName = playerList.getSelectionModel().getSelectedItem();
-        if (selectedName != null) {
+        PlayerStats selected = playerList.getSelectionModel().getSelectedItem();
+        if (selected != null) {
+            String selectedName = selected.getPlayerName();
             Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION,
                     "Are you sure you want to delete the data of " + selectedName, ButtonType.YES, ButtonType.NO);
             confirmAlert.showAndWait().ifPresent(response -> {
                 if (response == ButtonType.YES) {
                     try {
                         databaseConnection.deletePlayer(selectedName);
-                        playerList.getItems().remove(selectedName);
-                    } catch (SQLException e) {
+                        playerList.getItems().remove(selected);
+                    } catch (StorageException e) {
                         e.printStackTrace();
                         // Handle the exception, possibly by displaying an error dialog
                     }
@@ -108,8 +150,12 @@ public class HistoryPlayerViewController {
      * @param stateManager The state manager to be set.
      */
     public void setStateManager(StateManager stateManager) {
+        if (this.stateManager != null) {
+            backgroundColorSubscription.cancel();
+        }
         this.stateManager = stateManager;
-        stateManager.addBackgroundColorChangeListener(this::updateBackgroundColor);
+        backgroundColorSubscription = stateManager.addBackgroundColorChangeListener(this,
+                HistoryPlayerViewController::updateBackgroundColor);
         if (stateManager.getBackgroundColor() != null) {
             updateBackgroundColor(stateManager.getBackgroundColor());
         }
@@ -121,9 +167,8 @@ public class HistoryPlayerViewController {
      * @param color The new background color.
      */
     private void updateBackgroundColor(Color color) {
-        Platform.runLater(() -> {
-            backGround.setBackground(new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY)));
-        });
+        Background background = new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY));
+        UiUpdateDispatcher.getShared().post(backGround, "background", () -> backGround.setBackground(background));
     }
 
     /**
@@ -1,10 +1,13 @@
 package com.example.cyc_snake.controllers;
 
 import com.example.cyc_snake.MainApp;
+import com.example.cyc_snake.managers.ListenerRegistry;
 import com.example.cyc_snake.managers.StateManager;
-import javafx.application.Platform;
+import com.example.cyc_snake.utils.AssetPreloader;
+import com.example.cyc_snake.utils.UiUpdateDispatcher;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.Background;
@@ -31,6 +34,7 @@ public class InitializingViewController {
     private MainApp mainApp;
 
     private StateManager stateManager;
+    private ListenerRegistry.Subscription backgroundColorSubscription;
 
     @FXML
     private TextField nameInput;
@@ -42,6 +46,9 @@ public class InitializingViewController {
     @FXML
     private AnchorPane setBackground;
 
+    @FXML
+    private ProgressBar loadingProgress;
+
     /**
      * Default constructor for the InitializingViewController.
      * This constructor is automatically called by JavaFX during the controller initialization.
@@ -58,8 +65,12 @@ public class InitializingViewController {
      * @param stateManager The state manager to be set.
      */
     public void setStateManager(StateManager stateManager) {
+        if (this.stateManager != null) {
+            backgroundColorSubscription.cancel();
+        }
         this.stateManager = stateManager;
-        stateManager.addBackgroundColorChangeListener(this::updateBackgroundColor);
+        backgroundColorSubscription = stateManager.addBackgroundColorChangeListener(this,
+                InitializingViewController::updateBackgroundColor);
         if (stateManager.getBackgroundColor() != null) {
             updateBackgroundColor(stateManager.getBackgroundColor());
         }
@@ -72,9 +83,23 @@ public class InitializingViewController {
      * @param color The new background color.
      */
     private void updateBackgroundColor(Color color) {
-        Platform.runLater(() -> {
-            setBackground.setBackground(new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY)));
-        });
+        Background background = new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY));
+        UiUpdateDispatcher.getShared().post(setBackground, "background", () -> setBackground.setBackground(background));
+    }
+
+    /**
+     * Shows the progress of the assets loading in the background, and hides it once they are loaded.
+     *
+     * @param assets The preloader loading the assets.
+     */
+    public void showLoadingProgress(AssetPreloader assets) {
+        assets.addProgressListener(progress -> UiUpdateDispatcher.getShared().post(loadingProgress, "progress", () -> {
+            // Listeners run on the loading threads, so the update posted last may carry an older value than the
+            // latest; reading the progress when the update is applied never shows it going back
+            double current = assets.getProgress();
+            loadingProgress.setProgress(current);
+            loadingProgress.setVisible(current < 1);
+        }));
     }
 
     /**
@@ -2,6 +2,7 @@ package com.example.cyc_snake.controllers;
 
 import com.example.cyc_snake.DatabaseConnection;
 import com.example.cyc_snake.MainApp;
+import com.example.cyc_snake.managers.ListenerRegistry;
 import com.example.cyc_snake.managers.StateManager;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
@@ -9,17 +10,27 @@ import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
+import javafx.concurrent.Task;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableRow;
 import com.example.cyc_snake.models.Player;
+import com.example.cyc_snake.persistence.LeaderboardOrder;
+import com.example.cyc_snake.persistence.StorageException;
+import com.example.cyc_snake.utils.UiUpdateDispatcher;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
 import javafx.scene.layout.CornerRadii;
 import javafx.scene.paint.Color;
 
-import java.util.Comparator;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static com.example.cyc_snake.utils.PlayMusic.clickSound;
 
@@ -33,6 +44,13 @@ import static com.example.cyc_snake.utils.PlayMusic.clickSound;
  * to the main menu.
  * </p>
  *
+ * <p>
+ * The leaderboard is loaded a page at a time on a background thread, in the order chosen with the sort buttons.
+ * The next page is requested when a row near the end of the loaded rows is shown, so only the rows the user
+ * scrolls to are ever read from the database. Downloading the data streams it to a CSV file on a background task,
+ * whose progress is shown below the buttons.
+ * </p>
+ *
  * @author [Author Name]
  * @version 1.0
  * @since [Date]
@@ -43,6 +61,7 @@ public class LeaderboardViewController {
 
     // Reference to the StateManager for handling background color changes
     private StateManager stateManager;
+    private ListenerRegistry.Subscription backgroundColorSubscription;
 
     // FXML-injected UI elements
     @FXML private TableView<Player> leaderboardTable;
@@ -51,6 +70,22 @@ public class LeaderboardViewController {
     @FXML private TableColumn<Player, Long> timeColumn;
     @FXML private AnchorPane setBackground;
     @FXML private Button BacktoMain;
+    @FXML private Button DownLoad;
+    @FXML private ProgressBar exportProgress;
+    @FXML private Label exportStatusLabel;
+
+    // The export file, written to the working directory
+    private static final Path EXPORT_FILE = Paths.get("playerRankings.csv");
+    private Task<Long> exportTask;
+
+    // Paging state; only touched on the JavaFX Application Thread
+    private static final int PAGE_SIZE = 50;
+    private static final int PREFETCH_ROWS = 10;
+    private final ObservableList<Player> players = FXCollections.observableArrayList();
+    private LeaderboardOrder order = LeaderboardOrder.BY_SCORE;
+    private boolean hasMore = true;
+    private boolean loading;
+    private int generation;
 
     /**
      * Default constructor for the {@code LeaderboardViewController} class.
@@ -65,10 +100,21 @@ public class LeaderboardViewController {
      * Initializes the controller. This method is called automatically after the FXML file has been loaded.
      */
     public void initialize() {
-        // Populate the leaderboard table with player data
-        ObservableList<Player> players = getPlayerData();
+        // Rows are ordered by the database; sorting a partly loaded table on the client would be wrong
+        playerNameColumn.setSortable(false);
+        scoreColumn.setSortable(false);
+        timeColumn.setSortable(false);
         leaderboardTable.setItems(players);
-        leaderboardTable.refresh(); // Immediately refresh TableView
+        leaderboardTable.setRowFactory(table -> new TableRow<>() {
+            @Override
+            public void updateIndex(int index) {
+                super.updateIndex(index);
+                if (index >= 0 && index >= players.size() - PREFETCH_ROWS) {
+                    loadNextPage();
+                }
+            }
+        });
+        loadNextPage();
     }
 
     /**
@@ -77,8 +123,12 @@ public class LeaderboardViewController {
      * @param stateManager The StateManager to set.
      */
     public void setStateManager(StateManager stateManager) {
+        if (this.stateManager != null) {
+            backgroundColorSubscription.cancel();
+        }
         this.stateManager = stateManager;
-        stateManager.addBackgroundColorChangeListener(this::updateBackgroundColor);
+        backgroundColorSubscription = stateManager.addBackgroundColorChangeListener(this,
+                LeaderboardViewController::updateBackgroundColor);
         if (stateManager.getBackgroundColor() != null) {
             updateBackgroundColor(stateManager.getBackgroundColor());
         }
@@ -90,9 +140,8 @@ public class LeaderboardViewController {
      * @param color The new background color.
      */
     private void updateBackgroundColor(Color color) {
-        Platform.runLater(() -> {
-            setBackground.setBackground(new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY)));
-        });
+        Background background = new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY));
+        UiUpdateDispatcher.getShared().post(setBackground, "background", () -> setBackground.setBackground(background));
     }
 
     /**
@@ -101,9 +150,7 @@ public class LeaderboardViewController {
     @FXML
     private void sortByScore() {
         clickSound();
-        ObservableList<Player> sortedList = FXCollections.observableArrayList(leaderboardTable.getItems());
-        sortedList.sort(Comparator.comparing(Player::getScore).reversed());
-        leaderboardTable.setItems(sortedList);
+        reload(LeaderboardOrder.BY_SCORE);
     }
 
     /**
@@ -112,18 +159,63 @@ public class LeaderboardViewController {
     @FXML
     private void sortByTime() {
         clickSound();
-        ObservableList<Player> sortedList = FXCollections.observableArrayList(leaderboardTable.getItems());
-        sortedList.sort(Comparator.comparing(Player::getGameTime).reversed());
-        leaderboardTable.setItems(sortedList);
+        reload(LeaderboardOrder.BY_TIME);
     }
 
     /**
-     * Gets player data for the leaderboard from the database.
+     * Starts the leaderboard again from its first page in the current order, so a view shown again includes the
+     * games played since.
+     */
+    public void refresh() {
+        reload(order);
+    }
+
+    /**
+     * Starts the leaderboard again from its first page in a new order.
      *
-     * @return ObservableList of Player objects.
+     * @param newOrder The order to show the leaderboard in.
      */
-    private ObservableList<Player> getPlayerData() {
-        return FXCollections.observableArrayList(DatabaseConnection.getPlayerRankings());
+    private void reload(LeaderboardOrder newOrder) {
+        order = newOrder;
+        generation++; // Pages still loading for the old order are dropped
+        players.clear();
+        hasMore = true;
+        loading = false;
+        leaderboardTable.scrollTo(0);
+        loadNextPage();
+    }
+
+    /**
+     * Loads the next page of the leaderboard on a background thread and appends it, unless a page is already
+     * loading or the last page has been loaded.
+     */
+    private void loadNextPage() {
+        if (loading || !hasMore) {
+            return;
+        }
+        loading = true;
+        int requested = generation;
+        LeaderboardOrder requestedOrder = order;
+        Player after = players.isEmpty() ? null : players.get(players.size() - 1);
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return DatabaseConnection.getLeaderboardPage(requestedOrder, after, PAGE_SIZE);
+            } catch (StorageException e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((page, failure) -> Platform.runLater(() -> {
+            if (requested != generation) {
+                return;
+            }
+            loading = false;
+            if (failure != null) {
+                failure.printStackTrace();
+                hasMore = false;
+                return;
+            }
+            hasMore = page.hasMore();
+            players.addAll(page.getPlayers());
+        }));
     }
 
     /**
@@ -152,6 +244,50 @@ public class LeaderboardViewController {
      */
     public void downloadTheData(ActionEvent actionEvent) {
         clickSound();
-        DatabaseConnection.exportDataToCSV("playerRankings.csv");
+        if (exportTask != null && exportTask.isRunning()) {
+            return;
+        }
+        exportTask = new Task<>() {
+            @Override
+            protected Long call() throws Exception {
+                updateMessage("Exporting...");
+                return DatabaseConnection.exportLeaderboard(EXPORT_FILE, false, (rows, total) -> {
+                    updateProgress(rows, total);
+                    updateMessage("Exported " + rows + " of " + total + " rows");
+                });
+            }
+        };
+        exportTask.setOnSucceeded(event ->
+                showExportStatus("Exported " + exportTask.getValue() + " rows to " + EXPORT_FILE.toAbsolutePath()));
+        exportTask.setOnFailed(event -> {
+            exportTask.getException().printStackTrace();
+            showExportStatus("Export failed: " + exportTask.getException().getMessage());
+        });
+        if (exportProgress != null && exportStatusLabel != null) {
+            exportProgress.progressProperty().bind(exportTask.progressProperty());
+            exportStatusLabel.textProperty().bind(exportTask.messageProperty());
+            exportProgress.setVisible(true);
+        }
+        if (DownLoad != null) {
+            DownLoad.disableProperty().bind(exportTask.runningProperty());
+        }
+        Thread thread = new Thread(exportTask, "leaderboard-export");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Shows how an export ended.
+     *
+     * @param message The message to show.
+     */
+    private void showExportStatus(String message) {
+        if (exportProgress == null || exportStatusLabel == null) {
+            return;
+        }
+        exportProgress.progressProperty().unbind();
+        exportProgress.setVisible(false);
+        exportStatusLabel.textProperty().unbind();
+        exportStatusLabel.setText(message);
     }
 }
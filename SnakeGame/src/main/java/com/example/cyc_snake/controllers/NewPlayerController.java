@@ -1,7 +1,9 @@
 package com.example.cyc_snake.controllers;
 
 import com.example.cyc_snake.MainApp;
+import com.example.cyc_snake.managers.ListenerRegistry;
 import com.example.cyc_snake.managers.StateManager;
+import com.example.cyc_snake.utils.UiUpdateDispatcher;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
@@ -32,6 +34,7 @@ import static com.example.cyc_snake.utils.PlayMusic.clickSound;
 public class NewPlayerController {
     private MainApp mainApp;
     private StateManager stateManager;
+    private ListenerRegistry.Subscription backgroundColorSubscription;
 
     @FXML
     private TextField nameInput;
@@ -55,8 +58,12 @@ public class NewPlayerController {
      * @param stateManager The state manager to be set.
      */
     public void setStateManager(StateManager stateManager) {
+        if (this.stateManager != null) {
+            backgroundColorSubscription.cancel();
+        }
         this.stateManager = stateManager;
-        stateManager.addBackgroundColorChangeListener(this::updateBackgroundColor);
+        backgroundColorSubscription = stateManager.addBackgroundColorChangeListener(this,
+                NewPlayerController::updateBackgroundColor);
         if (stateManager.getBackgroundColor() != null) {
             updateBackgroundColor(stateManager.getBackgroundColor());
         }
@@ -68,9 +75,8 @@ public class NewPlayerController {
      * @param color The new background color.
      */
     private void updateBackgroundColor(Color color) {
-        Platform.runLater(() -> {
-            setBackground.setBackground(new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY)));
-        });
+        Background background = new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY));
+        UiUpdateDispatcher.getShared().post(setBackground, "background", () -> setBackground.setBackground(background));
     }
 
     /**
@@ -1,9 +1,10 @@
 package com.example.cyc_snake.controllers;
 
 import com.example.cyc_snake.MainApp;
+import com.example.cyc_snake.managers.ListenerRegistry;
 import com.example.cyc_snake.managers.StateManager;
 import com.example.cyc_snake.utils.PlayMusic;
-import javafx.application.Platform;
+import com.example.cyc_snake.utils.UiUpdateDispatcher;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
@@ -47,6 +48,7 @@ public class OptionViewController {
     @FXML private AnchorPane backgroundPane;
     @FXML private Slider bgmVolumeSlider; // Background music volume control slider
     private StateManager stateManager;
+    private ListenerRegistry.Subscription backgroundColorSubscription;
 
     /**
      * Default constructor for the OptionViewController.
@@ -82,8 +84,12 @@ public class OptionViewController {
      * @param stateManager The state manager to be set.
      */
     public void setStateManager(StateManager stateManager) {
+        if (this.stateManager != null) {
+            backgroundColorSubscription.cancel();
+        }
         this.stateManager = stateManager;
-        stateManager.addBackgroundColorChangeListener(this::updateBackgroundColor);
+        backgroundColorSubscription = stateManager.addBackgroundColorChangeListener(this,
+                OptionViewController::updateBackgroundColor);
 
         if (stateManager.getBackgroundColor() != null) {
             updateBackgroundColor(stateManager.getBackgroundColor());
@@ -96,9 +102,8 @@ public class OptionViewController {
      * @param color The new background color.
      */
     private void updateBackgroundColor(Color color) {
-        Platform.runLater(() -> {
-            backgroundPane.setBackground(new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY)));
-        });
+        Background background = new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY));
+        UiUpdateDispatcher.getShared().post(backgroundPane, "background", () -> backgroundPane.setBackground(background));
     }
 
     /**
@@ -2,8 +2,9 @@ package com.example.cyc_snake.controllers;
 
 import javafx.scene.media.MediaPlayer;
 import com.example.cyc_snake.MainApp;
+import com.example.cyc_snake.managers.ListenerRegistry;
 import com.example.cyc_snake.managers.StateManager;
-import javafx.application.Platform;
+import com.example.cyc_snake.utils.UiUpdateDispatcher;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.scene.control.Button;
@@ -35,6 +36,7 @@ public class StartMenuController {
 
     private MainApp mainApp;
     private StateManager stateManager;
+    private ListenerRegistry.Subscription backgroundColorSubscription;
 
     @FXML
     private ImageView imageView;
@@ -69,8 +71,12 @@ public class StartMenuController {
      * @param stateManager The state manager to be set.
      */
     public void setStateManager(StateManager stateManager) {
+        if (this.stateManager != null) {
+            backgroundColorSubscription.cancel();
+        }
         this.stateManager = stateManager;
-        stateManager.addBackgroundColorChangeListener(this::updateBackgroundColor);
+        backgroundColorSubscription = stateManager.addBackgroundColorChangeListener(this,
+                StartMenuController::updateBackgroundColor);
         if (stateManager.getBackgroundColor() != null) {
             updateBackgroundColor(stateManager.getBackgroundColor());
         }
@@ -82,9 +88,8 @@ public class StartMenuController {
      * @param color The new background color.
      */
     private void updateBackgroundColor(Color color) {
-        Platform.runLater(() -> {
-            backgroundPane.setBackground(new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY)));
-        });
+        Background background = new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY));
+        UiUpdateDispatcher.getShared().post(backgroundPane, "background", () -> backgroundPane.setBackground(background));
     }
 
     /**
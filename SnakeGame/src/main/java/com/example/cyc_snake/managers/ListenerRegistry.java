@@ -0,0 +1,180 @@
+package com.example.cyc_snake.managers;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the listeners for one kind of change and notifies them of each new value.
+ *
+ * <p>
+ * Every registration returns a {@link Subscription} that removes it again. A listener added with
+ * {@link #add(Object, BiConsumer)} belongs to an owner, usually a view controller, which the registry only refers to
+ * weakly: once nothing else refers to the owner, for example because its view was discarded, the owner can be
+ * garbage collected along with its node graph, and the registration is pruned the next time the registry is
+ * notified or added to. The handler of such a listener must not refer to the owner itself; it is passed the owner
+ * on each notification instead, as in {@code stateManager.addBackgroundColorChangeListener(this,
+ * StartMenuController::updateBackgroundColor)}.
+ * </p>
+ *
+ * <p>
+ * Listeners may add or cancel registrations while they are being notified: a listener added then is notified from
+ * the next value on, and a cancelled one is not notified again.
+ * </p>
+ *
+ * @param <T> The type of the values listeners are notified of.
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-14
+ */
+public class ListenerRegistry<T> {
+    private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+
+    /**
+     * Adds a listener that stays registered until its subscription is cancelled.
+     *
+     * @param listener The listener to add.
+     * @return The subscription that removes the listener.
+     */
+    public Subscription add(Consumer<? super T> listener) {
+        Objects.requireNonNull(listener, "listener");
+        return register(new Registration() {
+            @Override
+            boolean deliver(T value) {
+                listener.accept(value);
+                return true;
+            }
+
+            @Override
+            boolean isFor(Object other) {
+                return listener.equals(other);
+            }
+        });
+    }
+
+    /**
+     * Adds a listener that stays registered until its subscription is cancelled or its owner is garbage collected.
+     *
+     * @param owner   The owner of the listener, only referred to weakly.
+     * @param handler Called with the owner and the new value. It must not refer to the owner, or the owner is never
+     *                collected.
+     * @param <O>     The type of the owner.
+     * @return The subscription that removes the listener.
+     */
+    public <O> Subscription add(O owner, BiConsumer<? super O, ? super T> handler) {
+        Objects.requireNonNull(handler, "handler");
+        WeakReference<O> reference = new WeakReference<>(Objects.requireNonNull(owner, "owner"));
+        return register(new Registration() {
+            @Override
+            boolean deliver(T value) {
+                O current = reference.get();
+                if (current == null) {
+                    return false;
+                }
+                handler.accept(current, value);
+                return true;
+            }
+
+            @Override
+            boolean isCleared() {
+                return reference.get() == null;
+            }
+        });
+    }
+
+    /**
+     * Removes a listener added with {@link #add(Consumer)}.
+     *
+     * @param listener The listener to remove.
+     * @return {@code true} if the listener was registered.
+     */
+    public boolean remove(Consumer<? super T> listener) {
+        for (Registration registration : registrations) {
+            if (registration.isFor(listener)) {
+                registration.cancel();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Notifies every listener of a new value, in the order they were added, and prunes the listeners whose owner
+     * has been collected.
+     *
+     * @param value The new value.
+     */
+    public void notifyListeners(T value) {
+        boolean cleared = false;
+        for (Registration registration : registrations) {
+            if (!registration.cancelled && !registration.deliver(value)) {
+                cleared = true;
+            }
+        }
+        if (cleared) {
+            prune();
+        }
+    }
+
+    /**
+     * Gets the number of registered listeners, not counting those whose owner has been collected.
+     *
+     * @return The number of listeners.
+     */
+    public int size() {
+        prune();
+        return registrations.size();
+    }
+
+    private Subscription register(Registration registration) {
+        prune();
+        registrations.add(registration);
+        return registration;
+    }
+
+    private void prune() {
+        registrations.removeIf(Registration::isCleared);
+    }
+
+    /**
+     * A registration made with a {@code ListenerRegistry}.
+     */
+    public interface Subscription {
+        /**
+         * Removes the listener from the registry. Cancelling it again has no effect.
+         */
+        void cancel();
+    }
+
+    /**
+     * A listener as registered, with the way it is notified.
+     */
+    private abstract class Registration implements Subscription {
+        private volatile boolean cancelled;
+
+        /**
+         * Notifies the listener.
+         *
+         * @param value The new value.
+         * @return {@code false} if the owner of the listener has been collected.
+         */
+        abstract boolean deliver(T value);
+
+        boolean isCleared() {
+            return false;
+        }
+
+        boolean isFor(Object listener) {
+            return false;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            registrations.remove(this);
+        }
+    }
+}
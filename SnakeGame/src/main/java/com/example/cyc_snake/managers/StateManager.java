@@ -3,15 +3,19 @@ package com.example.cyc_snake.managers;
 import com.example.cyc_snake.utils.PlayMusic;
 import javafx.scene.paint.Color;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
  * Manages the state of the Snake Game, including background color, snake color, and player information.
  *
+ * <p>
+ * Color change listeners are kept in a {@link ListenerRegistry}. Views register theirs with an owner, the controller,
+ * which the state manager only refers to weakly, so a discarded view is not kept alive by its listeners.
+ * </p>
+ *
  * @version 1.0
  * @since 2023-11-21
  */
@@ -31,8 +35,8 @@ public class StateManager {
     private Color backgroundColor;
     private Color snakeColor;
     private final Map<Color, Color> snakeColorMap;
-    private List<Consumer<Color>> backgroundColorChangeListeners = new ArrayList<>();
-    private List<Consumer<Color>> snakeColorChangeListeners = new ArrayList<>();
+    private final ListenerRegistry<Color> backgroundColorChangeListeners = new ListenerRegistry<>();
+    private final ListenerRegistry<Color> snakeColorChangeListeners = new ListenerRegistry<>();
 
     /**
      * Constructs a new instance of the {@code StateManager} class.
@@ -80,9 +84,31 @@ public class StateManager {
      * Adds a listener for snake color changes.
      *
      * @param listener The listener to add.
+     * @return The subscription that removes the listener.
+     */
+    public ListenerRegistry.Subscription addSnakeColorChangeListener(Consumer<Color> listener) {
+        return snakeColorChangeListeners.add(listener);
+    }
+
+    /**
+     * Adds a listener for snake color changes that is dropped once its owner is garbage collected.
+     *
+     * @param owner   The owner of the listener, only referred to weakly.
+     * @param handler Called with the owner and the new snake color. It must not refer to the owner.
+     * @param <O>     The type of the owner.
+     * @return The subscription that removes the listener.
+     */
+    public <O> ListenerRegistry.Subscription addSnakeColorChangeListener(O owner, BiConsumer<? super O, Color> handler) {
+        return snakeColorChangeListeners.add(owner, handler);
+    }
+
+    /**
+     * Removes a snake color change listener added earlier.
+     *
+     * @param listener The listener to remove.
      */
-    public void addSnakeColorChangeListener(Consumer<Color> listener) {
-        snakeColorChangeListeners.add(listener);
+    public void removeSnakeColorChangeListener(Consumer<Color> listener) {
+        snakeColorChangeListeners.remove(listener);
     }
 
     /**
@@ -90,9 +116,7 @@ public class StateManager {
      */
     private void notifySnakeColorChangeListeners() {
         Color newSnakeColor = getSnakeColor(); // Get the new snake color based on the background color
-        for (Consumer<Color> listener : snakeColorChangeListeners) {
-            listener.accept(newSnakeColor);
-        }
+        snakeColorChangeListeners.notifyListeners(newSnakeColor);
     }
 
     /**
@@ -117,21 +141,60 @@ public class StateManager {
      * Adds a background color change listener.
      *
      * @param listener The listener to add.
+     * @return The subscription that removes the listener.
+     */
+    public ListenerRegistry.Subscription addBackgroundColorChangeListener(Consumer<Color> listener) {
+        return backgroundColorChangeListeners.add(listener);
+    }
+
+    /**
+     * Adds a background color change listener that is dropped once its owner is garbage collected.
+     *
+     * @param owner   The owner of the listener, only referred to weakly.
+     * @param handler Called with the owner and the new background color. It must not refer to the owner.
+     * @param <O>     The type of the owner.
+     * @return The subscription that removes the listener.
      */
-    public void addBackgroundColorChangeListener(Consumer<Color> listener) {
-        backgroundColorChangeListeners.add(listener);
+    public <O> ListenerRegistry.Subscription addBackgroundColorChangeListener(O owner,
+                                                                              BiConsumer<? super O, Color> handler) {
+        return backgroundColorChangeListeners.add(owner, handler);
     }
 
 
+    /**
+     * Removes a background color change listener added earlier.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeBackgroundColorChangeListener(Consumer<Color> listener) {
+        backgroundColorChangeListeners.remove(listener);
+    }
+
     /**
      * Notifies all listeners that the background color has changed.
      *
      * @param color The new background color.
      */
     private void notifyListeners(Color color) {
-        for (Consumer<Color> listener : backgroundColorChangeListeners) {
-            listener.accept(color);
-        }
+        backgroundColorChangeListeners.notifyListeners(color);
+    }
+
+    /**
+     * Gets the number of background color change listeners, not counting those whose owner has been collected.
+     *
+     * @return The number of listeners.
+     */
+    public int getBackgroundColorChangeListenerCount() {
+        return backgroundColorChangeListeners.size();
+    }
+
+    /**
+     * Gets the number of snake color change listeners, not counting those whose owner has been collected.
+     *
+     * @return The number of listeners.
+     */
+    public int getSnakeColorChangeListenerCount() {
+        return snakeColorChangeListeners.size();
     }
 
     /**
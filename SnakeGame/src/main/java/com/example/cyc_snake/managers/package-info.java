@@ -14,8 +14,9 @@
  *   <li>{@code StateManager}: Responsible for managing the game state, including player information,
  *       background color, and other dynamic aspects of the game. It facilitates communication
  *       between different components of the application.</li>
- *   <li>{@code TimeObserver}: An interface for observing time updates within the game. It allows for
- *       implementing custom actions that respond to time changes.</li>
+ *   <li>{@code ListenerRegistry}: Keeps the listeners for one kind of change, such as the background color.
+ *       Registrations return a subscription that removes them, and listeners owned by a view are only referred to
+ *       weakly, so discarded views can be garbage collected.</li>
  *   <li>(Other manager classes): Additional manager classes may be included to handle specific
  *       functionalities such as player data, scoring, or any other managerial tasks.</li>
  * </ul>
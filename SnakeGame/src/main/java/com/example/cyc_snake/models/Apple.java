@@ -15,11 +15,11 @@ package com.example.cyc_snake.models;
 public interface Apple {
 
     /**
-     * Applies the effect of the apple to the specified {@link GameModel} instance.
+     * Applies the effect of the apple to the specified {@link SnakeSimulation} instance.
      *
-     * @param gameModel The game model on which to apply the effect.
+     * @param simulation The simulation on which to apply the effect.
      */
-    void applyEffect(GameModel gameModel);
+    void applyEffect(SnakeSimulation simulation);
 
     /**
      * Gets the x-coordinate of the apple on the game board.
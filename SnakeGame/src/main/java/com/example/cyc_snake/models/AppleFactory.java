@@ -28,7 +28,7 @@ public class AppleFactory {
      * @return An instance of {@link Apple} with the specified type and coordinates.
      * @throws IllegalArgumentException If the specified apple type is unknown.
      */
-    public static Apple createApple(GameModel.AppleType type, int x, int y) {
+    public static Apple createApple(SnakeSimulation.AppleType type, int x, int y) {
         switch (type) {
             case BLUE:
                 return new SpeedUpApple(x, y);
@@ -0,0 +1,116 @@
+package com.example.cyc_snake.models;
+
+import java.util.Arrays;
+
+/**
+ * Maintains the set of free board cells as an indexed swap-remove array.
+ *
+ * <p>
+ * The {@code FreeCellIndex} class stores free cell ids densely in the first {@link #size()} entries of an array and
+ * keeps, for every cell id, its position in that array. Adding, removing and testing a cell are constant-time, and
+ * picking a uniformly random free cell is a single array read, however full the board is.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2023-12-22
+ */
+public class FreeCellIndex {
+    private final int[] cells;
+    private final int[] positions;
+    private int size;
+
+    /**
+     * Constructs an empty index for a board with the given number of cells.
+     *
+     * @param cellCount The total number of cells on the board.
+     */
+    public FreeCellIndex(int cellCount) {
+        cells = new int[cellCount];
+        positions = new int[cellCount];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Removes every cell from the index.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[cells[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Marks a cell as free.
+     *
+     * @param cell The cell id, or {@code -1} for an off-board cell, which is ignored.
+     * @return {@code true} if the cell was added, {@code false} if it was already free or off the board.
+     */
+    public boolean add(int cell) {
+        if (cell < 0 || positions[cell] >= 0) {
+            return false;
+        }
+        cells[size] = cell;
+        positions[cell] = size;
+        size++;
+        return true;
+    }
+
+    /**
+     * Marks a cell as no longer free by moving the last free cell into its slot.
+     *
+     * @param cell The cell id, or {@code -1} for an off-board cell, which is ignored.
+     * @return {@code true} if the cell was removed, {@code false} if it was not free.
+     */
+    public boolean remove(int cell) {
+        if (cell < 0 || positions[cell] < 0) {
+            return false;
+        }
+        int index = positions[cell];
+        int last = cells[--size];
+        cells[index] = last;
+        positions[last] = index;
+        positions[cell] = -1;
+        return true;
+    }
+
+    /**
+     * Checks whether a cell is free.
+     *
+     * @param cell The cell id.
+     * @return {@code true} if the cell is free.
+     */
+    public boolean contains(int cell) {
+        return cell >= 0 && positions[cell] >= 0;
+    }
+
+    /**
+     * Gets the position of a free cell in the index.
+     *
+     * @param cell The cell id.
+     * @return The position of the cell, or {@code -1} if it is not free.
+     */
+    public int indexOf(int cell) {
+        return cell < 0 ? -1 : positions[cell];
+    }
+
+    /**
+     * Gets the free cell stored at a position of the index.
+     *
+     * @param index A position between {@code 0} and {@code size() - 1}.
+     * @return The cell id at that position.
+     */
+    public int get(int index) {
+        return cells[index];
+    }
+
+    /**
+     * Gets the number of free cells.
+     *
+     * @return The number of free cells.
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -1,32 +1,34 @@
 package com.example.cyc_snake.models;
-import com.example.cyc_snake.managers.TimeObserver;
 import com.example.cyc_snake.states.GameOverState;
 import com.example.cyc_snake.states.GameState;
 import com.example.cyc_snake.states.RunningState;
 import javafx.beans.property.*;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Represents the game model for the Snake Game application.
  *
  * <p>
- * The {@code GameModel} class manages the state, logic, and properties of the Snake Game. It includes
- * functionality for handling player input, updating the game state, managing the snake, apples, and
- * special apples, checking collisions, and more.
+ * The {@code GameModel} class connects the headless {@link SnakeSimulation} to the JavaFX user interface. The
+ * simulation owns the game state and rules; this class drives it through the current {@link GameState}, and after
+ * every operation publishes the score, length, speed, game over, special apple and shrink warning values to JavaFX
+ * properties, setting a property only when its value actually changed.
+ * </p>
+ *
+ * <p>
+ * Every instance owns its simulation, states, apples and board size and shares no mutable state with any other, so
+ * several games can run side by side in one JVM, each driven from a single thread at a time.
  * </p>
  *
  * @author wjscyc
  * @version 1.0
  * @since 2023-11-21
  */
-public class GameModel implements TimeObserver {
-    private static GameModel instance;
+public class GameModel {
     private GameState currentState;
-    private GameState runningState = new RunningState();
-    private GameState gameOverState = new GameOverState();
-
-    private static final int MAX_SPEED = 15;
+    private final GameState runningState = new RunningState();
+    private final GameState gameOverState = new GameOverState();
 
     /**
      * Represents the initial speed of the snake in the Snake Game.
@@ -35,8 +37,7 @@ public class GameModel implements TimeObserver {
      * This value determines the movement speed of the snake in the absence of any speed adjustments.
      * </p>
      */
-    public static final double INITIAL_SPEED = 0.75;
-    private static final double MIN_SPEED = 0.25;
+    public static final double INITIAL_SPEED = SnakeSimulation.INITIAL_SPEED;
 
     /**
      * Represents the indication of border shrinking in the Snake.
@@ -51,93 +52,26 @@ public class GameModel implements TimeObserver {
     private SimpleBooleanProperty aboutToShrink = new SimpleBooleanProperty(false);
 
     /**
-     * Represents the time duration, in milliseconds, before the game borders start to shrink.
-     *
-     * <p>
-     * The {@code shrinkWarningTime} constant defines the period in milliseconds during which
-     * a warning is given before the game borders begin to shrink. In the Snake Game, the
-     * borders shrink at regular intervals, and this constant determines the duration of the
-     * warning phase in advance of the actual border shrinkage.
-     * </p>
-     */
-    private final int shrinkWarningTime = 2; // Give a 2-second warning
-
-    /**
-     * Represents the screen width of the Snake Game grid.
+     * Represents the default screen width of the Snake Game grid.
      *
      * <p>
-     * The {@code SCREEN_WIDTH} constant defines the width of the game grid, representing the horizontal
-     * extent of the playable area in the Snake Game. It is used to set the initial size of the game window
-     * and determine the rightmost limit of the game area.
+     * The {@code SCREEN_WIDTH} constant defines the width of the game grid used by {@link #GameModel()},
+     * representing the horizontal extent of the playable area in the Snake Game. Models built with
+     * {@link #GameModel(int, int)} report their own width through {@link #getWidth()}.
      * </p>
      */
-    public static int SCREEN_WIDTH = 1100;
+    public static final int SCREEN_WIDTH = 1100;
 
     /**
-     * Represents the screen height of the Snake Game grid.
+     * Represents the default screen height of the Snake Game grid.
      *
      * <p>
-     * The {@code SCREEN_HEIGHT} constant defines the height of the game grid, representing the vertical
-     * extent of the playable area in the Snake Game. It is used to set the initial size of the game window
-     * and determine the lower limit of the game area.
+     * The {@code SCREEN_HEIGHT} constant defines the height of the game grid used by {@link #GameModel()},
+     * representing the vertical extent of the playable area in the Snake Game. Models built with
+     * {@link #GameModel(int, int)} report their own height through {@link #getHeight()}.
      * </p>
      */
-    public static int SCREEN_HEIGHT = 700;
-
-    /**
-     * Represents the bottom boundary of the game grid in the Snake Game.
-     *
-     * <p>
-     * The {@code bottomBorder} variable holds the y-coordinate value that represents the
-     * bottom boundary of the Snake Game grid. It defines the limit beyond which the snake
-     * cannot move downward. This value is calculated based on the screen height and the
-     * size of each unit in the grid.
-     * </p>
-     */
-    private int bottomBorder = SCREEN_HEIGHT;
-
-
-    /**
-     * Represents the left border coordinate of the Snake Game grid.
-     *
-     * <p>
-     * The {@code leftBorder} variable defines the x-coordinate of the left border in the Snake Game grid.
-     * It is used to determine the leftmost limit of the game area and influences collision detection.
-     * Modifying this variable may affect the starting position of the snake and the placement of game elements.
-     * </p>
-     */
-    /**
-     * Represents the left border coordinate of the Snake Game grid.
-     *
-     * <p>
-     * The {@code leftBorder} variable represents the x-coordinate of the leftmost border of the game grid.
-     * It is used to determine the left limit of the playable area in the Snake Game.
-     * </p>
-     */
-    public int leftBorder = 0;
-
-
-    /**
-     * Represents the right border coordinate of the Snake Game grid.
-     *
-     * <p>
-     * The {@code rightBorder} variable represents the x-coordinate of the rightmost border of the game grid.
-     * It is used to determine the right limit of the playable area in the Snake Game.
-     * </p>
-     */
-    private int rightBorder = SCREEN_WIDTH;
-
-
-    /**
-     * Represents the top border coordinate of the Snake Game grid.
-     *
-     * <p>
-     * The {@code topBorder} variable defines the y-coordinate of the top border in the Snake Game grid.
-     * It is used to determine the upper limit of the game area and influences collision detection.
-     * Modifying this variable may affect the starting position of the snake and the placement of game elements.
-     * </p>
-     */
-    public int topBorder = 0;
+    public static final int SCREEN_HEIGHT = 700;
 
     /**
      * Represents the size of a single unit in the Snake grid.
@@ -148,11 +82,13 @@ public class GameModel implements TimeObserver {
      * Modifying this constant allows for easy adjustments to the overall scale of the game elements.
      * </p>
      */
-    public static final int UNIT_SIZE = 50;
-    private long playTime;
-    static  int GAME_UNITS = (SCREEN_WIDTH * SCREEN_HEIGHT) / (UNIT_SIZE * UNIT_SIZE);
-    int[] x = new int[GAME_UNITS];
-    int[] y = new int[GAME_UNITS];
+    public static final int UNIT_SIZE = SnakeSimulation.UNIT_SIZE;
+
+    /**
+     * Represents the simulation that owns the game state and rules.
+     */
+    private final SnakeSimulation simulation;
+
     /**
      * Represents the game over state.
      *
@@ -164,16 +100,6 @@ public class GameModel implements TimeObserver {
      */
     private BooleanProperty gameOver = new SimpleBooleanProperty(false);
 
-    int bodyParts = 6;
-    int applesEaten;
-    int appleX;
-    int appleY;
-    char direction = 'R';
-    boolean running = false;
-    Random random = new Random();
-    private int borderShrinkInterval = 10;
-    private long lastShrinkTime = 0;
-
     /**
      * Represents the score of the Snake Game.
      *
@@ -194,17 +120,6 @@ public class GameModel implements TimeObserver {
      * </p>
      */
     private IntegerProperty length = new SimpleIntegerProperty(this, "length", 6);
-    // Constants for special apple duration and refresh interval
-    /**
-     * Represents the duration, in milliseconds, for which a special apple exists in the Snake Game.
-     * <p>
-     * The {@code SPECIAL_APPLE_DURATION} constant defines the time duration for which a special apple
-     * remains present in the game. After this duration, the special apple disappears, and its effects
-     * on the game, such as speed changes, are no longer applied.
-     * </p>
-     */
-    public final long SPECIAL_APPLE_DURATION = 5000; // Special apple existence time: 5 seconds
-
 
     /**
      * The speed multiplier property represents the factor by which the game's speed is adjusted.
@@ -217,20 +132,74 @@ public class GameModel implements TimeObserver {
     public BooleanProperty specialAppleExists = new SimpleBooleanProperty(false);
 
     /**
-     * Represents the timestamp when a change in the snake's speed will end.
+     * Constructs a new game on a board of the default size.
+     */
+    public GameModel() {
+        this(SCREEN_WIDTH, SCREEN_HEIGHT);
+    }
+
+    /**
+     * Constructs a new game on a board of the given size.
      * <p>
-     * The {@code speedChangeEndTime} field holds the system time (in milliseconds) when a change in the snake's
-     * speed is scheduled to end. This timestamp is used to track the duration of speed changes caused by special apples,
-     * allowing the game to revert to its default speed after a certain period.
+     * This constructor creates the underlying simulation, which lays out the initial snake, and publishes its
+     * initial values to the properties.
      * </p>
+     *
+     * @param width  The width of the board in pixels.
+     * @param height The height of the board in pixels.
      */
-    public long speedChangeEndTime = 0;
-    private Apple specialApple;
+    public GameModel(int width, int height) {
+        simulation = new SnakeSimulation(width, height);
+        currentState = runningState;
+        publish();
+    }
 
-    public void setGameOver(boolean b) {
-        gameOver.set(true);
+    /**
+     * Publishes the simulation's values to the JavaFX properties.
+     * <p>
+     * Each property is only set when the simulation holds a different value, so listeners and bindings are not
+     * disturbed on ticks where nothing they observe has changed.
+     * </p>
+     */
+    private void publish() {
+        if (score.get() != simulation.getScore()) {
+            score.set(simulation.getScore());
+        }
+        if (length.get() != simulation.getLength()) {
+            length.set(simulation.getLength());
+        }
+        if (speedMultiplier.get() != simulation.getSpeedMultiplier()) {
+            speedMultiplier.set(simulation.getSpeedMultiplier());
+        }
+        if (gameOver.get() != simulation.isGameOver()) {
+            gameOver.set(simulation.isGameOver());
+        }
+        if (specialAppleExists.get() != simulation.isSpecialAppleExists()) {
+            specialAppleExists.set(simulation.isSpecialAppleExists());
+        }
+        if (aboutToShrink.get() != simulation.isAboutToShrink()) {
+            aboutToShrink.set(simulation.isAboutToShrink());
+        }
     }
 
+    /**
+     * Gets the simulation behind this model.
+     *
+     * @return The simulation.
+     */
+    public SnakeSimulation getSimulation() {
+        return simulation;
+    }
+
+    /**
+     * Marks the game as over.
+     *
+     * @param b {@code true} to end the game.
+     */
+    public void setGameOver(boolean b) {
+        simulation.setGameOver(b);
+        publish();
+    }
 
     /**
      * Increases the current score by a specified amount.
@@ -246,80 +215,52 @@ public class GameModel implements TimeObserver {
      * @param i The amount to increase the score by (currently unused, as the increment is fixed).
      */
     public void increaseScore(int i) {
-        score.set(score.get() + 3);
+        simulation.increaseScore(i);
+        publish();
     }
 
-
     /**
-     * Handles time updates by updating the play time and triggering border shrinkage.
+     * Advances the simulation by one tick.
      * <p>
-     * This method is called whenever there is a time update. It updates the play time of
-     * the game and triggers any necessary actions, such as shrinking the game border.
+     * All timed events of the game, such as border shrinking, special apple expiry and speed effects, are counted in
+     * ticks, so the running state calls this once per update.
      * </p>
-     *
-     * @param time The updated time value.
      */
-    @Override
-    public void onTimeUpdate(long time) {
-        this.playTime = time;
-        shrinkBorder();
+    public void nextTick() {
+        simulation.nextTick();
     }
 
-
     /**
-     * Enum representing different types of apples that can appear in the game.
+     * Advances the game by one tick, as defined by {@link SnakeSimulation#tick()}, and moves to the game over state
+     * if the snake collided.
      */
-    public enum AppleType {
-        BLUE, BLACK, GREEN, GOLD
+    public void tick() {
+        boolean wasRunning = simulation.isRunning();
+        simulation.tick();
+        if (wasRunning && !simulation.isRunning()) {
+            changeState(gameOverState);
+        }
+        publish();
     }
-    private int specialAppleX;
-    private int specialAppleY;
-    private AppleType specialAppleType;
-    /**
-     * Represents the timestamp when a special apple was spawned in the Snake Game.
-     * <p>
-     * The {@code specialAppleSpawnTime} field holds the system time (in milliseconds) when a special apple
-     * was generated in the game. This timestamp is used to track the duration of the special apple's presence
-     * in the game and to determine when it should be removed.
-     * </p>
-     */
-    public long specialAppleSpawnTime;
 
     /**
-     * Constructs a new instance of the {@code GameModel} class.
-     * <p>
-     * This constructor initializes the game state and borders, setting up the initial conditions for the Snake Game.
-     * It specifically resets the game to its initial state, allowing for a fresh start.
-     * </p>
-     * <p>
-     * The initialization includes creating the game board, placing the snake, and generating the initial food item.
-     * </p>
+     * Turns the snake towards the given direction unless it would reverse onto itself.
+     *
+     * @param input The requested direction ('U', 'D', 'L' or 'R').
      */
-    private GameModel() {
-        speedMultiplier.set(INITIAL_SPEED);
-        currentState = runningState;
-        lastShrinkTime = 0;
+    public void turn(char input) {
+        simulation.turn(input);
     }
 
     /**
-     * Provides the singleton instance of the {@code GameModel}.
-     * <p>
-     * This method implements the singleton pattern to ensure that only one instance of the
-     * {@code GameModel} is created and used throughout the application. If the instance is not
-     * already created, it instantiates a new {@code GameModel} object and returns it.
-     * </p>
+     * Gets the number of ticks since the last reset.
      *
-     * @return The singleton instance of the {@code GameModel}.
+     * @return The current tick.
      */
-    public static GameModel getInstance() {
-        if (instance == null) {
-            instance = new GameModel();
-        }
-        return instance;
+    public long getTick() {
+        return simulation.getTick();
     }
 
-
-
     /**
      * Updates the game state, including moving the snake, checking for apple consumption,
      * checking for collisions, and handling border shrinking.
@@ -357,7 +298,6 @@ public class GameModel implements TimeObserver {
         currentState = newState;
     }
 
-
     /**
      * Shrinks the game borders periodically.
      * <p>
@@ -366,45 +306,86 @@ public class GameModel implements TimeObserver {
      * </p>
      * <p>
      * Additionally, it sets the 'aboutToShrink' flag to true if the borders are about to shrink within the next
-     * 'shrinkWarningTime' milliseconds.
+     * 'shrinkWarningTime' ticks.
      * </p>
      */
     public void shrinkBorder() {
-        if (playTime - lastShrinkTime > borderShrinkInterval - shrinkWarningTime) {
-            aboutToShrink.set(true);
-        } else {
-            aboutToShrink.set(false);
-        }
-        if (playTime - lastShrinkTime > borderShrinkInterval) {
-            leftBorder += UNIT_SIZE;
-            rightBorder -= UNIT_SIZE;
-            topBorder += UNIT_SIZE;
-            bottomBorder -= UNIT_SIZE;
-            lastShrinkTime = playTime;
-
-            // Check if the apple is outside the new borders
-            if (appleX < leftBorder || appleX >= rightBorder || appleY < topBorder || appleY >= bottomBorder) {
-                newApple(); // Regenerate the apple
-            }
-        }
+        simulation.shrinkBorder();
+        publish();
+    }
+
+    /**
+     * Expires the special apple and any speed effect whose duration has passed.
+     */
+    public void updateTimedEffects() {
+        simulation.updateTimedEffects();
+        publish();
     }
 
     /**
      * Gets the x-coordinates of the snake.
+     * <p>
+     * The returned array is a snapshot of the segments, head first, kept for existing callers. Code that runs every
+     * frame should use {@link #getSegmentX(int)} instead, which does not copy.
+     * </p>
      *
      * @return The x-coordinates of the snake segments.
      */
     public int[] getX() {
-        return x;
+        return simulation.getBody().toXArray();
     }
 
     /**
      * Gets the y-coordinates of the snake.
+     * <p>
+     * The returned array is a snapshot of the segments, head first, kept for existing callers. Code that runs every
+     * frame should use {@link #getSegmentY(int)} instead, which does not copy.
+     * </p>
      *
      * @return The y-coordinates of the snake segments.
      */
     public int[] getY() {
-        return y;
+        return simulation.getBody().toYArray();
+    }
+
+    /**
+     * Gets the x-coordinate of a single snake segment.
+     *
+     * @param index The segment index, {@code 0} being the head.
+     * @return The x-coordinate of the segment.
+     */
+    public int getSegmentX(int index) {
+        return simulation.getBody().getX(index);
+    }
+
+    /**
+     * Gets the y-coordinate of a single snake segment.
+     *
+     * @param index The segment index, {@code 0} being the head.
+     * @return The y-coordinate of the segment.
+     */
+    public int getSegmentY(int index) {
+        return simulation.getBody().getY(index);
+    }
+
+    /**
+     * Gets the x-coordinate a snake segment had before the last move, for interpolated drawing.
+     *
+     * @param index The segment index, {@code 0} being the head.
+     * @return The x-coordinate of the segment before the last move.
+     */
+    public int getPreviousSegmentX(int index) {
+        return simulation.getPreviousSegmentX(index);
+    }
+
+    /**
+     * Gets the y-coordinate a snake segment had before the last move, for interpolated drawing.
+     *
+     * @param index The segment index, {@code 0} being the head.
+     * @return The y-coordinate of the segment before the last move.
+     */
+    public int getPreviousSegmentY(int index) {
+        return simulation.getPreviousSegmentY(index);
     }
 
     /**
@@ -413,7 +394,7 @@ public class GameModel implements TimeObserver {
      * @return The number of body parts.
      */
     public int getBodyParts() {
-        return bodyParts;
+        return simulation.getLength();
     }
 
     /**
@@ -422,7 +403,7 @@ public class GameModel implements TimeObserver {
      * @return The number of apples eaten.
      */
     public int getApplesEaten() {
-        return applesEaten;
+        return simulation.getApplesEaten();
     }
 
     /**
@@ -431,7 +412,7 @@ public class GameModel implements TimeObserver {
      * @return The x-coordinate of the apple.
      */
     public int getAppleX() {
-        return appleX;
+        return simulation.getAppleX();
     }
 
     /**
@@ -440,7 +421,7 @@ public class GameModel implements TimeObserver {
      * @return The y-coordinate of the apple.
      */
     public int getAppleY() {
-        return appleY;
+        return simulation.getAppleY();
     }
 
     /**
@@ -449,7 +430,7 @@ public class GameModel implements TimeObserver {
      * @return {@code true} if the game is running, {@code false} otherwise.
      */
     public boolean isRunning() {
-        return running;
+        return simulation.isRunning();
     }
 
     /**
@@ -462,115 +443,38 @@ public class GameModel implements TimeObserver {
      * @param thing The new running state of the game. True to start, false to stop.
      */
     public void setRunning(boolean thing) {
-        running = thing;
+        simulation.setRunning(thing);
     }
 
     /**
      * Moves the snake based on the current direction.
      */
     public void move() {
-        for (int i = bodyParts; i > 0; i--) {
-            x[i] = x[i - 1];
-            y[i] = y[i - 1];
-        }
-        switch (direction) {
-            case 'U':
-                y[0] = y[0] - UNIT_SIZE;
-                break;
-            case 'D':
-                y[0] = y[0] + UNIT_SIZE;
-                break;
-            case 'L':
-                x[0] = x[0] - UNIT_SIZE;
-                break;
-            case 'R':
-                x[0] = x[0] + UNIT_SIZE;
-                break;
-        }
+        simulation.move();
     }
+
     /**
      * Generates a special apple with a random type and position.
      */
     public void generateSpecialApple() {
-        // Randomly select a special apple type
-        AppleType[] appleTypes = AppleType.values();
-        specialAppleType = appleTypes[random.nextInt(appleTypes.length)];
-
-        while (true) {
-            // Generate random coordinates for the new apple
-            specialAppleX = random.nextInt((rightBorder - leftBorder) / UNIT_SIZE) * UNIT_SIZE + leftBorder;
-            specialAppleY = random.nextInt((bottomBorder - topBorder) / UNIT_SIZE) * UNIT_SIZE + topBorder;
-
-            // Check if the apple is within the borders
-            if (specialAppleX >= leftBorder && specialAppleX < rightBorder && specialAppleY >= topBorder && specialAppleY < bottomBorder) {
-                break; // The apple is within the borders, exit the loop
-            }
-        }
-
-        // Use factory to create a new Apple object
-        Apple specialApple = AppleFactory.createApple(specialAppleType, specialAppleX, specialAppleY);
-
-        // Store the special apple in a field of GameModel
-        this.specialApple = specialApple; // Assuming 'specialApple' is a field of type Apple
-        specialAppleSpawnTime = System.currentTimeMillis();
-        specialAppleExists.set(true);
+        simulation.generateSpecialApple();
+        publish();
     }
 
     /**
      * Removes the special apple by setting the existence flag to false.
      */
     public void removeSpecialApple() {
-        specialAppleExists.set(false);
+        simulation.removeSpecialApple();
+        publish();
     }
 
-
     /**
      * Checks if the snake has eaten the apple and updates the game state accordingly.
      */
     public void checkApple() {
-        if (x[0] == appleX && y[0] == appleY) {
-            bodyParts++;
-            applesEaten++;
-            score.set(score.get() + 1);
-            length.set(length.get() + 1);
-            newApple();
-        }
-        // check if got a special apple
-        if (x[0] == specialAppleX && y[0] == specialAppleY) {
-            specialApple.applyEffect(this);
-            removeSpecialApple();
-        }
-    }
-    /**
-     * Processes the effect of the special apple based on its type.
-     *
-     * @param appleType The type of the special apple.
-     */
-    private void processAppleEffect(AppleType appleType) {
-        switch (appleType) {
-            case BLUE:
-                // Increase speed
-                increaseSpeed();
-                break;
-            case BLACK:
-                // gameover
-                gameOver.set(true);
-                break;
-            case GREEN:
-                // reduce speed
-                decreaseSpeed();
-                break;
-            case GOLD:
-                score.set(score.get() + 3);
-                break;
-            default:
-                // Default logic for regular apples
-                bodyParts++;
-                applesEaten++;
-                score.set(score.get() + 1);
-                length.set(length.get() + 1);
-                break;
-        }
+        simulation.checkApple();
+        publish();
     }
 
     /**
@@ -578,31 +482,16 @@ public class GameModel implements TimeObserver {
      *
      * @return The type of the special apple.
      */
-    public AppleType getSpecialAppleType() {
-        return specialAppleType;
-    }
-
-    /**
-     * Increases the speed of the snake.
-     */
-    void increaseSpeed() {
-        speedMultiplier.set(Math.min(speedMultiplier.get() + 0.25, MAX_SPEED)); // Increase speed moderately
-        speedChangeEndTime = System.currentTimeMillis() + SPECIAL_APPLE_DURATION; // Set the end time for speed change
-    }
-
-    /**
-     * Decreases the speed of the snake.
-     */
-    void decreaseSpeed() {
-        speedMultiplier.set(Math.max(speedMultiplier.get() - 0.10, MIN_SPEED)); // Decrease speed moderately
-        speedChangeEndTime = System.currentTimeMillis() + SPECIAL_APPLE_DURATION; // Set the end time for speed change
+    public SnakeSimulation.AppleType getSpecialAppleType() {
+        return simulation.getSpecialAppleType();
     }
 
     /**
      * Resets the speed to the default value.
      */
     public void resetSpeed() {
-        speedMultiplier.set(1.0); // Reset to the default speed
+        simulation.resetSpeed();
+        publish();
     }
 
     /**
@@ -611,7 +500,7 @@ public class GameModel implements TimeObserver {
      * @return The current speed multiplier.
      */
     public double getSpeedMultiplier() {
-        return speedMultiplier.get();
+        return simulation.getSpeedMultiplier();
     }
 
     /**
@@ -632,37 +521,18 @@ public class GameModel implements TimeObserver {
      * </p>
      * <p>
      * If a collision is detected, the method sets the 'running' flag to false, indicating that the game is no longer
-     * in progress. Additionally, if the collision is with the borders, the 'gameOver' flag is set to true.
+     * in progress. Whenever the game is not running after the check, it switches to the game over state and the
+     * 'gameOver' flag is set to true.
      * </p>
      */
     public void checkCollisions() {
-        // Check if the head collides with the body
-        for (int i = bodyParts; i > 0; i--) {
-            if (x[0] == x[i] && y[0] == y[i]) {
-                running = false;
-                break;
-            }
-        }
-        // Check if head touches left border
-        if (x[0] < 0) running = false;
-        // Check if head touches right border
-        if (x[0] > SCREEN_WIDTH) running = false;
-        // Check if head touches top border
-        if (y[0] < 0) running = false;
-        // Check if head touches bottom border
-        if (y[0] > SCREEN_HEIGHT) running = false;
-        // Check if head touches new borders
-        if (x[0] < leftBorder || x[0] >= rightBorder || y[0] < topBorder || y[0] >= bottomBorder) {
-            running = false;
-        }
-
-        if (!running) {
+        simulation.checkCollisions();
+        if (!simulation.isRunning()) {
             changeState(gameOverState);
-            gameOver.set(true);
         }
+        publish();
     }
 
-
     /**
      * Generates a new random apple within the game borders.
      * <p>
@@ -670,28 +540,15 @@ public class GameModel implements TimeObserver {
      * It ensures that the apple coordinates are aligned with the game grid, defined by the UNIT_SIZE.
      * </p>
      * <p>
-     * Additionally, the method checks if the generated apple is within the game borders, preventing it from
-     * being placed outside the playable area.
+     * The position is drawn from the free-cell index in constant time, so the apple never lands on the snake or
+     * outside the playable area.
      * </p>
      */
     public void newApple() {
-        while (true) {
-            // Generate random coordinates for the new apple
-            appleX = random.nextInt((rightBorder - leftBorder) / UNIT_SIZE) * UNIT_SIZE + leftBorder;
-            appleY = random.nextInt((bottomBorder - topBorder) / UNIT_SIZE) * UNIT_SIZE + topBorder;
-
-            // Check if the apple is within the borders
-            if (appleX >= leftBorder && appleX < rightBorder && appleY >= topBorder && appleY < bottomBorder) {
-                break; // The apple is within the borders, exit the loop
-            }
-        }
-
-        // Logic to generate a special apple
-        generateSpecialApple();
+        simulation.newApple();
+        publish();
     }
 
-
-
     /**
      * Resets the game state to its initial configuration.
      * <p>
@@ -700,37 +557,29 @@ public class GameModel implements TimeObserver {
      * and initializing score-related variables.
      * </p>
      * <p>
-     * Additionally, it resets the game board borders, allowing the snake to move freely within the game area.
+     * Additionally, it resets the game board borders, allowing the snake to move freely within the game area, and
+     * returns the model to the running state.
      * </p>
      */
     public void resetGame() {
-        playTime = 0;
-        lastShrinkTime = 0;
-        // Initialize game parameters
-        newApple();
-        applesEaten = 0;
-        bodyParts = 6; // initial length
-        direction = 'R'; // initial direction
-        speedMultiplier.set(INITIAL_SPEED); // Reset the velocity to its initial value
-        speedChangeEndTime = 0;
-        running = true;
-        gameOver.set(false);
-        score.set(0);
-        length.set(6);
-
-        // Initialize snake position
-        for (int i = 0; i < bodyParts; i++) {
-            x[i] = -i * UNIT_SIZE; // Extend horizontally to the left
-            y[i] = 0;
-        }
-
-        // Reset borders
-        leftBorder = 0;
-        rightBorder = SCREEN_WIDTH;
-        topBorder = 0;
-        bottomBorder = SCREEN_HEIGHT;
+        simulation.reset();
+        currentState = runningState;
+        publish();
     }
 
+    /**
+     * Resets the game state to its initial configuration using the given random source.
+     * <p>
+     * A game reset with a generator of a known seed and fed the same inputs always plays out the same way.
+     * </p>
+     *
+     * @param random The random source used to place apples and pick special apple types.
+     */
+    public void resetGame(SplittableRandom random) {
+        simulation.reset(random);
+        currentState = runningState;
+        publish();
+    }
 
     /**
      * Sets the direction of the snake.
@@ -738,7 +587,7 @@ public class GameModel implements TimeObserver {
      * @param direction The new direction ('U' for up, 'D' for down, 'L' for left, 'R' for right).
      */
     public void setDirection(char direction) {
-        this.direction = direction;
+        simulation.setDirection(direction);
     }
 
     /**
@@ -747,7 +596,7 @@ public class GameModel implements TimeObserver {
      * @return The current direction.
      */
     public char getDirection() {
-        return this.direction;
+        return simulation.getDirection();
     }
 
     /**
@@ -773,7 +622,7 @@ public class GameModel implements TimeObserver {
     }
 
     public boolean isSpecialAppleExists() {
-        return specialAppleExists.get();
+        return simulation.isSpecialAppleExists();
     }
 
     /**
@@ -791,7 +640,7 @@ public class GameModel implements TimeObserver {
      * @return The y-coordinate of the special apple.
      */
     public double getSpecialAppleY() {
-        return specialAppleY;
+        return simulation.getSpecialAppleY();
     }
 
     /**
@@ -800,7 +649,7 @@ public class GameModel implements TimeObserver {
      * @return The x-coordinate of the special apple.
      */
     public double getSpecialAppleX() {
-        return  specialAppleX;
+        return simulation.getSpecialAppleX();
     }
 
     /**
@@ -809,7 +658,7 @@ public class GameModel implements TimeObserver {
      * @return The left border value.
      */
     public int getLeftBorder() {
-        return leftBorder;
+        return simulation.getLeftBorder();
     }
 
     /**
@@ -818,7 +667,7 @@ public class GameModel implements TimeObserver {
      * @return The right border coordinate.
      */
     public int getRightBorder() {
-        return rightBorder;
+        return simulation.getRightBorder();
     }
 
     /**
@@ -827,7 +676,7 @@ public class GameModel implements TimeObserver {
      * @return The top border coordinate.
      */
     public int getTopBorder() {
-        return topBorder;
+        return simulation.getTopBorder();
     }
 
     /**
@@ -836,7 +685,25 @@ public class GameModel implements TimeObserver {
      * @return The bottom border coordinate.
      */
     public int getBottomBorder() {
-        return bottomBorder;
+        return simulation.getBottomBorder();
+    }
+
+    /**
+     * Gets the width of the board.
+     *
+     * @return The width of the board in pixels.
+     */
+    public int getWidth() {
+        return simulation.getWidth();
+    }
+
+    /**
+     * Gets the height of the board.
+     *
+     * @return The height of the board in pixels.
+     */
+    public int getHeight() {
+        return simulation.getHeight();
     }
 
     /**
@@ -845,7 +712,7 @@ public class GameModel implements TimeObserver {
      * @return The current score.
      */
     public int getScore() {
-        return score.get();
+        return simulation.getScore();
     }
 
     /**
@@ -854,7 +721,7 @@ public class GameModel implements TimeObserver {
      * @return {@code true} if the borders are about to shrink, {@code false} otherwise.
      */
     public boolean isAboutToShrink() {
-        return aboutToShrink.get();
+        return simulation.isAboutToShrink();
     }
 
     /**
@@ -867,4 +734,3 @@ public class GameModel implements TimeObserver {
     }
 
 }
-
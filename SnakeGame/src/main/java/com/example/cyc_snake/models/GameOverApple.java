@@ -24,12 +24,12 @@ public class GameOverApple implements Apple {
     }
 
     /**
-     * Applies the game over effect to the provided {@link GameModel} instance.
+     * Applies the game over effect to the provided {@link SnakeSimulation} instance.
      *
-     * @param gameModel The game model to apply the effect on.
+     * @param simulation The simulation to apply the effect on.
      */
-    public void applyEffect(GameModel gameModel) {
-        gameModel.setGameOver(true);
+    public void applyEffect(SnakeSimulation simulation) {
+        simulation.setGameOver(true);
     }
 
     /**
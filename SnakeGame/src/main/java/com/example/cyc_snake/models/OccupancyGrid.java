@@ -0,0 +1,140 @@
+package com.example.cyc_snake.models;
+
+import java.util.Arrays;
+
+/**
+ * A grid-indexed occupancy bitmap for the Snake Game board.
+ *
+ * <p>
+ * The {@code OccupancyGrid} class keeps one bit per board cell inside a {@code long[]} bitset. Cells are addressed
+ * either by their cell id ({@code row * columns + column}) or by the pixel coordinates used throughout
+ * {@link GameModel}. Coordinates that fall outside the board are ignored by the mutators and reported as free by
+ * the queries, which matches how the snake starts partially off-screen.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2023-12-20
+ */
+public class OccupancyGrid {
+    private final int columns;
+    private final int rows;
+    private final int unitSize;
+    private final long[] bits;
+
+    /**
+     * Constructs an empty occupancy grid covering a board of the given pixel size.
+     *
+     * @param width    The width of the board in pixels.
+     * @param height   The height of the board in pixels.
+     * @param unitSize The size of a single cell in pixels.
+     */
+    public OccupancyGrid(int width, int height, int unitSize) {
+        this.columns = width / unitSize;
+        this.rows = height / unitSize;
+        this.unitSize = unitSize;
+        this.bits = new long[(columns * rows + 63) >>> 6];
+    }
+
+    /**
+     * Converts pixel coordinates into a cell id.
+     *
+     * @param x The x-coordinate in pixels.
+     * @param y The y-coordinate in pixels.
+     * @return The cell id, or {@code -1} if the coordinates are outside the board.
+     */
+    public int cellOf(int x, int y) {
+        if (x < 0 || y < 0) {
+            return -1;
+        }
+        int column = x / unitSize;
+        int row = y / unitSize;
+        if (column >= columns || row >= rows) {
+            return -1;
+        }
+        return row * columns + column;
+    }
+
+    /**
+     * Gets the x-coordinate, in pixels, of the top-left corner of a cell.
+     *
+     * @param cell The cell id.
+     * @return The x-coordinate of the cell.
+     */
+    public int xOf(int cell) {
+        return (cell % columns) * unitSize;
+    }
+
+    /**
+     * Gets the y-coordinate, in pixels, of the top-left corner of a cell.
+     *
+     * @param cell The cell id.
+     * @return The y-coordinate of the cell.
+     */
+    public int yOf(int cell) {
+        return (cell / columns) * unitSize;
+    }
+
+    /**
+     * Marks the cell at the given pixel coordinates as occupied.
+     *
+     * @param x The x-coordinate in pixels.
+     * @param y The y-coordinate in pixels.
+     */
+    public void occupy(int x, int y) {
+        int cell = cellOf(x, y);
+        if (cell >= 0) {
+            bits[cell >>> 6] |= 1L << cell;
+        }
+    }
+
+    /**
+     * Marks the cell at the given pixel coordinates as free.
+     *
+     * @param x The x-coordinate in pixels.
+     * @param y The y-coordinate in pixels.
+     */
+    public void vacate(int x, int y) {
+        int cell = cellOf(x, y);
+        if (cell >= 0) {
+            bits[cell >>> 6] &= ~(1L << cell);
+        }
+    }
+
+    /**
+     * Checks whether the cell at the given pixel coordinates is occupied.
+     *
+     * @param x The x-coordinate in pixels.
+     * @param y The y-coordinate in pixels.
+     * @return {@code true} if the cell is on the board and occupied, {@code false} otherwise.
+     */
+    public boolean isOccupied(int x, int y) {
+        int cell = cellOf(x, y);
+        return cell >= 0 && (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Marks every cell of the board as free.
+     */
+    public void clear() {
+        Arrays.fill(bits, 0L);
+    }
+
+    /**
+     * Gets the number of columns on the board.
+     *
+     * @return The number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the number of rows on the board.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+}
@@ -13,6 +13,7 @@ package com.example.cyc_snake.models;
  */
 public class Player {
 
+    private Integer playerId;
     private String playerName;
     private Integer score;
     private Long gameTime;
@@ -30,6 +31,28 @@ public class Player {
         this.gameTime = gameTime;
     }
 
+    /**
+     * Constructs a new instance of the {@code Player} class for a row of the {@code gamescores} table.
+     *
+     * @param playerId   The {@code PlayerID} of the row, or {@code null} if it is not known.
+     * @param playerName The name of the player.
+     * @param score      The score achieved by the player.
+     * @param gameTime   The total game time played by the player.
+     */
+    public Player(Integer playerId, String playerName, Integer score, Long gameTime) {
+        this(playerName, score, gameTime);
+        this.playerId = playerId;
+    }
+
+    /**
+     * Gets the {@code PlayerID} of the game record.
+     *
+     * @return The record id, or {@code null} if it is not known.
+     */
+    public Integer getPlayerId() {
+        return playerId;
+    }
+
     /**
      * Gets the name of the player.
      *
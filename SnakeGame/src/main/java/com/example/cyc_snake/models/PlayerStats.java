@@ -0,0 +1,97 @@
+package com.example.cyc_snake.models;
+
+/**
+ * Summarizes every game of one player.
+ *
+ * <p>
+ * The {@code PlayerStats} class holds a player's best score, number of games, total play time and when they last
+ * played, as stored in the {@code player_stats} table. Instances are immutable; {@link #plus(PlayerStats)} combines
+ * the summary of earlier games with that of new ones.
+ * </p>
+ *
+ * @version 1.0
+ * @since 2024-01-11
+ */
+public final class PlayerStats {
+
+    private final String playerName;
+    private final int bestScore;
+    private final int totalGames;
+    private final long totalPlayTime;
+    private final Long lastPlayed;
+
+    /**
+     * Constructs a new instance of the {@code PlayerStats} class with the specified parameters.
+     *
+     * @param playerName    The name of the player.
+     * @param bestScore     The best score of the player.
+     * @param totalGames    The number of games played.
+     * @param totalPlayTime The total play time in milliseconds.
+     * @param lastPlayed    When the player last played, in milliseconds since the epoch, or {@code null} if unknown.
+     */
+    public PlayerStats(String playerName, int bestScore, int totalGames, long totalPlayTime, Long lastPlayed) {
+        this.playerName = playerName;
+        this.bestScore = bestScore;
+        this.totalGames = totalGames;
+        this.totalPlayTime = totalPlayTime;
+        this.lastPlayed = lastPlayed;
+    }
+
+    /**
+     * Combines these statistics with those of further games of the same player.
+     *
+     * @param games The statistics of the further games.
+     * @return The statistics of all the games.
+     */
+    public PlayerStats plus(PlayerStats games) {
+        Long last = lastPlayed == null ? games.lastPlayed
+                : games.lastPlayed == null ? lastPlayed : Long.valueOf(Math.max(lastPlayed, games.lastPlayed));
+        return new PlayerStats(playerName, Math.max(bestScore, games.bestScore), totalGames + games.totalGames,
+                totalPlayTime + games.totalPlayTime, last);
+    }
+
+    /**
+     * Gets the name of the player.
+     *
+     * @return The player's name.
+     */
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    /**
+     * Gets the best score of the player.
+     *
+     * @return The best score.
+     */
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * Gets the number of games the player has played.
+     *
+     * @return The number of games.
+     */
+    public int getTotalGames() {
+        return totalGames;
+    }
+
+    /**
+     * Gets the total time the player has played.
+     *
+     * @return The total play time in milliseconds.
+     */
+    public long getTotalPlayTime() {
+        return totalPlayTime;
+    }
+
+    /**
+     * Gets when the player last played.
+     *
+     * @return Milliseconds since the epoch, or {@code null} for players whose games predate the statistics.
+     */
+    public Long getLastPlayed() {
+        return lastPlayed;
+    }
+}
@@ -24,13 +24,13 @@ public class ScoreBoostApple implements Apple {
     }
 
     /**
-     * Applies the score boost effect to the provided {@link GameModel} instance.
+     * Applies the score boost effect to the provided {@link SnakeSimulation} instance.
      * Increases the score by a fixed amount.
      *
-     * @param gameModel The game model to apply the effect on.
+     * @param simulation The simulation to apply the effect on.
      */
-    public void applyEffect(GameModel gameModel) {
-        gameModel.increaseScore(3);
+    public void applyEffect(SnakeSimulation simulation) {
+        simulation.increaseScore(3);
     }
 
     /**
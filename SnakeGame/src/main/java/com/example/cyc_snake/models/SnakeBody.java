@@ -0,0 +1,171 @@
+package com.example.cyc_snake.models;
+
+/**
+ * Stores the segments of the snake in a circular buffer of primitive coordinates.
+ *
+ * <p>
+ * The {@code SnakeBody} class keeps the x- and y-coordinates of every segment in two {@code int[]} buffers indexed
+ * by a moving head pointer. Advancing the snake writes a new head in front of the current one and leaves the old tail
+ * slot behind, so a move costs the same whatever the length of the snake. Growing simply takes that vacated slot
+ * back into the body.
+ * </p>
+ *
+ * <p>
+ * Segments are addressed head first: index {@code 0} is the head and index {@code getLength() - 1} is the tail.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2023-12-21
+ */
+public class SnakeBody {
+    private final int[] xs;
+    private final int[] ys;
+    private final int mask;
+    private int head;
+    private int length;
+
+    /**
+     * Constructs an empty body able to hold at least the given number of segments.
+     *
+     * @param maxSegments The largest number of segments the snake can reach.
+     */
+    public SnakeBody(int maxSegments) {
+        // One extra slot keeps the vacated tail readable after a move
+        int capacity = Integer.highestOneBit(Math.max(maxSegments + 1, 2) - 1) << 1;
+        xs = new int[capacity];
+        ys = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Removes every segment from the body.
+     */
+    public void clear() {
+        head = 0;
+        length = 0;
+    }
+
+    /**
+     * Appends a segment behind the current tail. Used to lay out the initial snake.
+     *
+     * @param x The x-coordinate of the new tail segment.
+     * @param y The y-coordinate of the new tail segment.
+     */
+    public void addTail(int x, int y) {
+        int slot = (head + length) & mask;
+        xs[slot] = x;
+        ys[slot] = y;
+        length++;
+    }
+
+    /**
+     * Moves the snake by writing a new head. The old tail slot is kept as the vacated tail until the next move.
+     *
+     * @param x The x-coordinate of the new head.
+     * @param y The y-coordinate of the new head.
+     */
+    public void advance(int x, int y) {
+        head = (head - 1) & mask;
+        xs[head] = x;
+        ys[head] = y;
+    }
+
+    /**
+     * Grows the snake by one segment, taking back the tail slot vacated by the last move.
+     */
+    public void grow() {
+        length++;
+    }
+
+    /**
+     * Gets the number of segments in the body.
+     *
+     * @return The length of the snake.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Gets the x-coordinate of a segment.
+     *
+     * @param index The segment index, {@code 0} being the head.
+     * @return The x-coordinate of the segment.
+     */
+    public int getX(int index) {
+        return xs[(head + index) & mask];
+    }
+
+    /**
+     * Gets the y-coordinate of a segment.
+     *
+     * @param index The segment index, {@code 0} being the head.
+     * @return The y-coordinate of the segment.
+     */
+    public int getY(int index) {
+        return ys[(head + index) & mask];
+    }
+
+    /**
+     * Gets the x-coordinate of the head.
+     *
+     * @return The x-coordinate of the head.
+     */
+    public int getHeadX() {
+        return xs[head];
+    }
+
+    /**
+     * Gets the y-coordinate of the head.
+     *
+     * @return The y-coordinate of the head.
+     */
+    public int getHeadY() {
+        return ys[head];
+    }
+
+    /**
+     * Gets the x-coordinate of the cell the tail left during the last move.
+     *
+     * @return The x-coordinate of the vacated tail.
+     */
+    public int getVacatedX() {
+        return xs[(head + length) & mask];
+    }
+
+    /**
+     * Gets the y-coordinate of the cell the tail left during the last move.
+     *
+     * @return The y-coordinate of the vacated tail.
+     */
+    public int getVacatedY() {
+        return ys[(head + length) & mask];
+    }
+
+    /**
+     * Copies the x-coordinates of all segments, head first, into a new array.
+     *
+     * @return A snapshot of the segment x-coordinates.
+     */
+    public int[] toXArray() {
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = getX(i);
+        }
+        return result;
+    }
+
+    /**
+     * Copies the y-coordinates of all segments, head first, into a new array.
+     *
+     * @return A snapshot of the segment y-coordinates.
+     */
+    public int[] toYArray() {
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = getY(i);
+        }
+        return result;
+    }
+}
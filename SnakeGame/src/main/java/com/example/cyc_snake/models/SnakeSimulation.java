@@ -0,0 +1,810 @@
+package com.example.cyc_snake.models;
+
+import java.util.SplittableRandom;
+
+/**
+ * Represents the headless simulation core of the Snake Game.
+ *
+ * <p>
+ * The {@code SnakeSimulation} class holds the complete game state in primitive fields and implements the game rules:
+ * moving the snake, eating apples, placing apples, collisions, border shrinking and the timed effects of special
+ * apples. It has no dependency on JavaFX, so it can be stepped millions of times per second in batch jobs and tests
+ * without a display. {@link GameModel} wraps it for the UI and publishes the values to JavaFX properties.
+ * </p>
+ *
+ * <p>
+ * One call to {@link #step(char)} applies one input and advances the game by one tick. All timing is counted in
+ * ticks rather than read from a clock: the border shrinks, special apples expire and speed effects wear off after a
+ * fixed number of ticks, whatever the real time between them. Expiries are timers on a {@link TickScheduler}, so a
+ * tick does no work for them until one is due. Speed effects stack: each lasts its own duration, and the speed is
+ * the initial speed adjusted by every effect still active. The random source is a {@link SplittableRandom}
+ * handed in at {@link #reset(SplittableRandom)}, so the same seed and the same inputs always produce the same game,
+ * however fast it is stepped.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2023-12-27
+ */
+public class SnakeSimulation {
+
+    /**
+     * Represents the size of a single unit in the Snake grid, in pixels.
+     */
+    public static final int UNIT_SIZE = 50;
+
+    /**
+     * Represents the initial speed multiplier of the snake when a game starts.
+     */
+    public static final double INITIAL_SPEED = 0.75;
+
+    /**
+     * Represents the number of ticks per second of play at the base update rate.
+     */
+    public static final int TICKS_PER_SECOND = 10;
+
+    /**
+     * Represents the duration, in ticks, for which a special apple and its speed effect last.
+     */
+    public static final long SPECIAL_APPLE_DURATION = 5L * TICKS_PER_SECOND; // Special apple existence time: 5 seconds
+
+    private static final double MAX_SPEED = 15;
+    private static final double MIN_SPEED = 0.25;
+    private static final double SPEED_UP_STEP = 0.25;
+    private static final double SPEED_DOWN_STEP = 0.10;
+    private static final int INITIAL_LENGTH = 6;
+
+    /**
+     * Enum representing different types of special apples that can appear in the game.
+     */
+    public enum AppleType {
+        BLUE, BLACK, GREEN, GOLD
+    }
+
+    private static final AppleType[] APPLE_TYPES = AppleType.values(); // values() copies the array on every call
+
+    private final int width;
+    private final int height;
+    private SplittableRandom random = new SplittableRandom();
+
+    private final SnakeBody body;
+    private final OccupancyGrid occupancy;
+    private final FreeCellIndex freeCells;
+    private boolean headOnBody;
+    private boolean moved;
+    private boolean grewLastMove;
+
+    private int leftBorder;
+    private int rightBorder;
+    private int topBorder;
+    private int bottomBorder;
+    private final long borderShrinkInterval = 10L * TICKS_PER_SECOND;
+    private final long shrinkWarningTime = 2L * TICKS_PER_SECOND; // Give a 2-second warning
+    private long tick;
+    private long lastShrinkTime;
+    private boolean aboutToShrink;
+
+    private char direction = 'R';
+    private boolean running;
+    private boolean gameOver;
+    private int score;
+    private int applesEaten;
+    private double speedMultiplier = 1.0;
+    private int speedUps;
+    private int speedDowns;
+    private final TickScheduler timers = new TickScheduler();
+    private final TickScheduler.Timer specialAppleExpiry = new TickScheduler.Timer(firedOn -> expireSpecialApple());
+    private final TickScheduler.Task speedUpEnd = firedOn -> endSpeedEffect(true);
+    private final TickScheduler.Task speedDownEnd = firedOn -> endSpeedEffect(false);
+
+    private int appleX;
+    private int appleY;
+    private Apple specialApple;
+    private AppleType specialAppleType;
+    private int specialAppleX;
+    private int specialAppleY;
+    private boolean specialAppleExists;
+
+    /**
+     * Constructs a simulation for a board of the given pixel size.
+     * <p>
+     * The snake is laid out but no apple is placed until the first {@link #reset(SplittableRandom)}.
+     * </p>
+     *
+     * @param width  The width of the board in pixels.
+     * @param height The height of the board in pixels.
+     */
+    public SnakeSimulation(int width, int height) {
+        this.width = width;
+        this.height = height;
+        int cells = (width / UNIT_SIZE) * (height / UNIT_SIZE);
+        // The initial snake starts off the board, so it can outgrow the board by the segments still outside it
+        this.body = new SnakeBody(cells + INITIAL_LENGTH);
+        this.occupancy = new OccupancyGrid(width, height, UNIT_SIZE);
+        this.freeCells = new FreeCellIndex(cells);
+        this.speedMultiplier = INITIAL_SPEED;
+        this.rightBorder = width;
+        this.bottomBorder = height;
+        initializeSnake();
+    }
+
+    /**
+     * Applies one input and advances the game by one tick.
+     * <p>
+     * The input is a direction character ('U', 'D', 'L' or 'R'). A direction that would reverse the snake onto
+     * itself, or any other character, leaves the direction unchanged.
+     * </p>
+     *
+     * @param input The direction input for this tick.
+     */
+    public void step(char input) {
+        turn(input);
+        tick();
+    }
+
+    /**
+     * Advances the game by one tick: moves the snake, lets it eat, checks for collisions and shrinks the border while
+     * the game is running, then expires the timed effects whose duration has passed.
+     * <p>
+     * This is the only place the order of a tick is defined; the game runs it through the running state and
+     * {@link GameModel#tick()}, and headless callers through {@link #step(char)}.
+     * </p>
+     */
+    public void tick() {
+        nextTick();
+        if (running) {
+            move();
+            checkApple();
+            checkCollisions();
+            shrinkBorder();
+        }
+        updateTimedEffects();
+    }
+
+    /**
+     * Turns the snake towards the given direction unless it would reverse onto itself. Any other character leaves
+     * the direction unchanged.
+     *
+     * @param input The requested direction ('U', 'D', 'L' or 'R').
+     */
+    public void turn(char input) {
+        switch (input) {
+            case 'U':
+                if (direction != 'D') direction = 'U';
+                break;
+            case 'D':
+                if (direction != 'U') direction = 'D';
+                break;
+            case 'L':
+                if (direction != 'R') direction = 'L';
+                break;
+            case 'R':
+                if (direction != 'L') direction = 'R';
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Advances the tick counter that all timed events are measured against.
+     */
+    public void nextTick() {
+        tick++;
+    }
+
+    /**
+     * Resets the game state to its initial configuration with a new, unseeded random source.
+     */
+    public void reset() {
+        reset(new SplittableRandom());
+    }
+
+    /**
+     * Resets the game state to its initial configuration.
+     * <p>
+     * The borders, the snake, the score, the speed and the tick counter are reset, then a new apple and special apple
+     * are placed on the cells left free using the given random source. Games reset with generators of the same seed
+     * and fed the same inputs are identical; independent games can each be given a {@link SplittableRandom#split()}
+     * of one root generator.
+     * </p>
+     *
+     * @param random The random source used to place apples and pick special apple types.
+     */
+    public void reset(SplittableRandom random) {
+        this.random = random;
+        tick = 0;
+        lastShrinkTime = 0;
+        aboutToShrink = false;
+        applesEaten = 0;
+        direction = 'R'; // initial direction
+        speedMultiplier = INITIAL_SPEED; // Reset the velocity to its initial value
+        speedUps = 0;
+        speedDowns = 0;
+        timers.clear();
+        running = true;
+        gameOver = false;
+        score = 0;
+
+        // Reset borders
+        leftBorder = 0;
+        rightBorder = width;
+        topBorder = 0;
+        bottomBorder = height;
+
+        // Initialize snake position, then place the apples on the cells left free
+        initializeSnake();
+        newApple();
+    }
+
+    /**
+     * Lays out the initial snake and rebuilds the occupancy grid and the free-cell index from it.
+     */
+    private void initializeSnake() {
+        body.clear();
+        occupancy.clear();
+        headOnBody = false;
+        moved = false;
+        freeCells.clear();
+        for (int y = topBorder; y < bottomBorder; y += UNIT_SIZE) {
+            for (int x = leftBorder; x < rightBorder; x += UNIT_SIZE) {
+                freeCells.add(occupancy.cellOf(x, y));
+            }
+        }
+        for (int i = 0; i < INITIAL_LENGTH; i++) {
+            body.addTail(-i * UNIT_SIZE, 0); // Extend horizontally to the left
+            occupancy.occupy(-i * UNIT_SIZE, 0);
+            freeCells.remove(occupancy.cellOf(-i * UNIT_SIZE, 0));
+        }
+    }
+
+    /**
+     * Moves the snake one unit in the current direction.
+     * <p>
+     * The occupancy grid and the free-cell index follow the new head and the vacated tail.
+     * </p>
+     */
+    public void move() {
+        int headX = body.getHeadX();
+        int headY = body.getHeadY();
+        switch (direction) {
+            case 'U':
+                headY = headY - UNIT_SIZE;
+                break;
+            case 'D':
+                headY = headY + UNIT_SIZE;
+                break;
+            case 'L':
+                headX = headX - UNIT_SIZE;
+                break;
+            case 'R':
+                headX = headX + UNIT_SIZE;
+                break;
+        }
+        body.advance(headX, headY);
+        int vacatedX = body.getVacatedX();
+        int vacatedY = body.getVacatedY();
+        // Test the new head against the body as it was before the move, vacated tail included
+        headOnBody = occupancy.isOccupied(headX, headY);
+        moved = true;
+        grewLastMove = false;
+        occupancy.vacate(vacatedX, vacatedY);
+        occupancy.occupy(headX, headY);
+        if (isInsideBorders(vacatedX, vacatedY)) {
+            freeCells.add(occupancy.cellOf(vacatedX, vacatedY));
+        }
+        freeCells.remove(occupancy.cellOf(headX, headY));
+    }
+
+    /**
+     * Grows the snake by one segment.
+     * <p>
+     * The new tail reuses the cell the tail vacated during the last move, so that cell is marked occupied again.
+     * </p>
+     */
+    private void grow() {
+        occupancy.occupy(body.getVacatedX(), body.getVacatedY());
+        freeCells.remove(occupancy.cellOf(body.getVacatedX(), body.getVacatedY()));
+        body.grow();
+        grewLastMove = true;
+    }
+
+    /**
+     * Checks whether a position lies inside the current game borders.
+     *
+     * @param x The x-coordinate to check.
+     * @param y The y-coordinate to check.
+     * @return {@code true} if the position is inside the borders.
+     */
+    private boolean isInsideBorders(int x, int y) {
+        return x >= leftBorder && x < rightBorder && y >= topBorder && y < bottomBorder;
+    }
+
+    /**
+     * Checks if the snake has eaten the apple or the special apple and applies the result.
+     */
+    public void checkApple() {
+        int headX = body.getHeadX();
+        int headY = body.getHeadY();
+        if (headX == appleX && headY == appleY) {
+            grow();
+            applesEaten++;
+            score++;
+            newApple();
+        }
+        // check if got a special apple
+        if (specialAppleExists && headX == specialAppleX && headY == specialAppleY) {
+            specialApple.applyEffect(this);
+            removeSpecialApple();
+        }
+    }
+
+    /**
+     * Checks for collisions with the snake's own body and with the game borders.
+     * <p>
+     * If a collision is detected the game stops running. Whenever the game is not running after the check, it is
+     * marked as over.
+     * </p>
+     */
+    public void checkCollisions() {
+        int headX = body.getHeadX();
+        int headY = body.getHeadY();
+        // Check if the head collides with the body
+        if (headOnBody) {
+            running = false;
+        }
+        // Check if head touches the screen edges or the current borders
+        if (headX < 0 || headX > width || headY < 0 || headY > height) {
+            running = false;
+        }
+        if (!isInsideBorders(headX, headY)) {
+            running = false;
+        }
+
+        if (!running) {
+            gameOver = true;
+        }
+    }
+
+    /**
+     * Shrinks the game borders periodically.
+     * <p>
+     * Every {@code borderShrinkInterval} ticks the borders move in by one unit on every side and the apple is
+     * regenerated if it ends up outside. The {@code aboutToShrink} flag is raised {@code shrinkWarningTime} ticks
+     * ahead of each shrink.
+     * </p>
+     */
+    public void shrinkBorder() {
+        aboutToShrink = tick - lastShrinkTime > borderShrinkInterval - shrinkWarningTime;
+        if (tick - lastShrinkTime > borderShrinkInterval) {
+            removeBorderRingFromFreeCells();
+            leftBorder += UNIT_SIZE;
+            rightBorder -= UNIT_SIZE;
+            topBorder += UNIT_SIZE;
+            bottomBorder -= UNIT_SIZE;
+            lastShrinkTime = tick;
+
+            // Check if the apple is outside the new borders
+            if (!isInsideBorders(appleX, appleY)) {
+                newApple(); // Regenerate the apple
+            }
+        }
+    }
+
+    /**
+     * Removes the outermost ring of cells inside the current borders from the free-cell index, ahead of the borders
+     * moving in by one unit on every side.
+     */
+    private void removeBorderRingFromFreeCells() {
+        for (int x = leftBorder; x < rightBorder; x += UNIT_SIZE) {
+            freeCells.remove(occupancy.cellOf(x, topBorder));
+            freeCells.remove(occupancy.cellOf(x, bottomBorder - UNIT_SIZE));
+        }
+        for (int y = topBorder + UNIT_SIZE; y < bottomBorder - UNIT_SIZE; y += UNIT_SIZE) {
+            freeCells.remove(occupancy.cellOf(leftBorder, y));
+            freeCells.remove(occupancy.cellOf(rightBorder - UNIT_SIZE, y));
+        }
+    }
+
+    /**
+     * Expires the special apple and the speed effects whose duration has passed, up to the current tick.
+     * <p>
+     * An expired special apple is replaced by a new one while the game is running. An expired speed effect no longer
+     * counts towards the speed; once none is left the speed is back to the initial speed.
+     * </p>
+     */
+    public void updateTimedEffects() {
+        timers.advanceTo(tick);
+    }
+
+    /**
+     * Removes the special apple at the end of its duration, and places a new one while the game is running.
+     */
+    private void expireSpecialApple() {
+        removeSpecialApple();
+        if (running) {
+            generateSpecialApple();
+        }
+    }
+
+    /**
+     * Ends one speed effect and recomputes the speed from the effects still active.
+     *
+     * @param speedUp {@code true} for a speed increase, {@code false} for a decrease.
+     */
+    private void endSpeedEffect(boolean speedUp) {
+        if (speedUp) {
+            speedUps--;
+        } else {
+            speedDowns--;
+        }
+        applySpeedEffects();
+    }
+
+    /**
+     * Sets the speed to the initial speed adjusted by every active speed effect, within the speed limits.
+     */
+    private void applySpeedEffects() {
+        double speed = INITIAL_SPEED + speedUps * SPEED_UP_STEP - speedDowns * SPEED_DOWN_STEP;
+        speedMultiplier = Math.max(MIN_SPEED, Math.min(speed, MAX_SPEED));
+    }
+
+    /**
+     * Gets the tick on which an effect started now ends: the first tick after its full duration.
+     *
+     * @return The tick the effect ends on.
+     */
+    private long effectEndTick() {
+        return tick + SPECIAL_APPLE_DURATION + 1;
+    }
+
+    /**
+     * Generates a new random apple within the game borders, followed by a new special apple.
+     * <p>
+     * The position is drawn from the free-cell index in constant time, so the apple never lands on the snake or
+     * outside the playable area. If the snake covers every cell the apple keeps its position.
+     * </p>
+     */
+    public void newApple() {
+        if (freeCells.size() > 0) {
+            int cell = freeCells.get(random.nextInt(freeCells.size()));
+            appleX = occupancy.xOf(cell);
+            appleY = occupancy.yOf(cell);
+        }
+
+        // Logic to generate a special apple
+        generateSpecialApple();
+    }
+
+    /**
+     * Generates a special apple with a random type and position.
+     * <p>
+     * The position is drawn from the free-cell index, skipping the cell of the regular apple, so the special apple
+     * always lands on an empty cell inside the borders. If no such cell is left the special apple keeps its position.
+     * </p>
+     */
+    public void generateSpecialApple() {
+        // Randomly select a special apple type
+        specialAppleType = APPLE_TYPES[random.nextInt(APPLE_TYPES.length)];
+
+        // Pick a free cell other than the regular apple's
+        int appleIndex = freeCells.indexOf(occupancy.cellOf(appleX, appleY));
+        int candidates = appleIndex >= 0 ? freeCells.size() - 1 : freeCells.size();
+        if (candidates > 0) {
+            int index = random.nextInt(candidates);
+            if (appleIndex >= 0 && index >= appleIndex) {
+                index++;
+            }
+            int cell = freeCells.get(index);
+            specialAppleX = occupancy.xOf(cell);
+            specialAppleY = occupancy.yOf(cell);
+        }
+
+        // Use factory to create a new Apple object
+        specialApple = AppleFactory.createApple(specialAppleType, specialAppleX, specialAppleY);
+        specialAppleExists = true;
+        timers.schedule(effectEndTick(), specialAppleExpiry);
+    }
+
+    /**
+     * Removes the special apple by setting the existence flag to false.
+     */
+    public void removeSpecialApple() {
+        specialAppleExists = false;
+        timers.cancel(specialAppleExpiry);
+    }
+
+    /**
+     * Increases the current score.
+     * <p>
+     * Note: The increment value is currently fixed at 3 points, regardless of the input parameter.
+     * </p>
+     *
+     * @param i The amount to increase the score by (currently unused, as the increment is fixed).
+     */
+    public void increaseScore(int i) {
+        score += 3;
+    }
+
+    /**
+     * Increases the speed of the snake for the duration of a special apple, on top of any other speed effect.
+     */
+    void increaseSpeed() {
+        speedUps++;
+        applySpeedEffects();
+        timers.schedule(effectEndTick(), speedUpEnd);
+    }
+
+    /**
+     * Decreases the speed of the snake for the duration of a special apple, on top of any other speed effect.
+     */
+    void decreaseSpeed() {
+        speedDowns++;
+        applySpeedEffects();
+        timers.schedule(effectEndTick(), speedDownEnd);
+    }
+
+    /**
+     * Resets the speed to the default value.
+     */
+    public void resetSpeed() {
+        speedMultiplier = 1.0;
+    }
+
+    /**
+     * Marks the game as over or not over.
+     *
+     * @param gameOver {@code true} to end the game.
+     */
+    public void setGameOver(boolean gameOver) {
+        this.gameOver = gameOver;
+    }
+
+    /**
+     * Checks if the game is over.
+     *
+     * @return {@code true} if the game is over.
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Checks if the game is currently running.
+     *
+     * @return {@code true} if the game is running.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Sets the running state of the game.
+     *
+     * @param running {@code true} to start the game, {@code false} to stop it.
+     */
+    public void setRunning(boolean running) {
+        this.running = running;
+    }
+
+    /**
+     * Sets the direction of the snake without any reversal check.
+     *
+     * @param direction The new direction ('U', 'D', 'L' or 'R').
+     */
+    public void setDirection(char direction) {
+        this.direction = direction;
+    }
+
+    /**
+     * Gets the current direction of the snake.
+     *
+     * @return The current direction.
+     */
+    public char getDirection() {
+        return direction;
+    }
+
+    /**
+     * Gets the snake's body.
+     *
+     * @return The body, head first.
+     */
+    public SnakeBody getBody() {
+        return body;
+    }
+
+    /**
+     * Gets the x-coordinate a snake segment had before the last move.
+     * <p>
+     * Every segment takes the place of the one behind it, so a segment's previous position is the current position
+     * of the next one. The tail came from the cell it vacated, unless the snake grew, in which case the new tail did
+     * not move. Before the first move every segment reports its current position.
+     * </p>
+     *
+     * @param index The segment index, {@code 0} being the head.
+     * @return The x-coordinate of the segment before the last move.
+     */
+    public int getPreviousSegmentX(int index) {
+        if (!moved || index == body.getLength() - 1 && grewLastMove) {
+            return body.getX(index);
+        }
+        return index < body.getLength() - 1 ? body.getX(index + 1) : body.getVacatedX();
+    }
+
+    /**
+     * Gets the y-coordinate a snake segment had before the last move.
+     *
+     * @param index The segment index, {@code 0} being the head.
+     * @return The y-coordinate of the segment before the last move.
+     * @see #getPreviousSegmentX(int)
+     */
+    public int getPreviousSegmentY(int index) {
+        if (!moved || index == body.getLength() - 1 && grewLastMove) {
+            return body.getY(index);
+        }
+        return index < body.getLength() - 1 ? body.getY(index + 1) : body.getVacatedY();
+    }
+
+    /**
+     * Gets the current score.
+     *
+     * @return The score.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the current length of the snake.
+     *
+     * @return The number of body segments.
+     */
+    public int getLength() {
+        return body.getLength();
+    }
+
+    /**
+     * Gets the number of regular apples eaten.
+     *
+     * @return The number of apples eaten.
+     */
+    public int getApplesEaten() {
+        return applesEaten;
+    }
+
+    /**
+     * Gets the current speed multiplier.
+     *
+     * @return The speed multiplier.
+     */
+    public double getSpeedMultiplier() {
+        return speedMultiplier;
+    }
+
+    /**
+     * Gets the x-coordinate of the apple.
+     *
+     * @return The x-coordinate of the apple.
+     */
+    public int getAppleX() {
+        return appleX;
+    }
+
+    /**
+     * Gets the y-coordinate of the apple.
+     *
+     * @return The y-coordinate of the apple.
+     */
+    public int getAppleY() {
+        return appleY;
+    }
+
+    /**
+     * Checks if a special apple is currently on the board.
+     *
+     * @return {@code true} if a special apple exists.
+     */
+    public boolean isSpecialAppleExists() {
+        return specialAppleExists;
+    }
+
+    /**
+     * Gets the type of the current special apple.
+     *
+     * @return The type of the special apple.
+     */
+    public AppleType getSpecialAppleType() {
+        return specialAppleType;
+    }
+
+    /**
+     * Gets the x-coordinate of the special apple.
+     *
+     * @return The x-coordinate of the special apple.
+     */
+    public int getSpecialAppleX() {
+        return specialAppleX;
+    }
+
+    /**
+     * Gets the y-coordinate of the special apple.
+     *
+     * @return The y-coordinate of the special apple.
+     */
+    public int getSpecialAppleY() {
+        return specialAppleY;
+    }
+
+    /**
+     * Checks if the borders are about to shrink.
+     *
+     * @return {@code true} if a shrink is imminent.
+     */
+    public boolean isAboutToShrink() {
+        return aboutToShrink;
+    }
+
+    /**
+     * Gets the left border of the game area.
+     *
+     * @return The left border coordinate.
+     */
+    public int getLeftBorder() {
+        return leftBorder;
+    }
+
+    /**
+     * Gets the right border of the game area.
+     *
+     * @return The right border coordinate.
+     */
+    public int getRightBorder() {
+        return rightBorder;
+    }
+
+    /**
+     * Gets the top border of the game area.
+     *
+     * @return The top border coordinate.
+     */
+    public int getTopBorder() {
+        return topBorder;
+    }
+
+    /**
+     * Gets the bottom border of the game area.
+     *
+     * @return The bottom border coordinate.
+     */
+    public int getBottomBorder() {
+        return bottomBorder;
+    }
+
+    /**
+     * Gets the number of ticks since the last reset.
+     *
+     * @return The current tick.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the width of the board.
+     *
+     * @return The width in pixels.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the board.
+     *
+     * @return The height in pixels.
+     */
+    public int getHeight() {
+        return height;
+    }
+}
@@ -24,14 +24,14 @@ public class SpeedDownApple implements Apple {
     }
 
     /**
-     * Applies the speed decrease effect to the provided {@link GameModel} instance.
+     * Applies the speed decrease effect to the provided {@link SnakeSimulation} instance.
      * Decreases the speed of the snake.
      *
-     * @param gameModel The game model to apply the effect on.
+     * @param simulation The simulation to apply the effect on.
      */
-    public void applyEffect(GameModel gameModel) {
-        gameModel.increaseScore(1);
-        gameModel.decreaseSpeed();
+    public void applyEffect(SnakeSimulation simulation) {
+        simulation.increaseScore(1);
+        simulation.decreaseSpeed();
     }
 
     /**
@@ -24,14 +24,14 @@ public class SpeedUpApple implements Apple {
     }
 
     /**
-     * Applies the speed increase effect to the provided {@link GameModel} instance.
+     * Applies the speed increase effect to the provided {@link SnakeSimulation} instance.
      * Increases the speed of the snake.
      *
-     * @param gameModel The game model to apply the effect on.
+     * @param simulation The simulation to apply the effect on.
      */
-    public void applyEffect(GameModel gameModel) {
-        gameModel.increaseScore(1);
-        gameModel.increaseSpeed();
+    public void applyEffect(SnakeSimulation simulation) {
+        simulation.increaseScore(1);
+        simulation.increaseSpeed();
     }
 
     /**
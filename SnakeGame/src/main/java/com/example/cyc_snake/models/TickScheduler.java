@@ -0,0 +1,229 @@
+package com.example.cyc_snake.models;
+
+/**
+ * Schedules timed events of the game, such as special apples expiring and speed effects wearing off, on the tick
+ * count of a simulation.
+ *
+ * <p>
+ * The {@code TickScheduler} class is a timer wheel: a ring of slots, one per tick modulo the size of the ring, each
+ * holding a linked list of the timers due on a tick that falls in it. Scheduling or cancelling a timer takes
+ * constant time, and advancing by one tick only visits the timers of one slot, however many are pending. A timer
+ * due further ahead than the ring is long simply waits in its slot until its tick comes round. Nothing reads a
+ * clock: timers fire exactly on the tick they are due, when the scheduler is advanced to it, in the order they were
+ * scheduled.
+ * </p>
+ *
+ * <p>
+ * Each {@link Timer} is scheduled at most once at a time, so a timer reused for a recurring event, such as the
+ * expiry of whichever special apple is on the board, moves to its new tick when it is scheduled again. Effects that
+ * stack each get their own timer.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-14
+ */
+public class TickScheduler {
+    private static final int DEFAULT_SLOTS = 64;
+
+    private final Timer[] heads;
+    private final Timer[] tails;
+    private final int mask;
+    private long tick;
+    private int size;
+
+    /**
+     * Constructs a scheduler with a ring of 64 slots, longer than any timed effect of the game.
+     */
+    public TickScheduler() {
+        this(DEFAULT_SLOTS);
+    }
+
+    /**
+     * Constructs a scheduler with a ring of the given number of slots.
+     *
+     * @param slots The number of slots, a power of two.
+     * @throws IllegalArgumentException If the number of slots is not a power of two.
+     */
+    public TickScheduler(int slots) {
+        if (slots <= 0 || Integer.bitCount(slots) != 1) {
+            throw new IllegalArgumentException("The number of slots must be a power of two: " + slots);
+        }
+        this.heads = new Timer[slots];
+        this.tails = new Timer[slots];
+        this.mask = slots - 1;
+    }
+
+    /**
+     * Schedules a new timer.
+     *
+     * @param dueTick The tick to fire on. A tick already reached fires on the next tick.
+     * @param task    The task to run.
+     * @return The timer, which can be cancelled.
+     */
+    public Timer schedule(long dueTick, Task task) {
+        Timer timer = new Timer(task);
+        schedule(dueTick, timer);
+        return timer;
+    }
+
+    /**
+     * Schedules a timer, moving it if it is already scheduled.
+     *
+     * @param dueTick The tick to fire on. A tick already reached fires on the next tick.
+     * @param timer   The timer to schedule.
+     */
+    public void schedule(long dueTick, Timer timer) {
+        if (timer.scheduler != null) {
+            timer.scheduler.cancel(timer);
+        }
+        timer.dueTick = Math.max(dueTick, tick + 1);
+        int slot = (int) (timer.dueTick & mask);
+        timer.previous = tails[slot];
+        if (tails[slot] == null) {
+            heads[slot] = timer;
+        } else {
+            tails[slot].next = timer;
+        }
+        tails[slot] = timer;
+        timer.scheduler = this;
+        size++;
+    }
+
+    /**
+     * Cancels a timer. Cancelling a timer that is not scheduled has no effect.
+     *
+     * @param timer The timer to cancel.
+     */
+    public void cancel(Timer timer) {
+        if (timer.scheduler != this) {
+            return;
+        }
+        int slot = (int) (timer.dueTick & mask);
+        if (timer.previous == null) {
+            heads[slot] = timer.next;
+        } else {
+            timer.previous.next = timer.next;
+        }
+        if (timer.next == null) {
+            tails[slot] = timer.previous;
+        } else {
+            timer.next.previous = timer.previous;
+        }
+        timer.previous = null;
+        timer.next = null;
+        timer.scheduler = null;
+        size--;
+    }
+
+    /**
+     * Advances the scheduler tick by tick up to a tick, firing every timer due on the way.
+     * <p>
+     * A task may schedule and cancel timers; one scheduled for the tick being fired, or earlier, fires on the next
+     * tick.
+     * </p>
+     *
+     * @param target The tick to advance to. A tick already reached does nothing.
+     */
+    public void advanceTo(long target) {
+        while (tick < target) {
+            if (size == 0) {
+                tick = target; // Nothing to fire on the way
+                return;
+            }
+            tick++;
+            int slot = (int) (tick & mask);
+            Timer timer = heads[slot];
+            while (timer != null) {
+                if (timer.dueTick == tick) {
+                    cancel(timer);
+                    timer.task.run(tick);
+                    timer = heads[slot]; // The task may have changed the slot
+                } else {
+                    timer = timer.next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Cancels every timer and moves the scheduler back to tick {@code 0}.
+     */
+    public void clear() {
+        for (int slot = 0; slot < heads.length; slot++) {
+            while (heads[slot] != null) {
+                cancel(heads[slot]);
+            }
+        }
+        tick = 0;
+    }
+
+    /**
+     * Gets the last tick the scheduler was advanced to.
+     *
+     * @return The current tick.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the number of timers scheduled.
+     *
+     * @return The number of pending timers.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The work done when a timer fires.
+     */
+    @FunctionalInterface
+    public interface Task {
+        /**
+         * Runs the task.
+         *
+         * @param tick The tick the timer fired on.
+         */
+        void run(long tick);
+    }
+
+    /**
+     * A timed event, which can be scheduled again once it has fired or been cancelled.
+     */
+    public static final class Timer {
+        private final Task task;
+        private TickScheduler scheduler;
+        private long dueTick;
+        private Timer previous;
+        private Timer next;
+
+        /**
+         * Constructs a timer that is not scheduled yet.
+         *
+         * @param task The task to run when the timer fires.
+         */
+        public Timer(Task task) {
+            this.task = task;
+        }
+
+        /**
+         * Checks if the timer is waiting to fire.
+         *
+         * @return {@code true} if the timer is scheduled.
+         */
+        public boolean isScheduled() {
+            return scheduler != null;
+        }
+
+        /**
+         * Gets the tick the timer fires, or last fired, on.
+         *
+         * @return The due tick.
+         */
+        public long getDueTick() {
+            return dueTick;
+        }
+    }
+}
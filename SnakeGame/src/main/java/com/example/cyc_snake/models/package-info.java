@@ -12,6 +12,9 @@
  *   <li>{@code GameModel}: The {@code GameModel} class is the heart of the game, representing
  *       the state of the gameplay. It includes information about the snake, apple, and game board.
  *       This model is responsible for updating the game state during active gameplay.</li>
+ *   <li>{@code SnakeSimulation}: The {@code SnakeSimulation} class is the headless core behind
+ *       {@code GameModel}. It holds the game state in primitive fields, implements the game rules
+ *       and has no JavaFX dependency, so games can be stepped in tests and batch jobs without a display.</li>
  *   <li>{@code SpeedUpApple}: The {@code SpeedUpApple} class represents an apple that increases the
  *       speed of the snake when consumed. It is part of the game's power-up system, contributing to
  *       the variety of interactions within the game.</li>
@@ -24,6 +27,10 @@
  *   <li>{@code ScoreBoostApple}: The {@code ScoreBoostApple} class represents an apple that boosts
  *       the player's score when consumed. It enhances the scoring mechanics, rewarding players for
  *       strategic decisions during gameplay.</li>
+ *   <li>{@code TickScheduler}: A timer wheel on the tick count of the simulation. Special apples expire and
+ *       speed effects wear off as timers firing on their exact tick.</li>
+ *   <li>{@code PlayerStats}: The {@code PlayerStats} class summarizes every game of one player:
+ *       best score, number of games, total play time and last game.</li>
  *   <li>(Other model classes): The package may include additional model classes representing
  *       different aspects of the game. For example, classes for player information, high scores,
  *       or any other critical game entities.</li>
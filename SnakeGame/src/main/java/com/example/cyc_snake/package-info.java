@@ -15,6 +15,7 @@
  *     <li>{@link com.example.cyc_snake.controllers}: Contains controllers for different views.</li>
  *     <li>{@link com.example.cyc_snake.ui}: Custom UI components for the game.</li>
  *     <li>{@link com.example.cyc_snake.utils}: Utility classes and helper methods.</li>
+ *     <li>{@link com.example.cyc_snake.persistence}: Database connection pooling.</li>
  * </ul>
  *
  * <p>
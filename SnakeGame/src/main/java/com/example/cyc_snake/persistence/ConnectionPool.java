@@ -0,0 +1,466 @@
+package com.example.cyc_snake.persistence;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * A bounded pool of JDBC connections exposed as a {@link DataSource}.
+ *
+ * <p>
+ * The {@code ConnectionPool} class keeps physical connections open between calls, so a query pays the TCP, TLS and
+ * login handshake only when the pool has to grow. {@link #getConnection()} hands out a wrapper whose
+ * {@code close()} returns the physical connection to the pool instead of closing it. At most {@code maxSize}
+ * connections exist at once; callers beyond that wait up to the borrow timeout and then get an
+ * {@link SQLException}.
+ * </p>
+ *
+ * <p>
+ * A connection that has been idle for longer than {@link #VALIDATION_BYPASS_MILLIS} is validated with
+ * {@link Connection#isValid(int)} before it is handed out, and is replaced if the server has dropped it. Connections
+ * idle for longer than the idle timeout are closed whenever the pool is used, or by
+ * {@link #evictIdleConnections()}.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-04
+ */
+public class ConnectionPool implements DataSource, AutoCloseable {
+    /**
+     * Connections used more recently than this are handed out without a validation round trip.
+     */
+    public static final long VALIDATION_BYPASS_MILLIS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    // SQL state of a connection that could not be established, so callers treat it as worth retrying
+    private static final String CONNECTION_UNAVAILABLE = "08001";
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+    private final long borrowTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final ArrayDeque<IdleConnection> idle = new ArrayDeque<>();
+    private int total;
+    private int active;
+    private boolean closed;
+
+    private long createdCount;
+    private long borrowCount;
+    private long totalWaitNanos;
+
+    /**
+     * Constructs an empty pool. No connection is opened until the first borrow.
+     *
+     * @param url                 The JDBC URL of the database.
+     * @param user                The database user.
+     * @param password            The password of the database user.
+     * @param maxSize             The maximum number of open connections.
+     * @param idleTimeoutMillis   How long a connection may stay idle before it is closed.
+     * @param borrowTimeoutMillis How long a borrow waits for a free connection before it fails.
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize,
+                          long idleTimeoutMillis, long borrowTimeoutMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.borrowTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if none is idle and the pool is not full.
+     *
+     * @return A connection that returns to the pool when closed.
+     * @throws SQLException If the pool is closed, no connection became free in time, or opening one failed. The first
+     *                      two are {@link SQLTransientConnectionException}s, since the connection may well be
+     *                      available later.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        while (true) {
+            IdleConnection candidate = null;
+            lock.lock();
+            try {
+                long remaining = borrowTimeoutNanos - (System.nanoTime() - start);
+                while (true) {
+                    if (closed) {
+                        throw new SQLTransientConnectionException("Connection pool is closed", CONNECTION_UNAVAILABLE);
+                    }
+                    evictExpired(System.nanoTime());
+                    if (!idle.isEmpty()) {
+                        candidate = idle.pollFirst();
+                        active++;
+                        break;
+                    }
+                    if (total < maxSize) {
+                        total++;
+                        active++;
+                        break;
+                    }
+                    if (remaining <= 0) {
+                        throw new SQLTransientConnectionException("Timed out after "
+                                + TimeUnit.NANOSECONDS.toMillis(borrowTimeoutNanos)
+                                + " ms waiting for a database connection", CONNECTION_UNAVAILABLE);
+                    }
+                    try {
+                        remaining = released.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            // Validation and connecting happen outside the lock, so a slow server does not block other borrowers
+            Connection physical;
+            if (candidate != null) {
+                if (!isUsable(candidate)) {
+                    discard(candidate.connection);
+                    continue;
+                }
+                physical = candidate.connection;
+            } else {
+                try {
+                    physical = DriverManager.getConnection(url, user, password);
+                } catch (SQLException | RuntimeException e) {
+                    discard(null);
+                    throw e;
+                }
+            }
+
+            lock.lock();
+            try {
+                if (candidate == null) {
+                    createdCount++;
+                }
+                borrowCount++;
+                totalWaitNanos += System.nanoTime() - start;
+            } finally {
+                lock.unlock();
+            }
+            return wrap(physical);
+        }
+    }
+
+    /**
+     * Closes all idle connections that have been unused for longer than the idle timeout.
+     */
+    public void evictIdleConnections() {
+        lock.lock();
+        try {
+            evictExpired(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the pool and every idle connection. Borrowed connections are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            while (!idle.isEmpty()) {
+                closeQuietly(idle.pollFirst().connection);
+                total--;
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of connections currently borrowed.
+     *
+     * @return The number of active connections.
+     */
+    public int getActiveCount() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of open connections waiting in the pool.
+     *
+     * @return The number of idle connections.
+     */
+    public int getIdleCount() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of physical connections opened since the pool was created.
+     *
+     * @return The number of connections created.
+     */
+    public long getCreatedCount() {
+        lock.lock();
+        try {
+            return createdCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of successful borrows since the pool was created.
+     *
+     * @return The number of borrows.
+     */
+    public long getBorrowCount() {
+        lock.lock();
+        try {
+            return borrowCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the average time a successful borrow took, including waiting for a free connection and connecting.
+     *
+     * @return The average borrow time in milliseconds, or {@code 0} before the first borrow.
+     */
+    public double getAverageWaitMillis() {
+        lock.lock();
+        try {
+            return borrowCount == 0 ? 0 : totalWaitNanos / 1e6 / borrowCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the maximum number of open connections.
+     *
+     * @return The pool size limit.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns a physical connection to the pool, or closes it if it can no longer be used.
+     */
+    private void release(Connection physical) {
+        boolean reusable;
+        try {
+            reusable = !physical.isClosed();
+            if (reusable && !physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        lock.lock();
+        try {
+            active--;
+            if (reusable && !closed) {
+                idle.addFirst(new IdleConnection(physical, System.nanoTime()));
+                evictExpired(System.nanoTime());
+                released.signal();
+                return;
+            }
+            total--;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+        closeQuietly(physical);
+    }
+
+    /**
+     * Gives up a borrowed slot whose connection is broken or could not be opened.
+     */
+    private void discard(Connection physical) {
+        lock.lock();
+        try {
+            active--;
+            total--;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+        closeQuietly(physical);
+    }
+
+    private boolean isUsable(IdleConnection candidate) {
+        try {
+            if (candidate.connection.isClosed()) {
+                return false;
+            }
+            long idleNanos = System.nanoTime() - candidate.idleSince;
+            return idleNanos < TimeUnit.MILLISECONDS.toNanos(VALIDATION_BYPASS_MILLIS)
+                    || candidate.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Closes idle connections past the idle timeout. The oldest idle connections are at the end of the deque.
+     * Must be called with the lock held.
+     */
+    private void evictExpired(long now) {
+        Iterator<IdleConnection> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext()) {
+            IdleConnection candidate = oldestFirst.next();
+            if (now - candidate.idleSince < idleTimeoutNanos) {
+                break;
+            }
+            oldestFirst.remove();
+            total--;
+            closeQuietly(candidate.connection);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // The connection is being thrown away; there is nothing left to clean up
+        }
+    }
+
+    private Connection wrap(Connection physical) {
+        return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new PooledConnectionHandler(physical));
+    }
+
+    /**
+     * Forwards calls to the physical connection, except {@code close()}, which returns it to the pool once.
+     */
+    private final class PooledConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+        private boolean returned;
+
+        PooledConnectionHandler(Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(physical);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + physical;
+                default:
+                    if (returned) {
+                        throw new SQLException("Connection has been returned to the pool");
+                    }
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+
+    private static final class IdleConnection {
+        private final Connection connection;
+        private final long idleSince;
+
+        IdleConnection(Connection connection, long idleSince) {
+            this.connection = connection;
+            this.idleSince = idleSince;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("The pool only hands out connections for its configured user");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return DriverManager.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        DriverManager.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        DriverManager.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return DriverManager.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException("The pool does not use java.util.logging");
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("ConnectionPool does not wrap " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
@@ -0,0 +1,366 @@
+package com.example.cyc_snake.persistence;
+
+import com.example.cyc_snake.models.Player;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams the result of a query into a CSV file.
+ *
+ * <p>
+ * The {@code CsvExporter} class reads the rows through a forward-only cursor with a fetch size, so the driver holds
+ * only a window of the result instead of all of it. MySQL Connector/J streams row by row only with a fetch size of
+ * {@link Integer#MIN_VALUE}, which this class uses when it talks to MySQL. Rows are encoded as UTF-8 straight into one
+ * large buffer that is written to a {@link FileChannel} when it fills, optionally through gzip. Memory use therefore
+ * stays the same however many rows are exported.
+ * </p>
+ *
+ * <p>
+ * Fields are escaped as in RFC 4180: a field holding a comma, a double quote or a line break is quoted, and the quotes
+ * inside it are doubled. SQL {@code NULL} is written as an empty field. The file is written next to the target and
+ * moved over it once complete, so a failed or cancelled export never leaves a partial file behind. Interrupting the
+ * exporting thread cancels the export.
+ * </p>
+ *
+ * <p>
+ * Games that are already in memory, as in the file and in-memory score repositories, are exported with
+ * {@link #exportPlayers(List, Path, boolean, Progress)} through the same buffer.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-10
+ */
+public class CsvExporter {
+    static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    static final int DEFAULT_FETCH_SIZE = 1000;
+    static final int PROGRESS_INTERVAL = 10_000;
+    static final String PLAYER_HEADER = "PlayerID,PlayerName,GameScore,GameTimeInMilliseconds";
+
+    /**
+     * Receives the progress of an export.
+     */
+    public interface Progress {
+        /**
+         * Called after every {@value CsvExporter#PROGRESS_INTERVAL} rows and once when the export is complete.
+         *
+         * @param rowsWritten The number of rows written so far.
+         * @param totalRows   The number of rows the query returned when the export started.
+         */
+        void update(long rowsWritten, long totalRows);
+    }
+
+    private final DataSource dataSource;
+    private final int bufferSize;
+    private final int fetchSize;
+
+    /**
+     * Constructs an exporter with a {@value #DEFAULT_BUFFER_SIZE} byte buffer and a fetch size of
+     * {@value #DEFAULT_FETCH_SIZE} rows.
+     *
+     * @param dataSource The database to export from.
+     */
+    public CsvExporter(DataSource dataSource) {
+        this(dataSource, DEFAULT_BUFFER_SIZE, DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Constructs an exporter.
+     *
+     * @param dataSource The database to export from.
+     * @param bufferSize The size of the write buffer in bytes.
+     * @param fetchSize  The number of rows fetched from the server at a time, for drivers other than MySQL.
+     */
+    public CsvExporter(DataSource dataSource, int bufferSize, int fetchSize) {
+        if (bufferSize < 1024) {
+            throw new IllegalArgumentException("bufferSize must be at least 1024");
+        }
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("fetchSize must be at least 1");
+        }
+        this.dataSource = dataSource;
+        this.bufferSize = bufferSize;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Exports the result of a query, with its column labels as the header row.
+     *
+     * @param query    The query to export.
+     * @param target   The file to write. It is replaced once the export is complete.
+     * @param gzip     Whether to compress the file with gzip.
+     * @param progress Receives the progress, or {@code null}. The rows are counted first when it is given.
+     * @return The number of rows written, not counting the header.
+     * @throws SQLException If the database could not be read.
+     * @throws IOException  If the file could not be written, or the export was interrupted.
+     */
+    public long export(String query, Path target, boolean gzip, Progress progress) throws SQLException, IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            long totalRows = progress == null ? -1 : count(connection, query);
+            try (PreparedStatement statement = connection.prepareStatement(query,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(isMySql(connection) ? Integer.MIN_VALUE : fetchSize);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return writeFile(target, gzip, bufferSize, sink -> write(resultSet, sink, progress, totalRows));
+                }
+            }
+        }
+    }
+
+    /**
+     * Exports games held in memory, with the columns of the leaderboard export: {@code PlayerID},
+     * {@code PlayerName}, {@code GameScore} and {@code GameTimeInMilliseconds}.
+     *
+     * @param players  The games, in the order to write them.
+     * @param target   The file to write. It is replaced once the export is complete.
+     * @param gzip     Whether to compress the file with gzip.
+     * @param progress Receives the progress, or {@code null}.
+     * @return The number of rows written, not counting the header.
+     * @throws IOException If the file could not be written, or the export was interrupted.
+     */
+    public static long exportPlayers(List<Player> players, Path target, boolean gzip, Progress progress)
+            throws IOException {
+        return CsvExporter.<IOException>writeFile(target, gzip, DEFAULT_BUFFER_SIZE,
+                sink -> write(players, sink, progress));
+    }
+
+    /**
+     * Writes the rows to a file next to the target and moves it over the target once complete.
+     */
+    private static <E extends Exception> long writeFile(Path target, boolean gzip, int bufferSize, Body<E> body)
+            throws E, IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        try {
+            long rows;
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                Sink sink = new Sink(channel, gzip, bufferSize);
+                rows = body.write(sink);
+                sink.finish();
+            }
+            move(partial, target);
+            return rows;
+        } catch (Exception e) {
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException deleteFailure) {
+                e.addSuppressed(deleteFailure);
+            }
+            throw e;
+        }
+    }
+
+    private static long write(ResultSet resultSet, Sink sink, Progress progress, long totalRows)
+            throws SQLException, IOException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columns = metaData.getColumnCount();
+        StringBuilder line = new StringBuilder(128);
+        for (int column = 1; column <= columns; column++) {
+            if (column > 1) {
+                line.append(',');
+            }
+            appendField(line, metaData.getColumnLabel(column));
+        }
+        sink.putLine(line);
+
+        long rows = 0;
+        while (resultSet.next()) {
+            line.setLength(0);
+            for (int column = 1; column <= columns; column++) {
+                if (column > 1) {
+                    line.append(',');
+                }
+                appendField(line, resultSet.getString(column));
+            }
+            sink.putLine(line);
+            rows++;
+            if (rows % PROGRESS_INTERVAL == 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Export cancelled after " + rows + " rows");
+                }
+                if (progress != null) {
+                    progress.update(rows, Math.max(rows, totalRows));
+                }
+            }
+        }
+        if (progress != null) {
+            progress.update(rows, rows);
+        }
+        return rows;
+    }
+
+    private static long write(List<Player> players, Sink sink, Progress progress) throws IOException {
+        StringBuilder line = new StringBuilder(128);
+        line.append(PLAYER_HEADER);
+        sink.putLine(line);
+
+        long rows = 0;
+        for (Player player : players) {
+            line.setLength(0);
+            appendField(line, player.getPlayerId() == null ? null : player.getPlayerId().toString());
+            line.append(',');
+            appendField(line, player.getPlayerName());
+            line.append(',');
+            appendField(line, player.getScore() == null ? null : player.getScore().toString());
+            line.append(',');
+            appendField(line, player.getGameTime() == null ? null : player.getGameTime().toString());
+            sink.putLine(line);
+            rows++;
+            if (rows % PROGRESS_INTERVAL == 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Export cancelled after " + rows + " rows");
+                }
+                if (progress != null) {
+                    progress.update(rows, players.size());
+                }
+            }
+        }
+        if (progress != null) {
+            progress.update(rows, rows);
+        }
+        return rows;
+    }
+
+    /**
+     * Appends a field, quoting it if it holds a comma, a double quote or a line break.
+     *
+     * @param line  The line being built.
+     * @param value The field value, or {@code null} for an empty field.
+     */
+    static void appendField(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private static long count(Connection connection, String query) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM (" + query + ") rows_to_export");
+             ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+
+    private static boolean isMySql(Connection connection) throws SQLException {
+        return "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+    }
+
+    private static void move(Path partial, Path target) throws IOException {
+        try {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Writes the rows of an export into the sink.
+     */
+    private interface Body<E extends Exception> {
+        long write(Sink sink) throws E, IOException;
+    }
+
+    /**
+     * Encodes lines into a buffer and writes the buffer to the file, or through gzip, when it fills.
+     */
+    private static final class Sink {
+        private final FileChannel channel;
+        private final GZIPOutputStream gzip;
+        private final ByteBuffer buffer;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        Sink(FileChannel channel, boolean gzip, int bufferSize) throws IOException {
+            this.channel = channel;
+            this.gzip = gzip ? new GZIPOutputStream(Channels.newOutputStream(channel), bufferSize) : null;
+            this.buffer = ByteBuffer.allocate(bufferSize);
+        }
+
+        void putLine(StringBuilder line) throws IOException {
+            line.append("\r\n");
+            CharBuffer chars = CharBuffer.wrap(line);
+            encoder.reset();
+            while (true) {
+                CoderResult result = encoder.encode(chars, buffer, true);
+                if (result.isOverflow()) {
+                    flush();
+                } else if (result.isUnderflow()) {
+                    break;
+                } else {
+                    result.throwException();
+                }
+            }
+            while (encoder.flush(buffer).isOverflow()) {
+                flush();
+            }
+        }
+
+        void finish() throws IOException {
+            flush();
+            if (gzip != null) {
+                gzip.finish();
+            }
+            channel.force(false);
+            if (gzip != null) {
+                // Releases the deflater; this also closes the channel, which was already forced
+                gzip.close();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            if (gzip != null) {
+                gzip.write(buffer.array(), buffer.arrayOffset(), buffer.limit());
+            } else {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            buffer.clear();
+        }
+    }
+}
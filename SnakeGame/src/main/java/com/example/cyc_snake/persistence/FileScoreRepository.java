@@ -0,0 +1,518 @@
+package com.example.cyc_snake.persistence;
+
+import com.example.cyc_snake.models.Player;
+import com.example.cyc_snake.models.PlayerStats;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * A score repository in a single append-only file on the local disk, indexed in memory.
+ *
+ * <p>
+ * The {@code FileScoreRepository} class stores every saved game and every deleted player as a record appended to the
+ * end of one file; nothing in the file is ever rewritten in place. Records use the framing of {@link RecordJournal}:
+ * the payload length, the CRC-32 of the payload and the payload. When the file is opened it is read from start to end
+ * in large sequential reads and replayed into a {@link ScoreIndex}, so reads are answered from memory. Replaying only
+ * decodes the records; the leaderboard is sorted when it is first read, which keeps the startup of the game in
+ * milliseconds. Reading stops at the first record that is cut short or fails its checksum, which is what a
+ * crash in the middle of an append leaves behind; the file is truncated there.
+ * </p>
+ *
+ * <p>
+ * Saves and deletes are queued and written by a single daemon thread. It appends every operation queued at that
+ * moment, up to {@value #MAX_GROUP_SIZE}, with one write and one {@code force}, then applies them to the index and
+ * completes their futures. A burst of saves therefore costs one disk flush rather than one each, where the MySQL
+ * repository pays a round trip to the server. Games get increasing ids as they are appended.
+ * </p>
+ *
+ * <p>
+ * Deleted games stay in the file until it is opened with at least {@value #COMPACTION_THRESHOLD} dead records and
+ * more dead records than live games. The live games are then written to a new file that replaces the old one; they
+ * keep their ids and their player's last played time.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-13
+ */
+public class FileScoreRepository implements ScoreRepository {
+    static final int RECORD_HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+    static final int MAX_GROUP_SIZE = 1024;
+    static final int MAX_NAME_BYTES = 1024;
+    static final int COMPACTION_THRESHOLD = 10_000;
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+    private static final int MAX_PAYLOAD_SIZE = 64 * 1024;
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private static final byte SAVE = 1;
+    private static final byte DELETE = 2;
+
+    private final Path file;
+    private final CRC32 crc = new CRC32();
+    private final long discardedBytes;
+
+    // Guarded by this
+    private final ScoreIndex index = new ScoreIndex();
+
+    private final ConcurrentLinkedQueue<Operation> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "score-file-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Replaced only while opening; then used by the writer thread and close
+    private FileChannel channel;
+    private long end;
+    private int lastId;
+
+    private volatile long flushCount;
+
+    /**
+     * Opens the score file, creating it if it does not exist, and reads every game into memory.
+     *
+     * @param file The score file.
+     * @throws IOException If the file cannot be opened or read.
+     */
+    public FileScoreRepository(Path file) throws IOException {
+        this.file = file;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long fileSize = channel.size();
+            int records = replay();
+            discardedBytes = fileSize - end;
+            int deadRecords = records - index.size();
+            if (deadRecords >= COMPACTION_THRESHOLD && deadRecords > index.size()) {
+                compact();
+            } else if (discardedBytes > 0) {
+                // Drop the torn tail of an append that was cut short
+                channel.truncate(end);
+                channel.force(false);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        lastId = index.getLastId();
+    }
+
+    @Override
+    public synchronized LeaderboardPage getLeaderboardPage(LeaderboardOrder order, Player after, int pageSize) {
+        return index.page(order, after, pageSize);
+    }
+
+    @Override
+    public synchronized List<PlayerStats> getPlayerStats() {
+        return index.getPlayerStats();
+    }
+
+    /**
+     * Queues a game to be appended to the file. The future completes once the game is on disk.
+     */
+    @Override
+    public CompletableFuture<Integer> save(String playerName, int score, long playTime) {
+        Operation save;
+        try {
+            save = new Operation(SAVE, playerName, score, playTime);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return submit(save);
+    }
+
+    /**
+     * Appends the deletion of a player to the file and waits until it is on disk.
+     */
+    @Override
+    public void deletePlayer(String playerName) throws StorageException {
+        if (playerName == null) {
+            return;
+        }
+        try {
+            submit(new Operation(DELETE, playerName, 0, 0)).get();
+        } catch (ExecutionException e) {
+            throw new StorageException("Could not delete " + playerName, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while deleting " + playerName, e);
+        } catch (IllegalArgumentException e) {
+            throw new StorageException("Could not delete " + playerName, e);
+        }
+    }
+
+    @Override
+    public long export(Path target, boolean gzip, CsvExporter.Progress progress) throws IOException {
+        List<Player> games;
+        synchronized (this) {
+            games = index.getGames();
+        }
+        return CsvExporter.exportPlayers(games, target, gzip, progress);
+    }
+
+    /**
+     * Gets the number of bytes dropped from the end of the file when it was opened, because the last append had
+     * been cut short or corrupted.
+     *
+     * @return The number of bytes discarded by recovery.
+     */
+    public long getDiscardedBytes() {
+        return discardedBytes;
+    }
+
+    /**
+     * Gets the number of appends forced to disk so far. Each covers a group of queued saves and deletes.
+     *
+     * @return The number of forced appends.
+     */
+    public long getFlushCount() {
+        return flushCount;
+    }
+
+    /**
+     * Writes the operations still queued, waiting a bounded time, and closes the file. Operations queued after
+     * this call fail.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        failPending(new IllegalStateException("Score file is closed"));
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private CompletableFuture<Integer> submit(Operation operation) {
+        pending.add(operation);
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                drainScheduled.set(false);
+                failPending(new IllegalStateException("Score file is closed", e));
+            }
+        }
+        return operation.done;
+    }
+
+    /**
+     * Appends queued operations in groups until the queue is empty. Runs on the writer thread.
+     */
+    private void drain() {
+        List<Operation> group = new ArrayList<>();
+        while (true) {
+            Operation operation;
+            while (group.size() < MAX_GROUP_SIZE && (operation = pending.poll()) != null) {
+                group.add(operation);
+            }
+            if (group.isEmpty()) {
+                drainScheduled.set(false);
+                // An operation queued after the last poll but before the flag was cleared would otherwise be stranded
+                if (pending.isEmpty() || !drainScheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            append(group);
+            group.clear();
+        }
+    }
+
+    /**
+     * Appends a group of operations with one write and one flush, then applies them to the index.
+     */
+    private void append(List<Operation> group) {
+        long playedAt = System.currentTimeMillis();
+        int firstId = lastId;
+        List<byte[]> payloads = new ArrayList<>(group.size());
+        int total = 0;
+        for (Operation operation : group) {
+            if (operation.type == SAVE) {
+                operation.playerId = ++lastId;
+            }
+            byte[] payload = operation.encode(playedAt);
+            payloads.add(payload);
+            total += RECORD_HEADER_SIZE + payload.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        for (byte[] payload : payloads) {
+            putRecord(buffer, payload);
+        }
+        buffer.flip();
+
+        try {
+            long position = end;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            // Content only: the data sync also persists the new file length
+            channel.force(false);
+        } catch (IOException e) {
+            try {
+                channel.truncate(end);
+            } catch (IOException truncateFailure) {
+                e.addSuppressed(truncateFailure);
+            }
+            lastId = firstId;
+            for (Operation operation : group) {
+                operation.done.completeExceptionally(e);
+            }
+            return;
+        }
+        end += total;
+        flushCount++;
+
+        synchronized (this) {
+            for (Operation operation : group) {
+                if (operation.type == SAVE) {
+                    index.add(operation.toPlayer(), playedAt);
+                } else {
+                    index.remove(operation.playerName);
+                }
+            }
+        }
+        for (Operation operation : group) {
+            operation.done.complete(operation.type == SAVE ? operation.playerId : null);
+        }
+    }
+
+    private void failPending(Throwable cause) {
+        Operation operation;
+        while ((operation = pending.poll()) != null) {
+            operation.done.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Reads every valid record from the start of the file into the index.
+     *
+     * @return The number of records read.
+     */
+    private int replay() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        buffer.flip();
+        long readPosition = 0;
+        int records = 0;
+        end = 0;
+        while (true) {
+            if (buffer.remaining() < RECORD_HEADER_SIZE) {
+                readPosition = fill(buffer, readPosition);
+                if (buffer.remaining() < RECORD_HEADER_SIZE) {
+                    break;
+                }
+            }
+            int length = buffer.getInt(buffer.position());
+            int checksum = buffer.getInt(buffer.position() + Integer.BYTES);
+            if (length < 1 || length > MAX_PAYLOAD_SIZE) {
+                break;
+            }
+            if (buffer.remaining() < RECORD_HEADER_SIZE + length) {
+                readPosition = fill(buffer, readPosition);
+                if (buffer.remaining() < RECORD_HEADER_SIZE + length) {
+                    break;
+                }
+            }
+            ByteBuffer payload = buffer.slice(buffer.position() + RECORD_HEADER_SIZE, length);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            apply(payload.rewind());
+            buffer.position(buffer.position() + RECORD_HEADER_SIZE + length);
+            end += RECORD_HEADER_SIZE + length;
+            records++;
+        }
+        return records;
+    }
+
+    /**
+     * Moves the unread bytes to the start of the buffer and fills the rest from the file.
+     *
+     * @return The file position after the bytes read.
+     */
+    private long fill(ByteBuffer buffer, long readPosition) throws IOException {
+        buffer.compact();
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, readPosition);
+            if (read < 0) {
+                break;
+            }
+            readPosition += read;
+        }
+        buffer.flip();
+        return readPosition;
+    }
+
+    private void apply(ByteBuffer payload) throws IOException {
+        byte type = payload.get();
+        if (type == SAVE) {
+            int playerId = payload.getInt();
+            long playedAt = payload.getLong();
+            int score = payload.getInt();
+            long playTime = payload.getLong();
+            index.add(new Player(playerId, index.canonicalName(readName(payload)), score, playTime), playedAt);
+        } else if (type == DELETE) {
+            index.remove(readName(payload));
+        } else {
+            throw new IOException("Unknown record type " + type + " in " + file);
+        }
+    }
+
+    /**
+     * Writes the live games to a new file and replaces the score file with it.
+     */
+    private void compact() throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        List<Player> games = index.getGames();
+        games.sort(Comparator.comparing(Player::getPlayerId));
+        long written = 0;
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            for (Player game : games) {
+                PlayerStats stats = index.getPlayerStats(game.getPlayerName());
+                long playedAt = stats == null || stats.getLastPlayed() == null ? 0 : stats.getLastPlayed();
+                byte[] payload = encodeSave(game.getPlayerId(), playedAt, game.getScore(), game.getGameTime(),
+                        encodeName(game.getPlayerName()));
+                if (buffer.remaining() < RECORD_HEADER_SIZE + payload.length) {
+                    written += writeOut(out, buffer, written);
+                }
+                putRecord(buffer, payload);
+            }
+            written += writeOut(out, buffer, written);
+            out.force(false);
+        }
+        channel.close();
+        try {
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        end = written;
+    }
+
+    private static int writeOut(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            position += out.write(buffer, position);
+        }
+        buffer.clear();
+        return length;
+    }
+
+    private void putRecord(ByteBuffer buffer, byte[] payload) {
+        crc.reset();
+        crc.update(payload);
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+    }
+
+    private static byte[] encodeName(String playerName) {
+        if (playerName == null) {
+            return null;
+        }
+        byte[] name = playerName.getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Player name is longer than " + MAX_NAME_BYTES + " bytes");
+        }
+        return name;
+    }
+
+    private static byte[] encodeSave(int playerId, long playedAt, int score, long playTime, byte[] name) {
+        ByteBuffer payload = ByteBuffer.allocate(1 + Integer.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES
+                + Integer.BYTES + (name == null ? 0 : name.length));
+        payload.put(SAVE).putInt(playerId).putLong(playedAt).putInt(score).putLong(playTime);
+        putName(payload, name);
+        return payload.array();
+    }
+
+    private static void putName(ByteBuffer payload, byte[] name) {
+        payload.putInt(name == null ? -1 : name.length);
+        if (name != null) {
+            payload.put(name);
+        }
+    }
+
+    private static String readName(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] name = new byte[length];
+        payload.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A save or delete waiting for the writer thread.
+     */
+    private static final class Operation {
+        final byte type;
+        final String playerName;
+        final byte[] name;
+        final int score;
+        final long playTime;
+        final CompletableFuture<Integer> done = new CompletableFuture<>();
+
+        // Assigned by the writer thread
+        int playerId;
+
+        Operation(byte type, String playerName, int score, long playTime) {
+            this.type = type;
+            this.playerName = playerName;
+            this.name = encodeName(playerName);
+            this.score = score;
+            this.playTime = playTime;
+        }
+
+        byte[] encode(long playedAt) {
+            if (type == SAVE) {
+                return encodeSave(playerId, playedAt, score, playTime, name);
+            }
+            ByteBuffer payload = ByteBuffer.allocate(1 + Integer.BYTES + name.length);
+            payload.put(DELETE);
+            putName(payload, name);
+            return payload.array();
+        }
+
+        Player toPlayer() {
+            return new Player(playerId, playerName, score, playTime);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.cyc_snake.persistence;
+
+import java.util.Objects;
+
+/**
+ * The result of one finished game, as stored in the {@code gamescores} table.
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-06
+ */
+public final class GameRecord {
+    private final String playerName;
+    private final int score;
+    private final long playTime;
+    private final long playedAt;
+
+    /**
+     * Constructs a game record.
+     *
+     * @param playerName The name of the player.
+     * @param score      The score achieved in the game.
+     * @param playTime   The duration of the game in milliseconds.
+     * @param playedAt   When the game ended, in milliseconds since the epoch.
+     */
+    public GameRecord(String playerName, int score, long playTime, long playedAt) {
+        this.playerName = playerName;
+        this.score = score;
+        this.playTime = playTime;
+        this.playedAt = playedAt;
+    }
+
+    /**
+     * Gets the name of the player.
+     *
+     * @return The player name.
+     */
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    /**
+     * Gets the score achieved in the game.
+     *
+     * @return The score.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the duration of the game.
+     *
+     * @return The play time in milliseconds.
+     */
+    public long getPlayTime() {
+        return playTime;
+    }
+
+    /**
+     * Gets the time the game ended, which is kept with the record however late it reaches the database.
+     *
+     * @return When the game ended, in milliseconds since the epoch.
+     */
+    public long getPlayedAt() {
+        return playedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GameRecord)) {
+            return false;
+        }
+        GameRecord other = (GameRecord) o;
+        return score == other.score && playTime == other.playTime && playedAt == other.playedAt
+                && Objects.equals(playerName, other.playerName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(playerName, score, playTime, playedAt);
+    }
+
+    @Override
+    public String toString() {
+        return "GameRecord{playerName=" + playerName + ", score=" + score + ", playTime=" + playTime
+                + ", playedAt=" + playedAt + "}";
+    }
+}
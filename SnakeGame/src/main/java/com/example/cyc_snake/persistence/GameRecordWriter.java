@@ -0,0 +1,540 @@
+package com.example.cyc_snake.persistence;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes game records to the database on a background thread.
+ *
+ * <p>
+ * The {@code GameRecordWriter} class lets the JavaFX Application Thread hand off a finished game without waiting
+ * for the database. {@link #save(String, int, long)} only queues the record and returns a future. A single daemon
+ * thread drains the queue, inserting every record pending at that moment, up to the batch size, with one
+ * {@code executeBatch} in one transaction.
+ * </p>
+ *
+ * <p>
+ * A batch that fails with a transient error, such as a dropped connection or a deadlock, is retried with an
+ * exponentially growing delay. The futures of a batch complete once it is committed, or exceptionally once it has
+ * failed for good.
+ * </p>
+ *
+ * <p>
+ * With a {@link RecordJournal}, every batch is appended to the journal and forced to disk before it is sent, and is
+ * removed from the journal once committed. If the database stays unreachable, or fails for any reason other than
+ * refusing the data itself, the records remain in the journal, their futures fail with a {@link DeferredException},
+ * and the journal is replayed in batches on the next save, on {@link #replayJournal()}, and every replay interval
+ * until it is empty. Only a batch the database rejects as invalid data or as violating a constraint is dropped.
+ * </p>
+ *
+ * <p>
+ * With a {@link SchemaMigrator}, the schema is brought up to date on the writer thread before the first batch; while
+ * a migration fails, journaled records stay in the journal. With a {@link PlayerStatsStore}, the statistics of the
+ * players in a batch are updated in the batch's transaction.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.1
+ * @since 2024-01-05
+ */
+public class GameRecordWriter implements AutoCloseable {
+    private static final String INSERT_SQL =
+            "INSERT INTO gamescores (playerName, gamescore, GameTimeInMilliseconds) VALUES (?, ?, ?)";
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final DataSource dataSource;
+    private final RecordJournal journal;
+    private final SchemaMigrator schema;
+    private final PlayerStatsStore stats;
+    private final int maxBatchSize;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final long replayIntervalMillis;
+
+    private final ConcurrentLinkedQueue<PendingRecord> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final AtomicBoolean replayScheduled = new AtomicBoolean();
+    private final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "game-record-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Journaled records that still wait for the database, in journal order; used by the writer thread only
+    private final ArrayDeque<PendingRecord> journaled = new ArrayDeque<>();
+
+    private volatile CommitListener commitListener;
+    private volatile long batchCount;
+    private volatile long retryCount;
+
+    /**
+     * Constructs a writer without a journal. The background thread is started with the first record.
+     *
+     * @param dataSource       The data source to insert the records through.
+     * @param maxBatchSize     The maximum number of records inserted with one {@code executeBatch}.
+     * @param maxAttempts      How many times a batch is tried before its records are given up.
+     * @param retryDelayMillis The delay before the first retry; it doubles with every further retry.
+     */
+    public GameRecordWriter(DataSource dataSource, int maxBatchSize, int maxAttempts, long retryDelayMillis) {
+        this(dataSource, null, maxBatchSize, maxAttempts, retryDelayMillis, 0);
+    }
+
+    /**
+     * Constructs a writer that makes every record durable in a journal before sending it.
+     *
+     * @param dataSource           The data source to insert the records through.
+     * @param journal              The journal of undelivered records, or {@code null} for none. The writer does not
+     *                             close it.
+     * @param maxBatchSize         The maximum number of records inserted with one {@code executeBatch}.
+     * @param maxAttempts          How many times a batch is tried before its records are given up or left in the
+     *                             journal.
+     * @param retryDelayMillis     The delay before the first retry; it doubles with every further retry.
+     * @param replayIntervalMillis How long to wait before replaying a journal the database could not take, or
+     *                             {@code 0} to replay only on the next save.
+     */
+    public GameRecordWriter(DataSource dataSource, RecordJournal journal, int maxBatchSize, int maxAttempts,
+                            long retryDelayMillis, long replayIntervalMillis) {
+        this(dataSource, journal, null, null, maxBatchSize, maxAttempts, retryDelayMillis, replayIntervalMillis);
+    }
+
+    /**
+     * Constructs a writer that journals every record and keeps the schema and the statistics of the players up to
+     * date.
+     *
+     * @param dataSource           The data source to insert the records through.
+     * @param journal              The journal of undelivered records, or {@code null} for none. The writer does not
+     *                             close it.
+     * @param schema               Migrates the schema before the first batch, or {@code null} if it is current.
+     * @param stats                The player statistics to update with every batch, or {@code null} for none.
+     * @param maxBatchSize         The maximum number of records inserted with one {@code executeBatch}.
+     * @param maxAttempts          How many times a batch is tried before its records are given up or left in the
+     *                             journal.
+     * @param retryDelayMillis     The delay before the first retry; it doubles with every further retry.
+     * @param replayIntervalMillis How long to wait before replaying a journal the database could not take, or
+     *                             {@code 0} to replay only on the next save.
+     */
+    public GameRecordWriter(DataSource dataSource, RecordJournal journal, SchemaMigrator schema,
+                            PlayerStatsStore stats, int maxBatchSize, int maxAttempts, long retryDelayMillis,
+                            long replayIntervalMillis) {
+        if (maxBatchSize < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("maxBatchSize and maxAttempts must be at least 1");
+        }
+        this.dataSource = dataSource;
+        this.journal = journal;
+        this.schema = schema;
+        this.stats = stats;
+        this.maxBatchSize = maxBatchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMillis = retryDelayMillis;
+        this.replayIntervalMillis = replayIntervalMillis;
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Queues a game record for insertion. Never blocks. The record is stamped with the current time as the time the
+     * game ended, so a record sent late, from the journal or after retries, still counts as played now.
+     *
+     * @param playerName The name of the player.
+     * @param score      The score achieved in the game.
+     * @param playTime   The duration of the game in milliseconds.
+     * @return A future that completes with the generated {@code PlayerID}, or {@code null} if the driver did not
+     * report it, when the record is committed, or exceptionally if it could not be saved. The exception is a
+     * {@link DeferredException} if the record is kept in the journal to be sent later.
+     */
+    public CompletableFuture<Integer> save(String playerName, int score, long playTime) {
+        long playedAt = System.currentTimeMillis();
+        PendingRecord record = new PendingRecord(new GameRecord(playerName, score, playTime, playedAt));
+        pending.add(record);
+        scheduleDrain();
+        return record.saved;
+    }
+
+    /**
+     * Starts sending the records left in the journal, for example ones written before the game was last closed.
+     * Does nothing without a journal.
+     */
+    public void replayJournal() {
+        if (journal != null) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Writes the records still queued and stops the background thread, waiting a bounded time for it to finish.
+     * Records saved after this call fail.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        failPending(new IllegalStateException("Game record writer is closed"));
+    }
+
+    /**
+     * Sets the listener told about every committed batch, including batches replayed from the journal.
+     *
+     * @param listener The listener, or {@code null} for none.
+     */
+    public void setCommitListener(CommitListener listener) {
+        this.commitListener = listener;
+    }
+
+    /**
+     * Gets the number of batches committed so far.
+     *
+     * @return The number of committed batches.
+     */
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * Gets the number of times a batch was retried after a transient failure.
+     *
+     * @return The number of retries.
+     */
+    public long getRetryCount() {
+        return retryCount;
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                drainScheduled.set(false);
+                failPending(new IllegalStateException("Game record writer is closed", e));
+            }
+        }
+    }
+
+    /**
+     * Writes queued records in batches until the queue is empty. Runs on the writer thread.
+     */
+    private void drain() {
+        List<PendingRecord> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            PendingRecord record;
+            while (batch.size() < maxBatchSize && (record = pending.poll()) != null) {
+                batch.add(record);
+            }
+            if (journal != null) {
+                journalAndReplay(batch);
+            } else if (!batch.isEmpty()) {
+                deliver(batch);
+            }
+            if (batch.isEmpty()) {
+                drainScheduled.set(false);
+                // A record queued after the last poll but before the flag was cleared would otherwise be stranded
+                if (pending.isEmpty() || !drainScheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes a batch straight to the database and completes its futures.
+     */
+    private void deliver(List<PendingRecord> batch) {
+        List<GameRecord> records = new ArrayList<>(batch.size());
+        for (PendingRecord record : batch) {
+            records.add(record.record);
+        }
+        try {
+            migrateSchema();
+            Integer[] ids = writeWithRetry(records);
+            notifyCommitted(records, ids, false);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).saved.complete(ids[i]);
+            }
+        } catch (SQLException e) {
+            for (PendingRecord record : batch) {
+                record.saved.completeExceptionally(e);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (PendingRecord record : batch) {
+                record.saved.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Makes a batch durable in the journal, then sends the journal to the database oldest first.
+     */
+    private void journalAndReplay(List<PendingRecord> batch) {
+        if (!batch.isEmpty()) {
+            List<GameRecord> records = new ArrayList<>(batch.size());
+            for (PendingRecord record : batch) {
+                records.add(record.record);
+            }
+            try {
+                journal.append(records);
+                journaled.addAll(batch);
+            } catch (IOException e) {
+                // Without a durable copy the batch still gets its chance at the database
+                e.printStackTrace();
+                deliver(batch);
+            }
+        }
+
+        if (journal.size() == 0) {
+            return;
+        }
+        try {
+            migrateSchema();
+        } catch (SQLException e) {
+            // Not the records' fault: keep them in the journal until the schema can be brought up to date
+            failJournaled(new DeferredException(e));
+            scheduleReplay();
+            return;
+        }
+        try {
+            while (journal.size() > 0) {
+                List<GameRecord> records = journal.peek(maxBatchSize);
+                int withoutFuture = journal.size() - journaled.size();
+                Integer[] ids = null;
+                SQLException failure = null;
+                try {
+                    ids = writeWithRetry(records);
+                    notifyCommitted(records, ids, withoutFuture > 0);
+                } catch (SQLException e) {
+                    if (!isRejected(e)) {
+                        // Offline, or failing for a reason that is not the records: keep everything and try again later
+                        failJournaled(new DeferredException(e));
+                        scheduleReplay();
+                        return;
+                    }
+                    // The records themselves were refused: drop the batch so it cannot block the journal forever
+                    failure = e;
+                }
+                journal.removeFirst(records.size());
+                completeJournaled(records.size(), withoutFuture, ids, failure);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            failJournaled(new DeferredException(e));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failJournaled(new DeferredException(e));
+        }
+    }
+
+    /**
+     * Completes the futures of the records among the oldest {@code count} journal entries. Entries journaled by an
+     * earlier run, or whose futures already failed, have no future left.
+     */
+    private void completeJournaled(int count, int withoutFuture, Integer[] ids, SQLException failure) {
+        for (int i = withoutFuture; i < count; i++) {
+            PendingRecord record = journaled.pollFirst();
+            if (failure == null) {
+                record.saved.complete(ids[i]);
+            } else {
+                record.saved.completeExceptionally(failure);
+            }
+        }
+    }
+
+    /**
+     * Tells the commit listener about a committed batch, before the futures of its records complete.
+     */
+    private void notifyCommitted(List<GameRecord> records, Integer[] ids, boolean replayed) {
+        CommitListener listener = commitListener;
+        if (listener != null) {
+            try {
+                listener.committed(records, ids, replayed);
+            } catch (RuntimeException e) {
+                // The records are committed whatever the listener makes of them
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void failJournaled(Exception cause) {
+        PendingRecord record;
+        while ((record = journaled.pollFirst()) != null) {
+            record.saved.completeExceptionally(cause);
+        }
+    }
+
+    private void scheduleReplay() {
+        if (replayIntervalMillis > 0 && replayScheduled.compareAndSet(false, true)) {
+            try {
+                executor.schedule(() -> {
+                    replayScheduled.set(false);
+                    scheduleDrain();
+                }, replayIntervalMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                replayScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Brings the schema up to date before records are written. Kept apart from the writes, so that a failing
+     * migration is never taken for records the database refused.
+     */
+    private void migrateSchema() throws SQLException {
+        if (schema != null) {
+            schema.migrate();
+        }
+    }
+
+    /**
+     * Writes a batch, retrying transient failures.
+     *
+     * @return The generated ids, in record order; {@code null} where the driver did not report them.
+     */
+    private Integer[] writeWithRetry(List<GameRecord> records) throws SQLException, InterruptedException {
+        long delay = retryDelayMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Integer[] ids = write(records);
+                batchCount++;
+                return ids;
+            } catch (SQLException e) {
+                if (attempt >= maxAttempts || !isTransient(e)) {
+                    throw e;
+                }
+            }
+            retryCount++;
+            Thread.sleep(delay);
+            delay *= 2;
+        }
+    }
+
+    private Integer[] write(List<GameRecord> records) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement =
+                         connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (GameRecord record : records) {
+                    preparedStatement.setString(1, record.getPlayerName());
+                    preparedStatement.setInt(2, record.getScore());
+                    preparedStatement.setLong(3, record.getPlayTime());
+                    preparedStatement.addBatch();
+                }
+                preparedStatement.executeBatch();
+                Integer[] ids = new Integer[records.size()];
+                try (ResultSet keys = preparedStatement.getGeneratedKeys()) {
+                    for (int i = 0; i < ids.length && keys.next(); i++) {
+                        ids[i] = keys.getInt(1);
+                    }
+                }
+                if (stats != null) {
+                    stats.apply(connection, records);
+                    stats.commit(connection, records);
+                } else {
+                    connection.commit();
+                }
+                return ids;
+            } catch (SQLException e) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackFailure) {
+                    e.addSuppressed(rollbackFailure);
+                }
+                throw e;
+            } finally {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException ignored) {
+                    // A broken connection is discarded on close; the original failure is what matters
+                }
+            }
+        }
+    }
+
+    /**
+     * Decides whether a failure may go away on its own: lost connections (SQL state class 08) and transaction
+     * rollbacks such as deadlocks (class 40).
+     */
+    static boolean isTransient(SQLException e) {
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("08") || state.startsWith("40"));
+    }
+
+    /**
+     * Decides whether a failure was caused by the records themselves, so sending them again cannot succeed: invalid
+     * data (SQL state class 22) and integrity constraint violations (class 23).
+     */
+    static boolean isRejected(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("22") || state.startsWith("23"));
+    }
+
+    private void failPending(Throwable cause) {
+        PendingRecord record;
+        while ((record = pending.poll()) != null) {
+            record.saved.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Is told about the batches the writer commits, for example to keep a cache of the records current.
+     */
+    @FunctionalInterface
+    public interface CommitListener {
+        /**
+         * Called on the writer thread once a batch is committed, before the futures of its records complete.
+         *
+         * @param records  The committed records.
+         * @param ids      The generated ids, in record order; {@code null} where the driver did not report them.
+         * @param replayed {@code true} if the batch holds records whose futures have already completed, because
+         *                 they were deferred or journaled by an earlier run.
+         */
+        void committed(List<GameRecord> records, Integer[] ids, boolean replayed);
+    }
+
+    /**
+     * Signals that a record could not be sent yet but is kept in the journal and will be sent later.
+     */
+    public static class DeferredException extends Exception {
+        /**
+         * Constructs the exception.
+         *
+         * @param cause Why the record could not be sent.
+         */
+        public DeferredException(Throwable cause) {
+            super("Game record kept in the local journal to be sent later", cause);
+        }
+    }
+
+    private static final class PendingRecord {
+        private final GameRecord record;
+        private final CompletableFuture<Integer> saved = new CompletableFuture<>();
+
+        PendingRecord(GameRecord record) {
+            this.record = record;
+        }
+    }
+}
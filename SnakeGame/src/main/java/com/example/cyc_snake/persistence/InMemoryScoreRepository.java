@@ -0,0 +1,73 @@
+package com.example.cyc_snake.persistence;
+
+import com.example.cyc_snake.models.Player;
+import com.example.cyc_snake.models.PlayerStats;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A score repository held only in memory.
+ *
+ * <p>
+ * The {@code InMemoryScoreRepository} class keeps every game in a {@link ScoreIndex} and loses them when the game is
+ * closed. It needs no database or file, which makes it the storage for tests and for playing offline without keeping
+ * scores. Every operation completes in memory under one lock, and saves complete before {@link #save} returns.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-13
+ */
+public class InMemoryScoreRepository implements ScoreRepository {
+    // Guarded by this
+    private final ScoreIndex index = new ScoreIndex();
+
+    /**
+     * Constructs an empty repository.
+     */
+    public InMemoryScoreRepository() {
+        // Nothing to open
+    }
+
+    @Override
+    public synchronized LeaderboardPage getLeaderboardPage(LeaderboardOrder order, Player after, int pageSize) {
+        return index.page(order, after, pageSize);
+    }
+
+    @Override
+    public synchronized List<PlayerStats> getPlayerStats() {
+        return index.getPlayerStats();
+    }
+
+    @Override
+    public synchronized CompletableFuture<Integer> save(String playerName, int score, long playTime) {
+        int playerId = index.getLastId() + 1;
+        index.add(new Player(playerId, playerName, score, playTime), System.currentTimeMillis());
+        return CompletableFuture.completedFuture(playerId);
+    }
+
+    @Override
+    public synchronized void deletePlayer(String playerName) {
+        index.remove(playerName);
+    }
+
+    @Override
+    public long export(Path target, boolean gzip, CsvExporter.Progress progress) throws IOException {
+        List<Player> games;
+        synchronized (this) {
+            games = index.getGames();
+        }
+        return CsvExporter.exportPlayers(games, target, gzip, progress);
+    }
+
+    /**
+     * Does nothing; the games stay readable.
+     */
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+}
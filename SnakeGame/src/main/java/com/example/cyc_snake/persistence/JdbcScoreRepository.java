@@ -0,0 +1,320 @@
+package com.example.cyc_snake.persistence;
+
+import com.example.cyc_snake.models.Player;
+import com.example.cyc_snake.models.PlayerStats;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A score repository in a JDBC database, by default the MySQL server of the game.
+ *
+ * <p>
+ * The {@code JdbcScoreRepository} class keeps the games in the {@code gamescores} table and the per-player statistics
+ * in {@code player_stats}, both created by {@link #SCHEMA_MIGRATIONS} before the first query. Games are saved by a
+ * {@link GameRecordWriter} on a background thread, through a {@link RecordJournal} if one is configured, so a score
+ * survives an unreachable server. The top of the leaderboard is served from a {@link LeaderboardCache}, further pages
+ * with keyset queries, and the statistics from a {@link PlayerStatsStore}.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-13
+ */
+public class JdbcScoreRepository implements ScoreRepository {
+    // Background record writer parameters
+    static final int WRITE_BATCH_SIZE = 32;
+    static final int WRITE_ATTEMPTS = 5;
+    static final long WRITE_RETRY_DELAY_MILLIS = 200;
+    static final long JOURNAL_REPLAY_INTERVAL_MILLIS = 30 * 1000;
+
+    // Leaderboard cache parameters
+    static final int LEADERBOARD_SIZE = 100;
+    static final long LEADERBOARD_TTL_MILLIS = 5 * 60 * 1000;
+
+    // How long the player statistics in memory are trusted before games saved by other clients are read
+    static final long PLAYER_STATS_TTL_MILLIS = 30 * 1000;
+
+    /**
+     * The query {@link #export(Path, boolean, CsvExporter.Progress)} streams, in leaderboard order.
+     */
+    public static final String EXPORT_QUERY = "SELECT PlayerID, PlayerName, GameScore, GameTimeInMilliseconds FROM gamescores "
+            + "ORDER BY GameScore DESC, GameTimeInMilliseconds ASC, PlayerID ASC";
+
+    /**
+     * The schema of the game database, one statement per version. Migrations already applied must never change;
+     * new ones are appended with the next version.
+     */
+    public static final List<SchemaMigrator.Migration> SCHEMA_MIGRATIONS = List.of(
+            new SchemaMigrator.Migration(1, "Create the game records table",
+                    "CREATE TABLE IF NOT EXISTS gamescores (PlayerID INT AUTO_INCREMENT PRIMARY KEY, "
+                            + "playerName VARCHAR(255), gamescore INT, GameTimeInMilliseconds BIGINT)"),
+            // Covers the leaderboard by score, its keyset pages and the export
+            SchemaMigrator.Migration.createIndex(2, "Index game records by score",
+                    "idx_gamescores_score", "gamescores",
+                    "gamescore DESC, GameTimeInMilliseconds, PlayerID, playerName"),
+            // Covers the leaderboard by time and its keyset pages
+            SchemaMigrator.Migration.createIndex(3, "Index game records by time",
+                    "idx_gamescores_time", "gamescores",
+                    "GameTimeInMilliseconds DESC, PlayerID, playerName, gamescore"),
+            // Serves deletePlayer and covers the per-player aggregation of the statistics backfill
+            SchemaMigrator.Migration.createIndex(4, "Index game records by player",
+                    "idx_gamescores_player", "gamescores",
+                    "playerName, gamescore, GameTimeInMilliseconds"),
+            new SchemaMigrator.Migration(5, "Create the player statistics table",
+                    "CREATE TABLE IF NOT EXISTS player_stats (playerName VARCHAR(255) NOT NULL PRIMARY KEY, "
+                            + "bestScore INT NOT NULL, totalGames INT NOT NULL, totalPlayTime BIGINT NOT NULL, "
+                            + "lastPlayed BIGINT)"),
+            new SchemaMigrator.Migration(6, "Fill the player statistics from the game records",
+                    "INSERT INTO player_stats (playerName, bestScore, totalGames, totalPlayTime, lastPlayed) "
+                            + "SELECT playerName, COALESCE(MAX(gamescore), 0), COUNT(*), "
+                            + "COALESCE(SUM(GameTimeInMilliseconds), 0), NULL FROM gamescores "
+                            + "WHERE playerName IS NOT NULL "
+                            + "AND playerName NOT IN (SELECT playerName FROM player_stats) GROUP BY playerName"));
+
+    private static final String DELETE_SQL = "DELETE FROM gamescores WHERE playerName = ?";
+
+    private final DataSource dataSource;
+    private final Path journalFile;
+
+    // Brings the schema up to date before the first query
+    private final SchemaMigrator schema;
+
+    // The top of the leaderboard, kept current by every saved game
+    private final LeaderboardCache leaderboard;
+
+    // Per-player statistics, kept in the same transactions as the games they summarize
+    private final PlayerStatsStore playerStats;
+
+    // Created with the first save
+    private GameRecordWriter recordWriter;
+    private RecordJournal journal;
+
+    /**
+     * Constructs a repository. Nothing is read until the first operation; the data source is not closed by
+     * {@link #close()}.
+     *
+     * @param dataSource  The database, usually a {@link ConnectionPool}.
+     * @param journalFile The journal games are made durable in before they are sent, or {@code null} to send them
+     *                    without one.
+     */
+    public JdbcScoreRepository(DataSource dataSource, Path journalFile) {
+        this.dataSource = dataSource;
+        this.journalFile = journalFile;
+        this.schema = new SchemaMigrator(dataSource, SCHEMA_MIGRATIONS);
+        this.leaderboard = new LeaderboardCache(LEADERBOARD_SIZE, LEADERBOARD_TTL_MILLIS,
+                limit -> queryLeaderboardPage(LeaderboardOrder.BY_SCORE, null, limit).getPlayers());
+        this.playerStats = new PlayerStatsStore(dataSource, PLAYER_STATS_TTL_MILLIS);
+    }
+
+    /**
+     * Gets the database of this repository.
+     *
+     * @return The data source.
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Brings the schema of the database up to date, if it is not already.
+     *
+     * @throws SQLException If a migration failed.
+     */
+    public void migrateSchema() throws SQLException {
+        schema.migrate();
+    }
+
+    /**
+     * Retrieves one page of the leaderboard. Pages are continued from the last player of the previous page with a
+     * keyset condition on the sort columns and {@code PlayerID}, so every page costs the same however deep it is.
+     * The first page by score is served from the leaderboard cache when it can answer it.
+     */
+    @Override
+    public LeaderboardPage getLeaderboardPage(LeaderboardOrder order, Player after, int pageSize)
+            throws StorageException {
+        try {
+            if (order == LeaderboardOrder.BY_SCORE && after == null) {
+                List<Player> top = leaderboard.getTopPlayers();
+                // A cache below capacity holds the whole table, as replays reload it; otherwise it answers only pages
+                // shorter than itself
+                if (top.size() < leaderboard.getCapacity() || top.size() > pageSize) {
+                    List<Player> page = new ArrayList<>(top.subList(0, Math.min(pageSize, top.size())));
+                    if (page.isEmpty() || page.get(page.size() - 1).getPlayerId() != null) {
+                        return new LeaderboardPage(page, top.size() > pageSize);
+                    }
+                }
+            }
+            return queryLeaderboardPage(order, after, pageSize);
+        } catch (SQLException e) {
+            throw new StorageException("Could not read the leaderboard", e);
+        }
+    }
+
+    private LeaderboardPage queryLeaderboardPage(LeaderboardOrder order, Player after, int pageSize)
+            throws SQLException {
+        List<Player> players = new ArrayList<>(Math.min(pageSize, 1024) + 1);
+        String sql = order.pageQuery(after != null);
+
+        schema.migrate();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            int limitIndex = after == null ? 1 : order.bindAfter(preparedStatement, after);
+            // One extra row tells whether another page follows
+            preparedStatement.setInt(limitIndex, pageSize + 1);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    int playerId = resultSet.getInt("PlayerID");
+                    String playerName = resultSet.getString("playerName");
+                    int score = resultSet.getInt("gamescore");
+                    long gameTime = resultSet.getLong("GameTimeInMilliseconds");
+
+                    players.add(new Player(playerId, playerName, score, gameTime));
+                }
+            }
+        }
+        boolean hasMore = players.size() > pageSize;
+        if (hasMore) {
+            players.remove(pageSize);
+        }
+        return new LeaderboardPage(players, hasMore);
+    }
+
+    /**
+     * Retrieves the statistics of every player. They are kept in memory and updated by every saved game, so the
+     * {@code player_stats} table is only read again once the statistics have expired, to pick up the games of other
+     * clients.
+     */
+    @Override
+    public List<PlayerStats> getPlayerStats() throws StorageException {
+        try {
+            schema.migrate();
+            return playerStats.getAll();
+        } catch (SQLException e) {
+            throw new StorageException("Could not read the player statistics", e);
+        }
+    }
+
+    /**
+     * Queues a game to be saved on a background thread. Games queued close together are inserted as one batch. The
+     * future fails with a {@link GameRecordWriter.DeferredException} if the game is kept in the journal to be sent
+     * later.
+     */
+    @Override
+    public CompletableFuture<Integer> save(String playerName, int score, long playTime) {
+        // The writer updates the cache before completing the future, so a caller that waits for it reads its own write
+        return getRecordWriter().save(playerName, score, playTime);
+    }
+
+    /**
+     * Starts sending the games left in the journal by an earlier run that could not reach the database.
+     */
+    @Override
+    public void replayPending() {
+        getRecordWriter().replayJournal();
+    }
+
+    /**
+     * Deletes the games of a player and the player's statistics in one transaction.
+     */
+    @Override
+    public void deletePlayer(String playerName) throws StorageException {
+        try {
+            schema.migrate();
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement preparedStatement = connection.prepareStatement(DELETE_SQL)) {
+                    preparedStatement.setString(1, playerName);
+                    preparedStatement.executeUpdate();
+                    playerStats.delete(connection, playerName);
+                    playerStats.commitDelete(connection, playerName);
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Could not delete " + playerName, e);
+        } finally {
+            // The deleted entries may be in the cache, and entries below the cached top may move up
+            leaderboard.invalidate();
+        }
+    }
+
+    /**
+     * Streams every game to a CSV file through a cursor and a fixed buffer, so the export does not hold the table in
+     * memory.
+     */
+    @Override
+    public long export(Path target, boolean gzip, CsvExporter.Progress progress) throws StorageException, IOException {
+        try {
+            schema.migrate();
+            return new CsvExporter(dataSource).export(EXPORT_QUERY, target, gzip, progress);
+        } catch (SQLException e) {
+            throw new StorageException("Could not read the game records", e);
+        }
+    }
+
+    /**
+     * Writes the games still queued and closes the journal. The repository can still be used; a later save starts
+     * a new writer.
+     */
+    @Override
+    public synchronized void close() {
+        if (recordWriter != null) {
+            recordWriter.close();
+            recordWriter = null;
+        }
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            journal = null;
+        }
+    }
+
+    /**
+     * Brings the leaderboard cache up to date with a committed batch. The games of a replayed batch were saved while
+     * the cache may already have been loaded without them, and possibly by an earlier run, so the cache is reloaded
+     * instead of trusted to hold the whole table.
+     */
+    private void updateLeaderboard(List<GameRecord> records, Integer[] ids, boolean replayed) {
+        if (replayed) {
+            leaderboard.invalidate();
+            return;
+        }
+        for (int i = 0; i < records.size(); i++) {
+            GameRecord record = records.get(i);
+            leaderboard.offer(new Player(ids[i], record.getPlayerName(), record.getScore(), record.getPlayTime()));
+        }
+    }
+
+    private synchronized GameRecordWriter getRecordWriter() {
+        if (recordWriter == null) {
+            if (journalFile != null) {
+                try {
+                    journal = new RecordJournal(journalFile);
+                } catch (IOException e) {
+                    System.out.println("Could not open the record journal, scores will not survive an unreachable database:");
+                    e.printStackTrace();
+                }
+            }
+            recordWriter = new GameRecordWriter(dataSource, journal, schema, playerStats, WRITE_BATCH_SIZE,
+                    WRITE_ATTEMPTS, WRITE_RETRY_DELAY_MILLIS, JOURNAL_REPLAY_INTERVAL_MILLIS);
+            recordWriter.setCommitListener(this::updateLeaderboard);
+        }
+        return recordWriter;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.cyc_snake.persistence;
+
+import com.example.cyc_snake.models.Player;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the best entries of the leaderboard in memory.
+ *
+ * <p>
+ * The {@code LeaderboardCache} class holds at most {@code capacity} players in a skip list ordered like the
+ * leaderboard: highest score first, shorter game first among equal scores. It is loaded with the top entries from the
+ * database the first time it is read, and every newly saved game is {@linkplain #offer(Player) offered} to it, which
+ * costs O(log K) and keeps it current without going back to the database. Reading it copies at most K entries.
+ * </p>
+ *
+ * <p>
+ * The cache reloads itself once the time to live has passed since the last load, or after
+ * {@link #invalidate()}, which callers use when rows are changed in ways an offer cannot express, such as deletions.
+ * An entry that is both loaded and offered has the same record id and is kept once.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-08
+ */
+public class LeaderboardCache {
+    /**
+     * The leaderboard order: highest score first, then shortest game, then oldest record, as in
+     * {@link LeaderboardOrder#BY_SCORE}. Entries without a record id come after those with one and are told apart by
+     * player name.
+     */
+    public static final Comparator<Player> RANKING = LeaderboardOrder.BY_SCORE.getComparator();
+
+    /**
+     * Loads the best entries of the leaderboard from the database.
+     */
+    public interface Loader {
+        /**
+         * Loads the top of the leaderboard.
+         *
+         * @param limit The maximum number of entries to load.
+         * @return Up to {@code limit} entries in leaderboard order.
+         * @throws SQLException If the database could not be read.
+         */
+        List<Player> load(int limit) throws SQLException;
+    }
+
+    private final int capacity;
+    private final long timeToLiveNanos;
+    private final Loader loader;
+    private final LongSupplier clock;
+
+    private volatile ConcurrentSkipListSet<Player> entries = new ConcurrentSkipListSet<>(RANKING);
+    private int size;
+    private boolean loaded;
+    private long loadedAt;
+
+    /**
+     * Constructs an empty cache. Nothing is loaded until the first read.
+     *
+     * @param capacity         The number of leaderboard entries to keep.
+     * @param timeToLiveMillis How long a load stays valid before the cache reloads from the database.
+     * @param loader           Loads the top entries from the database.
+     */
+    public LeaderboardCache(int capacity, long timeToLiveMillis, Loader loader) {
+        this(capacity, timeToLiveMillis, loader, System::nanoTime);
+    }
+
+    /**
+     * Constructs an empty cache with its own clock, so tests can move time forward.
+     */
+    LeaderboardCache(int capacity, long timeToLiveMillis, Loader loader, LongSupplier clock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+        this.loader = loader;
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the top of the leaderboard, reloading it from the database first if it was never loaded, has expired or
+     * was invalidated.
+     *
+     * @return Up to {@code capacity} entries in leaderboard order.
+     * @throws SQLException If the cache had to be reloaded and the database could not be read.
+     */
+    public List<Player> getTopPlayers() throws SQLException {
+        synchronized (this) {
+            if (!loaded || clock.getAsLong() - loadedAt >= timeToLiveNanos) {
+                reload();
+            }
+        }
+        // The skip list can be copied while a saved game is being offered
+        return new ArrayList<>(entries);
+    }
+
+    /**
+     * Adds a newly saved game, if it ranks within the top entries. Does nothing while the cache is not loaded,
+     * because the next load will include the game.
+     *
+     * @param player The saved game.
+     */
+    public synchronized void offer(Player player) {
+        if (!loaded) {
+            return;
+        }
+        if (size == capacity && RANKING.compare(player, entries.last()) >= 0) {
+            return;
+        }
+        if (entries.add(player) && ++size > capacity) {
+            entries.pollLast();
+            size--;
+        }
+    }
+
+    /**
+     * Marks the cache as stale, so the next read reloads it from the database.
+     */
+    public synchronized void invalidate() {
+        loaded = false;
+    }
+
+    /**
+     * Gets the number of entries the cache keeps.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private void reload() throws SQLException {
+        ConcurrentSkipListSet<Player> top = new ConcurrentSkipListSet<>(RANKING);
+        top.addAll(loader.load(capacity));
+        while (top.size() > capacity) {
+            top.pollLast();
+        }
+        // Readers copying the old set are not disturbed by the swap
+        entries = top;
+        size = top.size();
+        loaded = true;
+        loadedAt = clock.getAsLong();
+    }
+}
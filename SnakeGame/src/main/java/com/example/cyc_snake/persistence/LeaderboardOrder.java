@@ -0,0 +1,135 @@
+package com.example.cyc_snake.persistence;
+
+import com.example.cyc_snake.models.Player;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Comparator;
+
+/**
+ * The orders in which the leaderboard can be paged, with the SQL to page through each.
+ *
+ * <p>
+ * Every order ends with {@code PlayerID}, so it is total and a page can be continued from its last row with a keyset
+ * condition instead of an {@code OFFSET}: the database seeks straight to the next row instead of reading and skipping
+ * every row before it. The condition starts with a plain bound on the first sort column, which lets the optimizer
+ * turn it into a range on the matching index of the schema instead of filtering the index from its start.
+ * </p>
+ *
+ * <p>
+ * Each order is also available as a {@link Comparator}, for score repositories that sort in memory.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-09
+ */
+public enum LeaderboardOrder {
+    /**
+     * Highest score first, then shortest game, then oldest record.
+     */
+    BY_SCORE((a, b) -> {
+        int order = compareNullsLast(a.getScore(), b.getScore(), true);
+        if (order == 0) {
+            order = compareNullsLast(a.getGameTime(), b.getGameTime(), false);
+        }
+        return order != 0 ? order : compareIdThenName(a, b);
+    }, "gamescore DESC, GameTimeInMilliseconds ASC, PlayerID ASC",
+            "gamescore <= ? AND (gamescore < ? OR (gamescore = ? AND (GameTimeInMilliseconds > ? "
+                    + "OR (GameTimeInMilliseconds = ? AND PlayerID > ?))))") {
+        @Override
+        public int bindAfter(PreparedStatement statement, Player after) throws SQLException {
+            statement.setInt(1, after.getScore());
+            statement.setInt(2, after.getScore());
+            statement.setInt(3, after.getScore());
+            statement.setLong(4, after.getGameTime());
+            statement.setLong(5, after.getGameTime());
+            statement.setInt(6, after.getPlayerId());
+            return 7;
+        }
+    },
+
+    /**
+     * Longest game first, then oldest record.
+     */
+    BY_TIME((a, b) -> {
+        int order = compareNullsLast(a.getGameTime(), b.getGameTime(), true);
+        return order != 0 ? order : compareIdThenName(a, b);
+    }, "GameTimeInMilliseconds DESC, PlayerID ASC",
+            "GameTimeInMilliseconds <= ? AND (GameTimeInMilliseconds < ? "
+                    + "OR (GameTimeInMilliseconds = ? AND PlayerID > ?))") {
+        @Override
+        public int bindAfter(PreparedStatement statement, Player after) throws SQLException {
+            statement.setLong(1, after.getGameTime());
+            statement.setLong(2, after.getGameTime());
+            statement.setLong(3, after.getGameTime());
+            statement.setInt(4, after.getPlayerId());
+            return 5;
+        }
+    };
+
+    private final Comparator<Player> comparator;
+    private final String orderBy;
+    private final String after;
+
+    LeaderboardOrder(Comparator<Player> comparator, String orderBy, String after) {
+        this.comparator = comparator;
+        this.orderBy = orderBy;
+        this.after = after;
+    }
+
+    /**
+     * Gets the order as a comparator. Players without a score, time or record id come after those with one; players
+     * without a record id are told apart by name.
+     *
+     * @return A comparator that sorts players in this order.
+     */
+    public Comparator<Player> getComparator() {
+        return comparator;
+    }
+
+    /**
+     * Builds the query for one page.
+     *
+     * @param continued Whether the page continues after a previous row, which adds the keyset condition.
+     * @return A query whose parameters are those of {@link #bindAfter} if continued, followed by the row limit.
+     */
+    public String pageQuery(boolean continued) {
+        return "SELECT PlayerID, playerName, gamescore, GameTimeInMilliseconds FROM gamescores"
+                + (continued ? " WHERE " + after : "")
+                + " ORDER BY " + orderBy + " LIMIT ?";
+    }
+
+    /**
+     * Binds the keyset condition to the last row of the previous page.
+     *
+     * @param statement The statement prepared from {@code pageQuery(true)}.
+     * @param after     The last player of the previous page; it must have a record id.
+     * @return The index of the next parameter.
+     * @throws SQLException If a parameter could not be set.
+     */
+    public abstract int bindAfter(PreparedStatement statement, Player after) throws SQLException;
+
+    // Written out rather than composed with Comparator.comparing: the index of the file repository sorts every game
+    // on startup, and the composed comparators cost about three times as much per comparison
+
+    private static <T extends Comparable<T>> int compareNullsLast(T a, T b, boolean descending) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : 1) : -1;
+        }
+        return descending ? b.compareTo(a) : a.compareTo(b);
+    }
+
+    private static int compareIdThenName(Player a, Player b) {
+        int order = compareNullsLast(a.getPlayerId(), b.getPlayerId(), false);
+        if (order != 0) {
+            return order;
+        }
+        String nameA = a.getPlayerName();
+        String nameB = b.getPlayerName();
+        if (nameA == null || nameB == null) {
+            return nameA == null ? (nameB == null ? 0 : -1) : 1;
+        }
+        return nameA.compareTo(nameB);
+    }
+}
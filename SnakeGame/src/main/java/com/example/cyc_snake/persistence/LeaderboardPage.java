@@ -0,0 +1,61 @@
+package com.example.cyc_snake.persistence;
+
+import com.example.cyc_snake.models.Player;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of the leaderboard.
+ *
+ * <p>
+ * The next page is requested with the last player of this one, see
+ * {@code DatabaseConnection.getLeaderboardPage(LeaderboardOrder, Player, int)}.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-09
+ */
+public final class LeaderboardPage {
+    private final List<Player> players;
+    private final boolean hasMore;
+
+    /**
+     * Constructs a page.
+     *
+     * @param players The players on the page, in leaderboard order.
+     * @param hasMore Whether more players follow this page.
+     */
+    public LeaderboardPage(List<Player> players, boolean hasMore) {
+        this.players = Collections.unmodifiableList(players);
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * Gets the players on the page.
+     *
+     * @return The players, in leaderboard order.
+     */
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    /**
+     * Gets the last player on the page, to continue from.
+     *
+     * @return The last player, or {@code null} if the page is empty.
+     */
+    public Player getLast() {
+        return players.isEmpty() ? null : players.get(players.size() - 1);
+    }
+
+    /**
+     * Tells whether more players follow this page.
+     *
+     * @return {@code true} if there is a next page.
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
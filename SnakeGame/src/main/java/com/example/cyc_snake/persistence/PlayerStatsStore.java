@@ -0,0 +1,271 @@
+package com.example.cyc_snake.persistence;
+
+import com.example.cyc_snake.models.PlayerStats;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps per-player statistics up to date in the {@code player_stats} table and in memory.
+ *
+ * <p>
+ * The {@code PlayerStatsStore} class holds one row per player with the best score, number of games, total play time
+ * and time of the last game. The row is updated in the same transaction that inserts the games, with
+ * {@link #apply(Connection, List)} before the commit and {@link #commit(Connection, List)} for the commit
+ * itself, so the summary never drifts from {@code gamescores} and no query has to aggregate the games again. Reading
+ * the statistics therefore costs O(players) instead of a scan over every game.
+ * </p>
+ *
+ * <p>
+ * The statistics are loaded into memory on the first read and then updated by every commit. Commits and loads hold
+ * the same lock, so a load sees a commit either entirely or not at all before the commit updates the memory copy.
+ * Games saved by other game instances sharing the database only reach the memory copy through a load, so it is
+ * reloaded once the time to live has passed since the last load, or after {@link #invalidate()}.
+ * The table is created by the schema migrations of {@link JdbcScoreRepository}, which fill it
+ * from the existing games; games saved before it existed have no last played time.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-11
+ */
+public class PlayerStatsStore {
+    /**
+     * Best score first, then player name.
+     */
+    public static final Comparator<PlayerStats> RANKING = Comparator
+            .comparingInt(PlayerStats::getBestScore).reversed()
+            .thenComparing(PlayerStats::getPlayerName);
+
+    private static final String UPDATE_SQL = "UPDATE player_stats SET bestScore = GREATEST(bestScore, ?), "
+            + "totalGames = totalGames + ?, totalPlayTime = totalPlayTime + ?, "
+            + "lastPlayed = GREATEST(COALESCE(lastPlayed, 0), ?) WHERE playerName = ?";
+    private static final String INSERT_SQL = "INSERT INTO player_stats "
+            + "(playerName, bestScore, totalGames, totalPlayTime, lastPlayed) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_SQL =
+            "SELECT playerName, bestScore, totalGames, totalPlayTime, lastPlayed FROM player_stats";
+    private static final String DELETE_SQL = "DELETE FROM player_stats WHERE playerName = ?";
+
+    private static final long DEFAULT_TIME_TO_LIVE_MILLIS = 30 * 1000;
+
+    private final DataSource dataSource;
+    private final long timeToLiveNanos;
+    private final LongSupplier clock;
+
+    // Guarded by this
+    private Map<String, PlayerStats> stats;
+    private long loadedAt;
+
+    /**
+     * Constructs a store whose statistics are reloaded every 30 seconds. Nothing is read until the statistics are
+     * first needed.
+     *
+     * @param dataSource The database holding the statistics.
+     */
+    public PlayerStatsStore(DataSource dataSource) {
+        this(dataSource, DEFAULT_TIME_TO_LIVE_MILLIS);
+    }
+
+    /**
+     * Constructs a store. Nothing is read until the statistics are first needed.
+     *
+     * @param dataSource       The database holding the statistics.
+     * @param timeToLiveMillis How long a load stays valid before the statistics are read from the database again.
+     */
+    public PlayerStatsStore(DataSource dataSource, long timeToLiveMillis) {
+        this(dataSource, timeToLiveMillis, System::nanoTime);
+    }
+
+    /**
+     * Constructs a store with its own clock, so tests can move time forward.
+     */
+    PlayerStatsStore(DataSource dataSource, long timeToLiveMillis, LongSupplier clock) {
+        this.dataSource = dataSource;
+        this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * Adds games to the statistics of their players within the caller's transaction. Games without a player name
+     * are not counted. The last played time of a player becomes the latest time one of their games ended.
+     *
+     * @param connection The connection of the transaction that inserts the games.
+     * @param games      The games being inserted.
+     * @throws SQLException If the statistics could not be updated.
+     */
+    public void apply(Connection connection, List<GameRecord> games) throws SQLException {
+        Map<String, PlayerStats> changes = summarize(games);
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<PlayerStats> missing = new ArrayList<>();
+        try (PreparedStatement update = connection.prepareStatement(UPDATE_SQL)) {
+            for (PlayerStats change : changes.values()) {
+                bindUpdate(update, change);
+                update.addBatch();
+            }
+            int[] counts = update.executeBatch();
+            int i = 0;
+            for (PlayerStats change : changes.values()) {
+                if (counts[i++] == 0) {
+                    missing.add(change);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL);
+             PreparedStatement update = connection.prepareStatement(UPDATE_SQL)) {
+            for (PlayerStats change : missing) {
+                insert.setString(1, change.getPlayerName());
+                insert.setInt(2, change.getBestScore());
+                insert.setInt(3, change.getTotalGames());
+                insert.setLong(4, change.getTotalPlayTime());
+                insert.setLong(5, change.getLastPlayed());
+                try {
+                    insert.executeUpdate();
+                } catch (SQLIntegrityConstraintViolationException e) {
+                    // Another connection added the player since the update
+                    bindUpdate(update, change);
+                    update.executeUpdate();
+                }
+            }
+        }
+    }
+
+    /**
+     * Commits the caller's transaction and adds the games to the statistics held in memory.
+     *
+     * @param connection The connection of the transaction that inserted the games.
+     * @param games      The games inserted, as passed to {@link #apply(Connection, List)}.
+     * @throws SQLException If the commit failed; the statistics in memory are then unchanged.
+     */
+    public synchronized void commit(Connection connection, List<GameRecord> games) throws SQLException {
+        connection.commit();
+        if (stats != null) {
+            summarize(games).forEach((name, change) -> stats.merge(name, change, PlayerStats::plus));
+        }
+    }
+
+    /**
+     * Deletes the statistics of a player within the caller's transaction.
+     *
+     * @param connection The connection of the transaction that deletes the player's games.
+     * @param playerName The name of the player.
+     * @throws SQLException If the statistics could not be deleted.
+     */
+    public void delete(Connection connection, String playerName) throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement(DELETE_SQL)) {
+            delete.setString(1, playerName);
+            delete.executeUpdate();
+        }
+    }
+
+    /**
+     * Commits the caller's transaction and drops the player from the statistics held in memory.
+     *
+     * @param connection The connection of the transaction that deleted the player.
+     * @param playerName The name of the player.
+     * @throws SQLException If the commit failed.
+     */
+    public synchronized void commitDelete(Connection connection, String playerName) throws SQLException {
+        connection.commit();
+        if (stats != null) {
+            stats.remove(playerName);
+        }
+    }
+
+    /**
+     * Marks the statistics in memory as stale, so the next read loads them from the database again.
+     */
+    public synchronized void invalidate() {
+        stats = null;
+    }
+
+    /**
+     * Gets the statistics of every player, loading them first if they are not in memory yet or have expired.
+     *
+     * @return The statistics, best score first.
+     * @throws SQLException If the statistics had to be loaded and the database could not be read.
+     */
+    public synchronized List<PlayerStats> getAll() throws SQLException {
+        loadIfStale();
+        List<PlayerStats> all = new ArrayList<>(stats.values());
+        all.sort(RANKING);
+        return all;
+    }
+
+    /**
+     * Gets the statistics of one player.
+     *
+     * @param playerName The name of the player.
+     * @return The statistics, or {@code null} if the player has no games.
+     * @throws SQLException If the statistics had to be loaded and the database could not be read.
+     */
+    public synchronized PlayerStats get(String playerName) throws SQLException {
+        loadIfStale();
+        return stats.get(playerName);
+    }
+
+    private void loadIfStale() throws SQLException {
+        if (stats == null || clock.getAsLong() - loadedAt >= timeToLiveNanos) {
+            stats = load();
+            loadedAt = clock.getAsLong();
+        }
+    }
+
+    private Map<String, PlayerStats> load() throws SQLException {
+        Map<String, PlayerStats> loaded = new HashMap<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement select = connection.prepareStatement(SELECT_SQL);
+             ResultSet resultSet = select.executeQuery()) {
+            while (resultSet.next()) {
+                long lastPlayed = resultSet.getLong("lastPlayed");
+                Long knownLastPlayed = resultSet.wasNull() ? null : lastPlayed;
+                PlayerStats row = new PlayerStats(resultSet.getString("playerName"), resultSet.getInt("bestScore"),
+                        resultSet.getInt("totalGames"), resultSet.getLong("totalPlayTime"), knownLastPlayed);
+                loaded.put(row.getPlayerName(), row);
+            }
+        }
+        return loaded;
+    }
+
+    private static Map<String, PlayerStats> summarize(List<GameRecord> games) {
+        Map<String, PlayerStats> changes = new LinkedHashMap<>();
+        for (GameRecord game : games) {
+            if (game.getPlayerName() != null) {
+                changes.merge(game.getPlayerName(),
+                        new PlayerStats(game.getPlayerName(), game.getScore(), 1, game.getPlayTime(),
+                                game.getPlayedAt()),
+                        PlayerStats::plus);
+            }
+        }
+        return changes;
+    }
+
+    private static void bindUpdate(PreparedStatement update, PlayerStats change) throws SQLException {
+        update.setInt(1, change.getBestScore());
+        update.setInt(2, change.getTotalGames());
+        update.setLong(3, change.getTotalPlayTime());
+        if (change.getLastPlayed() == null) {
+            update.setNull(4, Types.BIGINT);
+        } else {
+            update.setLong(4, change.getLastPlayed());
+        }
+        update.setString(5, change.getPlayerName());
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.cyc_snake.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only file of game records that have not reached the database yet.
+ *
+ * <p>
+ * The {@code RecordJournal} class makes a finished game durable before the database sees it. {@link #append(List)}
+ * writes records to the end of the file and forces them to disk before returning; once they are committed to the
+ * database, {@link #removeFirst(int)} marks them as delivered. Whatever is still in the journal when the game is
+ * restarted is read back and can be sent again.
+ * </p>
+ *
+ * <p>
+ * The file starts with a header holding the offset of the first undelivered record and its checksum. Each record is
+ * stored as its payload length, the CRC-32 of its payload and the payload itself: the player name, the score, the
+ * play time and the time the game ended. When the journal is opened, records
+ * are read from the header offset until the end of the file or the first record that is cut short or fails its
+ * checksum, which is what a crash in the middle of an append leaves behind; the file is truncated there. The file is
+ * truncated back to the header whenever every record has been delivered. A crash between a database commit and
+ * {@link #removeFirst(int)} replays the delivered records again, so delivery is at least once.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-06
+ */
+public class RecordJournal implements AutoCloseable {
+    static final int HEADER_SIZE = Long.BYTES + Integer.BYTES;
+    static final int RECORD_HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+    private static final int MAX_PAYLOAD_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+    private final CRC32 crc = new CRC32();
+
+    private long head;
+    private long end;
+    private int size;
+    private final long discardedBytes;
+
+    /**
+     * Opens a journal, creating the file if it does not exist, and recovers it after a crash.
+     *
+     * @param file The journal file.
+     * @throws IOException If the file cannot be opened or read.
+     */
+    public RecordJournal(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long fileSize = channel.size();
+            head = readHead(fileSize);
+            end = head;
+            while (true) {
+                int length = readRecordLength(end, fileSize);
+                if (length < 0) {
+                    break;
+                }
+                end += RECORD_HEADER_SIZE + length;
+                size++;
+            }
+            discardedBytes = fileSize - end;
+            if (size == 0) {
+                reset();
+            } else if (discardedBytes > 0) {
+                // Drop the torn tail of an append that was cut short
+                channel.truncate(end);
+                channel.force(false);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends records to the journal and forces them to disk. The records are either all appended or, if this
+     * method throws, none of them are.
+     *
+     * @param records The records to append.
+     * @throws IOException If writing or forcing the file failed.
+     */
+    public synchronized void append(List<GameRecord> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        List<byte[]> payloads = new ArrayList<>(records.size());
+        int total = 0;
+        for (GameRecord record : records) {
+            byte[] payload = encode(record);
+            payloads.add(payload);
+            total += RECORD_HEADER_SIZE + payload.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        for (byte[] payload : payloads) {
+            crc.reset();
+            crc.update(payload);
+            buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        }
+        buffer.flip();
+
+        try {
+            long position = end;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            // Content only: the data sync also persists the new file length
+            channel.force(false);
+        } catch (IOException e) {
+            try {
+                channel.truncate(end);
+            } catch (IOException truncateFailure) {
+                e.addSuppressed(truncateFailure);
+            }
+            throw e;
+        }
+        end += total;
+        size += records.size();
+    }
+
+    /**
+     * Reads the oldest undelivered records without removing them.
+     *
+     * @param max The maximum number of records to read.
+     * @return Up to {@code max} records, oldest first.
+     * @throws IOException If reading the file failed.
+     */
+    public synchronized List<GameRecord> peek(int max) throws IOException {
+        int count = Math.min(max, size);
+        List<GameRecord> records = new ArrayList<>(count);
+        long position = head;
+        for (int i = 0; i < count; i++) {
+            int length = readHeader(position);
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, position + RECORD_HEADER_SIZE);
+            records.add(decode(payload.flip()));
+            position += RECORD_HEADER_SIZE + length;
+        }
+        return records;
+    }
+
+    /**
+     * Marks the oldest records as delivered. Once every record is delivered the file is truncated.
+     *
+     * @param count The number of records to remove.
+     * @throws IOException If updating the file failed.
+     */
+    public synchronized void removeFirst(int count) throws IOException {
+        if (count < 0 || count > size) {
+            throw new IllegalArgumentException("Cannot remove " + count + " of " + size + " records");
+        }
+        if (count == 0) {
+            return;
+        }
+        if (count == size) {
+            reset();
+            return;
+        }
+        long position = head;
+        for (int i = 0; i < count; i++) {
+            position += RECORD_HEADER_SIZE + readHeader(position);
+        }
+        writeHead(position);
+        channel.force(false);
+        head = position;
+        size -= count;
+    }
+
+    /**
+     * Gets the number of undelivered records.
+     *
+     * @return The number of records in the journal.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of bytes dropped from the end of the file when it was opened, because the last append had
+     * been cut short or corrupted.
+     *
+     * @return The number of bytes discarded by recovery.
+     */
+    public long getDiscardedBytes() {
+        return discardedBytes;
+    }
+
+    /**
+     * Closes the journal file.
+     *
+     * @throws IOException If closing the file failed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Empties the journal. The file is truncated before the header is rewritten, so a crash in between leaves a
+     * header pointing past the end of the file, which is read back as an empty journal.
+     */
+    private void reset() throws IOException {
+        channel.truncate(HEADER_SIZE);
+        writeHead(HEADER_SIZE);
+        channel.force(false);
+        head = HEADER_SIZE;
+        end = HEADER_SIZE;
+        size = 0;
+    }
+
+    private long readHead(long fileSize) throws IOException {
+        if (fileSize < HEADER_SIZE) {
+            return HEADER_SIZE;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, 0);
+        header.flip();
+        long offset = header.getLong();
+        int checksum = header.getInt();
+        if (checksum != checksum(offset) || offset < HEADER_SIZE || offset > fileSize) {
+            // A damaged header loses only the delivery progress: every record is replayed
+            return HEADER_SIZE;
+        }
+        return offset;
+    }
+
+    private void writeHead(long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putLong(offset).putInt(checksum(offset)).flip();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+    }
+
+    private static int checksum(long offset) {
+        CRC32 headerCrc = new CRC32();
+        headerCrc.update(ByteBuffer.allocate(Long.BYTES).putLong(offset).flip());
+        return (int) headerCrc.getValue();
+    }
+
+    /**
+     * Validates the record at a position during recovery.
+     *
+     * @return The payload length, or {@code -1} if the record is missing, cut short or corrupted.
+     */
+    private int readRecordLength(long position, long fileSize) throws IOException {
+        if (position + RECORD_HEADER_SIZE > fileSize) {
+            return -1;
+        }
+        recordHeader.clear();
+        readFully(recordHeader, position);
+        recordHeader.flip();
+        int length = recordHeader.getInt();
+        int checksum = recordHeader.getInt();
+        if (length < 0 || length > MAX_PAYLOAD_SIZE || position + RECORD_HEADER_SIZE + length > fileSize) {
+            return -1;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(payload, position + RECORD_HEADER_SIZE);
+        crc.reset();
+        crc.update(payload.flip());
+        return (int) crc.getValue() == checksum ? length : -1;
+    }
+
+    private int readHeader(long position) throws IOException {
+        recordHeader.clear();
+        readFully(recordHeader, position);
+        return recordHeader.flip().getInt();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of journal at " + position);
+            }
+            position += read;
+        }
+    }
+
+    private static byte[] encode(GameRecord record) {
+        byte[] name = record.getPlayerName() == null ? null : record.getPlayerName().getBytes(StandardCharsets.UTF_8);
+        int nameLength = name == null ? 0 : name.length;
+        ByteBuffer payload = ByteBuffer.allocate(Integer.BYTES + nameLength + Integer.BYTES + Long.BYTES + Long.BYTES);
+        payload.putInt(name == null ? -1 : nameLength);
+        if (name != null) {
+            payload.put(name);
+        }
+        payload.putInt(record.getScore()).putLong(record.getPlayTime()).putLong(record.getPlayedAt());
+        if (payload.capacity() > MAX_PAYLOAD_SIZE) {
+            throw new IllegalArgumentException("Player name is too long to journal");
+        }
+        return payload.array();
+    }
+
+    private static GameRecord decode(ByteBuffer payload) {
+        int nameLength = payload.getInt();
+        String name = null;
+        if (nameLength >= 0) {
+            byte[] bytes = new byte[nameLength];
+            payload.get(bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+        int score = payload.getInt();
+        long playTime = payload.getLong();
+        // Records journaled before the end time was kept count as played when they are read back
+        long playedAt = payload.remaining() >= Long.BYTES ? payload.getLong() : System.currentTimeMillis();
+        return new GameRecord(name, score, playTime, playedAt);
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.cyc_snake.persistence;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Brings a database schema up to date with a list of numbered migrations.
+ *
+ * <p>
+ * The {@code SchemaMigrator} class records the migrations it has applied in a {@code schema_version} table and applies
+ * the missing ones in version order. Each migration is a single SQL statement, run in a transaction with the row that
+ * records it, so a migration that fails is tried again on the next call. MySQL commits DDL implicitly, which is why
+ * migrations are kept to one statement each: a failure can then never leave half a migration applied.
+ * </p>
+ *
+ * <p>
+ * {@link #migrate()} checks the version once; after it succeeds it returns immediately, so callers can invoke it
+ * before every database operation. If another game instance applies a migration at the same time, the failure is
+ * ignored once the version table shows the migration as applied.
+ * </p>
+ *
+ * <p>
+ * Because MySQL commits a {@code CREATE INDEX} on its own, a crash between the statement and the row that records it
+ * leaves the index in place with the migration unrecorded. Migrations made with
+ * {@link Migration#createIndex(int, String, String, String, String)} therefore look the index up first and, if it
+ * already exists, only record the version.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-12
+ */
+public class SchemaMigrator {
+    private static final String CREATE_VERSION_TABLE_SQL = "CREATE TABLE IF NOT EXISTS schema_version ("
+            + "version INT NOT NULL PRIMARY KEY, description VARCHAR(255) NOT NULL, appliedAt BIGINT NOT NULL)";
+    private static final String CURRENT_VERSION_SQL = "SELECT MAX(version) FROM schema_version";
+    private static final String RECORD_VERSION_SQL =
+            "INSERT INTO schema_version (version, description, appliedAt) VALUES (?, ?, ?)";
+
+    /**
+     * One step of the schema.
+     */
+    public static final class Migration {
+        private final int version;
+        private final String description;
+        private final String sql;
+        // The index the migration creates and its table, or null if it is not an index migration
+        private final String index;
+        private final String table;
+
+        /**
+         * Constructs a migration.
+         *
+         * @param version     The version the schema has once the migration is applied; versions start at 1.
+         * @param description What the migration does.
+         * @param sql         The statement that applies the migration.
+         */
+        public Migration(int version, String description, String sql) {
+            this(version, description, sql, null, null);
+        }
+
+        private Migration(int version, String description, String sql, String index, String table) {
+            if (version < 1) {
+                throw new IllegalArgumentException("version must be at least 1");
+            }
+            this.version = version;
+            this.description = description;
+            this.sql = sql;
+            this.index = index;
+            this.table = table;
+        }
+
+        /**
+         * Constructs a migration that creates an index, and is only recorded if the index already exists.
+         *
+         * @param version     The version the schema has once the migration is applied; versions start at 1.
+         * @param description What the migration does.
+         * @param index       The name of the index.
+         * @param table       The table to index.
+         * @param columns     The indexed columns, as listed in {@code CREATE INDEX}.
+         * @return The migration.
+         */
+        public static Migration createIndex(int version, String description, String index, String table,
+                                            String columns) {
+            return new Migration(version, description, "CREATE INDEX " + index + " ON " + table + " (" + columns + ")",
+                    index, table);
+        }
+
+        /**
+         * Gets the version the schema has once the migration is applied.
+         *
+         * @return The version.
+         */
+        public int getVersion() {
+            return version;
+        }
+
+        /**
+         * Gets what the migration does.
+         *
+         * @return The description.
+         */
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * Gets the statement that applies the migration.
+         *
+         * @return The SQL statement.
+         */
+        public String getSql() {
+            return sql;
+        }
+    }
+
+    private final DataSource dataSource;
+    private final List<Migration> migrations;
+    private volatile boolean current;
+
+    /**
+     * Constructs a migrator. Nothing is read until {@link #migrate()} is called.
+     *
+     * @param dataSource The database to migrate.
+     * @param migrations The migrations, with distinct versions.
+     */
+    public SchemaMigrator(DataSource dataSource, List<Migration> migrations) {
+        this.dataSource = dataSource;
+        this.migrations = new ArrayList<>(migrations);
+        this.migrations.sort(Comparator.comparingInt(Migration::getVersion));
+        for (int i = 1; i < this.migrations.size(); i++) {
+            if (this.migrations.get(i).version == this.migrations.get(i - 1).version) {
+                throw new IllegalArgumentException("Duplicate migration version " + this.migrations.get(i).version);
+            }
+        }
+    }
+
+    /**
+     * Applies every migration the database does not have yet. Returns immediately once the schema is current.
+     *
+     * @throws SQLException If the version could not be read or a migration failed.
+     */
+    public void migrate() throws SQLException {
+        if (current) {
+            return;
+        }
+        synchronized (this) {
+            if (current) {
+                return;
+            }
+            try (Connection connection = dataSource.getConnection()) {
+                int version = currentVersion(connection);
+                for (Migration migration : migrations) {
+                    if (migration.version > version) {
+                        apply(connection, migration);
+                    }
+                }
+            }
+            current = true;
+        }
+    }
+
+    /**
+     * Gets the version of the schema, as recorded in the database.
+     *
+     * @return The highest applied migration version, or {@code 0} if none was applied.
+     * @throws SQLException If the version could not be read.
+     */
+    public int getCurrentVersion() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return currentVersion(connection);
+        }
+    }
+
+    /**
+     * Gets the version the schema has once every migration is applied.
+     *
+     * @return The highest migration version, or {@code 0} if there are no migrations.
+     */
+    public int getLatestVersion() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version;
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement();
+             PreparedStatement record = connection.prepareStatement(RECORD_VERSION_SQL)) {
+            if (migration.index == null || !indexExists(connection, migration.table, migration.index)) {
+                statement.execute(migration.sql);
+            }
+            record.setInt(1, migration.version);
+            record.setString(2, migration.description);
+            record.setLong(3, System.currentTimeMillis());
+            record.executeUpdate();
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            // Another game instance may have applied it first
+            if (currentVersion(connection) < migration.version) {
+                throw e;
+            }
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static boolean indexExists(Connection connection, String table, String index) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        // The metadata expects the table name as the database stores it
+        if (metaData.storesUpperCaseIdentifiers()) {
+            table = table.toUpperCase(Locale.ROOT);
+        } else if (metaData.storesLowerCaseIdentifiers()) {
+            table = table.toLowerCase(Locale.ROOT);
+        }
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), null, table, false, true)) {
+            while (indexes.next()) {
+                if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int currentVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_VERSION_TABLE_SQL);
+        }
+        try (PreparedStatement statement = connection.prepareStatement(CURRENT_VERSION_SQL);
+             ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+}
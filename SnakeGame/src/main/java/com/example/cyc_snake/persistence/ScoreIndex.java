@@ -0,0 +1,208 @@
+package com.example.cyc_snake.persistence;
+
+import com.example.cyc_snake.models.Player;
+import com.example.cyc_snake.models.PlayerStats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Every saved game held in memory, sorted in each leaderboard order.
+ *
+ * <p>
+ * The {@code ScoreIndex} class keeps the games in one sorted set per {@link LeaderboardOrder}, so a page is a seek to
+ * the last player of the previous page followed by a walk over the page: O(log n + page size) however deep it is. The
+ * games of each player are kept alongside with running totals for their {@link PlayerStats}, so deleting a player
+ * costs O(games of the player · log n) and the statistics are never aggregated again.
+ * </p>
+ *
+ * <p>
+ * The sorted sets are built when the leaderboard is first read, not as games are added, so a repository that replays
+ * a large file at startup only sorts it once the leaderboard is opened, and never if it is only saved to. The class
+ * is not thread-safe; the repositories that use it hold their own lock.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-13
+ */
+final class ScoreIndex {
+    // Keyed by player name; games without a name are kept under null but have no statistics
+    private final Map<String, PlayerGames> players = new HashMap<>();
+    private int size;
+    private int lastId;
+
+    // Built on the first read that needs them, then kept up to date
+    private NavigableSet<Player> byScore;
+    private NavigableSet<Player> byTime;
+
+    /**
+     * Adds a saved game.
+     *
+     * @param game     The game, with its id.
+     * @param playedAt When the game was saved, in milliseconds since the epoch.
+     */
+    void add(Player game, long playedAt) {
+        players.computeIfAbsent(game.getPlayerName(), PlayerGames::new).add(game, playedAt);
+        if (byScore != null) {
+            byScore.add(game);
+            byTime.add(game);
+        }
+        size++;
+        lastId = Math.max(lastId, game.getPlayerId());
+    }
+
+    /**
+     * Removes every game of a player, and the player's statistics. As in SQL, no game matches a missing name.
+     *
+     * @param playerName The name of the player.
+     * @return The number of games removed.
+     */
+    int remove(String playerName) {
+        if (playerName == null) {
+            return 0;
+        }
+        PlayerGames removed = players.remove(playerName);
+        if (removed == null) {
+            return 0;
+        }
+        if (byScore != null) {
+            for (Player game : removed.games) {
+                byScore.remove(game);
+                byTime.remove(game);
+            }
+        }
+        size -= removed.games.size();
+        return removed.games.size();
+    }
+
+    /**
+     * Gets one page of the leaderboard.
+     *
+     * @param order    The order of the leaderboard.
+     * @param after    The last player of the previous page, or {@code null} for the first page.
+     * @param pageSize The maximum number of players on the page.
+     * @return The page.
+     */
+    LeaderboardPage page(LeaderboardOrder order, Player after, int pageSize) {
+        sort();
+        NavigableSet<Player> sorted = order == LeaderboardOrder.BY_SCORE ? byScore : byTime;
+        Iterator<Player> games = (after == null ? sorted : sorted.tailSet(after, false)).iterator();
+        List<Player> page = new ArrayList<>(Math.min(pageSize, 1024));
+        while (page.size() < pageSize && games.hasNext()) {
+            page.add(games.next());
+        }
+        return new LeaderboardPage(page, games.hasNext());
+    }
+
+    /**
+     * Gets the statistics of every player.
+     *
+     * @return The statistics, best score first.
+     */
+    List<PlayerStats> getPlayerStats() {
+        List<PlayerStats> all = new ArrayList<>(players.size());
+        for (PlayerGames games : players.values()) {
+            if (games.playerName != null) {
+                all.add(games.toStats());
+            }
+        }
+        all.sort(PlayerStatsStore.RANKING);
+        return all;
+    }
+
+    /**
+     * Gets the statistics of one player.
+     *
+     * @param playerName The name of the player.
+     * @return The statistics, or {@code null} if the player has no games.
+     */
+    PlayerStats getPlayerStats(String playerName) {
+        PlayerGames games = playerName == null ? null : players.get(playerName);
+        return games == null ? null : games.toStats();
+    }
+
+    /**
+     * Gets the name instance already held for a player, so games read back from a file share one copy of each name.
+     *
+     * @param playerName The name of the player.
+     * @return An equal name, the one held if the player has games.
+     */
+    String canonicalName(String playerName) {
+        PlayerGames games = playerName == null ? null : players.get(playerName);
+        return games == null ? playerName : games.playerName;
+    }
+
+    /**
+     * Copies every game.
+     *
+     * @return The games in leaderboard order by score.
+     */
+    List<Player> getGames() {
+        sort();
+        return new ArrayList<>(byScore);
+    }
+
+    /**
+     * Gets the number of games.
+     *
+     * @return The number of games held.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the highest game id ever added, including games removed since.
+     *
+     * @return The highest id, or {@code 0} if no game was added.
+     */
+    int getLastId() {
+        return lastId;
+    }
+
+    private void sort() {
+        if (byScore != null) {
+            return;
+        }
+        List<Player> all = new ArrayList<>(size);
+        for (PlayerGames games : players.values()) {
+            all.addAll(games.games);
+        }
+        byScore = new TreeSet<>(LeaderboardOrder.BY_SCORE.getComparator());
+        byScore.addAll(all);
+        byTime = new TreeSet<>(LeaderboardOrder.BY_TIME.getComparator());
+        byTime.addAll(all);
+    }
+
+    /**
+     * The games of one player and their running totals.
+     */
+    private static final class PlayerGames {
+        final String playerName;
+        final List<Player> games = new ArrayList<>();
+        int bestScore;
+        long totalPlayTime;
+        long lastPlayed;
+
+        PlayerGames(String playerName) {
+            this.playerName = playerName;
+        }
+
+        void add(Player game, long playedAt) {
+            bestScore = games.isEmpty() ? game.getScore() : Math.max(bestScore, game.getScore());
+            totalPlayTime += game.getGameTime();
+            lastPlayed = games.isEmpty() ? playedAt : Math.max(lastPlayed, playedAt);
+            games.add(game);
+        }
+
+        PlayerStats toStats() {
+            return new PlayerStats(playerName, bestScore, games.size(), totalPlayTime, lastPlayed);
+        }
+    }
+}
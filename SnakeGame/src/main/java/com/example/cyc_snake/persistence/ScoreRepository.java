@@ -0,0 +1,118 @@
+package com.example.cyc_snake.persistence;
+
+import com.example.cyc_snake.models.Player;
+import com.example.cyc_snake.models.PlayerStats;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Stores the scores of finished games.
+ *
+ * <p>
+ * The {@code ScoreRepository} interface is everything the game needs from its score storage: the leaderboard in
+ * pages, the players and their statistics, saving a game, deleting a player and exporting every game. Three
+ * implementations are provided and {@link com.example.cyc_snake.DatabaseConnection} chooses one from the
+ * configuration:
+ * </p>
+ * <ul>
+ *   <li>{@link JdbcScoreRepository}: the MySQL database, or any other JDBC data source.</li>
+ *   <li>{@link FileScoreRepository}: an append-only file on the local disk, indexed in memory.</li>
+ *   <li>{@link InMemoryScoreRepository}: memory only, for tests and for playing without any storage.</li>
+ * </ul>
+ *
+ * <p>
+ * Every implementation orders the leaderboard as {@link LeaderboardOrder} does and gives each saved game an id, so
+ * pages can be continued from their last player whichever storage is used. Implementations are safe for use from
+ * several threads.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-13
+ */
+public interface ScoreRepository extends AutoCloseable {
+
+    /**
+     * Retrieves one page of the leaderboard.
+     *
+     * @param order    The order of the leaderboard.
+     * @param after    The last player of the previous page, or {@code null} for the first page. Must come from a
+     *                 page in the same order.
+     * @param pageSize The maximum number of players on the page.
+     * @return The page.
+     * @throws StorageException If the scores could not be read.
+     */
+    LeaderboardPage getLeaderboardPage(LeaderboardOrder order, Player after, int pageSize) throws StorageException;
+
+    /**
+     * Retrieves the statistics of every player.
+     *
+     * @return The statistics, best score first.
+     * @throws StorageException If the statistics could not be read.
+     */
+    List<PlayerStats> getPlayerStats() throws StorageException;
+
+    /**
+     * Retrieves the names of every player.
+     *
+     * @return The names, best player first.
+     * @throws StorageException If the players could not be read.
+     */
+    default List<String> getPlayerNames() throws StorageException {
+        List<String> names = new ArrayList<>();
+        for (PlayerStats stats : getPlayerStats()) {
+            names.add(stats.getPlayerName());
+        }
+        return names;
+    }
+
+    /**
+     * Saves a finished game. Never blocks on the storage.
+     *
+     * @param playerName The name of the player.
+     * @param score      The score achieved in the game.
+     * @param playTime   The duration of the game in milliseconds.
+     * @return A future that completes with the id of the saved game, or {@code null} if the storage did not report
+     * it, once the game is saved, or exceptionally if it could not be saved.
+     */
+    CompletableFuture<Integer> save(String playerName, int score, long playTime);
+
+    /**
+     * Deletes every game of a player, and the player's statistics.
+     *
+     * @param playerName The name of the player.
+     * @throws StorageException If the games could not be deleted.
+     */
+    void deletePlayer(String playerName) throws StorageException;
+
+    /**
+     * Writes every game to a CSV file in leaderboard order, with the columns {@code PlayerID}, {@code PlayerName},
+     * {@code GameScore} and {@code GameTimeInMilliseconds}. Call it off the JavaFX Application Thread; interrupting
+     * the calling thread cancels it.
+     *
+     * @param target   The CSV file to write. It is only replaced once the export is complete.
+     * @param gzip     Whether to compress the file with gzip.
+     * @param progress Receives the progress of the export, or {@code null}.
+     * @return The number of games exported.
+     * @throws StorageException If the scores could not be read.
+     * @throws IOException      If the file could not be written, or the export was cancelled.
+     */
+    long export(Path target, boolean gzip, CsvExporter.Progress progress) throws StorageException, IOException;
+
+    /**
+     * Starts sending games that an earlier run saved locally but could not store, if the storage keeps any.
+     * Returns immediately. Does nothing by default.
+     */
+    default void replayPending() {
+    }
+
+    /**
+     * Finishes the saves still queued and releases the storage.
+     */
+    @Override
+    void close();
+}
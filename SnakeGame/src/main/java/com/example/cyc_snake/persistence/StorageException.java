@@ -0,0 +1,27 @@
+package com.example.cyc_snake.persistence;
+
+/**
+ * Signals that a {@link ScoreRepository} could not read or write its scores.
+ *
+ * <p>
+ * The {@code StorageException} class lets callers handle a failure of the score storage the same way whichever
+ * backend is configured. The cause is the failure of the backend, such as an {@link java.sql.SQLException} from the
+ * database or an {@link java.io.IOException} from the score file.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-13
+ */
+public class StorageException extends Exception {
+
+    /**
+     * Constructs an exception with a message and the failure of the backend.
+     *
+     * @param message What could not be done.
+     * @param cause   The failure of the backend.
+     */
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Provides the database access infrastructure for the Snake Game application.
+ *
+ * <p>
+ * The {@code com.example.cyc_snake.persistence} package holds the classes that sit between
+ * {@link com.example.cyc_snake.DatabaseConnection} and the storage of the scores. They keep database
+ * round trips cheap and predictable, so saving a score or loading the leaderboard does not pay
+ * for a new connection on every call. The storage itself is pluggable: the game can keep its
+ * scores in MySQL, in a local file or in memory only.
+ * </p>
+ *
+ * <h2>Key Components:</h2>
+ * <ul>
+ *   <li>{@code ScoreRepository}: Everything the game stores about scores: leaderboard pages, player
+ *       statistics, saves, deletes and exports. {@code StorageException} reports its failures.</li>
+ *   <li>{@code JdbcScoreRepository}: The scores in the MySQL database, or any JDBC data source, using the
+ *       classes below.</li>
+ *   <li>{@code FileScoreRepository}: The scores in one append-only, checksummed file, replayed into an
+ *       in-memory {@code ScoreIndex} on start and written with one flush per group of saves.</li>
+ *   <li>{@code InMemoryScoreRepository}: The scores in a {@code ScoreIndex} only, for tests and offline play.</li>
+ *   <li>{@code ConnectionPool}: A bounded pool of JDBC connections exposed as a {@code DataSource}.
+ *       It validates connections on borrow, closes idle ones and reports pool metrics.</li>
+ *   <li>{@code GameRecordWriter}: Queues finished games and inserts them in batches on a background
+ *       thread, retrying transient failures, so the JavaFX Application Thread never waits for the database.</li>
+ *   <li>{@code RecordJournal}: An append-only, checksummed file of game records not yet in the database.
+ *       Records are forced to disk before they are sent and survive an unreachable server or a crash.</li>
+ *   <li>{@code GameRecord}: The result of one finished game.</li>
+ *   <li>{@code LeaderboardCache}: The top of the leaderboard held in a bounded skip list, loaded once
+ *       and updated by every saved game, so opening the leaderboard does not scan the whole table.</li>
+ *   <li>{@code LeaderboardOrder}: The orders the leaderboard can be paged in, with the keyset queries
+ *       that continue a page from its last row instead of skipping rows with an offset.</li>
+ *   <li>{@code LeaderboardPage}: One page of the leaderboard and whether another follows it.</li>
+ *   <li>{@code CsvExporter}: Streams a query to a CSV file through a cursor and a fixed write buffer,
+ *       optionally gzipped, with progress reports.</li>
+ *   <li>{@code PlayerStatsStore}: Per-player best score, game count, play time and last game, updated in
+ *       the same transaction as the games and held in memory, so player lists never scan every game.</li>
+ *   <li>{@code SchemaMigrator}: Applies numbered schema migrations once, recording them in a
+ *       {@code schema_version} table.</li>
+ * </ul>
+ *
+ * <h2>Responsibilities:</h2>
+ * <ul>
+ *   <li>Reusing database connections across queries.</li>
+ *   <li>Bounding the number of connections the game opens against the server.</li>
+ *   <li>Exposing metrics about connection use.</li>
+ *   <li>Keeping database writes off the JavaFX Application Thread.</li>
+ *   <li>Letting the game run without a database server.</li>
+ * </ul>
+ *
+ * @version 1.0
+ * @since 2024-01-04
+ */
+package com.example.cyc_snake.persistence;
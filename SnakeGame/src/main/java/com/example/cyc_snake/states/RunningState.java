@@ -30,42 +30,24 @@ public class RunningState implements GameState {
     /**
      * Updates the game logic in the running state.
      * This method is responsible for moving the snake, checking for collisions, handling special apples, and managing speed changes.
+     * Each call advances the game by one tick, the unit in which all timed events of the game are measured.
      *
      * @param context The {@code GameModel} representing the game state and data.
      */
     @Override
     public void update(GameModel context) {
-        if (context.isRunning()) {
-            context.move();
-            context.checkApple();
-            context.checkCollisions();
-            context.shrinkBorder();
-        }
-
-        // Check if a special apple exists and if its duration has passed
-        if (context.specialAppleExists.get() && (System.currentTimeMillis() - context.specialAppleSpawnTime > context.SPECIAL_APPLE_DURATION)) {
-            context.removeSpecialApple();
-            if (context.isRunning()) {
-                context.generateSpecialApple();
-            }
-        }
-
-        // Check if the speed change should end
-        if (context.speedChangeEndTime != 0 && System.currentTimeMillis() > context.speedChangeEndTime) {
-            context.speedMultiplier.set(GameModel.INITIAL_SPEED); // Restore default speed
-            context.speedChangeEndTime = 0; // Reset the speed change end time
-        }
+        context.tick();
     }
 
     /**
      * Handles user input in the running state.
-     * This method sets the direction of the snake based on the provided input character.
+     * This method turns the snake towards the direction of the input character, unless it would reverse onto itself.
      *
      * @param context The {@code GameModel} representing the game state and data.
      * @param input   The input character representing the desired direction.
      */
     @Override
     public void handleInput(GameModel context, char input) {
-        context.setDirection(input);
+        context.turn(input);
     }
 }
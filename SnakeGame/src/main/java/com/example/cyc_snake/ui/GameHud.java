@@ -0,0 +1,81 @@
+package com.example.cyc_snake.ui;
+
+import com.example.cyc_snake.utils.NumberTextCache;
+import javafx.beans.value.ObservableIntegerValue;
+
+import java.util.function.Consumer;
+
+/**
+ * Keeps the texts of the game HUD, the time, score and length labels, in step with the game.
+ *
+ * <p>
+ * The {@code GameHud} class sets each label only when the value it shows changes: the score and length when the model
+ * publishes a new value, and the time when the elapsed play time reaches a new second. Every text comes from a
+ * {@link NumberTextCache}, so a frame of steady play neither formats nor allocates a string. The labels are reached
+ * through their text setters, which keeps the class usable without a running JavaFX toolkit.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2023-12-30
+ */
+public class GameHud {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private static final NumberTextCache TIME_TEXT = new NumberTextCache("Time: ", 3600);
+    private static final NumberTextCache SCORE_TEXT = new NumberTextCache("Score: ", 1024);
+    private static final NumberTextCache LENGTH_TEXT = new NumberTextCache("Length: ", 1024);
+
+    private final Consumer<String> timeText;
+    private final Consumer<String> scoreText;
+    private final Consumer<String> lengthText;
+    private long shownSeconds = -1;
+
+    /**
+     * Constructs a HUD that shows its texts through the given setters.
+     *
+     * @param timeText   Sets the text of the time label.
+     * @param scoreText  Sets the text of the score label.
+     * @param lengthText Sets the text of the length label.
+     */
+    public GameHud(Consumer<String> timeText, Consumer<String> scoreText, Consumer<String> lengthText) {
+        this.timeText = timeText;
+        this.scoreText = scoreText;
+        this.lengthText = lengthText;
+    }
+
+    /**
+     * Shows the score and length of a game, and follows them from now on.
+     *
+     * @param score  The score published by the game model.
+     * @param length The snake length published by the game model.
+     */
+    public void bind(ObservableIntegerValue score, ObservableIntegerValue length) {
+        scoreText.accept(SCORE_TEXT.get(score.get()));
+        lengthText.accept(LENGTH_TEXT.get(length.get()));
+        score.addListener(observable -> scoreText.accept(SCORE_TEXT.get(score.get())));
+        length.addListener(observable -> lengthText.accept(LENGTH_TEXT.get(length.get())));
+    }
+
+    /**
+     * Shows the elapsed play time, setting the time label only when it reaches a new second.
+     *
+     * @param elapsedNanos The play time in nanoseconds.
+     * @return The play time in whole seconds.
+     */
+    public long showElapsed(long elapsedNanos) {
+        long seconds = elapsedNanos / NANOS_PER_SECOND;
+        if (seconds != shownSeconds) {
+            shownSeconds = seconds;
+            timeText.accept(TIME_TEXT.get(seconds));
+        }
+        return seconds;
+    }
+
+    /**
+     * Forgets the time shown, so the next call to {@link #showElapsed(long)} sets the time label again.
+     */
+    public void resetTime() {
+        shownSeconds = -1;
+    }
+}
@@ -1,15 +1,19 @@
 package com.example.cyc_snake.ui;
 
 import com.example.cyc_snake.models.GameModel;
+import com.example.cyc_snake.models.SnakeSimulation;
+import com.example.cyc_snake.ui.SpriteAtlas.Sprite;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
+import javafx.geometry.Bounds;
 import javafx.scene.text.Font;
+import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
 
-import java.util.Objects;
+import java.util.Arrays;
 
 /**
  * Custom UI component representing the game panel in the Snake Game application.
@@ -21,6 +25,16 @@ import java.util.Objects;
  * when the game is about to shrink.
  * </p>
  *
+ * <p>
+ * Drawing is incremental. Between two frames only a handful of cells change: the cells the head moved into, the
+ * cells the tail left, and the cells of apples that appeared or moved. {@link #draw(double)} repaints just those
+ * cells, so the cost of a frame does not grow with the length of the snake. When several updates happened since the
+ * last frame, every cell the head passed through and every cell the tail left on the way is repainted. While the
+ * shrink warning is shown, the cells under its text are repainted too. The whole canvas is repainted after a reset,
+ * a resize, a color change, a border shrink, and when more updates than {@link #MAX_INCREMENTAL_TICKS} happened
+ * since the last frame.
+ * </p>
+ *
  * @version 1.0
  * @since 2023-11-22
  */
@@ -37,21 +51,53 @@ public class GamePanelFX extends Pane {
     private Color blackAppleColor = Color.BLACK;
     private Color yellowAppleColor = Color.YELLOW;
     private Color goldAppleColor = Color.GOLD;
-    private final Image blueAppleImage;
-    private final Image blackAppleImage;
-    private final Image greenAppleImage;
-    private final Image goldAppleImage;
-    private final Image redAppleImage;
-    private final Image snakeBodyRightImage;
-    private final Image snakeBodyLeftImage;
-    private final Image snakeBodyUpImage;
-
-    private final Image snakeBodyDownImage;
+    private final SpriteAtlas atlas;
 
-    private final Image snakeHeadUpImage;
-    private final Image snakeHeadRightImage;
-    private final Image snakeHeadDownImage;
-    private final Image snakeHeadLeftImage;
+    /**
+     * Maximum number of game updates between two frames that can still be drawn incrementally.
+     */
+    private static final int MAX_INCREMENTAL_TICKS = 4;
+    private static final int UNIT = GameModel.UNIT_SIZE;
+    private static final String SHRINK_WARNING = "The square is about to shrink, please evacuate!";
+
+    private Font warningFont;
+    // Cells under the shrink warning text, measured for the board size in warningWidth
+    private int warningWidth = -1;
+    private int warningLeft;
+    private int warningTop;
+    private int warningRight;
+    private int warningBottom;
+    private boolean fullRepaint = true;
+    private boolean repaintedAll;
+    private int repaintedCells;
+
+    // What the canvas currently shows
+    private long drawnTick = -1;
+    private int drawnLeftBorder;
+    private int drawnTopBorder;
+    private int drawnRightBorder;
+    private int drawnBottomBorder;
+    private boolean drawnWarning;
+    private int drawnAppleX;
+    private int drawnAppleY;
+    private boolean drawnSpecialApple;
+    private SnakeSimulation.AppleType drawnSpecialAppleType;
+    private int drawnSpecialAppleX;
+    private int drawnSpecialAppleY;
+
+    // Cells touched by the moving head and tail in the last frame: neck, head, tail and the cell the tail left
+    private final int[] movingX = new int[4];
+    private final int[] movingY = new int[4];
+
+    // The last segments of the snake in the last frame, tail first: the cells the tail leaves over the next updates
+    private final int[] drawnTailX = new int[MAX_INCREMENTAL_TICKS];
+    private final int[] drawnTailY = new int[MAX_INCREMENTAL_TICKS];
+    private int drawnTailCount;
+
+    // Cells to repaint in the current frame
+    private int[] dirtyX = new int[32];
+    private int[] dirtyY = new int[32];
+    private int dirtyCount;
 
 
     /**
@@ -60,21 +106,7 @@ public class GamePanelFX extends Pane {
     public GamePanelFX() {
         setFocusTraversable(true);
 
-        redAppleImage = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/images/RedApple.png")));
-        blueAppleImage = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/images/BlueApple.png")));
-        blackAppleImage = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/images/BlackApple.png")));
-        greenAppleImage = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/images/GreenApple.png")));
-        goldAppleImage = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/images/GoldApple.png")));
-        //head
-        snakeHeadUpImage = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/images/SnakeUpHead.png")));
-        snakeHeadRightImage = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/images/SnakeRightHead.png")));
-        snakeHeadDownImage = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/images/SnakeDownHead.png")));
-        snakeHeadLeftImage = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/images/SnakeLeftHead.png")));
-        //body
-        snakeBodyRightImage = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/images/SnakeRightBody.png")));
-        snakeBodyDownImage = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/images/SnakeDownBody.png")));
-        snakeBodyLeftImage = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/images/SnakeLeftBody.png")));
-        snakeBodyUpImage = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/images/SnakeUpBody.png")));
+        atlas = SpriteAtlas.getShared(); // Built once in the background and shared by all panels
     }
 
     /**
@@ -86,6 +118,10 @@ public class GamePanelFX extends Pane {
 
     /**
      * Sets the game model for the game panel.
+     * <p>
+     * The canvas is created on the first call and resized when the new model's board has a different size. Either
+     * way the next frame is a full repaint.
+     * </p>
      *
      * @param model The game model to be set.
      */
@@ -97,25 +133,26 @@ public class GamePanelFX extends Pane {
 
     /**
      * Initializes the User Interface (UI) for the Snake Game.
-     * This method sets up the canvas, graphics context (gc), and adds them to the UI container.
-     * It also triggers the initial drawing of the game elements using the draw method.
-     * Note: This method is typically called during the initialization phase to prepare the UI for displaying the game.
+     * This method sets up the canvas and graphics context (gc) once and adds them to the UI container, then sizes
+     * the canvas to the board of the current game model.
      */
     private void initializeUI() {
-        // Create a new canvas with the specified width and height
-        this.canvas = new Canvas(GameModel.SCREEN_WIDTH, GameModel.SCREEN_HEIGHT);
-
-        // Get the 2D graphics context for the canvas
-        this.gc = canvas.getGraphicsContext2D();
-
-        // Add the canvas to the UI container
-        getChildren().add(canvas);
-
-        // Trigger the initial drawing of the game elements
-        draw();
+        if (canvas == null) {
+            // Create a new canvas with the specified width and height
+            this.canvas = new Canvas(gameModel.getWidth(), gameModel.getHeight());
+
+            // Get the 2D graphics context for the canvas
+            this.gc = canvas.getGraphicsContext2D();
+
+            // Add the canvas to the UI container
+            getChildren().add(canvas);
+        } else {
+            canvas.setWidth(gameModel.getWidth());
+            canvas.setHeight(gameModel.getHeight());
+        }
+        fullRepaint = true;
     }
 
-
     /**
      * Draws a rotated image on the graphics context.
      *
@@ -143,64 +180,353 @@ public class GamePanelFX extends Pane {
      * Note: This method is typically called in a game loop to continuously update the visual representation of the game.
      */
     public void draw() {
-        if (gameModel != null && gameModel.isRunning()) {
-            Image appleImage;
-            appleImage = redAppleImage;
-            // Clear the canvas
-            gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
-
-            // Draw the background
-            gc.setFill(backgroundColor);
-            gc.fillRect(0, 0, GameModel.SCREEN_WIDTH, GameModel.SCREEN_HEIGHT);
-
-            // Draw the border
-            gc.setStroke(Color.BLACK); // Set border color
-            gc.setLineWidth(3); // Set border width
-            gc.strokeRect(gameModel.getLeftBorder(), gameModel.getTopBorder(),
-                    gameModel.getRightBorder() - gameModel.getLeftBorder(),
-                    gameModel.getBottomBorder() - gameModel.getTopBorder());
-
-            // Draw the apple
-            gc.drawImage(appleImage, gameModel.getAppleX(), gameModel.getAppleY(), GameModel.UNIT_SIZE, GameModel.UNIT_SIZE);
-            // draw special apple
+        draw(1.0);
+    }
+
+    /**
+     * Draws the current state of the Snake Game on the canvas, with the head and tail interpolated between their
+     * previous and current cells.
+     * <p>
+     * The head is drawn {@code alpha} of the way from the neck cell to its own cell, and a tail piece {@code alpha}
+     * of the way from the cell the tail left to the tail's cell, so the snake glides forward when frames are drawn
+     * more often than the game updates. The rest of the body stays in its cells.
+     * </p>
+     *
+     * @param alpha The fraction of the update interval elapsed since the last update, from {@code 0} to {@code 1}.
+     */
+    public void draw(double alpha) {
+        if (gameModel == null || !gameModel.isRunning()) {
+            return;
+        }
+        long ticks = gameModel.getTick() - drawnTick;
+        boolean warning = gameModel.isAboutToShrink();
+        if (fullRepaint || ticks < 0 || ticks > MAX_INCREMENTAL_TICKS
+                || drawnLeftBorder != gameModel.getLeftBorder() || drawnTopBorder != gameModel.getTopBorder()
+                || drawnRightBorder != gameModel.getRightBorder() || drawnBottomBorder != gameModel.getBottomBorder()) {
+            drawAll(alpha);
+        } else {
+            drawChanges(alpha, (int) ticks, warning);
+        }
+
+        // Remember what the canvas shows now
+        fullRepaint = false;
+        drawnTick = gameModel.getTick();
+        drawnWarning = warning;
+        drawnLeftBorder = gameModel.getLeftBorder();
+        drawnTopBorder = gameModel.getTopBorder();
+        drawnRightBorder = gameModel.getRightBorder();
+        drawnBottomBorder = gameModel.getBottomBorder();
+        drawnAppleX = gameModel.getAppleX();
+        drawnAppleY = gameModel.getAppleY();
+        drawnSpecialApple = gameModel.isSpecialAppleExists();
+        drawnSpecialAppleType = gameModel.getSpecialAppleType();
+        drawnSpecialAppleX = (int) gameModel.getSpecialAppleX();
+        drawnSpecialAppleY = (int) gameModel.getSpecialAppleY();
+        int tail = gameModel.getBodyParts() - 1;
+        setMovingCell(0, gameModel.getSegmentX(0), gameModel.getSegmentY(0));
+        setMovingCell(1, gameModel.getPreviousSegmentX(0), gameModel.getPreviousSegmentY(0));
+        setMovingCell(2, gameModel.getSegmentX(tail), gameModel.getSegmentY(tail));
+        setMovingCell(3, gameModel.getPreviousSegmentX(tail), gameModel.getPreviousSegmentY(tail));
+        drawnTailCount = Math.min(MAX_INCREMENTAL_TICKS, tail + 1);
+        for (int j = 0; j < drawnTailCount; j++) {
+            drawnTailX[j] = gameModel.getSegmentX(tail - j);
+            drawnTailY[j] = gameModel.getSegmentY(tail - j);
+        }
+    }
+
+    /**
+     * Repaints the whole canvas.
+     *
+     * @param alpha The interpolation fraction for the head and tail.
+     */
+    private void drawAll(double alpha) {
+        // Clear the canvas
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        // Draw the background
+        gc.setFill(backgroundColor);
+        gc.fillRect(0, 0, gameModel.getWidth(), gameModel.getHeight());
+
+        // Draw the border
+        strokeBorder();
+
+        // Draw the apple
+        atlas.draw(gc, Sprite.RED_APPLE, gameModel.getAppleX(), gameModel.getAppleY());
+        // draw special apple
+        drawSpecialApple();
+        // Draw the snake
+        int bodyParts = gameModel.getBodyParts();
+        for (int i = 1; i < bodyParts; i++) {
+            drawSegment(i, gameModel.getSegmentX(i), gameModel.getSegmentY(i));
+        }
+        drawMovingEnds(alpha);
+        if (gameModel.isAboutToShrink()) {
+            drawShrinkWarning();
+        }
+        repaintedAll = true;
+        repaintedCells = (gameModel.getWidth() / UNIT) * (gameModel.getHeight() / UNIT);
+    }
+
+    /**
+     * Repaints only the cells that changed since the last frame.
+     *
+     * @param alpha   The interpolation fraction for the head and tail.
+     * @param ticks   The number of game updates since the last frame.
+     * @param warning Whether the shrink warning is shown in this frame.
+     */
+    private void drawChanges(double alpha, int ticks, boolean warning) {
+        dirtyCount = 0;
+        // Cells the head and tail moved through in the last frame and in this one
+        for (int i = 0; i < movingX.length; i++) {
+            markDirty(movingX[i], movingY[i]);
+        }
+        int tail = gameModel.getBodyParts() - 1;
+        // The head is now where the first segments are: one cell per update since the last frame
+        for (int i = 0; i <= Math.min(ticks, tail); i++) {
+            markDirty(gameModel.getSegmentX(i), gameModel.getSegmentY(i));
+        }
+        markDirty(gameModel.getPreviousSegmentX(0), gameModel.getPreviousSegmentY(0));
+        // The tail left at most one cell per update, along the segments that were last in the last frame
+        for (int j = 0; j < Math.min(ticks, drawnTailCount); j++) {
+            markDirty(drawnTailX[j], drawnTailY[j]);
+        }
+        markDirty(gameModel.getSegmentX(tail), gameModel.getSegmentY(tail));
+        markDirty(gameModel.getPreviousSegmentX(tail), gameModel.getPreviousSegmentY(tail));
+        // Apples that were eaten, moved, appeared or expired
+        boolean specialApple = gameModel.isSpecialAppleExists();
+        int specialAppleX = (int) gameModel.getSpecialAppleX();
+        int specialAppleY = (int) gameModel.getSpecialAppleY();
+        if (drawnAppleX != gameModel.getAppleX() || drawnAppleY != gameModel.getAppleY()) {
+            markDirty(drawnAppleX, drawnAppleY);
+            markDirty(gameModel.getAppleX(), gameModel.getAppleY());
+        }
+        if (drawnSpecialApple != specialApple || drawnSpecialAppleType != gameModel.getSpecialAppleType()
+                || drawnSpecialAppleX != specialAppleX || drawnSpecialAppleY != specialAppleY) {
+            if (drawnSpecialApple) {
+                markDirty(drawnSpecialAppleX, drawnSpecialAppleY);
+            }
+            if (specialApple) {
+                markDirty(specialAppleX, specialAppleY);
+            }
+        }
+        // The warning text appears, stays or disappears
+        if (warning || drawnWarning) {
+            markWarningCells();
+        }
+
+        // Clear the dirty cells and restore the parts of the border running through them
+        gc.setFill(backgroundColor);
+        for (int i = 0; i < dirtyCount; i++) {
+            gc.fillRect(dirtyX[i], dirtyY[i], UNIT, UNIT);
+            if (touchesBorder(dirtyX[i], dirtyY[i])) {
+                gc.save();
+                gc.beginPath();
+                gc.rect(dirtyX[i], dirtyY[i], UNIT, UNIT);
+                gc.clip();
+                strokeBorder();
+                gc.restore();
+            }
+        }
+
+        // Redraw what lies in them
+        if (isDirty(gameModel.getAppleX(), gameModel.getAppleY())) {
+            atlas.draw(gc, Sprite.RED_APPLE, gameModel.getAppleX(), gameModel.getAppleY());
+        }
+        if (specialApple && isDirty(specialAppleX, specialAppleY)) {
             drawSpecialApple();
-            // Draw the snake
-            for (int i = 0; i < gameModel.getBodyParts(); i++) {
-                Image segmentImage;
-                if (i == 0) {
-                    // Select the correct head image based on the direction
-                    switch (gameModel.getDirection()) {
-                        case 'U': segmentImage = snakeHeadUpImage; break;
-                        case 'R': segmentImage = snakeHeadRightImage; break;
-                        case 'D': segmentImage = snakeHeadDownImage; break;
-                        case 'L': segmentImage = snakeHeadLeftImage; break;
-                        default: segmentImage = snakeHeadUpImage; // Default is up
-                    }
-                } else {
-                    // Select the correct body image based on the direction of the segment relative to the previous one
-                    int dx = gameModel.getX()[i] - gameModel.getX()[i - 1];
-                    int dy = gameModel.getY()[i] - gameModel.getY()[i - 1];
-                    if (dx > 0) {
-                        // Body segment to the left of the previous segment, so it's facing right
-                        segmentImage = snakeBodyRightImage;
-                    } else if (dx < 0) {
-                        // Body segment to the right of the previous segment, so it's facing left
-                        segmentImage = snakeBodyLeftImage;
-                    } else if (dy > 0) {
-                        // Body segment above the previous segment, so it's facing down
-                        segmentImage = snakeBodyDownImage;
-                    } else {
-                        // Body segment below the previous segment, so it's facing up
-                        segmentImage = snakeBodyUpImage;
-                    }
-                }
-                // Draw the segment
-                gc.drawImage(segmentImage, gameModel.getX()[i], gameModel.getY()[i], GameModel.UNIT_SIZE, GameModel.UNIT_SIZE);
+        }
+        if (warning || drawnWarning) {
+            // Any segment can lie under the warning text
+            for (int i = 1; i <= tail; i++) {
+                drawSegmentIfDirty(i);
+            }
+        } else {
+            // Otherwise only segments near the ends can have moved into or out of a dirty cell
+            int headEnd = Math.min(ticks + 1, tail);
+            for (int i = 1; i <= headEnd; i++) {
+                drawSegmentIfDirty(i);
             }
-            if (gameModel.isRunning() && gameModel.isAboutToShrink()) {
-                drawShrinkWarning();
+            for (int i = Math.max(headEnd + 1, tail - ticks - 1); i <= tail; i++) {
+                drawSegmentIfDirty(i);
             }
         }
+        drawMovingEnds(alpha);
+        if (warning) {
+            drawShrinkWarning();
+        }
+        repaintedAll = false;
+        repaintedCells = dirtyCount;
+    }
+
+    /**
+     * Marks the cells under the shrink warning text as dirty.
+     * <p>
+     * The text is measured once per board width. Where text cannot be measured, the full width of the rows the text
+     * runs through is used instead.
+     * </p>
+     */
+    private void markWarningCells() {
+        if (warningWidth != gameModel.getWidth()) {
+            double centerX = (double) gameModel.getWidth() / 2;
+            double baseline = (double) gameModel.getHeight() / 10;
+            double left = 0;
+            double right = gameModel.getWidth();
+            double top = baseline - getWarningFont().getSize();
+            double bottom = baseline + getWarningFont().getSize() / 2;
+            try {
+                Text text = new Text(SHRINK_WARNING);
+                text.setFont(getWarningFont());
+                Bounds bounds = text.getLayoutBounds();
+                left = centerX - bounds.getWidth() / 2 - 1;
+                right = centerX + bounds.getWidth() / 2 + 1;
+                top = baseline + bounds.getMinY() - 1;
+                bottom = baseline + bounds.getMaxY() + 1;
+            } catch (RuntimeException | LinkageError e) {
+                // No text layout without a graphics toolkit or its native font libraries; keep the whole rows
+            }
+            warningLeft = Math.max(0, (int) Math.floor(left / UNIT) * UNIT);
+            warningRight = (int) Math.ceil(right / UNIT) * UNIT;
+            warningTop = Math.max(0, (int) Math.floor(top / UNIT) * UNIT);
+            warningBottom = (int) Math.ceil(bottom / UNIT) * UNIT;
+            warningWidth = gameModel.getWidth();
+        }
+        for (int y = warningTop; y < warningBottom; y += UNIT) {
+            for (int x = warningLeft; x < warningRight; x += UNIT) {
+                markDirty(x, y);
+            }
+        }
+    }
+
+    /**
+     * Draws the tail piece and the head at their interpolated positions.
+     *
+     * @param alpha The interpolation fraction.
+     */
+    private void drawMovingEnds(double alpha) {
+        int tail = gameModel.getBodyParts() - 1;
+        int previousX = gameModel.getPreviousSegmentX(tail);
+        int previousY = gameModel.getPreviousSegmentY(tail);
+        if (previousX != gameModel.getSegmentX(tail) || previousY != gameModel.getSegmentY(tail)) {
+            drawSegment(tail, previousX + (gameModel.getSegmentX(tail) - previousX) * alpha,
+                    previousY + (gameModel.getSegmentY(tail) - previousY) * alpha);
+        }
+        previousX = gameModel.getPreviousSegmentX(0);
+        previousY = gameModel.getPreviousSegmentY(0);
+        drawSegment(0, previousX + (gameModel.getSegmentX(0) - previousX) * alpha,
+                previousY + (gameModel.getSegmentY(0) - previousY) * alpha);
+    }
+
+    /**
+     * Draws one snake segment with the image matching its direction.
+     *
+     * @param i The segment index, {@code 0} being the head.
+     * @param x The x-coordinate to draw at.
+     * @param y The y-coordinate to draw at.
+     */
+    private void drawSegment(int i, double x, double y) {
+        Sprite segmentImage;
+        if (i == 0) {
+            // Select the correct head image based on the direction
+            switch (gameModel.getDirection()) {
+                case 'U': segmentImage = Sprite.HEAD_UP; break;
+                case 'R': segmentImage = Sprite.HEAD_RIGHT; break;
+                case 'D': segmentImage = Sprite.HEAD_DOWN; break;
+                case 'L': segmentImage = Sprite.HEAD_LEFT; break;
+                default: segmentImage = Sprite.HEAD_UP; // Default is up
+            }
+        } else {
+            // Select the correct body image based on the direction of the segment relative to the previous one
+            int dx = gameModel.getSegmentX(i) - gameModel.getSegmentX(i - 1);
+            int dy = gameModel.getSegmentY(i) - gameModel.getSegmentY(i - 1);
+            if (dx > 0) {
+                // Body segment to the left of the previous segment, so it's facing right
+                segmentImage = Sprite.BODY_RIGHT;
+            } else if (dx < 0) {
+                // Body segment to the right of the previous segment, so it's facing left
+                segmentImage = Sprite.BODY_LEFT;
+            } else if (dy > 0) {
+                // Body segment above the previous segment, so it's facing down
+                segmentImage = Sprite.BODY_DOWN;
+            } else {
+                // Body segment below the previous segment, so it's facing up
+                segmentImage = Sprite.BODY_UP;
+            }
+        }
+        // Draw the segment
+        atlas.draw(gc, segmentImage, x, y);
+    }
+
+    private void drawSegmentIfDirty(int i) {
+        int x = gameModel.getSegmentX(i);
+        int y = gameModel.getSegmentY(i);
+        if (isDirty(x, y)) {
+            drawSegment(i, x, y);
+        }
+    }
+
+    private void strokeBorder() {
+        gc.setStroke(Color.BLACK); // Set border color
+        gc.setLineWidth(3); // Set border width
+        gc.strokeRect(gameModel.getLeftBorder(), gameModel.getTopBorder(),
+                gameModel.getRightBorder() - gameModel.getLeftBorder(),
+                gameModel.getBottomBorder() - gameModel.getTopBorder());
+    }
+
+    /**
+     * Checks whether the border line, drawn 3 pixels wide, passes through a cell.
+     */
+    private boolean touchesBorder(int x, int y) {
+        boolean inside = x >= gameModel.getLeftBorder() + 2 && x + UNIT <= gameModel.getRightBorder() - 2
+                && y >= gameModel.getTopBorder() + 2 && y + UNIT <= gameModel.getBottomBorder() - 2;
+        boolean outside = x + UNIT <= gameModel.getLeftBorder() - 2 || x >= gameModel.getRightBorder() + 2
+                || y + UNIT <= gameModel.getTopBorder() - 2 || y >= gameModel.getBottomBorder() + 2;
+        return !inside && !outside;
+    }
+
+    private void markDirty(int x, int y) {
+        if (!isDirty(x, y)) {
+            if (dirtyCount == dirtyX.length) {
+                dirtyX = Arrays.copyOf(dirtyX, dirtyCount * 2);
+                dirtyY = Arrays.copyOf(dirtyY, dirtyCount * 2);
+            }
+            dirtyX[dirtyCount] = x;
+            dirtyY[dirtyCount] = y;
+            dirtyCount++;
+        }
+    }
+
+    private boolean isDirty(int x, int y) {
+        for (int i = 0; i < dirtyCount; i++) {
+            if (dirtyX[i] == x && dirtyY[i] == y) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void setMovingCell(int i, int x, int y) {
+        movingX[i] = x;
+        movingY[i] = y;
+    }
+
+    /**
+     * Checks whether the last call to {@link #draw(double)} repainted a cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return {@code true} if the cell was repainted, as every cell is by a full repaint.
+     */
+    boolean wasRepainted(int x, int y) {
+        return repaintedAll || isDirty(x, y);
+    }
+
+    /**
+     * Gets the number of cells repainted by the last call to {@link #draw(double)}.
+     *
+     * @return The number of repainted cells, the whole board for a full repaint.
+     */
+    public int getRepaintedCellCount() {
+        return repaintedCells;
     }
 
     /**
@@ -209,25 +535,25 @@ public class GamePanelFX extends Pane {
     private void drawSpecialApple() {
         if (gameModel != null && gameModel.isSpecialAppleExists()) {
             // Choose the color based on the special apple type
-            Image appleImage;
+            Sprite appleImage;
             switch (gameModel.getSpecialAppleType()) {
                 case BLUE:
-                    appleImage = blueAppleImage;
+                    appleImage = Sprite.BLUE_APPLE;
                     break;
                 case BLACK:
-                    appleImage = blackAppleImage;
+                    appleImage = Sprite.BLACK_APPLE;
                     break;
                 case GREEN:
-                    appleImage = greenAppleImage;
+                    appleImage = Sprite.GREEN_APPLE;
                     break;
                 case GOLD:
-                    appleImage = goldAppleImage;
+                    appleImage = Sprite.GOLD_APPLE;
                     break;
                 default:
                     return; // Do not draw if there is no matching type
             }
             // Draw the special apple
-            gc.drawImage(appleImage, gameModel.getSpecialAppleX(), gameModel.getSpecialAppleY(), GameModel.UNIT_SIZE, GameModel.UNIT_SIZE);
+            atlas.draw(gc, appleImage, gameModel.getSpecialAppleX(), gameModel.getSpecialAppleY());
         }
     }
 
@@ -241,13 +567,20 @@ public class GamePanelFX extends Pane {
      */
     private void drawShrinkWarning() {
         gc.save(); // Save the current canvas state
-        gc.setFont(new Font("Arial", 24)); // Set font and size
+        gc.setFont(getWarningFont()); // Set font and size
         gc.setFill(snakeColor); // Set text color to green
         gc.setTextAlign(TextAlignment.CENTER); // Set text alignment to center
-        gc.fillText("The square is about to shrink, please evacuate!", (double) GameModel.SCREEN_WIDTH / 2, (double) GameModel.SCREEN_HEIGHT / 10);
+        gc.fillText(SHRINK_WARNING, (double) gameModel.getWidth() / 2, (double) gameModel.getHeight() / 10);
         gc.restore(); // Restore the canvas to the previously saved state
     }
 
+    private Font getWarningFont() {
+        if (warningFont == null) {
+            warningFont = new Font("Arial", 24);
+        }
+        return warningFont;
+    }
+
 
     /**
      * Sets the background color for the game panel.
@@ -256,6 +589,7 @@ public class GamePanelFX extends Pane {
      */
     public void setBackgroundColor(Color color) {
         this.backgroundColor = color;
+        fullRepaint = true;
     }
 
     /**
@@ -265,6 +599,7 @@ public class GamePanelFX extends Pane {
      */
     public void setSnakeColor(Color color) {
         this.snakeColor = color;
+        fullRepaint = true;
     }
 
     /**
@@ -0,0 +1,118 @@
+package com.example.cyc_snake.ui;
+
+import com.example.cyc_snake.models.GameModel;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Holds all snake and apple sprites in a single pre-scaled image.
+ *
+ * <p>
+ * The {@code SpriteAtlas} class decodes every sprite directly at {@link GameModel#UNIT_SIZE} and packs them side by
+ * side into one {@link WritableImage}. Drawing a sprite copies a {@code UNIT_SIZE} square out of that image at its
+ * natural size, so the render thread neither scales images nor switches between textures while drawing a frame.
+ * </p>
+ *
+ * <p>
+ * The atlas is built once per application and shared by every {@link GamePanelFX}. {@link #preload()} starts
+ * building it on a background thread at startup; {@link #getShared()} returns it, waiting for the build only if it
+ * has not finished yet.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-02
+ */
+public class SpriteAtlas {
+
+    /**
+     * The sprites contained in the atlas, in atlas order.
+     */
+    public enum Sprite {
+        RED_APPLE("RedApple.png"),
+        BLUE_APPLE("BlueApple.png"),
+        BLACK_APPLE("BlackApple.png"),
+        GREEN_APPLE("GreenApple.png"),
+        GOLD_APPLE("GoldApple.png"),
+        HEAD_UP("SnakeUpHead.png"),
+        HEAD_RIGHT("SnakeRightHead.png"),
+        HEAD_DOWN("SnakeDownHead.png"),
+        HEAD_LEFT("SnakeLeftHead.png"),
+        BODY_UP("SnakeUpBody.png"),
+        BODY_RIGHT("SnakeRightBody.png"),
+        BODY_DOWN("SnakeDownBody.png"),
+        BODY_LEFT("SnakeLeftBody.png");
+
+        private final String fileName;
+
+        Sprite(String fileName) {
+            this.fileName = fileName;
+        }
+    }
+
+    private static final int SIZE = GameModel.UNIT_SIZE;
+    private static volatile CompletableFuture<SpriteAtlas> shared;
+
+    private final WritableImage image;
+
+    /**
+     * Builds the atlas by decoding every sprite at the unit size and copying it into its slot.
+     */
+    SpriteAtlas() {
+        Sprite[] sprites = Sprite.values();
+        image = new WritableImage(SIZE * sprites.length, SIZE);
+        for (Sprite sprite : sprites) {
+            Image scaled = new Image(Objects.requireNonNull(
+                    SpriteAtlas.class.getResourceAsStream("/images/" + sprite.fileName)), SIZE, SIZE, false, true);
+            image.getPixelWriter().setPixels(sprite.ordinal() * SIZE, 0, SIZE, SIZE, scaled.getPixelReader(), 0, 0);
+        }
+    }
+
+    /**
+     * Starts building the shared atlas on a background thread, if that has not happened yet.
+     */
+    public static void preload() {
+        if (shared == null) {
+            synchronized (SpriteAtlas.class) {
+                if (shared == null) {
+                    shared = CompletableFuture.supplyAsync(SpriteAtlas::new);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the shared atlas, building it first if {@link #preload()} was never called.
+     *
+     * @return The shared atlas.
+     */
+    public static SpriteAtlas getShared() {
+        preload();
+        return shared.join();
+    }
+
+    /**
+     * Draws a sprite at its natural size.
+     *
+     * @param gc     The graphics context to draw on.
+     * @param sprite The sprite to draw.
+     * @param x      The x-coordinate of the top-left corner.
+     * @param y      The y-coordinate of the top-left corner.
+     */
+    public void draw(GraphicsContext gc, Sprite sprite, double x, double y) {
+        gc.drawImage(image, sprite.ordinal() * SIZE, 0, SIZE, SIZE, x, y, SIZE, SIZE);
+    }
+
+    /**
+     * Gets the atlas image.
+     *
+     * @return The image holding all sprites side by side.
+     */
+    public Image getImage() {
+        return image;
+    }
+}
@@ -13,6 +13,10 @@
  *   <li>{@code GamePanelFX}: A class representing the game panel, responsible for rendering the
  *       game grid, snake, and other in-game elements. It interacts with game models and controllers
  *       to provide a synchronized and visually appealing game display.</li>
+ *   <li>{@code SpriteAtlas}: A single image holding every snake and apple sprite pre-scaled to the
+ *       unit size. It is built once in the background at startup and shared by all game panels.</li>
+ *   <li>{@code GameHud}: Keeps the time, score and length labels of the game view in step with the game,
+ *       setting each only when its value changes and taking its text from pre-built tables.</li>
  *   <li>(Other UI components): Additional classes that define specific UI elements, contributing
  *       to the overall layout, appearance, and functionality of the Snake Game interface.</li>
  * </ul>
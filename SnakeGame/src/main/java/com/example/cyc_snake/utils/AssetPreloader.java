@@ -0,0 +1,303 @@
+package com.example.cyc_snake.utils;
+
+import javafx.fxml.FXMLLoader;
+import javafx.fxml.JavaFXBuilderFactory;
+import javafx.scene.image.Image;
+import javafx.util.Builder;
+import javafx.util.BuilderFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Loads the views, images and sounds of the game in the background while the first view is shown.
+ *
+ * <p>
+ * The {@code AssetPreloader} class reads the FXML template of each view queued with {@link #preloadView(String)} and
+ * decodes every image the template refers to, in parallel on a small pool of background threads. Loaders made by
+ * {@link #newLoader(String)} parse the template already in memory and take the decoded images instead of decoding
+ * them again, so showing a view for the first time no longer decodes PNGs on the JavaFX application thread. Other
+ * assets, such as the sprite atlas and the sound effects, are queued with {@link #preload(Runnable)}.
+ * </p>
+ *
+ * <p>
+ * Each view or asset counts as one step of the progress, reported to the listeners as a fraction between {@code 0}
+ * and {@code 1}. Listeners are called on the loading threads, and are dropped once everything queued is loaded. An
+ * asset that fails to load still counts as done: a view whose image is missing decodes it when it is shown, as it
+ * did before.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-14
+ */
+public class AssetPreloader {
+    // The images a template refers to, as in <Image url="@../../../images/RedApple.png" />
+    private static final Pattern IMAGE_URL = Pattern.compile("url=\"@([^\"]+)\"");
+    private static final long IDLE_THREAD_SECONDS = 1;
+
+    private static AssetPreloader shared;
+
+    private final Executor executor;
+    // Both keyed by location
+    private final Map<String, CompletableFuture<byte[]>> templates = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Image>> images = new ConcurrentHashMap<>();
+    private final List<DoubleConsumer> progressListeners = new CopyOnWriteArrayList<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger loaded = new AtomicInteger();
+    private final BuilderFactory builderFactory;
+
+    /**
+     * Constructs a preloader running on one background thread per processor. The threads stop when there is nothing
+     * left to load.
+     */
+    AssetPreloader() {
+        this(newLoadingPool());
+    }
+
+    /**
+     * Constructs a preloader running on an executor.
+     *
+     * @param executor The executor to load the assets on.
+     */
+    AssetPreloader(Executor executor) {
+        this.executor = executor;
+        JavaFXBuilderFactory defaults = new JavaFXBuilderFactory();
+        this.builderFactory = type -> type == Image.class ? new PreloadedImageBuilder() : defaults.getBuilder(type);
+    }
+
+    /**
+     * Gets the preloader shared by the whole application.
+     *
+     * @return The shared preloader.
+     */
+    public static synchronized AssetPreloader getShared() {
+        if (shared == null) {
+            shared = new AssetPreloader();
+        }
+        return shared;
+    }
+
+    /**
+     * Reads the template of a view and decodes the images it refers to, if that has not been queued yet.
+     *
+     * @param view The resource path of the FXML file, for example {@code "/com/example/cyc_snake/GameView.fxml"}.
+     */
+    public synchronized void preloadView(String view) {
+        URL location = resolve(view);
+        if (templates.containsKey(location.toExternalForm())) {
+            return;
+        }
+        CompletableFuture<byte[]> template = CompletableFuture.supplyAsync(() -> read(location), executor);
+        templates.put(location.toExternalForm(), template);
+        track(template.thenCompose(bytes -> {
+            List<URL> urls = imageUrls(location, bytes);
+            CompletableFuture<?>[] decoded = new CompletableFuture<?>[urls.size()];
+            for (int i = 0; i < decoded.length; i++) {
+                decoded[i] = decode(urls.get(i).toExternalForm());
+            }
+            return CompletableFuture.allOf(decoded);
+        }));
+    }
+
+    /**
+     * Runs the loading of another asset on the background threads.
+     *
+     * @param loader Loads the asset, for example {@code SpriteAtlas::getShared}.
+     */
+    public void preload(Runnable loader) {
+        track(CompletableFuture.runAsync(loader, executor));
+    }
+
+    /**
+     * Adds a listener for the loading progress, and calls it at once with the current progress.
+     *
+     * @param listener Called with the fraction of the queued views and assets that are loaded.
+     */
+    public void addProgressListener(DoubleConsumer listener) {
+        progressListeners.add(listener);
+        double progress = getProgress();
+        listener.accept(progress);
+        if (progress >= 1) {
+            progressListeners.remove(listener);
+        }
+    }
+
+    /**
+     * Gets the loading progress.
+     *
+     * @return The fraction of the queued views and assets that are loaded, {@code 1} if nothing is queued.
+     */
+    public double getProgress() {
+        int total = queued.get();
+        return total == 0 ? 1 : Math.min(1, (double) loaded.get() / total);
+    }
+
+    /**
+     * Creates a loader for a view that takes the images decoded in the background.
+     *
+     * @param view The resource path of the FXML file.
+     * @return A loader located at the view, to be loaded with {@link #load(FXMLLoader)}.
+     */
+    public FXMLLoader newLoader(String view) {
+        FXMLLoader loader = new FXMLLoader(resolve(view));
+        loader.setBuilderFactory(builderFactory);
+        return loader;
+    }
+
+    /**
+     * Loads a view from its template, read in the background if it was preloaded.
+     *
+     * @param loader A loader made by {@link #newLoader(String)}, with its controller set if the view needs one.
+     * @param <T>    The type of the root node.
+     * @return The root node of the view.
+     * @throws IOException If an error occurs during loading.
+     */
+    public <T> T load(FXMLLoader loader) throws IOException {
+        CompletableFuture<byte[]> template = templates.get(loader.getLocation().toExternalForm());
+        if (template == null) {
+            return loader.load();
+        }
+        byte[] bytes;
+        try {
+            bytes = template.join();
+        } catch (RuntimeException e) {
+            return loader.load();
+        }
+        try (InputStream in = new ByteArrayInputStream(bytes)) {
+            return loader.load(in);
+        }
+    }
+
+    /**
+     * Finds the images a view template refers to.
+     *
+     * @param location The location of the template, which relative image paths are resolved against.
+     * @param template The FXML template.
+     * @return The location of every image, each once.
+     */
+    static List<URL> imageUrls(URL location, byte[] template) {
+        Matcher matcher = IMAGE_URL.matcher(new String(template, StandardCharsets.UTF_8));
+        List<URL> urls = new ArrayList<>();
+        while (matcher.find()) {
+            try {
+                URL url = new URL(location, matcher.group(1));
+                if (!urls.contains(url)) {
+                    urls.add(url);
+                }
+            } catch (MalformedURLException e) {
+                System.out.println("Cannot preload image " + matcher.group(1) + ": " + e.getMessage());
+            }
+        }
+        return urls;
+    }
+
+    private CompletableFuture<Image> decode(String url) {
+        return images.computeIfAbsent(url, key -> CompletableFuture.supplyAsync(() -> new Image(key), executor));
+    }
+
+    private void track(CompletableFuture<?> asset) {
+        queued.incrementAndGet();
+        asset.whenComplete((result, failure) -> {
+            loaded.incrementAndGet();
+            double progress = getProgress();
+            for (DoubleConsumer listener : progressListeners) {
+                listener.accept(progress);
+            }
+            if (progress >= 1) {
+                progressListeners.clear();
+            }
+        });
+    }
+
+    private static URL resolve(String view) {
+        return Objects.requireNonNull(AssetPreloader.class.getResource(view), view);
+    }
+
+    private static byte[] read(URL location) {
+        try (InputStream in = location.openStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Executor newLoadingPool() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger created = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, IDLE_THREAD_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), task -> {
+            Thread thread = new Thread(task, "asset-loader-" + created.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Builds the {@code Image} elements of a template, taking the preloaded image when only its location is given.
+     */
+    private final class PreloadedImageBuilder extends AbstractMap<String, Object> implements Builder<Image> {
+        private final Map<String, Object> properties = new HashMap<>();
+
+        @Override
+        public Object put(String key, Object value) {
+            return properties.put(key, value);
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return properties.entrySet();
+        }
+
+        @Override
+        public Image build() {
+            String url = String.valueOf(properties.get("url"));
+            CompletableFuture<Image> preloaded = images.get(url);
+            if (properties.size() == 1 && preloaded != null) {
+                try {
+                    return preloaded.join();
+                } catch (RuntimeException e) {
+                    // Decode it here instead, as if it had not been preloaded
+                }
+            }
+            return new Image(url,
+                    number("requestedWidth"), number("requestedHeight"),
+                    flag("preserveRatio"), flag("smooth"), flag("backgroundLoading"));
+        }
+
+        private double number(String key) {
+            Object value = properties.get(key);
+            return value == null ? 0 : Double.parseDouble(value.toString());
+        }
+
+        private boolean flag(String key) {
+            Object value = properties.get(key);
+            return value != null && Boolean.parseBoolean(value.toString());
+        }
+    }
+}
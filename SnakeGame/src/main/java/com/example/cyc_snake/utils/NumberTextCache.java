@@ -0,0 +1,46 @@
+package com.example.cyc_snake.utils;
+
+/**
+ * Provides pre-built label texts for small non-negative numbers.
+ *
+ * <p>
+ * The {@code NumberTextCache} class builds the strings {@code prefix + 0} up to {@code prefix + (size - 1)} once, so
+ * the HUD can look up the text for the current time, score or length without formatting or allocating anything.
+ * Values outside the table are concatenated on demand.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2023-12-30
+ */
+public class NumberTextCache {
+    private final String prefix;
+    private final String[] texts;
+
+    /**
+     * Constructs a cache of label texts.
+     *
+     * @param prefix The text shown before the number, for example {@code "Score: "}.
+     * @param size   The number of values, starting at {@code 0}, to pre-build.
+     */
+    public NumberTextCache(String prefix, int size) {
+        this.prefix = prefix;
+        this.texts = new String[size];
+        for (int i = 0; i < size; i++) {
+            texts[i] = prefix + i;
+        }
+    }
+
+    /**
+     * Gets the label text for a value.
+     *
+     * @param value The value to show.
+     * @return The prefix followed by the value.
+     */
+    public String get(long value) {
+        if (value >= 0 && value < texts.length) {
+            return texts[(int) value];
+        }
+        return prefix + value;
+    }
+}
@@ -15,6 +15,11 @@ import java.util.Objects;
  * game over events, setting BGM volume, and playing a click sound for user interactions.
  * </p>
  *
+ * <p>
+ * The sound effects are played through the shared {@link SoundEffects}, which decodes each of them once and
+ * replays them from memory, so triggering one does not create a player.
+ * </p>
+ *
  * <h2>Key Methods:</h2>
  * <ul>
  *   <li>{@code setBgmVolume(double volume)}: Sets the volume of the background music.</li>
@@ -32,12 +37,6 @@ import java.util.Objects;
  * @since 2023-12-05
  */
 public class PlayMusic {
-    /** The media player for the sound effect of apple eating. */
-    public static MediaPlayer appleEatingMediaPlayer;
-
-    /** The media player for the sound effect of game over. */
-    private static MediaPlayer gameOverMediaPlayer;
-
     /** The media player for the first background music (BGM). */
     public static MediaPlayer firstBGM;
 
@@ -108,30 +107,21 @@ public class PlayMusic {
      * Plays the sound effect for apple eating.
      */
     public static void eatAppleSound() {
-        String appleEatingSoundPath = PlayMusic.class.getResource("/Sounds_Effects/apple_eating.wav").toExternalForm();
-        Media appleEatingSound = new Media(appleEatingSoundPath);
-        appleEatingMediaPlayer = new MediaPlayer(appleEatingSound);
-        appleEatingMediaPlayer.play();
+        SoundEffects.getShared().play(SoundEffects.Effect.APPLE_EATING);
     }
 
     /**
      * Plays the sound effect for the game over event.
      */
     public static void gameOverSound() {
-        String gameOverSoundPath = PlayMusic.class.getResource("/Sounds_Effects/dead.mp3").toExternalForm();
-        Media gameOverSound = new Media(gameOverSoundPath);
-        gameOverMediaPlayer = new MediaPlayer(gameOverSound);
-        gameOverMediaPlayer.play();
+        SoundEffects.getShared().play(SoundEffects.Effect.GAME_OVER);
     }
 
     /**
      * Plays a click sound for user interactions.
      */
     public static void clickSound() {
-        String clickPath = PlayMusic.class.getResource("/Sounds_Effects/StartGame.mp3").toExternalForm();
-        Media clickSound = new Media(clickPath);
-        MediaPlayer clickSoundMedia = new MediaPlayer(clickSound);
-        clickSoundMedia.play();
+        SoundEffects.getShared().play(SoundEffects.Effect.CLICK);
     }
 
     /**
@@ -0,0 +1,216 @@
+package com.example.cyc_snake.utils;
+
+import javafx.scene.media.AudioClip;
+
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Plays the short sound effects of the game from clips decoded once.
+ *
+ * <p>
+ * The {@code SoundEffects} class decodes every {@link Effect} into a single {@link AudioClip} when it is built and
+ * replays it from memory, so triggering an effect neither resolves a resource nor creates a player. An
+ * {@code AudioClip} can play several copies of itself at once, so the class bounds them by counting: each effect has
+ * a polyphony, and the copies started since its clip last fell silent are counted against it. Once the count is
+ * reached, the clip is stopped, which cuts off every copy since a clip cannot stop a single one, and the new copy
+ * starts afresh. Eating ten apples in a row therefore plays at most four overlapping sounds, and a long session uses
+ * the same clips from the first apple to the last.
+ * </p>
+ *
+ * <p>
+ * The effects are loaded once per application and shared. {@link #preload()} starts loading them on a background
+ * thread at startup; {@link #getShared()} returns them, waiting for the load only if it has not finished yet, and
+ * {@link #disposeShared()} stops and releases them when the application exits. An effect that cannot be loaded stays
+ * silent rather than stopping the game.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-14
+ */
+public class SoundEffects {
+
+    /**
+     * The sound effects of the game, with the number of copies of each that may play at once.
+     */
+    public enum Effect {
+        APPLE_EATING("/Sounds_Effects/apple_eating.wav", 4),
+        GAME_OVER("/Sounds_Effects/dead.mp3", 1),
+        CLICK("/Sounds_Effects/StartGame.mp3", 2);
+
+        private final String resource;
+        private final int polyphony;
+
+        Effect(String resource, int polyphony) {
+            this.resource = resource;
+            this.polyphony = polyphony;
+        }
+
+        /**
+         * Gets the number of copies of the effect that may play at once.
+         *
+         * @return The polyphony of the effect.
+         */
+        public int getPolyphony() {
+            return polyphony;
+        }
+    }
+
+    /**
+     * One decoded effect, which can play several copies of itself at once.
+     */
+    interface Clip {
+        /**
+         * Checks if any copy of the clip is playing.
+         *
+         * @return {@code true} if a copy is playing.
+         */
+        boolean isPlaying();
+
+        /**
+         * Starts a new copy of the clip, alongside the copies already playing.
+         */
+        void play();
+
+        /**
+         * Stops every copy of the clip.
+         */
+        void stop();
+    }
+
+    private static volatile CompletableFuture<SoundEffects> shared;
+
+    // Indexed by effect ordinal; null for an effect that could not be loaded
+    private final Clip[] clips;
+    // The copies started since each clip was last silent
+    private final int[] started;
+
+    /**
+     * Decodes every effect into an {@link AudioClip}.
+     */
+    SoundEffects() {
+        this(effect -> new FxClip(new AudioClip(resolve(effect).toExternalForm())));
+    }
+
+    /**
+     * Loads every effect into a clip made by a factory.
+     *
+     * @param clipFactory Makes the clip of an effect; called once per effect.
+     */
+    SoundEffects(Function<Effect, Clip> clipFactory) {
+        Effect[] effects = Effect.values();
+        clips = new Clip[effects.length];
+        started = new int[effects.length];
+        for (Effect effect : effects) {
+            try {
+                clips[effect.ordinal()] = clipFactory.apply(effect);
+            } catch (RuntimeException e) {
+                System.out.println("Sound effect " + effect + " is unavailable: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Starts loading the shared effects on a background thread, if that has not happened yet.
+     */
+    public static void preload() {
+        if (shared == null) {
+            synchronized (SoundEffects.class) {
+                if (shared == null) {
+                    shared = CompletableFuture.supplyAsync(SoundEffects::new);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the shared effects, loading them first if {@link #preload()} was never called.
+     *
+     * @return The shared effects.
+     */
+    public static SoundEffects getShared() {
+        preload();
+        return shared.join();
+    }
+
+    /**
+     * Stops and releases the shared effects, if they were loaded. They are loaded again when next used.
+     */
+    public static synchronized void disposeShared() {
+        if (shared != null) {
+            shared.join().dispose();
+            shared = null;
+        }
+    }
+
+    /**
+     * Plays a copy of an effect, first cutting off the copies playing if as many as its polyphony were started since
+     * the clip was last silent.
+     *
+     * @param effect The effect to play.
+     */
+    public synchronized void play(Effect effect) {
+        int index = effect.ordinal();
+        Clip clip = clips[index];
+        if (clip == null) {
+            return;
+        }
+        if (!clip.isPlaying()) {
+            started[index] = 0;
+        } else if (started[index] >= effect.polyphony) {
+            clip.stop();
+            started[index] = 0;
+        }
+        clip.play();
+        started[index]++;
+    }
+
+    /**
+     * Stops every clip and releases them. Effects played afterwards are silent.
+     */
+    public synchronized void dispose() {
+        for (int i = 0; i < clips.length; i++) {
+            if (clips[i] != null) {
+                clips[i].stop();
+                clips[i] = null;
+            }
+            started[i] = 0;
+        }
+    }
+
+    private static URL resolve(Effect effect) {
+        URL url = SoundEffects.class.getResource(effect.resource);
+        if (url == null) {
+            throw new IllegalStateException("Missing resource " + effect.resource);
+        }
+        return url;
+    }
+
+    /**
+     * A clip backed by an {@link AudioClip}.
+     */
+    private static final class FxClip implements Clip {
+        private final AudioClip clip;
+
+        FxClip(AudioClip clip) {
+            this.clip = clip;
+        }
+
+        @Override
+        public boolean isPlaying() {
+            return clip.isPlaying();
+        }
+
+        @Override
+        public void play() {
+            clip.play();
+        }
+
+        @Override
+        public void stop() {
+            clip.stop();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.cyc_snake.utils;
+
+import javafx.application.Platform;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Delivers updates of the user interface to the JavaFX application thread in batches.
+ *
+ * <p>
+ * Each update is posted for a property of a target, such as the background of a pane. Updates posted before the
+ * next batch runs are queued together, and the whole batch is delivered with a single {@link Platform#runLater}.
+ * When a property is updated again before its batch runs, the later update replaces the earlier one, which is never
+ * applied: a burst of color changes repaints each pane once, with the last color, instead of flooding the event
+ * queue with one task per change and per pane. A batch applies the updates target by target, in the order each
+ * target and each of its properties was first posted.
+ * </p>
+ *
+ * <p>
+ * The dispatcher counts the updates posted, the updates replaced before being applied and the batches delivered, and
+ * reports how many updates are queued, for spotting views that update faster than they are drawn.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-14
+ */
+public class UiUpdateDispatcher {
+    private static final UiUpdateDispatcher shared = new UiUpdateDispatcher(Platform::runLater);
+
+    private final Consumer<Runnable> scheduler;
+    // Keyed by target, then by property, in the order they were first posted
+    private Map<Object, Map<String, Runnable>> pending = new LinkedHashMap<>();
+    private int queueDepth;
+    private int peakQueueDepth;
+    private long posted;
+    private long coalesced;
+    private long batches;
+
+    /**
+     * Constructs a dispatcher delivering its batches with a scheduler.
+     *
+     * @param scheduler Runs a batch on the application thread, {@code Platform::runLater} outside of tests.
+     */
+    UiUpdateDispatcher(Consumer<Runnable> scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Gets the dispatcher shared by the whole application.
+     *
+     * @return The shared dispatcher.
+     */
+    public static UiUpdateDispatcher getShared() {
+        return shared;
+    }
+
+    /**
+     * Queues an update of a property, replacing the update of that property still queued, if any.
+     *
+     * @param target   The object updated, for example a pane.
+     * @param property The name of the property updated, for example {@code "background"}.
+     * @param update   Applies the new value of the property on the application thread.
+     */
+    public void post(Object target, String property, Runnable update) {
+        Objects.requireNonNull(target, "target");
+        Objects.requireNonNull(update, "update");
+        boolean schedule;
+        synchronized (this) {
+            posted++;
+            schedule = queueDepth == 0;
+            Map<String, Runnable> properties = pending.get(target);
+            if (properties == null) {
+                properties = new LinkedHashMap<>();
+                pending.put(target, properties);
+            }
+            if (properties.put(property, update) == null) {
+                queueDepth++;
+                peakQueueDepth = Math.max(peakQueueDepth, queueDepth);
+            } else {
+                coalesced++;
+            }
+        }
+        if (schedule) {
+            try {
+                scheduler.accept(this::deliver);
+            } catch (RuntimeException e) {
+                // Nothing will deliver the batch, so drop it rather than queue behind it forever
+                synchronized (this) {
+                    pending.clear();
+                    queueDepth = 0;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Applies every queued update. An update that fails is reported and does not stop the others.
+     */
+    private void deliver() {
+        Map<Object, Map<String, Runnable>> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            queueDepth = 0;
+            batches++;
+        }
+        for (Map<String, Runnable> properties : batch.values()) {
+            for (Runnable update : properties.values()) {
+                try {
+                    update.run();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of updates queued and not yet applied.
+     *
+     * @return The queue depth.
+     */
+    public synchronized int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * Gets the largest number of updates that have been queued at once.
+     *
+     * @return The peak queue depth.
+     */
+    public synchronized int getPeakQueueDepth() {
+        return peakQueueDepth;
+    }
+
+    /**
+     * Gets the number of updates posted.
+     *
+     * @return The number of updates posted.
+     */
+    public synchronized long getPostedCount() {
+        return posted;
+    }
+
+    /**
+     * Gets the number of updates replaced by a later update of the same property before being applied.
+     *
+     * @return The number of updates never applied.
+     */
+    public synchronized long getCoalescedCount() {
+        return coalesced;
+    }
+
+    /**
+     * Gets the number of batches delivered to the application thread.
+     *
+     * @return The number of batches.
+     */
+    public synchronized long getBatchCount() {
+        return batches;
+    }
+}
@@ -14,6 +14,14 @@
  *       interactions.</li>
  *   <li>{@code SceneUtils}: Utility class providing methods for managing JavaFX scenes. It includes
  *       functionalities for scene navigation, loading FXML files, and other scene-related operations.</li>
+ *   <li>{@code AssetPreloader}: Reads the view templates and decodes their images, the sprite atlas and the
+ *       sound effects in the background at startup, reporting its progress to the initializing view.</li>
+ *   <li>{@code SoundEffects}: Sound effects decoded once at startup into one clip each, replayed from memory
+ *       with a bound on how many copies of an effect can play at once.</li>
+ *   <li>{@code NumberTextCache}: Table of pre-built label texts such as "Score: 12", so the game HUD can be
+ *       updated every frame without formatting or allocating strings.</li>
+ *   <li>{@code UiUpdateDispatcher}: Queues the updates the controllers make to their views and delivers them to the
+ *       application thread in batches, keeping only the last update of each property.</li>
  *   <!-- Add more utility classes as needed -->
  * </ul>
  *
@@ -27,4 +27,5 @@ module com.example.snake_game {
     exports com.example.cyc_snake.controllers;
     exports com.example.cyc_snake.ui to javafx.fxml;
     exports com.example.cyc_snake.models;
+    exports com.example.cyc_snake.persistence;
 }
@@ -1,6 +1,8 @@
 package com.example.cyc_snake;
 
 import com.example.cyc_snake.models.Player;
+import com.example.cyc_snake.persistence.InMemoryScoreRepository;
+import com.example.cyc_snake.persistence.JdbcScoreRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -86,5 +88,15 @@ public class DatabaseConnectionTest {
         // This may involve checking the file system and reading the CSV file
     }
 
+    /**
+     * Test the choice of the storage from its configured name.
+     */
+    @Test
+    void testOpenRepository() {
+        assertTrue(DatabaseConnection.openRepository("memory") instanceof InMemoryScoreRepository);
+        assertTrue(DatabaseConnection.openRepository("MySQL") instanceof JdbcScoreRepository);
+        assertThrows(IllegalArgumentException.class, () -> DatabaseConnection.openRepository("floppy"));
+    }
+
     // More test cases can be added here to cover other methods
 }
@@ -0,0 +1,91 @@
+package com.example.cyc_snake.benchmark;
+
+import com.example.cyc_snake.models.FreeCellIndex;
+import com.example.cyc_snake.models.GameModel;
+import com.example.cyc_snake.models.OccupancyGrid;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares apple placement through the {@link FreeCellIndex} against rejection sampling of random coordinates,
+ * the approach {@code GameModel.newApple()} used before, extended with the snake check it was missing.
+ *
+ * <p>
+ * A 128 x 128 board is filled to the given ratio with randomly chosen occupied cells. Rejection sampling needs on
+ * average {@code 1 / (1 - fill)} draws per placement, while the free-cell index always needs one.
+ * </p>
+ *
+ * <p>
+ * Run the {@code main} method from the IDE, or {@code org.openjdk.jmh.Main ApplePlacementBenchmark} on the test
+ * classpath after {@code mvn test-compile}.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2023-12-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApplePlacementBenchmark {
+    private static final int COLUMNS = 128;
+    private static final int ROWS = 128;
+    private static final int UNIT = GameModel.UNIT_SIZE;
+
+    @Param({"0.5", "0.9", "0.99", "0.999"})
+    public double fill;
+
+    private OccupancyGrid grid;
+    private FreeCellIndex freeCells;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        grid = new OccupancyGrid(COLUMNS * UNIT, ROWS * UNIT, UNIT);
+        freeCells = new FreeCellIndex(COLUMNS * ROWS);
+        random = new Random(42);
+        for (int cell = 0; cell < COLUMNS * ROWS; cell++) {
+            freeCells.add(cell);
+        }
+        int toOccupy = (int) (COLUMNS * ROWS * fill);
+        while (toOccupy > 0) {
+            int cell = freeCells.get(random.nextInt(freeCells.size()));
+            freeCells.remove(cell);
+            grid.occupy(grid.xOf(cell), grid.yOf(cell));
+            toOccupy--;
+        }
+    }
+
+    @Benchmark
+    public int rejectionSampling() {
+        while (true) {
+            int x = random.nextInt(COLUMNS) * UNIT;
+            int y = random.nextInt(ROWS) * UNIT;
+            if (!grid.isOccupied(x, y)) {
+                return x + y;
+            }
+        }
+    }
+
+    @Benchmark
+    public int freeCellIndex() {
+        int cell = freeCells.get(random.nextInt(freeCells.size()));
+        return grid.xOf(cell) + grid.yOf(cell);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ApplePlacementBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
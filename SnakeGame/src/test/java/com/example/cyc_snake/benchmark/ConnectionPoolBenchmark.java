@@ -0,0 +1,91 @@
+package com.example.cyc_snake.benchmark;
+
+import com.example.cyc_snake.persistence.ConnectionPool;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the latency of one small query on a fresh connection with the same query on a pooled connection.
+ *
+ * <p>
+ * The database is an embedded H2 instance, so opening a connection costs far less than the TCP, TLS and login
+ * handshake with the remote MySQL server. The difference measured here is therefore a lower bound on what the pool
+ * saves in the game.
+ * </p>
+ *
+ * <p>
+ * Run the {@code main} method from the IDE, or {@code org.openjdk.jmh.Main ConnectionPoolBenchmark} on the test
+ * classpath after {@code mvn test-compile}.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-04
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+    private static final String URL = "jdbc:h2:mem:pool_benchmark;DB_CLOSE_DELAY=-1";
+    private static final String QUERY = "SELECT COUNT(*) FROM gamescores WHERE gamescore > ?";
+
+    private ConnectionPool pool;
+
+    @Setup
+    public void setUp() throws SQLException {
+        pool = new ConnectionPool(URL, "sa", "", 4, 60_000, 1_000);
+        try (Connection connection = pool.getConnection()) {
+            connection.createStatement().execute("CREATE TABLE IF NOT EXISTS gamescores (PlayerID INT AUTO_INCREMENT "
+                    + "PRIMARY KEY, playerName VARCHAR(255), gamescore INT, GameTimeInMilliseconds BIGINT)");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public int freshConnection() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "")) {
+            return query(connection);
+        }
+    }
+
+    @Benchmark
+    public int pooledConnection() throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            return query(connection);
+        }
+    }
+
+    private static int query(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(QUERY)) {
+            statement.setInt(1, 10);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ConnectionPoolBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.cyc_snake.benchmark;
+
+import com.example.cyc_snake.persistence.ConnectionPool;
+import com.example.cyc_snake.persistence.CsvExporter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures exporting a table of {@value #ROWS} game records to CSV with {@link CsvExporter}.
+ *
+ * <p>
+ * The table lives in an H2 database file in a temporary directory, so the rows are not already on the heap. Each
+ * invocation streams the whole table, plain or through gzip. After every iteration the heap still in use after the last
+ * collection is printed; it should stay flat however many rows are exported. Run with {@code -prof gc} to also see
+ * the allocation rate.
+ * </p>
+ *
+ * <p>
+ * Run the {@code main} method from the IDE, or {@code org.openjdk.jmh.Main CsvExportBenchmark} on the test
+ * classpath after {@code mvn test-compile}.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-10
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class CsvExportBenchmark {
+    private static final int ROWS = 1_000_000;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private Path directory;
+    private ConnectionPool pool;
+    private CsvExporter exporter;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("export-benchmark");
+        pool = new ConnectionPool("jdbc:h2:file:" + directory.resolve("scores").toAbsolutePath(), "sa", "",
+                1, 60_000, 10_000);
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE gamescores (PlayerID INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "playerName VARCHAR(255), gamescore INT, GameTimeInMilliseconds BIGINT)");
+            statement.execute("INSERT INTO gamescores (playerName, gamescore, GameTimeInMilliseconds) "
+                    + "SELECT CONCAT('Player, ', X), MOD(X * 7919, 1000), X * 13 FROM SYSTEM_RANGE(1, " + ROWS + ")");
+        }
+        exporter = new CsvExporter(pool);
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportHeap() {
+        long retained = 0;
+        for (MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (memoryPool.getType() == MemoryType.HEAP && memoryPool.getCollectionUsage() != null) {
+                retained += memoryPool.getCollectionUsage().getUsed();
+            }
+        }
+        System.out.println("  heap after last collection: " + retained / (1024 * 1024) + " MiB");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public long export() throws SQLException, IOException {
+        return exporter.export("SELECT PlayerID, playerName, gamescore, GameTimeInMilliseconds FROM gamescores "
+                        + "ORDER BY PlayerID", directory.resolve(gzip ? "export.csv.gz" : "export.csv"), gzip, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CsvExportBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.cyc_snake.benchmark;
+
+import com.example.cyc_snake.persistence.GameRecord;
+import com.example.cyc_snake.persistence.RecordJournal;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures sustained appends to a {@link RecordJournal}, each forced to disk before the append returns.
+ *
+ * <p>
+ * {@code appendOne} journals one game per forced write, as when games end one at a time. {@code appendBatch} journals
+ * a batch of {@value #BATCH_SIZE} games per forced write, as when the record writer drains a backlog. Both are
+ * reported in records per second. The journal is emptied after every iteration so the file does not grow without
+ * bound. Results depend heavily on the disk's sync latency.
+ * </p>
+ *
+ * <p>
+ * Run the {@code main} method from the IDE, or {@code org.openjdk.jmh.Main RecordJournalBenchmark} on the test
+ * classpath after {@code mvn test-compile}.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-06
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordJournalBenchmark {
+    private static final int BATCH_SIZE = 32;
+
+    private Path directory;
+    private RecordJournal journal;
+    private List<GameRecord> one;
+    private List<GameRecord> batch;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        journal = new RecordJournal(directory.resolve("records.journal"));
+        one = List.of(new GameRecord("Player", 42, 61_000, 1_700_000_000_000L));
+        batch = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new GameRecord("Player" + i, i, i * 1000L, 1_700_000_000_000L));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void empty() throws IOException {
+        journal.removeFirst(journal.size());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.close();
+        Files.deleteIfExists(directory.resolve("records.journal"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1)
+    public void appendOne() throws IOException {
+        journal.append(one);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void appendBatch() throws IOException {
+        journal.append(batch);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RecordJournalBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.cyc_snake.benchmark;
+
+import com.example.cyc_snake.models.Player;
+import com.example.cyc_snake.persistence.ConnectionPool;
+import com.example.cyc_snake.persistence.JdbcScoreRepository;
+import com.example.cyc_snake.persistence.LeaderboardOrder;
+import com.example.cyc_snake.persistence.SchemaMigrator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the hot queries on {@code gamescores} with and without the indexes of the schema.
+ *
+ * <p>
+ * An embedded H2 database is filled with {@value #ROWS} game records of {@value #PLAYERS} players. With
+ * {@code indexed=false} only the first migration, which creates the table, is applied; with {@code indexed=true}
+ * every migration of {@link JdbcScoreRepository#SCHEMA_MIGRATIONS} is. The query plans are printed during setup. The
+ * benchmarks read the first leaderboard page by score, a page from the middle of it continued with a keyset condition,
+ * a page by time, and look up a player's games as {@code deletePlayer} does. The parameters change with every
+ * invocation, because H2 reuses the last result of a prepared query whose parameters and tables are unchanged.
+ * </p>
+ *
+ * <p>
+ * Run the {@code main} method from the IDE, or {@code org.openjdk.jmh.Main SchemaIndexBenchmark} on the test
+ * classpath after {@code mvn test-compile}.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-12
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchemaIndexBenchmark {
+    private static final int ROWS = 200_000;
+    private static final int PLAYERS = 2_000;
+    private static final int PAGE_SIZE = 50;
+    private static final String PLAYER_GAMES = "SELECT COUNT(*) FROM gamescores WHERE playerName = ?";
+
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    private ConnectionPool pool;
+    private Connection connection;
+    private PreparedStatement firstPage;
+    private PreparedStatement middlePage;
+    private PreparedStatement timePage;
+    private PreparedStatement playerGames;
+    private final Player[] middle = new Player[2];
+    private int invocation;
+
+    @Setup
+    public void setUp() throws SQLException {
+        pool = new ConnectionPool("jdbc:h2:mem:index_benchmark_" + indexed, "sa", "", 2, 60_000, 10_000);
+        connection = pool.getConnection();
+        new SchemaMigrator(pool, JdbcScoreRepository.SCHEMA_MIGRATIONS.subList(0, 1)).migrate();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO gamescores (playerName, gamescore, GameTimeInMilliseconds) "
+                    + "SELECT CONCAT('Player', MOD(X, " + PLAYERS + ")), MOD(X * 7919, 1000), MOD(X * 104729, 600000) "
+                    + "FROM SYSTEM_RANGE(1, " + ROWS + ")");
+        }
+        if (indexed) {
+            new SchemaMigrator(pool, JdbcScoreRepository.SCHEMA_MIGRATIONS).migrate();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+
+        firstPage = connection.prepareStatement(LeaderboardOrder.BY_SCORE.pageQuery(false));
+        timePage = connection.prepareStatement(LeaderboardOrder.BY_TIME.pageQuery(false));
+        try (PreparedStatement statement = connection.prepareStatement(
+                LeaderboardOrder.BY_SCORE.pageQuery(false) + " OFFSET " + ROWS / 2)) {
+            statement.setInt(1, middle.length);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                for (int i = 0; i < middle.length && resultSet.next(); i++) {
+                    middle[i] = new Player(resultSet.getInt(1), resultSet.getString(2), resultSet.getInt(3),
+                            resultSet.getLong(4));
+                }
+            }
+        }
+        middlePage = connection.prepareStatement(LeaderboardOrder.BY_SCORE.pageQuery(true));
+        playerGames = connection.prepareStatement(PLAYER_GAMES);
+
+        System.out.println();
+        printPlan("first page by score", LeaderboardOrder.BY_SCORE.pageQuery(false).replace("?", "51"));
+        printPlan("page by time", LeaderboardOrder.BY_TIME.pageQuery(false).replace("?", "51"));
+        printPlan("player games", PLAYER_GAMES.replace("?", "'Player42'"));
+    }
+
+    private void printPlan(String name, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            resultSet.next();
+            System.out.println("Plan of " + name + " (indexed=" + indexed + "):\n" + resultSet.getString(1));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+        pool.close();
+    }
+
+    @Benchmark
+    public void firstPageByScore(Blackhole blackhole) throws SQLException {
+        firstPage.setInt(1, PAGE_SIZE + 1 + (invocation++ & 1));
+        consume(firstPage, blackhole);
+    }
+
+    @Benchmark
+    public void middlePageByScore(Blackhole blackhole) throws SQLException {
+        int limitIndex = LeaderboardOrder.BY_SCORE.bindAfter(middlePage, middle[invocation++ & 1]);
+        middlePage.setInt(limitIndex, PAGE_SIZE + 1);
+        consume(middlePage, blackhole);
+    }
+
+    @Benchmark
+    public void firstPageByTime(Blackhole blackhole) throws SQLException {
+        timePage.setInt(1, PAGE_SIZE + 1 + (invocation++ & 1));
+        consume(timePage, blackhole);
+    }
+
+    @Benchmark
+    public void gamesOfPlayer(Blackhole blackhole) throws SQLException {
+        playerGames.setString(1, "Player" + (invocation++ % PLAYERS));
+        consume(playerGames, blackhole);
+    }
+
+    private static void consume(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getInt(1));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SchemaIndexBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.cyc_snake.benchmark;
+
+import com.example.cyc_snake.persistence.FileScoreRepository;
+import com.example.cyc_snake.persistence.InMemoryScoreRepository;
+import com.example.cyc_snake.persistence.LeaderboardOrder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the write throughput and the startup time of the local score repositories.
+ *
+ * <p>
+ * {@code fileSaveOne} saves one game to a {@link FileScoreRepository} and waits until it is on disk, as when games end
+ * one at a time; it costs one forced append. {@code fileSaveBurst} queues {@value #BURST_SIZE} games before waiting,
+ * so the writer thread appends them with few forced writes. {@code memorySave} is the {@link InMemoryScoreRepository}
+ * for reference. Each is reported in games per second; a save to the MySQL repository costs at least one round trip
+ * to the server per batch. The score file is recreated for every iteration.
+ * </p>
+ *
+ * <p>
+ * {@code fileOpen} reports the time to open a score file of {@value #OPEN_GAMES} games, which is what the game pays at
+ * startup, and {@code fileOpenLeaderboard} the time to open it and read its first leaderboard page, which adds the
+ * sorting deferred to the first read.
+ * </p>
+ *
+ * <p>
+ * Run the {@code main} method from the IDE, or {@code org.openjdk.jmh.Main ScoreRepositoryBenchmark} on the test
+ * classpath after {@code mvn test-compile}.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2024-01-13
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreRepositoryBenchmark {
+    private static final int BURST_SIZE = 64;
+    private static final int OPEN_GAMES = 100_000;
+
+    @State(Scope.Thread)
+    public static class Saves {
+        private Path directory;
+        private FileScoreRepository file;
+        private InMemoryScoreRepository memory;
+        private int game;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("score-benchmark");
+            file = new FileScoreRepository(directory.resolve("scores.log"));
+            memory = new InMemoryScoreRepository();
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws IOException {
+            file.close();
+            Files.deleteIfExists(directory.resolve("scores.log"));
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ScoreFile {
+        private Path directory;
+        private Path scores;
+
+        @Setup
+        public void setUp() throws Exception {
+            directory = Files.createTempDirectory("score-benchmark");
+            scores = directory.resolve("scores.log");
+            try (FileScoreRepository repository = new FileScoreRepository(scores)) {
+                CompletableFuture<Integer> last = null;
+                for (int i = 0; i < OPEN_GAMES; i++) {
+                    last = repository.save("Player" + i % 1000, i % 500, i * 37L % 600_000);
+                }
+                last.get(60, TimeUnit.SECONDS);
+            }
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(scores);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1)
+    public Integer fileSaveOne(Saves saves) {
+        int game = saves.game++;
+        return saves.file.save("Player" + game % 100, game % 500, game).join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST_SIZE)
+    public Integer fileSaveBurst(Saves saves) {
+        CompletableFuture<Integer> last = null;
+        for (int i = 0; i < BURST_SIZE; i++) {
+            int game = saves.game++;
+            last = saves.file.save("Player" + game % 100, game % 500, game);
+        }
+        // Saves complete in the order they were queued
+        return last.join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1)
+    public Integer memorySave(Saves saves) {
+        int game = saves.game++;
+        return saves.memory.save("Player" + game % 100, game % 500, game).join();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int fileOpen(ScoreFile scoreFile) throws IOException {
+        try (FileScoreRepository repository = new FileScoreRepository(scoreFile.scores)) {
+            return repository.getPlayerStats().size();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int fileOpenLeaderboard(ScoreFile scoreFile) throws IOException {
+        try (FileScoreRepository repository = new FileScoreRepository(scoreFile.scores)) {
+            return repository.getLeaderboardPage(LeaderboardOrder.BY_SCORE, null, 50).getPlayers().size();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ScoreRepositoryBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
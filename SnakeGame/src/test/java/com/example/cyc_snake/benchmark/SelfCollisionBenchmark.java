@@ -0,0 +1,91 @@
+package com.example.cyc_snake.benchmark;
+
+import com.example.cyc_snake.models.GameModel;
+import com.example.cyc_snake.models.OccupancyGrid;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the head-vs-body collision check done with the {@link OccupancyGrid} bitmap against the linear
+ * scan over the {@code x[]}/{@code y[]} segment arrays that {@code GameModel.checkCollisions()} used before.
+ *
+ * <p>
+ * The snake is laid out as a serpentine path on a 128 x 128 board so that lengths up to 10,000 fit. The head is
+ * placed on a free cell, which is the common case during play and the worst case for the linear scan.
+ * </p>
+ *
+ * <p>
+ * Run the {@code main} method from the IDE, or {@code org.openjdk.jmh.Main SelfCollisionBenchmark} on the test
+ * classpath after {@code mvn test-compile}.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2023-12-20
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelfCollisionBenchmark {
+    private static final int COLUMNS = 128;
+    private static final int ROWS = 128;
+    private static final int UNIT = GameModel.UNIT_SIZE;
+
+    @Param({"6", "100", "1000", "10000"})
+    public int length;
+
+    private int[] x;
+    private int[] y;
+    private OccupancyGrid grid;
+    private int headX;
+    private int headY;
+
+    @Setup
+    public void setUp() {
+        x = new int[length + 1];
+        y = new int[length + 1];
+        grid = new OccupancyGrid(COLUMNS * UNIT, ROWS * UNIT, UNIT);
+        for (int i = 0; i <= length; i++) {
+            int row = i / COLUMNS;
+            int column = (row % 2 == 0) ? i % COLUMNS : COLUMNS - 1 - i % COLUMNS;
+            x[i] = column * UNIT;
+            y[i] = row * UNIT;
+            if (i < length) {
+                grid.occupy(x[i], y[i]);
+            }
+        }
+        // A free cell on the last row, clear of the body
+        headX = (COLUMNS - 1) * UNIT;
+        headY = (ROWS - 1) * UNIT;
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        for (int i = length; i > 0; i--) {
+            if (headX == x[i] && headY == y[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean occupancyBitmap() {
+        return grid.isOccupied(headX, headY);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SelfCollisionBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.cyc_snake.benchmark;
+
+import com.example.cyc_snake.models.SnakeSimulation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link SnakeSimulation#step(char)} without the JavaFX toolkit.
+ *
+ * <p>
+ * The snake circles a square on a 64 x 64 board, so every step moves, checks apples and collisions and updates the
+ * timed effects without ever ending the game. A game that does end is reset and counted in the measurement.
+ * </p>
+ *
+ * <p>
+ * Run the {@code main} method from the IDE, or {@code org.openjdk.jmh.Main SimulationStepBenchmark} on the test
+ * classpath after {@code mvn test-compile}.
+ * </p>
+ *
+ * @author wjscyc
+ * @version 1.0
+ * @since 2023-12-27
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationStepBenchmark {
+    private static final int UNIT = SnakeSimulation.UNIT_SIZE;
+    private static final int SIDE = 16;
+
+    private SnakeSimulation simulation;
+    private int tick;
+
+    @Setup
+    public void setUp() {
+        simulation = new SnakeSimulation(64 * UNIT, 64 * UNIT);
+        simulation.reset(new SplittableRandom(42));
+        simulation.step('D');
+    }
+
+    @Benchmark
+    public int step() {
+        int leg = (tick++ / SIDE) & 3;
+        simulation.step(leg == 0 ? 'D' : leg == 1 ? 'R' : leg == 2 ? 'U' : 'L');
+        if (!simulation.isRunning()) {
+            simulation.reset(new SplittableRandom(42));
+        }
+        return simulation.getScore();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SimulationStepBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.cyc_snake.model;
+
+import com.example.cyc_snake.models.FreeCellIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the FreeCellIndex class.
+ *
+ * @author wjscyc
+ * @ClassName FreeCellIndexTest
+ * @date: 22/12/2023 09:40
+ * @Version: V1.0
+ */
+class FreeCellIndexTest {
+
+    private FreeCellIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FreeCellIndex(10);
+        for (int cell = 0; cell < 10; cell++) {
+            index.add(cell);
+        }
+    }
+
+    @Test
+    void testRemoveSwapsLastCellIn() {
+        assertTrue(index.remove(3), "Free cell should be removable");
+        assertEquals(9, index.size(), "Size should shrink by one");
+        assertFalse(index.contains(3), "Removed cell should not be free");
+        assertEquals(9, index.get(3), "Last cell should take the removed slot");
+        assertEquals(3, index.indexOf(9), "Moved cell should know its new slot");
+    }
+
+    @Test
+    void testAddAndRemoveAreIdempotent() {
+        assertFalse(index.add(5), "Adding a free cell twice should be a no-op");
+        assertTrue(index.remove(5));
+        assertFalse(index.remove(5), "Removing a cell twice should be a no-op");
+        assertFalse(index.add(-1), "Off-board cells should be ignored");
+        assertEquals(9, index.size());
+    }
+
+    @Test
+    void testClear() {
+        index.clear();
+        assertEquals(0, index.size(), "Index should be empty after clear");
+        assertTrue(index.add(7), "Cells should be addable again after clear");
+    }
+}
@@ -20,7 +20,7 @@ class GameModelTest {
 
     @BeforeEach
     void setUp() {
-        gameModel = GameModel.getInstance();
+        gameModel = new GameModel();
     }
 
     /**
@@ -53,6 +53,23 @@ class GameModelTest {
         assertTrue(gameModel.getAppleX() >= 0 && gameModel.getAppleY() >= 0, "Apple should be within game boundaries");
     }
 
+    /**
+     * Test method for apple placement never landing on the snake.
+     */
+    @Test
+    void testNewAppleAvoidsSnake() {
+        gameModel.resetGame();
+        for (int i = 0; i < 500; i++) {
+            gameModel.newApple();
+            for (int segment = 0; segment < gameModel.getBodyParts(); segment++) {
+                assertFalse(gameModel.getAppleX() == gameModel.getSegmentX(segment)
+                        && gameModel.getAppleY() == gameModel.getSegmentY(segment), "Apple should not spawn on the snake");
+            }
+            assertFalse(gameModel.getAppleX() == gameModel.getSpecialAppleX()
+                    && gameModel.getAppleY() == gameModel.getSpecialAppleY(), "Apples should not share a cell");
+        }
+    }
+
     /**
      * Test method for collision with itself.
      */
@@ -0,0 +1,52 @@
+package com.example.cyc_snake.model;
+
+import com.example.cyc_snake.models.OccupancyGrid;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the OccupancyGrid class.
+ *
+ * @author wjscyc
+ * @ClassName OccupancyGridTest
+ * @date: 20/12/2023 10:15
+ * @Version: V1.0
+ */
+class OccupancyGridTest {
+
+    private OccupancyGrid grid;
+
+    @BeforeEach
+    void setUp() {
+        grid = new OccupancyGrid(1100, 700, 50);
+    }
+
+    @Test
+    void testOccupyAndVacate() {
+        grid.occupy(100, 50);
+        assertTrue(grid.isOccupied(100, 50), "Cell should be occupied after occupy");
+        assertFalse(grid.isOccupied(150, 50), "Neighbouring cell should stay free");
+        grid.vacate(100, 50);
+        assertFalse(grid.isOccupied(100, 50), "Cell should be free after vacate");
+    }
+
+    @Test
+    void testOffBoardCoordinatesAreIgnored() {
+        grid.occupy(-50, 0);
+        grid.occupy(1100, 0);
+        assertFalse(grid.isOccupied(-50, 0), "Cells left of the board are never occupied");
+        assertFalse(grid.isOccupied(1100, 0), "Cells right of the board are never occupied");
+        assertEquals(-1, grid.cellOf(0, 700), "Cells below the board have no id");
+    }
+
+    @Test
+    void testLastCellAndClear() {
+        grid.occupy(1050, 650);
+        assertEquals(22 * 14 - 1, grid.cellOf(1050, 650), "Bottom-right cell should have the last id");
+        assertTrue(grid.isOccupied(1050, 650));
+        grid.clear();
+        assertFalse(grid.isOccupied(1050, 650), "Clear should free every cell");
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.cyc_snake.model;
+
+import com.example.cyc_snake.models.GameModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress test running many independent GameModel instances concurrently.
+ *
+ * @author wjscyc
+ * @ClassName ParallelGamesTest
+ * @date: 29/12/2023 11:05
+ * @Version: V1.0
+ */
+class ParallelGamesTest {
+
+    private static final int GAMES = 10_000;
+    private static final int TICKS = 300;
+    private static final char[] DIRECTIONS = {'U', 'D', 'L', 'R'};
+
+    /**
+     * Test method for concurrent games producing the same results as the same games played one after another.
+     */
+    @Test
+    void testParallelGamesDoNotInterfere() throws Exception {
+        long[] sequential = new long[GAMES];
+        for (int game = 0; game < GAMES; game++) {
+            sequential[game] = play(game);
+        }
+
+        long[] parallel = new long[GAMES];
+        ForkJoinPool pool = new ForkJoinPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        try {
+            pool.submit(() -> IntStream.range(0, GAMES).parallel().forEach(game -> parallel[game] = play(game))).get();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertArrayEquals(sequential, parallel, "Every game should play out the same whatever runs beside it");
+    }
+
+    /**
+     * Plays one game on its own board size, seed and input stream and summarises the final state.
+     *
+     * @param game The game number.
+     * @return A fingerprint of the final state.
+     */
+    private static long play(int game) {
+        int columns = 10 + game % 13;
+        int rows = 8 + game % 7;
+        GameModel model = new GameModel(columns * GameModel.UNIT_SIZE, rows * GameModel.UNIT_SIZE);
+        model.resetGame(new SplittableRandom(game));
+        SplittableRandom inputs = new SplittableRandom(~game);
+        for (int tick = 0; tick < TICKS && !model.gameOverProperty().get(); tick++) {
+            model.handleInput(chooseInput(model, inputs));
+            model.update();
+        }
+
+        long fingerprint = model.getTick();
+        fingerprint = fingerprint * 31 + model.getScore();
+        fingerprint = fingerprint * 31 + model.getBodyParts();
+        fingerprint = fingerprint * 31 + model.getSegmentX(0);
+        fingerprint = fingerprint * 31 + model.getSegmentY(0);
+        fingerprint = fingerprint * 31 + model.getAppleX();
+        fingerprint = fingerprint * 31 + model.getAppleY();
+        fingerprint = fingerprint * 31 + model.getLeftBorder();
+        return fingerprint;
+    }
+
+    /**
+     * Picks a random input that neither reverses the snake nor runs it into the border, keeping the current
+     * direction most of the time.
+     */
+    private static char chooseInput(GameModel model, SplittableRandom inputs) {
+        char direction = model.getDirection();
+        if (inputs.nextInt(4) != 0 && isSafe(model, direction)) {
+            return direction;
+        }
+        int start = inputs.nextInt(DIRECTIONS.length);
+        for (int i = 0; i < DIRECTIONS.length; i++) {
+            char input = DIRECTIONS[(start + i) % DIRECTIONS.length];
+            if (!isReversal(direction, input) && isSafe(model, input)) {
+                return input;
+            }
+        }
+        return direction;
+    }
+
+    private static boolean isSafe(GameModel model, char input) {
+        int x = model.getSegmentX(0) + (input == 'R' ? GameModel.UNIT_SIZE : input == 'L' ? -GameModel.UNIT_SIZE : 0);
+        int y = model.getSegmentY(0) + (input == 'D' ? GameModel.UNIT_SIZE : input == 'U' ? -GameModel.UNIT_SIZE : 0);
+        return x >= model.getLeftBorder() && x < model.getRightBorder()
+                && y >= model.getTopBorder() && y < model.getBottomBorder();
+    }
+
+    private static boolean isReversal(char direction, char input) {
+        return direction == 'U' && input == 'D' || direction == 'D' && input == 'U'
+                || direction == 'L' && input == 'R' || direction == 'R' && input == 'L';
+    }
+}
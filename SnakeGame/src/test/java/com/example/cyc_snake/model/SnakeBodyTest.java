@@ -0,0 +1,54 @@
+package com.example.cyc_snake.model;
+
+import com.example.cyc_snake.models.SnakeBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the SnakeBody class.
+ *
+ * @author wjscyc
+ * @ClassName SnakeBodyTest
+ * @date: 21/12/2023 14:02
+ * @Version: V1.0
+ */
+class SnakeBodyTest {
+
+    private SnakeBody body;
+
+    @BeforeEach
+    void setUp() {
+        body = new SnakeBody(8);
+        body.addTail(100, 0);
+        body.addTail(50, 0);
+        body.addTail(0, 0);
+    }
+
+    @Test
+    void testAdvanceKeepsLengthAndVacatesTail() {
+        body.advance(150, 0);
+        assertEquals(3, body.getLength(), "Length should not change on a plain move");
+        assertEquals(150, body.getHeadX(), "New head should be in front");
+        assertEquals(50, body.getX(2), "Old middle segment should become the tail");
+        assertEquals(0, body.getVacatedX(), "Old tail should be reported as vacated");
+    }
+
+    @Test
+    void testGrowTakesBackVacatedTail() {
+        body.advance(150, 0);
+        body.grow();
+        assertEquals(4, body.getLength(), "Length should increase by one");
+        assertArrayEquals(new int[]{150, 100, 50, 0}, body.toXArray(), "Vacated tail should rejoin the body");
+    }
+
+    @Test
+    void testManyMovesWrapAround() {
+        for (int i = 1; i <= 100; i++) {
+            body.advance(100 + i * 50, 0);
+        }
+        assertArrayEquals(new int[]{5100, 5050, 5000}, body.toXArray(), "Segments should follow the head after wrapping");
+        assertArrayEquals(new int[]{0, 0, 0}, body.toYArray());
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.cyc_snake.model;
+
+import com.example.cyc_snake.models.SnakeSimulation;
+import com.example.cyc_snake.models.SpeedDownApple;
+import com.example.cyc_snake.models.SpeedUpApple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the SnakeSimulation class.
+ *
+ * @author wjscyc
+ * @ClassName SnakeSimulationTest
+ * @date: 27/12/2023 16:12
+ * @Version: V1.0
+ */
+class SnakeSimulationTest {
+
+    private static final int UNIT = SnakeSimulation.UNIT_SIZE;
+    private static final char[] INPUTS = {'R', 'D', 'D', 'L', 'U', 'R', 'R', 'D', 'L', 'L'};
+
+    private SnakeSimulation simulation;
+
+    @BeforeEach
+    void setUp() {
+        simulation = new SnakeSimulation(20 * UNIT, 20 * UNIT);
+        simulation.reset(new SplittableRandom(7));
+    }
+
+    /**
+     * Test method for one step moving the head by one unit.
+     */
+    @Test
+    void testStepMovesHead() {
+        simulation.step('R');
+        assertEquals(UNIT, simulation.getBody().getHeadX(), "Head should move one unit to the right");
+        assertEquals(0, simulation.getBody().getHeadY());
+        assertEquals(6, simulation.getLength(), "Length should not change without an apple");
+    }
+
+    /**
+     * Test method for the positions segments had before the last move.
+     */
+    @Test
+    void testPreviousSegmentPositions() {
+        assertEquals(0, simulation.getPreviousSegmentX(0), "Before any move segments should report their own cell");
+        simulation.step('D');
+        assertEquals(0, simulation.getPreviousSegmentX(0), "Head should come from the old head cell");
+        assertEquals(0, simulation.getPreviousSegmentY(0));
+        assertEquals(-UNIT, simulation.getPreviousSegmentX(1), "Neck should come from the segment behind it");
+        int tail = simulation.getLength() - 1;
+        assertEquals(-5 * UNIT, simulation.getPreviousSegmentX(tail), "Tail should come from the vacated cell");
+        assertEquals(-4 * UNIT, simulation.getBody().getX(tail));
+    }
+
+    /**
+     * Test method for ignoring a reversal onto the snake.
+     */
+    @Test
+    void testReversalIsIgnored() {
+        simulation.step('L');
+        assertEquals('R', simulation.getDirection(), "Snake should not reverse onto itself");
+        assertTrue(simulation.isRunning());
+    }
+
+    /**
+     * Test method for running into the border.
+     */
+    @Test
+    void testBorderCollisionEndsGame() {
+        simulation.step('U');
+        assertFalse(simulation.isRunning(), "Leaving the board should stop the game");
+        assertTrue(simulation.isGameOver(), "Leaving the board should end the game");
+    }
+
+    /**
+     * Test method for special apples expiring after a fixed number of ticks.
+     */
+    @Test
+    void testSpecialAppleExpiresAfterTicks() {
+        advance(SnakeSimulation.SPECIAL_APPLE_DURATION);
+        simulation.updateTimedEffects();
+        assertTrue(simulation.isSpecialAppleExists(), "Special apple should last its full duration");
+        advance(1);
+        simulation.updateTimedEffects();
+        assertTrue(simulation.isSpecialAppleExists(), "Expired special apple should be replaced while running");
+
+        simulation.setRunning(false);
+        advance(SnakeSimulation.SPECIAL_APPLE_DURATION + 1);
+        simulation.updateTimedEffects();
+        assertFalse(simulation.isSpecialAppleExists(), "Expired special apple should not be replaced once stopped");
+    }
+
+    /**
+     * Test method for speed effects stacking, each wearing off after its own duration.
+     */
+    @Test
+    void testSpeedEffectsStack() {
+        new SpeedUpApple(0, 0).applyEffect(simulation);
+        advance(20);
+        simulation.updateTimedEffects();
+        new SpeedUpApple(0, 0).applyEffect(simulation);
+        new SpeedDownApple(0, 0).applyEffect(simulation);
+        assertEquals(SnakeSimulation.INITIAL_SPEED + 0.25 + 0.25 - 0.10, simulation.getSpeedMultiplier(), 1e-9);
+
+        advance(SnakeSimulation.SPECIAL_APPLE_DURATION - 20);
+        simulation.updateTimedEffects();
+        assertEquals(SnakeSimulation.INITIAL_SPEED + 0.40, simulation.getSpeedMultiplier(), 1e-9,
+                "Effects should last their full duration");
+        advance(1);
+        simulation.updateTimedEffects();
+        assertEquals(SnakeSimulation.INITIAL_SPEED + 0.15, simulation.getSpeedMultiplier(), 1e-9,
+                "Only the first effect should have worn off");
+        advance(20);
+        simulation.updateTimedEffects();
+        assertEquals(SnakeSimulation.INITIAL_SPEED, simulation.getSpeedMultiplier(),
+                "The initial speed should be back once every effect wore off");
+    }
+
+    /**
+     * Test method for the border shrinking on the tick count alone.
+     */
+    @Test
+    void testBorderShrinksAfterTicks() {
+        advance(10L * SnakeSimulation.TICKS_PER_SECOND - 1);
+        simulation.shrinkBorder();
+        assertTrue(simulation.isAboutToShrink(), "Shrink warning should be raised ahead of the shrink");
+        assertEquals(0, simulation.getLeftBorder());
+        advance(2);
+        simulation.shrinkBorder();
+        assertEquals(UNIT, simulation.getLeftBorder(), "Borders should move in once the interval has passed");
+        assertEquals(19 * UNIT, simulation.getRightBorder());
+    }
+
+    /**
+     * Test method for identical seeds and inputs producing identical games.
+     */
+    @Test
+    void testSameSeedSameGame() {
+        SnakeSimulation other = new SnakeSimulation(20 * UNIT, 20 * UNIT);
+        other.reset(new SplittableRandom(7));
+        for (int i = 0; i < 1000; i++) {
+            char input = INPUTS[i % INPUTS.length];
+            simulation.step(input);
+            other.step(input);
+            assertArrayEquals(simulation.getBody().toXArray(), other.getBody().toXArray());
+            assertArrayEquals(simulation.getBody().toYArray(), other.getBody().toYArray());
+            assertEquals(simulation.getAppleX(), other.getAppleX());
+            assertEquals(simulation.getAppleY(), other.getAppleY());
+            assertEquals(simulation.getScore(), other.getScore());
+            assertEquals(simulation.isRunning(), other.isRunning());
+            assertEquals(simulation.getSpecialAppleX(), other.getSpecialAppleX());
+            assertEquals(simulation.getSpecialAppleType(), other.getSpecialAppleType());
+        }
+    }
+
+    /**
+     * Test method for a board with fewer cells than the initial snake holding every segment of it.
+     */
+    @Test
+    void testSnakeFitsBoardSmallerThanItself() {
+        SnakeSimulation tiny = new SnakeSimulation(2 * UNIT, UNIT);
+        assertEquals(6, tiny.getLength());
+        for (int i = 0; i < tiny.getLength(); i++) {
+            assertEquals(-i * UNIT, tiny.getBody().getX(i), "Segment " + i + " should keep its own slot");
+        }
+
+        tiny.move();
+        assertEquals(UNIT, tiny.getBody().getHeadX());
+        assertEquals(-4 * UNIT, tiny.getBody().getX(5));
+        assertEquals(-5 * UNIT, tiny.getPreviousSegmentX(5), "The vacated tail should still be readable");
+    }
+
+    private void advance(long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            simulation.nextTick();
+        }
+    }
+}
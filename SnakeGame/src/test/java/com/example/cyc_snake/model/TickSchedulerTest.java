@@ -0,0 +1,96 @@
+package com.example.cyc_snake.model;
+
+import com.example.cyc_snake.models.TickScheduler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the TickScheduler class.
+ *
+ * @author wjscyc
+ * @ClassName TickSchedulerTest
+ * @date: 14/01/2024 18:45
+ * @Version: V1.0
+ */
+class TickSchedulerTest {
+
+    private final TickScheduler scheduler = new TickScheduler(8);
+    private final List<String> fired = new ArrayList<>();
+
+    /**
+     * Test method for timers firing exactly on their tick, in the order they were scheduled, including timers due
+     * after more than one turn of the ring.
+     */
+    @Test
+    void testTimersFireOnTheirTick() {
+        scheduler.schedule(3, tick -> fired.add("a@" + tick));
+        scheduler.schedule(19, tick -> fired.add("far@" + tick)); // Same slot as tick 3, two turns later
+        scheduler.schedule(3, tick -> fired.add("b@" + tick));
+        scheduler.schedule(5, tick -> fired.add("c@" + tick));
+
+        scheduler.advanceTo(2);
+        assertEquals(List.of(), fired);
+        scheduler.advanceTo(3);
+        assertEquals(List.of("a@3", "b@3"), fired);
+        scheduler.advanceTo(18);
+        assertEquals(List.of("a@3", "b@3", "c@5"), fired);
+        assertEquals(1, scheduler.size());
+        scheduler.advanceTo(19);
+        assertEquals(List.of("a@3", "b@3", "c@5", "far@19"), fired);
+        assertEquals(0, scheduler.size());
+    }
+
+    /**
+     * Test method for cancelling a timer and moving a reused timer to a new tick.
+     */
+    @Test
+    void testCancelAndReschedule() {
+        TickScheduler.Timer cancelled = scheduler.schedule(4, tick -> fired.add("cancelled"));
+        TickScheduler.Timer moved = new TickScheduler.Timer(tick -> fired.add("moved@" + tick));
+        scheduler.schedule(4, moved);
+        scheduler.schedule(6, moved);
+        scheduler.cancel(cancelled);
+        scheduler.cancel(cancelled);
+        assertFalse(cancelled.isScheduled());
+        assertTrue(moved.isScheduled());
+
+        scheduler.advanceTo(10);
+        assertEquals(List.of("moved@6"), fired);
+        assertFalse(moved.isScheduled());
+        assertEquals(6, moved.getDueTick());
+    }
+
+    /**
+     * Test method for tasks scheduling timers while they run, and timers due in the past firing on the next tick.
+     */
+    @Test
+    void testTasksScheduleTimers() {
+        scheduler.schedule(2, tick -> {
+            fired.add("first@" + tick);
+            scheduler.schedule(tick, next -> fired.add("now@" + next));
+            scheduler.schedule(tick + 8, next -> fired.add("later@" + next)); // Same slot
+        });
+        scheduler.advanceTo(20);
+        assertEquals(List.of("first@2", "now@3", "later@10"), fired);
+    }
+
+    /**
+     * Test method for clearing the scheduler.
+     */
+    @Test
+    void testClear() {
+        TickScheduler.Timer timer = scheduler.schedule(5, tick -> fired.add("cleared"));
+        scheduler.advanceTo(3);
+        scheduler.clear();
+        assertEquals(0, scheduler.getTick());
+        assertEquals(0, scheduler.size());
+        assertFalse(timer.isScheduled());
+        scheduler.advanceTo(10);
+        assertEquals(List.of(), fired);
+        assertThrows(IllegalArgumentException.class, () -> new TickScheduler(12));
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.cyc_snake.persistence;
+
+import com.example.cyc_snake.DatabaseConnection;
+import com.example.cyc_snake.models.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the ConnectionPool class, run against an embedded H2 database standing in for MySQL.
+ *
+ * @author wjscyc
+ * @ClassName ConnectionPoolTest
+ * @date: 04/01/2024 14:37
+ * @Version: V1.0
+ */
+class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:h2:mem:pool_test;DB_CLOSE_DELAY=-1";
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = new ConnectionPool(URL, "sa", "", 2, 60_000, 200);
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS gamescores");
+            statement.execute("CREATE TABLE gamescores (PlayerID INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "playerName VARCHAR(255), gamescore INT, GameTimeInMilliseconds BIGINT)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    /**
+     * Test method for sequential borrows reusing one physical connection.
+     */
+    @Test
+    void testConnectionsAreReused() throws SQLException {
+        for (int i = 0; i < 10; i++) {
+            try (Connection connection = pool.getConnection()) {
+                assertTrue(connection.isValid(1));
+                assertEquals(1, pool.getActiveCount());
+            }
+        }
+        assertEquals(1, pool.getCreatedCount(), "Sequential borrows should share one connection");
+        assertEquals(11, pool.getBorrowCount());
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    /**
+     * Test method for borrows beyond the pool size timing out.
+     */
+    @Test
+    void testPoolIsBounded() throws SQLException {
+        try (Connection first = pool.getConnection(); Connection second = pool.getConnection()) {
+            assertNotSame(first, second);
+            SQLException timeout = assertThrows(SQLTransientConnectionException.class, pool::getConnection,
+                    "A full pool should time out");
+            assertEquals("08001", timeout.getSQLState());
+            assertTrue(GameRecordWriter.isTransient(timeout), "Writers should retry when the pool is exhausted");
+        }
+        try (Connection third = pool.getConnection()) {
+            assertNotNull(third, "Returned connections should be borrowable again");
+        }
+        assertEquals(2, pool.getCreatedCount());
+    }
+
+    /**
+     * Test method for a closed pool refusing borrows with a transient failure.
+     */
+    @Test
+    void testClosedPoolRefusesBorrows() {
+        pool.close();
+        SQLException closed = assertThrows(SQLTransientConnectionException.class, pool::getConnection);
+        assertEquals("08001", closed.getSQLState());
+    }
+
+    /**
+     * Test method for returned connections no longer being usable through the old handle.
+     */
+    @Test
+    void testClosedHandleIsDetached() throws SQLException {
+        Connection connection = pool.getConnection();
+        connection.close();
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, connection::createStatement);
+        connection.close();
+        assertEquals(1, pool.getIdleCount(), "Closing twice should return the connection only once");
+    }
+
+    /**
+     * Test method for a connection closed behind the pool's back being replaced on borrow.
+     */
+    @Test
+    void testBrokenConnectionIsReplaced() throws SQLException {
+        Connection physical;
+        try (Connection connection = pool.getConnection()) {
+            physical = connection.unwrap(Connection.class);
+        }
+        physical.close();
+        try (Connection connection = pool.getConnection()) {
+            assertTrue(connection.isValid(1), "A broken idle connection should not be handed out");
+        }
+        assertEquals(2, pool.getCreatedCount());
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    /**
+     * Test method for idle connections being closed after the idle timeout.
+     */
+    @Test
+    void testIdleConnectionsAreEvicted() throws Exception {
+        try (ConnectionPool shortLived = new ConnectionPool(URL, "sa", "", 2, 20, 200)) {
+            shortLived.getConnection().close();
+            assertEquals(1, shortLived.getIdleCount());
+            Thread.sleep(50);
+            shortLived.evictIdleConnections();
+            assertEquals(0, shortLived.getIdleCount(), "Idle connections should be closed after the timeout");
+        }
+    }
+
+    /**
+     * Test method for DatabaseConnection saving and ranking through a pool.
+     */
+    @Test
+    void testDatabaseConnectionUsesPool() {
+        ScoreRepository previous = DatabaseConnection.setDataSource(pool);
+        try {
+            DatabaseConnection.saveGameRecord("Alice", 12, 3000);
+            DatabaseConnection.saveGameRecord("Bob", 30, 5000);
+            List<Player> rankings = DatabaseConnection.getPlayerRankings();
+            assertEquals(2, rankings.size());
+            assertEquals("Bob", rankings.get(0).getPlayerName());
+            assertEquals(1, pool.getCreatedCount(), "All operations should share the pooled connection");
+        } finally {
+            DatabaseConnection.setRepository(previous).close();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.cyc_snake.persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the CsvExporter class.
+ *
+ * @author wjscyc
+ * @ClassName CsvExporterTest
+ * @date: 10/01/2024 14:25
+ * @Version: V1.0
+ */
+class CsvExporterTest {
+
+    private static final String QUERY = "SELECT PlayerID, playerName, gamescore FROM gamescores ORDER BY PlayerID";
+
+    @TempDir
+    Path directory;
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = new ConnectionPool("jdbc:h2:mem:export_test;DB_CLOSE_DELAY=-1", "sa", "", 1, 60_000, 1_000);
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS gamescores");
+            statement.execute("CREATE TABLE gamescores (PlayerID INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "playerName VARCHAR(255), gamescore INT, GameTimeInMilliseconds BIGINT)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    /**
+     * Test method for fields being quoted only when they need to be.
+     */
+    @Test
+    void testEscaping() throws SQLException, IOException {
+        insert("Plain", "Comma, Inc", "Say \"hi\"", "Two\nlines", "Ünïcødé 蛇", null, "");
+        Path file = directory.resolve("export.csv");
+        assertEquals(7, new CsvExporter(pool).export(QUERY, file, false, null));
+        assertEquals("PLAYERID,PLAYERNAME,GAMESCORE\r\n"
+                + "1,Plain,0\r\n"
+                + "2,\"Comma, Inc\",1\r\n"
+                + "3,\"Say \"\"hi\"\"\",2\r\n"
+                + "4,\"Two\nlines\",3\r\n"
+                + "5,Ünïcødé 蛇,4\r\n"
+                + "6,,5\r\n"
+                + "7,,6\r\n", Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test method for rows spanning many buffer flushes arriving intact through gzip.
+     */
+    @Test
+    void testGzipAcrossBufferFlushes() throws SQLException, IOException {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            names.add("Player \"" + i + "\" with a long name, " + "é".repeat(i % 7));
+        }
+        insert(names.toArray(new String[0]));
+        Path plain = directory.resolve("export.csv");
+        Path compressed = directory.resolve("export.csv.gz");
+        new CsvExporter(pool, 1024, 7).export(QUERY, plain, false, null);
+        new CsvExporter(pool, 1024, 7).export(QUERY, compressed, true, null);
+        byte[] unzipped;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(compressed))) {
+            unzipped = in.readAllBytes();
+        }
+        assertArrayEquals(Files.readAllBytes(plain), unzipped);
+        assertTrue(Files.size(compressed) < Files.size(plain));
+    }
+
+    /**
+     * Test method for progress being reported against the row count.
+     */
+    @Test
+    void testProgress() throws SQLException, IOException {
+        String[] names = new String[CsvExporter.PROGRESS_INTERVAL * 2 + 5];
+        insert(names);
+        List<long[]> updates = new ArrayList<>();
+        new CsvExporter(pool).export(QUERY, directory.resolve("export.csv"), false,
+                (rows, total) -> updates.add(new long[]{rows, total}));
+        assertEquals(3, updates.size());
+        assertArrayEquals(new long[]{CsvExporter.PROGRESS_INTERVAL, names.length}, updates.get(0));
+        assertArrayEquals(new long[]{names.length, names.length}, updates.get(2));
+    }
+
+    /**
+     * Test method for a failed export leaving the previous file in place and no partial file behind.
+     */
+    @Test
+    void testFailedExportKeepsPreviousFile() throws SQLException, IOException {
+        String[] names = new String[CsvExporter.PROGRESS_INTERVAL * 2];
+        insert(names);
+        Path file = directory.resolve("export.csv");
+        Files.writeString(file, "previous");
+        assertThrows(InterruptedIOException.class, () -> new CsvExporter(pool).export(QUERY, file, false,
+                (rows, total) -> Thread.currentThread().interrupt()));
+        assertTrue(Thread.interrupted());
+        assertEquals("previous", Files.readString(file));
+        assertFalse(Files.exists(directory.resolve("export.csv.part")));
+
+        assertThrows(SQLException.class, () -> new CsvExporter(pool).export("SELECT * FROM missing", file, false, null));
+        assertEquals("previous", Files.readString(file));
+    }
+
+    private void insert(String... names) throws SQLException {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO gamescores (playerName, gamescore, GameTimeInMilliseconds) VALUES (?, ?, 0)")) {
+            for (int i = 0; i < names.length; i++) {
+                statement.setString(1, names[i]);
+                statement.setInt(2, i);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+}
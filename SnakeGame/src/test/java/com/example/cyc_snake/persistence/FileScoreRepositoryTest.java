@@ -0,0 +1,202 @@
+package com.example.cyc_snake.persistence;
+
+import com.example.cyc_snake.models.Player;
+import com.example.cyc_snake.models.PlayerStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the FileScoreRepository class, including recovery from appends cut short by a crash and compaction.
+ *
+ * @author wjscyc
+ * @ClassName FileScoreRepositoryTest
+ * @date: 13/01/2024 10:30
+ * @Version: V1.0
+ */
+class FileScoreRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Test method for saved games and deleted players surviving a reopen, with their ids and statistics.
+     */
+    @Test
+    void testGamesSurviveReopen() throws Exception {
+        Path file = directory.resolve("scores.log");
+        List<Player> before;
+        try (FileScoreRepository repository = new FileScoreRepository(file)) {
+            assertEquals(1, repository.save("Alice", 10, 5000).get(5, TimeUnit.SECONDS));
+            repository.save("Bob", 30, 4000).get(5, TimeUnit.SECONDS);
+            repository.save("Carol", 30, 2000).get(5, TimeUnit.SECONDS);
+            repository.save("Alice", 40, 1000).get(5, TimeUnit.SECONDS);
+            repository.save("Dave", 20, 3000).get(5, TimeUnit.SECONDS);
+            repository.deletePlayer("Dave");
+            before = repository.getLeaderboardPage(LeaderboardOrder.BY_SCORE, null, 10).getPlayers();
+            assertEquals(List.of("Alice", "Carol", "Bob", "Alice"), names(before));
+        }
+        try (FileScoreRepository repository = new FileScoreRepository(file)) {
+            assertEquals(0, repository.getDiscardedBytes());
+            assertEquals(ids(before), ids(repository.getLeaderboardPage(LeaderboardOrder.BY_SCORE, null, 10).getPlayers()));
+            assertEquals(List.of("Alice", "Bob", "Carol", "Alice"),
+                    names(repository.getLeaderboardPage(LeaderboardOrder.BY_TIME, null, 10).getPlayers()));
+            assertEquals(List.of("Alice", "Bob", "Carol"), repository.getPlayerNames());
+            PlayerStats alice = repository.getPlayerStats().get(0);
+            assertEquals(40, alice.getBestScore());
+            assertEquals(2, alice.getTotalGames());
+            assertEquals(6000, alice.getTotalPlayTime());
+            assertNotNull(alice.getLastPlayed());
+            assertEquals(6, repository.save("Eve", 5, 100).get(5, TimeUnit.SECONDS),
+                    "Ids should continue after the last one in the file");
+        }
+    }
+
+    /**
+     * Test method for a file cut inside its last record recovering the complete records and accepting new ones.
+     */
+    @Test
+    void testTornTailIsDiscarded() throws Exception {
+        Path file = directory.resolve("scores.log");
+        try (FileScoreRepository repository = new FileScoreRepository(file)) {
+            repository.save("Alice", 10, 1000).get(5, TimeUnit.SECONDS);
+            repository.save("Bob", 20, 2000).get(5, TimeUnit.SECONDS);
+        }
+        long completeSize = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(completeSize - 3);
+        }
+        try (FileScoreRepository repository = new FileScoreRepository(file)) {
+            assertTrue(repository.getDiscardedBytes() > 0);
+            assertEquals(List.of("Alice"), repository.getPlayerNames());
+            repository.save("Carol", 30, 3000).get(5, TimeUnit.SECONDS);
+        }
+        try (FileScoreRepository repository = new FileScoreRepository(file)) {
+            assertEquals(0, repository.getDiscardedBytes());
+            assertEquals(List.of("Carol", "Alice"), repository.getPlayerNames());
+        }
+    }
+
+    /**
+     * Test method for a corrupted record ending the replay instead of being read.
+     */
+    @Test
+    void testCorruptedRecordIsDiscarded() throws Exception {
+        Path file = directory.resolve("scores.log");
+        try (FileScoreRepository repository = new FileScoreRepository(file)) {
+            repository.save("Alice", 10, 1000).get(5, TimeUnit.SECONDS);
+            repository.save("Bob", 20, 2000).get(5, TimeUnit.SECONDS);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x55;
+        Files.write(file, bytes);
+        try (FileScoreRepository repository = new FileScoreRepository(file)) {
+            assertEquals(List.of("Alice"), repository.getPlayerNames());
+        }
+    }
+
+    /**
+     * Test method for saves queued together being appended with fewer flushes than saves, each with its own id.
+     */
+    @Test
+    void testConcurrentSavesAreGrouped() throws Exception {
+        Path file = directory.resolve("scores.log");
+        int saves = 2000;
+        try (FileScoreRepository repository = new FileScoreRepository(file)) {
+            List<CompletableFuture<Integer>> saved = new ArrayList<>();
+            for (int i = 0; i < saves; i++) {
+                saved.add(repository.save("Player" + i % 10, i, i));
+            }
+            Set<Integer> ids = new HashSet<>();
+            for (CompletableFuture<Integer> future : saved) {
+                ids.add(future.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(saves, ids.size(), "Every save should get its own id");
+            assertTrue(repository.getFlushCount() < saves, "Queued saves should share flushes");
+        }
+        try (FileScoreRepository repository = new FileScoreRepository(file)) {
+            LeaderboardPage page = repository.getLeaderboardPage(LeaderboardOrder.BY_SCORE, null, saves);
+            assertEquals(saves, page.getPlayers().size());
+            assertFalse(page.hasMore());
+            assertEquals(saves - 1, page.getPlayers().get(0).getScore());
+        }
+    }
+
+    /**
+     * Test method for a file mostly made of deleted games being compacted when it is opened.
+     */
+    @Test
+    void testDeletedGamesAreCompacted() throws Exception {
+        Path file = directory.resolve("scores.log");
+        List<Player> kept;
+        try (FileScoreRepository repository = new FileScoreRepository(file)) {
+            List<CompletableFuture<Integer>> saved = new ArrayList<>();
+            for (int i = 0; i < FileScoreRepository.COMPACTION_THRESHOLD; i++) {
+                saved.add(repository.save("Old", i, i));
+            }
+            saved.add(repository.save("Kept", 7, 700));
+            saved.add(repository.save("Kept", 9, 900));
+            CompletableFuture.allOf(saved.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+            repository.deletePlayer("Old");
+            kept = repository.getLeaderboardPage(LeaderboardOrder.BY_SCORE, null, 10).getPlayers();
+        }
+        long sizeBefore = Files.size(file);
+        try (FileScoreRepository repository = new FileScoreRepository(file)) {
+            assertTrue(Files.size(file) < sizeBefore / 100, "The deleted games should be dropped from the file");
+            assertEquals(ids(kept), ids(repository.getLeaderboardPage(LeaderboardOrder.BY_SCORE, null, 10).getPlayers()));
+            assertNotNull(repository.getPlayerStats().get(0).getLastPlayed());
+            repository.save("Kept", 1, 100).get(5, TimeUnit.SECONDS);
+        }
+        try (FileScoreRepository repository = new FileScoreRepository(file)) {
+            assertEquals(3, repository.getPlayerStats().get(0).getTotalGames());
+        }
+    }
+
+    /**
+     * Test method for the export writing every game in leaderboard order.
+     */
+    @Test
+    void testExport() throws Exception {
+        Path file = directory.resolve("scores.log");
+        Path csv = directory.resolve("export.csv");
+        try (FileScoreRepository repository = new FileScoreRepository(file)) {
+            repository.save("Alice", 10, 5000).get(5, TimeUnit.SECONDS);
+            repository.save("Smith, Bob", 30, 4000).get(5, TimeUnit.SECONDS);
+            assertEquals(2, repository.export(csv, false, null));
+        }
+        assertEquals(List.of("PlayerID,PlayerName,GameScore,GameTimeInMilliseconds",
+                "2,\"Smith, Bob\",30,4000", "1,Alice,10,5000"), Files.readAllLines(csv, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test method for saves after closing failing instead of being lost silently.
+     */
+    @Test
+    void testSaveAfterCloseFails() throws Exception {
+        FileScoreRepository repository = new FileScoreRepository(directory.resolve("scores.log"));
+        repository.close();
+        assertTrue(repository.save("Alice", 10, 1000).isCompletedExceptionally());
+    }
+
+    private static List<String> names(List<Player> players) {
+        return players.stream().map(Player::getPlayerName).collect(Collectors.toList());
+    }
+
+    private static List<Integer> ids(List<Player> players) {
+        return players.stream().map(Player::getPlayerId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.cyc_snake.persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the GameRecordWriter class, run against an embedded H2 database standing in for MySQL.
+ *
+ * @author wjscyc
+ * @ClassName GameRecordWriterTest
+ * @date: 05/01/2024 10:12
+ * @Version: V1.0
+ */
+class GameRecordWriterTest {
+
+    private static final String URL = "jdbc:h2:mem:writer_test;DB_CLOSE_DELAY=-1";
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = new ConnectionPool(URL, "sa", "", 2, 60_000, 1_000);
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS gamescores");
+            statement.execute("CREATE TABLE gamescores (PlayerID INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "playerName VARCHAR(255), gamescore INT, GameTimeInMilliseconds BIGINT)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    /**
+     * Test method for records queued while a write is in progress being saved together in full batches.
+     */
+    @Test
+    void testRecordsAreBatched() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ScriptedPool slow = new ScriptedPool(1, () -> {
+            writing.countDown();
+            release.await();
+        });
+
+        List<CompletableFuture<Integer>> saves = new ArrayList<>();
+        try (slow; GameRecordWriter writer = new GameRecordWriter(slow, 16, 3, 10)) {
+            saves.add(writer.save("Player0", 0, 0));
+            assertTrue(writing.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < 100; i++) {
+                saves.add(writer.save("Player" + i, i, i * 1000L));
+            }
+            release.countDown();
+            CompletableFuture.allOf(saves.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+            assertEquals(1 + 7, writer.getBatchCount(), "The 99 queued records should go in 7 batches of up to 16");
+        }
+        assertEquals(100, countRows());
+    }
+
+    /**
+     * Test method for close writing the records still queued.
+     */
+    @Test
+    void testCloseWritesPendingRecords() throws SQLException {
+        CompletableFuture<Integer> saved;
+        GameRecordWriter writer = new GameRecordWriter(pool, 16, 3, 10);
+        saved = writer.save("Alice", 12, 3000);
+        writer.close();
+        assertTrue(saved.isDone() && !saved.isCompletedExceptionally(), "Queued records should be written on close");
+        assertEquals(1, countRows());
+        assertTrue(writer.save("Bob", 1, 1).isCompletedExceptionally(), "A closed writer should refuse records");
+    }
+
+    /**
+     * Test method for a transient failure being retried.
+     */
+    @Test
+    void testTransientFailureIsRetried() throws Exception {
+        ScriptedPool flaky = new ScriptedPool(1, () -> {
+            throw new SQLTransientConnectionException("Connection reset");
+        });
+        try (flaky; GameRecordWriter writer = new GameRecordWriter(flaky, 16, 3, 10)) {
+            writer.save("Alice", 12, 3000).get(10, TimeUnit.SECONDS);
+            assertEquals(1, writer.getRetryCount());
+        }
+        assertEquals(2, flaky.borrows);
+        assertEquals(1, countRows());
+    }
+
+    /**
+     * Test method for a permanent failure completing the future exceptionally without retrying.
+     */
+    @Test
+    void testPermanentFailureIsReported() throws SQLException {
+        ScriptedPool broken = new ScriptedPool(1, () -> {
+            throw new SQLSyntaxErrorException("Table not found", "42S02");
+        });
+        try (broken; GameRecordWriter writer = new GameRecordWriter(broken, 16, 3, 10)) {
+            CompletableFuture<Integer> saved = writer.save("Alice", 12, 3000);
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> saved.get(10, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof SQLSyntaxErrorException);
+            assertEquals(0, writer.getRetryCount());
+        }
+        assertEquals(1, broken.borrows, "Permanent failures should not be retried");
+    }
+
+    /**
+     * Test method for records kept in the journal while the database is unreachable and replayed once it is back.
+     */
+    @Test
+    void testJournaledRecordsAreReplayed(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("records.journal");
+        try (RecordJournal journal = new RecordJournal(file);
+             ScriptedPool offline = new ScriptedPool(Integer.MAX_VALUE, () -> {
+                 throw new SQLTransientConnectionException("Communications link failure");
+             });
+             GameRecordWriter writer = new GameRecordWriter(offline, journal, 16, 2, 1, 0)) {
+            long before = System.currentTimeMillis();
+            CompletableFuture<Integer> saved = writer.save("Alice", 12, 3000);
+            long after = System.currentTimeMillis();
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> saved.get(10, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof GameRecordWriter.DeferredException,
+                    "An unreachable database should leave the record in the journal");
+            assertEquals(1, journal.size());
+            long playedAt = journal.peek(1).get(0).getPlayedAt();
+            assertTrue(playedAt >= before && playedAt <= after,
+                    "The journal should keep the time the game was saved, not the time it is sent");
+        }
+        assertEquals(0, countRows());
+
+        // The game is restarted with the database reachable again
+        try (RecordJournal journal = new RecordJournal(file);
+             GameRecordWriter writer = new GameRecordWriter(pool, journal, 16, 2, 1, 0)) {
+            writer.replayJournal();
+            writer.save("Bob", 30, 5000).get(10, TimeUnit.SECONDS);
+            assertEquals(0, journal.size(), "Delivered records should leave the journal");
+        }
+        assertEquals(2, countRows());
+    }
+
+    /**
+     * Test method for a failure that is not about the records, such as a missing privilege, keeping them in the
+     * journal and sending them on the replay interval once it is resolved.
+     */
+    @Test
+    void testUnrelatedFailureKeepsRecordsJournaled(@TempDir Path directory) throws Exception {
+        ScriptedPool denied = new ScriptedPool(1, () -> {
+            throw new SQLSyntaxErrorException("INSERT command denied to user", "42000");
+        });
+        try (denied; RecordJournal journal = new RecordJournal(directory.resolve("records.journal"));
+             GameRecordWriter writer = new GameRecordWriter(denied, journal, 16, 2, 1, 20)) {
+            CompletableFuture<Integer> saved = writer.save("Alice", 12, 3000);
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> saved.get(10, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof GameRecordWriter.DeferredException,
+                    "A failure unrelated to the data should leave the record in the journal");
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (journal.size() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, journal.size(), "The journal should be replayed once the failure is resolved");
+        }
+        assertEquals(1, countRows());
+    }
+
+    /**
+     * Test method for a batch the database rejects as invalid data being dropped from the journal.
+     */
+    @Test
+    void testRejectedRecordsLeaveJournal(@TempDir Path directory) throws Exception {
+        ScriptedPool rejecting = new ScriptedPool(1, () -> {
+            throw new SQLDataException("Data too long for column 'playerName'", "22001");
+        });
+        try (rejecting; RecordJournal journal = new RecordJournal(directory.resolve("records.journal"));
+             GameRecordWriter writer = new GameRecordWriter(rejecting, journal, 16, 2, 1, 0)) {
+            CompletableFuture<Integer> saved = writer.save("Alice", 12, 3000);
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> saved.get(10, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof SQLDataException);
+            assertEquals(0, journal.size(), "Rejected records should not block the journal");
+        }
+        assertEquals(0, countRows());
+    }
+
+    /**
+     * Test method for a failing migration keeping the records in the journal instead of counting them as rejected.
+     */
+    @Test
+    void testFailingMigrationKeepsRecordsJournaled(@TempDir Path directory) throws Exception {
+        SchemaMigrator denied = new SchemaMigrator(pool, List.of(
+                new SchemaMigrator.Migration(1, "Not allowed", "ALTER TABLE missing ADD COLUMN b INT")));
+        try (RecordJournal journal = new RecordJournal(directory.resolve("records.journal"));
+             GameRecordWriter writer = new GameRecordWriter(pool, journal, denied, null, 16, 2, 1, 0)) {
+            CompletableFuture<Integer> saved = writer.save("Alice", 12, 3000);
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> saved.get(10, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof GameRecordWriter.DeferredException,
+                    "A failing migration should leave the record in the journal");
+            assertEquals(1, journal.size());
+        }
+        assertEquals(0, countRows());
+    }
+
+    private int countRows() throws SQLException {
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM gamescores")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    /**
+     * An action run before a borrow, which may block or fail it.
+     */
+    private interface BorrowAction {
+        void run() throws Exception;
+    }
+
+    /**
+     * A pool on the test database that runs a scripted action before its first borrows.
+     */
+    private static final class ScriptedPool extends ConnectionPool {
+        private final int scriptedBorrows;
+        private final BorrowAction action;
+        private volatile int borrows;
+
+        ScriptedPool(int scriptedBorrows, BorrowAction action) {
+            super(URL, "sa", "", 2, 60_000, 1_000);
+            this.scriptedBorrows = scriptedBorrows;
+            this.action = action;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (borrows++ < scriptedBorrows) {
+                try {
+                    action.run();
+                } catch (SQLException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new SQLException(e);
+                }
+            }
+            return super.getConnection();
+        }
+    }
+}
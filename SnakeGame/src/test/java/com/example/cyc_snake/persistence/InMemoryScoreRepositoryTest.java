@@ -0,0 +1,93 @@
+package com.example.cyc_snake.persistence;
+
+import com.example.cyc_snake.models.Player;
+import com.example.cyc_snake.models.PlayerStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the InMemoryScoreRepository class, paging in the same orders as the database.
+ *
+ * @author wjscyc
+ * @ClassName InMemoryScoreRepositoryTest
+ * @date: 13/01/2024 11:15
+ * @Version: V1.0
+ */
+class InMemoryScoreRepositoryTest {
+
+    private InMemoryScoreRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryScoreRepository();
+        // Few distinct scores and times, so pages have to be continued across ties
+        for (int i = 0; i < 23; i++) {
+            repository.save("Player" + i, i % 3 * 10, i % 4 * 1000L);
+        }
+    }
+
+    /**
+     * Test method for pages in each order covering every game once, sorted like the database sorts them.
+     */
+    @Test
+    void testPagesMatchLeaderboardOrder() {
+        for (LeaderboardOrder order : LeaderboardOrder.values()) {
+            for (int pageSize : new int[]{1, 4, 7, 23, 50}) {
+                List<Player> all = readAll(order, pageSize);
+                List<Player> expected = new ArrayList<>(all);
+                expected.sort(order.getComparator());
+                assertEquals(23, all.size(), order + " pages of " + pageSize);
+                assertEquals(expected, all, order + " pages of " + pageSize);
+            }
+        }
+        assertEquals(20, readAll(LeaderboardOrder.BY_SCORE, 5).get(0).getScore());
+        assertEquals(3000L, readAll(LeaderboardOrder.BY_TIME, 5).get(0).getGameTime());
+    }
+
+    /**
+     * Test method for the statistics following saves and deletes.
+     */
+    @Test
+    void testStatsFollowSavesAndDeletes() throws Exception {
+        repository.save("Player1", 50, 500);
+        PlayerStats best = repository.getPlayerStats().get(0);
+        assertEquals("Player1", best.getPlayerName());
+        assertEquals(50, best.getBestScore());
+        assertEquals(2, best.getTotalGames());
+        assertEquals(1500, best.getTotalPlayTime());
+
+        repository.deletePlayer("Player1");
+        assertFalse(repository.getPlayerNames().contains("Player1"));
+        assertEquals(22, readAll(LeaderboardOrder.BY_SCORE, 10).size());
+        assertEquals(22, readAll(LeaderboardOrder.BY_TIME, 10).size());
+        repository.deletePlayer("Nobody");
+        assertEquals(22, repository.getPlayerNames().size());
+    }
+
+    /**
+     * Test method for saves completing at once with increasing ids.
+     */
+    @Test
+    void testSaveCompletesWithId() {
+        assertEquals(24, repository.save("Late", 30, 0).join());
+        assertEquals("Late", repository.getLeaderboardPage(LeaderboardOrder.BY_SCORE, null, 1)
+                .getPlayers().get(0).getPlayerName());
+    }
+
+    private List<Player> readAll(LeaderboardOrder order, int pageSize) {
+        List<Player> players = new ArrayList<>();
+        LeaderboardPage page;
+        do {
+            Player after = players.isEmpty() ? null : players.get(players.size() - 1);
+            page = repository.getLeaderboardPage(order, after, pageSize);
+            assertTrue(page.getPlayers().size() <= pageSize);
+            players.addAll(page.getPlayers());
+        } while (page.hasMore());
+        return players;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.cyc_snake.persistence;
+
+import com.example.cyc_snake.DatabaseConnection;
+import com.example.cyc_snake.models.Player;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the LeaderboardCache class.
+ *
+ * @author wjscyc
+ * @ClassName LeaderboardCacheTest
+ * @date: 08/01/2024 11:02
+ * @Version: V1.0
+ */
+class LeaderboardCacheTest {
+
+    private final List<Player> table = new ArrayList<>();
+    private int loads;
+    private long now;
+
+    private final LeaderboardCache cache = new LeaderboardCache(3, 1000, this::load, () -> now);
+
+    /**
+     * Test method for the cache being loaded once and then served from memory.
+     */
+    @Test
+    void testLoadedOnce() throws SQLException {
+        insert("Alice", 10, 5000);
+        insert("Bob", 30, 4000);
+        assertEquals(List.of("Bob", "Alice"), names(cache.getTopPlayers()));
+        assertEquals(List.of("Bob", "Alice"), names(cache.getTopPlayers()));
+        assertEquals(1, loads, "Repeated reads should not go back to the database");
+    }
+
+    /**
+     * Test method for offered games keeping only the top entries in leaderboard order.
+     */
+    @Test
+    void testOffersKeepTopEntries() throws SQLException {
+        cache.getTopPlayers();
+        cache.offer(new Player("Alice", 10, 5000L));
+        cache.offer(new Player("Bob", 30, 4000L));
+        cache.offer(new Player("Carol", 30, 2000L));
+        cache.offer(new Player("Dave", 5, 1000L));
+        assertEquals(List.of("Carol", "Bob", "Alice"), names(cache.getTopPlayers()),
+                "Equal scores should rank the shorter game first, and the lowest entry should drop out");
+        cache.offer(new Player("Erin", 20, 1000L));
+        assertEquals(List.of("Carol", "Bob", "Erin"), names(cache.getTopPlayers()));
+        cache.offer(new Player("Erin", 20, 1000L));
+        assertEquals(3, cache.getTopPlayers().size(), "The same game offered twice should be kept once");
+        assertEquals(1, loads);
+    }
+
+    /**
+     * Test method for offers before the first load being left to that load.
+     */
+    @Test
+    void testOfferBeforeLoadIsIgnored() throws SQLException {
+        cache.offer(new Player("Alice", 10, 5000L));
+        insert("Alice", 10, 5000);
+        assertEquals(List.of("Alice"), names(cache.getTopPlayers()));
+    }
+
+    /**
+     * Test method for the cache reloading after its time to live and after invalidation.
+     */
+    @Test
+    void testReloadsWhenStale() throws SQLException {
+        insert("Alice", 10, 5000);
+        cache.getTopPlayers();
+        insert("Bob", 30, 4000);
+        now += TimeUnit.MILLISECONDS.toNanos(999);
+        assertEquals(List.of("Alice"), names(cache.getTopPlayers()), "Within the time to live the cache is kept");
+        now += TimeUnit.MILLISECONDS.toNanos(1);
+        assertEquals(List.of("Bob", "Alice"), names(cache.getTopPlayers()), "An expired cache should reload");
+
+        table.remove(0);
+        cache.invalidate();
+        assertEquals(List.of("Bob"), names(cache.getTopPlayers()), "An invalidated cache should reload");
+        assertEquals(3, loads);
+    }
+
+    /**
+     * Test method for DatabaseConnection loading only the top entries from the database.
+     */
+    @Test
+    void testTopPlayersQuery() throws Exception {
+        ScoreRepository previous = DatabaseConnection.getRepository();
+        try (ConnectionPool pool = new ConnectionPool("jdbc:h2:mem:leaderboard_test;DB_CLOSE_DELAY=-1", "sa", "",
+                1, 60_000, 1_000)) {
+            try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS gamescores");
+                statement.execute("CREATE TABLE gamescores (PlayerID INT AUTO_INCREMENT PRIMARY KEY, "
+                        + "playerName VARCHAR(255), gamescore INT, GameTimeInMilliseconds BIGINT)");
+            }
+            DatabaseConnection.setDataSource(pool);
+            DatabaseConnection.saveGameRecord("Alice", 10, 5000);
+            DatabaseConnection.saveGameRecord("Bob", 30, 4000);
+            DatabaseConnection.saveGameRecord("Carol", 30, 2000);
+            assertEquals(List.of("Carol", "Bob"), names(DatabaseConnection.getTopPlayers(2)));
+
+            assertEquals(List.of("Carol", "Bob", "Alice"), names(DatabaseConnection.getLeaderboard()));
+            DatabaseConnection.saveGameRecord("Dave", 50, 9000);
+            assertEquals("Dave", DatabaseConnection.getLeaderboard().get(0).getPlayerName(),
+                    "Saved games should appear in the cached leaderboard");
+        } finally {
+            DatabaseConnection.setRepository(previous).close();
+        }
+    }
+
+    private List<Player> load(int limit) {
+        loads++;
+        return table.stream().sorted(LeaderboardCache.RANKING).limit(limit).collect(Collectors.toList());
+    }
+
+    private void insert(String name, int score, long time) {
+        table.add(new Player(name, score, time));
+    }
+
+    private static List<String> names(List<Player> players) {
+        return players.stream().map(Player::getPlayerName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.cyc_snake.persistence;
+
+import com.example.cyc_snake.DatabaseConnection;
+import com.example.cyc_snake.models.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for paging through the leaderboard with keyset conditions.
+ *
+ * @author wjscyc
+ * @ClassName LeaderboardPagingTest
+ * @date: 09/01/2024 16:40
+ * @Version: V1.0
+ */
+class LeaderboardPagingTest {
+
+    private ScoreRepository previous;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = new ConnectionPool("jdbc:h2:mem:paging_test;DB_CLOSE_DELAY=-1", "sa", "", 1, 60_000, 1_000);
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS gamescores");
+            statement.execute("CREATE TABLE gamescores (PlayerID INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "playerName VARCHAR(255), gamescore INT, GameTimeInMilliseconds BIGINT)");
+        }
+        previous = DatabaseConnection.setDataSource(pool);
+        // Few distinct scores and times, so pages have to be continued across ties
+        for (int i = 0; i < 23; i++) {
+            DatabaseConnection.saveGameRecord("Player" + i, i % 3 * 10, i % 4 * 1000L);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseConnection.setRepository(previous).close();
+        pool.close();
+    }
+
+    /**
+     * Test method for pages by score covering every row once, in leaderboard order.
+     */
+    @Test
+    void testPagesByScore() throws Exception {
+        List<Player> players = readAll(LeaderboardOrder.BY_SCORE, 5);
+        assertEquals(23, players.size());
+        assertEquals(23, ids(players).size(), "No row should appear on two pages");
+        List<Player> expected = new ArrayList<>(players);
+        expected.sort(LeaderboardCache.RANKING);
+        assertEquals(expected, players);
+    }
+
+    /**
+     * Test method for pages by time covering every row once, longest game first.
+     */
+    @Test
+    void testPagesByTime() throws Exception {
+        List<Player> players = readAll(LeaderboardOrder.BY_TIME, 4);
+        assertEquals(23, players.size());
+        assertEquals(23, ids(players).size(), "No row should appear on two pages");
+        List<Player> expected = new ArrayList<>(players);
+        expected.sort(Comparator.comparing(Player::getGameTime).reversed().thenComparing(Player::getPlayerId));
+        assertEquals(expected, players);
+    }
+
+    /**
+     * Test method for the last page reporting that nothing follows it.
+     */
+    @Test
+    void testHasMore() throws Exception {
+        LeaderboardPage first = DatabaseConnection.getLeaderboardPage(LeaderboardOrder.BY_TIME, null, 20);
+        assertTrue(first.hasMore());
+        LeaderboardPage last = DatabaseConnection.getLeaderboardPage(LeaderboardOrder.BY_TIME, first.getLast(), 3);
+        assertEquals(3, last.getPlayers().size());
+        assertFalse(last.hasMore(), "A page that ends exactly at the last row should not claim more");
+        assertFalse(DatabaseConnection.getLeaderboardPage(LeaderboardOrder.BY_TIME, null, 23).hasMore());
+    }
+
+    /**
+     * Test method for the first page by score, served from the cache, continuing from the database.
+     */
+    @Test
+    void testFirstPageFromCacheCarriesIds() throws Exception {
+        DatabaseConnection.getLeaderboard();
+        DatabaseConnection.saveGameRecord("Late", 30, 0);
+        LeaderboardPage first = DatabaseConnection.getLeaderboardPage(LeaderboardOrder.BY_SCORE, null, 5);
+        assertEquals("Late", first.getPlayers().get(0).getPlayerName(), "Saved games should reach the first page");
+        assertNotNull(first.getLast().getPlayerId());
+        List<Player> players = new ArrayList<>(first.getPlayers());
+        players.addAll(readAll(LeaderboardOrder.BY_SCORE, 5, first.getLast()));
+        assertEquals(24, ids(players).size());
+    }
+
+    /**
+     * Test method for games replayed from the journal of an earlier run reaching a first page already served from
+     * the cache.
+     */
+    @Test
+    void testReplayedGamesReachCachedPage(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("records.journal");
+        try (RecordJournal journal = new RecordJournal(file)) {
+            journal.append(List.of(new GameRecord("Offline", 90, 1000, System.currentTimeMillis())));
+        }
+        JdbcScoreRepository repository = new JdbcScoreRepository(pool, file);
+        try {
+            assertEquals(20, repository.getLeaderboardPage(LeaderboardOrder.BY_SCORE, null, 5).getPlayers()
+                    .get(0).getScore());
+            // Sent after the journaled game, so it completes once that game is committed
+            repository.save("Online", 10, 1000).get(10, TimeUnit.SECONDS);
+            assertEquals("Offline", repository.getLeaderboardPage(LeaderboardOrder.BY_SCORE, null, 5).getPlayers()
+                    .get(0).getPlayerName(), "Replayed games should reach the first page");
+        } finally {
+            repository.close();
+        }
+    }
+
+    private static List<Player> readAll(LeaderboardOrder order, int pageSize) throws Exception {
+        return readAll(order, pageSize, null);
+    }
+
+    private static List<Player> readAll(LeaderboardOrder order, int pageSize, Player after) throws Exception {
+        List<Player> players = new ArrayList<>();
+        LeaderboardPage page;
+        do {
+            page = DatabaseConnection.getLeaderboardPage(order, after, pageSize);
+            assertTrue(page.getPlayers().size() <= pageSize);
+            players.addAll(page.getPlayers());
+            after = page.getLast();
+        } while (page.hasMore());
+        return players;
+    }
+
+    private static Set<Integer> ids(List<Player> players) {
+        return players.stream().map(Player::getPlayerId).collect(Collectors.toCollection(HashSet::new));
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.cyc_snake.persistence;
+
+import com.example.cyc_snake.DatabaseConnection;
+import com.example.cyc_snake.models.PlayerStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the PlayerStatsStore class.
+ *
+ * @author wjscyc
+ * @ClassName PlayerStatsStoreTest
+ * @date: 11/01/2024 10:15
+ * @Version: V1.0
+ */
+class PlayerStatsStoreTest {
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = new ConnectionPool("jdbc:h2:mem:stats_test;DB_CLOSE_DELAY=-1", "sa", "", 1, 60_000, 1_000);
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS gamescores");
+            statement.execute("DROP TABLE IF EXISTS player_stats");
+            statement.execute("DROP TABLE IF EXISTS schema_version");
+        }
+        // Only the game records table, so tests can add games from before the statistics existed
+        new SchemaMigrator(pool, JdbcScoreRepository.SCHEMA_MIGRATIONS.subList(0, 1)).migrate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    /**
+     * Test method for a new table being filled from the games saved before it existed.
+     */
+    @Test
+    void testBackfill() throws SQLException {
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO gamescores (playerName, gamescore, GameTimeInMilliseconds) VALUES "
+                    + "('Alice', 10, 1000), ('Alice', 30, 2000), ('Bob', 20, 500), (NULL, 99, 100)");
+        }
+        migrate();
+        List<PlayerStats> stats = new PlayerStatsStore(pool).getAll();
+        assertEquals(List.of("Alice", "Bob"), names(stats));
+        assertStats(stats.get(0), 30, 2, 3000, null);
+        assertStats(stats.get(1), 20, 1, 500, null);
+    }
+
+    /**
+     * Test method for committed games updating both the table and the statistics in memory.
+     */
+    @Test
+    void testCommittedGamesUpdateTableAndMemory() throws SQLException {
+        migrate();
+        PlayerStatsStore store = new PlayerStatsStore(pool);
+        save(store, new GameRecord("Alice", 10, 1000, 1_000));
+        assertStats(store.get("Alice"), 10, 1, 1000, 1_000L);
+
+        // Each game counts with the time it ended, not with the time the batch is written
+        save(store, new GameRecord("Alice", 5, 4000, 2_000), new GameRecord("Bob", 20, 500, 1_500),
+                new GameRecord("Alice", 15, 1000, 1_800), new GameRecord(null, 99, 1, 3_000));
+        assertEquals(List.of("Bob", "Alice"), names(store.getAll()));
+        assertStats(store.get("Alice"), 15, 3, 6000, 2_000L);
+        assertStats(store.get("Bob"), 20, 1, 500, 1_500L);
+
+        PlayerStatsStore reloaded = new PlayerStatsStore(pool);
+        assertStats(reloaded.get("Alice"), 15, 3, 6000, 2_000L);
+        assertStats(reloaded.get("Bob"), 20, 1, 500, 1_500L);
+    }
+
+    /**
+     * Test method for a rolled back transaction leaving the statistics unchanged.
+     */
+    @Test
+    void testRollbackLeavesStatsUnchanged() throws SQLException {
+        migrate();
+        PlayerStatsStore store = new PlayerStatsStore(pool);
+        save(store, new GameRecord("Alice", 10, 1000, 1_000));
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+            store.apply(connection, List.of(new GameRecord("Alice", 50, 1000, 2_000)));
+            connection.rollback();
+            connection.setAutoCommit(true);
+        }
+        assertStats(store.get("Alice"), 10, 1, 1000, 1_000L);
+        assertStats(new PlayerStatsStore(pool).get("Alice"), 10, 1, 1000, 1_000L);
+    }
+
+    /**
+     * Test method for games saved by another client reaching the statistics in memory once they expire or are
+     * invalidated.
+     */
+    @Test
+    void testGamesOfOtherClientsAreReloaded() throws SQLException {
+        migrate();
+        long[] now = {0};
+        PlayerStatsStore store = new PlayerStatsStore(pool, 1000, () -> now[0]);
+        PlayerStatsStore otherClient = new PlayerStatsStore(pool);
+        assertEquals(List.of(), store.getAll());
+
+        save(otherClient, new GameRecord("Alice", 10, 1000, 1_000));
+        assertEquals(List.of(), store.getAll(), "The statistics should be served from memory until they expire");
+        now[0] = TimeUnit.MILLISECONDS.toNanos(1000);
+        assertEquals(List.of("Alice"), names(store.getAll()));
+
+        save(otherClient, new GameRecord("Bob", 20, 500, 2_000));
+        store.invalidate();
+        assertEquals(List.of("Bob", "Alice"), names(store.getAll()));
+    }
+
+    /**
+     * Test method for DatabaseConnection keeping the statistics in step with saved and deleted games.
+     */
+    @Test
+    void testDatabaseConnectionMaintainsStats() throws Exception {
+        ScoreRepository previous = DatabaseConnection.setDataSource(pool);
+        try {
+            DatabaseConnection.saveGameRecord("Alice", 10, 1000);
+            assertEquals(List.of("Alice"), DatabaseConnection.getUniquePlayerNames());
+            DatabaseConnection.saveGameRecord("Bob", 30, 2000);
+            DatabaseConnection.saveGameRecordAsync("Alice", 40, 3000).get(10, TimeUnit.SECONDS);
+            assertEquals(List.of("Alice", "Bob"), DatabaseConnection.getUniquePlayerNames());
+            assertEquals(2, DatabaseConnection.getPlayerStats().get(0).getTotalGames());
+
+            DatabaseConnection.deletePlayer("Alice");
+            assertEquals(List.of("Bob"), DatabaseConnection.getUniquePlayerNames());
+            assertNull(new PlayerStatsStore(pool).get("Alice"), "The deleted player's row should be gone");
+        } finally {
+            DatabaseConnection.setRepository(previous).close();
+        }
+    }
+
+    private void migrate() throws SQLException {
+        new SchemaMigrator(pool, JdbcScoreRepository.SCHEMA_MIGRATIONS).migrate();
+    }
+
+    private void save(PlayerStatsStore store, GameRecord... games) throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+            store.apply(connection, List.of(games));
+            store.commit(connection, List.of(games));
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static void assertStats(PlayerStats stats, int bestScore, int totalGames, long totalPlayTime,
+                                    Long lastPlayed) {
+        assertNotNull(stats);
+        assertEquals(bestScore, stats.getBestScore());
+        assertEquals(totalGames, stats.getTotalGames());
+        assertEquals(totalPlayTime, stats.getTotalPlayTime());
+        assertEquals(lastPlayed, stats.getLastPlayed());
+    }
+
+    private static List<String> names(List<PlayerStats> stats) {
+        return stats.stream().map(PlayerStats::getPlayerName).collect(Collectors.toList());
+    }
+}
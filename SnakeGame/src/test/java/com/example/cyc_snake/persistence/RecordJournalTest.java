@@ -0,0 +1,184 @@
+package com.example.cyc_snake.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the RecordJournal class, including recovery from appends cut short by a crash.
+ *
+ * @author wjscyc
+ * @ClassName RecordJournalTest
+ * @date: 06/01/2024 15:20
+ * @Version: V1.0
+ */
+class RecordJournalTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Test method for appended records surviving a reopen in order.
+     */
+    @Test
+    void testRecordsSurviveReopen() throws IOException {
+        Path file = directory.resolve("records.journal");
+        List<GameRecord> records = records(5);
+        try (RecordJournal journal = new RecordJournal(file)) {
+            journal.append(records.subList(0, 2));
+            journal.append(records.subList(2, 5));
+            assertEquals(5, journal.size());
+        }
+        try (RecordJournal journal = new RecordJournal(file)) {
+            assertEquals(5, journal.size());
+            assertEquals(records, journal.peek(10));
+            assertEquals(records.subList(0, 3), journal.peek(3));
+            assertEquals(0, journal.getDiscardedBytes());
+        }
+    }
+
+    /**
+     * Test method for delivered records staying removed after a reopen, and the file shrinking once empty.
+     */
+    @Test
+    void testRemovedRecordsStayRemoved() throws IOException {
+        Path file = directory.resolve("records.journal");
+        List<GameRecord> records = records(4);
+        try (RecordJournal journal = new RecordJournal(file)) {
+            journal.append(records);
+            journal.removeFirst(3);
+        }
+        try (RecordJournal journal = new RecordJournal(file)) {
+            assertEquals(List.of(records.get(3)), journal.peek(10));
+            journal.removeFirst(1);
+            assertEquals(0, journal.size());
+        }
+        assertEquals(RecordJournal.HEADER_SIZE, Files.size(file), "An empty journal should be truncated");
+        try (RecordJournal journal = new RecordJournal(file)) {
+            assertEquals(0, journal.size());
+        }
+    }
+
+    /**
+     * Test method for a journal cut at every possible byte inside its last record recovering the complete records.
+     */
+    @Test
+    void testTruncatedRecordIsDiscarded() throws IOException {
+        Path file = directory.resolve("records.journal");
+        List<GameRecord> records = records(3);
+        long completeSize;
+        try (RecordJournal journal = new RecordJournal(file)) {
+            journal.append(records.subList(0, 2));
+            completeSize = Files.size(file);
+            journal.append(records.subList(2, 3));
+        }
+        byte[] full = Files.readAllBytes(file);
+
+        for (long cut = completeSize + 1; cut < full.length; cut++) {
+            Path torn = directory.resolve("torn-" + cut + ".journal");
+            Files.write(torn, full);
+            try (FileChannel channel = FileChannel.open(torn, StandardOpenOption.WRITE)) {
+                channel.truncate(cut);
+            }
+            try (RecordJournal journal = new RecordJournal(torn)) {
+                assertEquals(records.subList(0, 2), journal.peek(10), "Cut at " + cut + " should keep whole records");
+                assertEquals(cut - completeSize, journal.getDiscardedBytes());
+                journal.append(records.subList(2, 3));
+            }
+            assertEquals(full.length, Files.size(torn), "Appends after recovery should replace the torn record");
+            try (RecordJournal journal = new RecordJournal(torn)) {
+                assertEquals(records, journal.peek(10));
+            }
+        }
+    }
+
+    /**
+     * Test method for a record whose bytes were damaged failing its checksum, along with everything after it.
+     */
+    @Test
+    void testCorruptedRecordIsDiscarded() throws IOException {
+        Path file = directory.resolve("records.journal");
+        List<GameRecord> records = records(3);
+        long secondRecord;
+        try (RecordJournal journal = new RecordJournal(file)) {
+            journal.append(records.subList(0, 1));
+            secondRecord = Files.size(file);
+            journal.append(records.subList(1, 3));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x5A}), secondRecord + RecordJournal.RECORD_HEADER_SIZE + 2);
+        }
+        try (RecordJournal journal = new RecordJournal(file)) {
+            assertEquals(records.subList(0, 1), journal.peek(10));
+            assertEquals(secondRecord, Files.size(file));
+        }
+    }
+
+    /**
+     * Test method for a damaged header falling back to replaying every record rather than losing any.
+     */
+    @Test
+    void testDamagedHeaderReplaysEverything() throws IOException {
+        Path file = directory.resolve("records.journal");
+        List<GameRecord> records = records(3);
+        try (RecordJournal journal = new RecordJournal(file)) {
+            journal.append(records);
+            journal.removeFirst(1);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), 0);
+        }
+        try (RecordJournal journal = new RecordJournal(file)) {
+            assertEquals(records, journal.peek(10));
+        }
+    }
+
+    /**
+     * Test method for a record journaled before the end time of a game was kept still being read, as played when it
+     * is read back.
+     */
+    @Test
+    void testRecordWithoutEndTimeIsRead() throws IOException {
+        Path file = directory.resolve("records.journal");
+        byte[] name = "Alice".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(Integer.BYTES + name.length + Integer.BYTES + Long.BYTES);
+        payload.putInt(name.length).put(name).putInt(12).putLong(3000).flip();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        ByteBuffer content = ByteBuffer.allocate(RecordJournal.HEADER_SIZE + RecordJournal.RECORD_HEADER_SIZE
+                + payload.remaining());
+        // A zero header fails its checksum and is read as the start of the records
+        content.position(RecordJournal.HEADER_SIZE);
+        content.putInt(payload.remaining()).putInt((int) crc.getValue()).put(payload);
+        Files.write(file, content.array());
+
+        long before = System.currentTimeMillis();
+        try (RecordJournal journal = new RecordJournal(file)) {
+            GameRecord record = journal.peek(1).get(0);
+            assertEquals("Alice", record.getPlayerName());
+            assertEquals(12, record.getScore());
+            assertEquals(3000, record.getPlayTime());
+            assertTrue(record.getPlayedAt() >= before, "A record without an end time should count as played now");
+        }
+    }
+
+    private static List<GameRecord> records(int count) {
+        List<GameRecord> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            records.add(new GameRecord(i == 1 ? null : "Spieler-" + i + "-é", i * 7, i * 1000L, 1_700_000_000_000L + i));
+        }
+        return records;
+    }
+}
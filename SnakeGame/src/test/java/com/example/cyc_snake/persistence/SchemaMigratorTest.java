@@ -0,0 +1,141 @@
+package com.example.cyc_snake.persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the SchemaMigrator class and the schema of JdbcScoreRepository, including the query plans of the
+ * hot queries.
+ *
+ * @author wjscyc
+ * @ClassName SchemaMigratorTest
+ * @date: 12/01/2024 15:30
+ * @Version: V1.0
+ */
+class SchemaMigratorTest {
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = new ConnectionPool("jdbc:h2:mem:schema_test;DB_CLOSE_DELAY=-1", "sa", "", 1, 60_000, 1_000);
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    /**
+     * Test method for every migration being applied once, in version order.
+     */
+    @Test
+    void testMigratesOnce() throws SQLException {
+        List<SchemaMigrator.Migration> migrations = List.of(
+                new SchemaMigrator.Migration(2, "Add a column", "ALTER TABLE t ADD COLUMN b INT"),
+                new SchemaMigrator.Migration(1, "Create a table", "CREATE TABLE t (a INT)"));
+        SchemaMigrator migrator = new SchemaMigrator(pool, migrations);
+        assertEquals(0, migrator.getCurrentVersion());
+        migrator.migrate();
+        migrator.migrate();
+        assertEquals(2, migrator.getCurrentVersion());
+        new SchemaMigrator(pool, migrations).migrate();
+        assertEquals(2, migrator.getLatestVersion());
+        assertEquals(2, count("SELECT COUNT(*) FROM schema_version"));
+    }
+
+    /**
+     * Test method for a failed migration being retried, without applying the migrations after it.
+     */
+    @Test
+    void testFailedMigrationIsRetried() throws SQLException {
+        SchemaMigrator.Migration create = new SchemaMigrator.Migration(1, "Create a table", "CREATE TABLE t (a INT)");
+        SchemaMigrator.Migration insert =
+                new SchemaMigrator.Migration(3, "Insert a row", "INSERT INTO t (a) VALUES (1)");
+        SchemaMigrator broken = new SchemaMigrator(pool, List.of(create,
+                new SchemaMigrator.Migration(2, "Broken", "ALTER TABLE missing ADD COLUMN b INT"), insert));
+        assertThrows(SQLException.class, broken::migrate);
+        assertEquals(1, broken.getCurrentVersion());
+        assertEquals(0, count("SELECT COUNT(*) FROM t"));
+
+        new SchemaMigrator(pool, List.of(create,
+                new SchemaMigrator.Migration(2, "Fixed", "ALTER TABLE t ADD COLUMN b INT"), insert)).migrate();
+        assertEquals(1, count("SELECT COUNT(*) FROM t"));
+        assertThrows(IllegalArgumentException.class, () -> new SchemaMigrator(pool, List.of(create, create)));
+    }
+
+    /**
+     * Test method for an index migration left unrecorded after its index was created, as after a crash between
+     * the two on MySQL, only being recorded when it is applied again.
+     */
+    @Test
+    void testExistingIndexIsRecorded() throws SQLException {
+        SchemaMigrator.Migration create = new SchemaMigrator.Migration(1, "Create a table", "CREATE TABLE t (a INT)");
+        SchemaMigrator.Migration index = SchemaMigrator.Migration.createIndex(2, "Index a", "idx_t_a", "t", "a");
+        new SchemaMigrator(pool, List.of(create)).migrate();
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(index.getSql());
+        }
+
+        SchemaMigrator migrator = new SchemaMigrator(pool, List.of(create, index));
+        migrator.migrate();
+        assertEquals(2, migrator.getCurrentVersion());
+        assertEquals(1, count("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = 'IDX_T_A'"));
+    }
+
+    /**
+     * Test method for the hot queries of the game being served by the indexes of the schema.
+     */
+    @Test
+    void testHotQueriesUseIndexes() throws SQLException {
+        new SchemaMigrator(pool, JdbcScoreRepository.SCHEMA_MIGRATIONS).migrate();
+        assertPlan(LeaderboardOrder.BY_SCORE.pageQuery(false), "IDX_GAMESCORES_SCORE", "index sorted");
+        assertPlan(LeaderboardOrder.BY_SCORE.pageQuery(true), "IDX_GAMESCORES_SCORE: GAMESCORE <=", "index sorted");
+        assertPlan(LeaderboardOrder.BY_TIME.pageQuery(false), "IDX_GAMESCORES_TIME", "index sorted");
+        assertPlan(LeaderboardOrder.BY_TIME.pageQuery(true), "IDX_GAMESCORES_TIME: GAMETIMEINMILLISECONDS <=",
+                "index sorted");
+        assertPlan(JdbcScoreRepository.EXPORT_QUERY, "IDX_GAMESCORES_SCORE", "index sorted");
+        assertPlan("DELETE FROM gamescores WHERE playerName = 'Alice'", "IDX_GAMESCORES_PLAYER: PLAYERNAME =");
+    }
+
+    private void assertPlan(String sql, String... expected) throws SQLException {
+        // Parameters are explained as placeholders; the plan does not depend on their values here
+        String plan = String.join("\n", explain(sql.replace("?", "1")));
+        for (String part : expected) {
+            assertTrue(plan.contains(part), "Expected " + part + " in the plan of " + sql + ":\n" + plan);
+        }
+        assertFalse(plan.contains("tableScan"), "Unexpected table scan for " + sql + ":\n" + plan);
+    }
+
+    private List<String> explain(String sql) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            while (resultSet.next()) {
+                plan.add(resultSet.getString(1));
+            }
+        }
+        return plan;
+    }
+
+    private long count(String sql) throws SQLException {
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -34,7 +34,7 @@ class RunningStateTest {
         // gameModel = new GameModel();
 
         // Create a spy on the real instance of GameModel
-        gameModel = spy(GameModel.getInstance());
+        gameModel = spy(new GameModel());
 
         gameModel.setRunning(true);
         runningState = new RunningState();
@@ -54,10 +54,8 @@ class RunningStateTest {
 
         runningState.update(gameModel);
 
-        // Verify that methods are called
-        verify(gameModel).move();
-        verify(gameModel).checkApple();
-        verify(gameModel).checkCollisions();
-        verify(gameModel).shrinkBorder();
+        // Verify that the model is advanced by one tick, which moves the snake, checks apples and collisions and
+        // shrinks the border
+        verify(gameModel).tick();
     }
 }
@@ -0,0 +1,147 @@
+package com.example.cyc_snake.stateManager;
+
+import com.example.cyc_snake.managers.ListenerRegistry;
+import com.example.cyc_snake.managers.StateManager;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the ListenerRegistry class, and for the state manager not keeping discarded views alive.
+ *
+ * @author wjscyc
+ * @ClassName ListenerRegistryTest
+ * @date: 14/01/2024 16:20
+ * @Version: V1.0
+ */
+class ListenerRegistryTest {
+
+    /**
+     * Test method for a cancelled subscription no longer being notified, and cancelling twice doing nothing.
+     */
+    @Test
+    void testCancelledSubscriptionIsNotNotified() {
+        ListenerRegistry<String> registry = new ListenerRegistry<>();
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        ListenerRegistry.Subscription subscription = registry.add(first::add);
+        registry.add(second::add);
+        registry.notifyListeners("a");
+
+        subscription.cancel();
+        subscription.cancel();
+        registry.notifyListeners("b");
+        assertEquals(List.of("a"), first);
+        assertEquals(List.of("a", "b"), second);
+        assertEquals(1, registry.size());
+    }
+
+    /**
+     * Test method for listeners cancelling and adding registrations while they are being notified.
+     */
+    @Test
+    void testChangesWhileNotifying() {
+        ListenerRegistry<String> registry = new ListenerRegistry<>();
+        List<String> heard = new ArrayList<>();
+        ListenerRegistry.Subscription[] later = new ListenerRegistry.Subscription[1];
+        registry.add(value -> {
+            later[0].cancel();
+            registry.add(added -> heard.add("added " + added));
+        });
+        later[0] = registry.add(value -> heard.add("later " + value));
+
+        registry.notifyListeners("a");
+        assertEquals(List.of(), heard, "A cancelled listener should not be notified again");
+        registry.notifyListeners("b");
+        assertEquals(List.of("added b"), heard, "An added listener should be notified from the next value on");
+    }
+
+    /**
+     * Test method for the listener of an owner being notified with the owner, and dropped once the owner is
+     * collected.
+     */
+    @Test
+    void testListenerIsDroppedWithItsOwner() {
+        ListenerRegistry<Color> registry = new ListenerRegistry<>();
+        Screen screen = new Screen();
+        registry.add(screen, Screen::paint);
+        registry.notifyListeners(Color.SKYBLUE);
+        assertEquals(Color.SKYBLUE, screen.background);
+        assertEquals(1, registry.size());
+
+        WeakReference<Screen> discarded = new WeakReference<>(screen);
+        screen = null;
+        collect(discarded);
+        registry.notifyListeners(Color.WHITE);
+        assertEquals(0, registry.size());
+    }
+
+    /**
+     * Test method for a long session navigating between views that never unsubscribe, as each new view registered
+     * its own listeners: the discarded views must be collected, so the heap and the number of listeners stay flat.
+     */
+    @Test
+    void testNavigatingDoesNotLeakViews() {
+        StateManager stateManager = new StateManager();
+        Runtime runtime = Runtime.getRuntime();
+        Screen shown = null;
+        long baseline = 0;
+        for (int i = 0; i < 10_000; i++) {
+            shown = new Screen();
+            stateManager.addBackgroundColorChangeListener(shown, Screen::paint);
+            stateManager.addSnakeColorChangeListener(shown, Screen::paintSnake);
+            if (i % 1_000 == 0) {
+                stateManager.setBackgroundColor(i % 2_000 == 0 ? Color.SKYBLUE : Color.WHITE);
+            }
+            if (i == 100) {
+                collect(new WeakReference<>(new Object()));
+                baseline = runtime.totalMemory() - runtime.freeMemory();
+            }
+        }
+        stateManager.setBackgroundColor(Color.LAVENDER);
+        assertEquals(Color.LAVENDER, shown.background, "The view shown should still be notified");
+        assertEquals(Color.YELLOWGREEN, shown.snake, "The view shown should still be notified");
+
+        collect(new WeakReference<>(new Object()));
+        long grown = runtime.totalMemory() - runtime.freeMemory() - baseline;
+        // Keeping every view would hold on to more than 600 MB
+        assertTrue(grown < 32 * 1024 * 1024, "Discarded views should be collected, but the heap grew by "
+                + grown / 1024 + " KB");
+        assertEquals(1, stateManager.getBackgroundColorChangeListenerCount());
+        assertEquals(1, stateManager.getSnakeColorChangeListenerCount());
+    }
+
+    /**
+     * Runs the garbage collector until an object is collected.
+     */
+    private static void collect(WeakReference<?> reference) {
+        for (int i = 0; i < 20 && reference.get() != null; i++) {
+            System.gc();
+        }
+        System.gc();
+        assertNull(reference.get(), "The object should have been collected");
+    }
+
+    /**
+     * Stands in for a view controller holding on to its node graph.
+     */
+    private static final class Screen {
+        private final byte[] nodes = new byte[64 * 1024];
+        private Color background;
+        private Color snake;
+
+        private void paint(Color color) {
+            background = color;
+            nodes[0]++;
+        }
+
+        private void paintSnake(Color color) {
+            snake = color;
+        }
+    }
+}
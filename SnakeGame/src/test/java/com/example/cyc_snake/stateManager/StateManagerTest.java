@@ -5,6 +5,10 @@ import javafx.scene.paint.Color;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -55,5 +59,22 @@ class StateManagerTest {
         assertEquals(testName, stateManager.getPlayerName(), "Player name should match the set value");
     }
 
+    @Test
+    void testRemovedListenersAreNotNotified() {
+        List<Color> backgrounds = new ArrayList<>();
+        List<Color> snakes = new ArrayList<>();
+        Consumer<Color> backgroundListener = backgrounds::add;
+        Consumer<Color> snakeListener = snakes::add;
+        stateManager.addBackgroundColorChangeListener(backgroundListener);
+        stateManager.addSnakeColorChangeListener(snakeListener);
+        stateManager.setBackgroundColor(Color.SKYBLUE);
+
+        stateManager.removeBackgroundColorChangeListener(backgroundListener);
+        stateManager.removeSnakeColorChangeListener(snakeListener);
+        stateManager.setBackgroundColor(Color.WHITE);
+        assertEquals(List.of(Color.SKYBLUE), backgrounds, "Removed listeners should not hear later changes");
+        assertEquals(List.of(Color.ORANGE), snakes, "Removed listeners should not hear later changes");
+    }
+
     // Add more tests for other functionalities like listeners, if needed
 }
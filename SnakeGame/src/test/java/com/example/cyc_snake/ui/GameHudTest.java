@@ -0,0 +1,141 @@
+package com.example.cyc_snake.ui;
+
+import com.example.cyc_snake.models.SnakeSimulation;
+import com.sun.management.ThreadMXBean;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Test class for the GameHud class, the label updates of GameViewController.
+ *
+ * @author wjscyc
+ * @ClassName GameHudTest
+ * @date: 30/12/2023 10:21
+ * @Version: V1.0
+ */
+class GameHudTest {
+
+    private static final char[] DIRECTIONS = {'U', 'R', 'D', 'L'};
+    private static final long FRAME_NANOS = 16_666_667;
+
+    private final IntegerProperty score = new SimpleIntegerProperty(0);
+    private final IntegerProperty length = new SimpleIntegerProperty(6);
+    private final String[] labels = new String[3];
+    private final int[] updates = new int[3];
+    private final GameHud hud = new GameHud(text -> show(0, text), text -> show(1, text), text -> show(2, text));
+
+    /**
+     * Test method for each label being set only when the value it shows changes.
+     */
+    @Test
+    void testLabelsChangeWithTheirValues() {
+        hud.bind(score, length);
+        assertEquals("Score: 0", labels[1]);
+        assertEquals("Length: 6", labels[2]);
+
+        score.set(3);
+        length.set(7);
+        assertEquals("Score: 3", labels[1]);
+        assertEquals("Length: 7", labels[2]);
+        assertEquals(2, updates[1]);
+
+        assertEquals(0, hud.showElapsed(0));
+        assertEquals(0, hud.showElapsed(999_999_999));
+        assertEquals(1, hud.showElapsed(1_000_000_000));
+        assertEquals("Time: 1", labels[0]);
+        assertEquals(2, updates[0], "The time label should only be set on a new second");
+
+        hud.resetTime();
+        hud.showElapsed(1_000_000_000);
+        assertEquals(3, updates[0], "A restarted loop should show the time again");
+    }
+
+    /**
+     * Test method for a frame of steady play allocating practically nothing: a game update whose score and length are
+     * published to properties the HUD is bound to, as GameModel publishes them, followed by the time of the frame.
+     * <p>
+     * The game is run on the simulation rather than on GameModel, because the inline mock maker used by other tests
+     * instruments GameModel for every instance, which allocates on each call.
+     * </p>
+     */
+    @Test
+    void testSteadyPlayFrameAllocatesAlmostNothing() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean, "Allocation counting is not available");
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Allocation counting is not available");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        SnakeSimulation simulation = new SnakeSimulation(40 * SnakeSimulation.UNIT_SIZE, 40 * SnakeSimulation.UNIT_SIZE);
+        SplittableRandom random = new SplittableRandom(1);
+        simulation.reset(random);
+        hud.bind(score, length);
+
+        long now = 0;
+        for (int frame = 0; frame < 200_000; frame++) {
+            frame(simulation, random, now += FRAME_NANOS);
+        }
+        int frames = 100_000;
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int frame = 0; frame < frames; frame++) {
+            frame(simulation, random, now += FRAME_NANOS);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(updates[0] > 1 && updates[1] > 1 && updates[2] > 1, "Every label should have been updated");
+        assertTrue(allocated / frames < 8, "Steady play should allocate almost nothing per frame, but allocated "
+                + allocated + " bytes over " + frames + " frames");
+    }
+
+    private void frame(SnakeSimulation simulation, SplittableRandom random, long now) {
+        if (simulation.isGameOver()) {
+            simulation.reset(random);
+        }
+        simulation.step(steer(simulation));
+        if (score.get() != simulation.getScore()) {
+            score.set(simulation.getScore());
+        }
+        if (length.get() != simulation.getLength()) {
+            length.set(simulation.getLength());
+        }
+        hud.showElapsed(now);
+    }
+
+    private void show(int label, String text) {
+        labels[label] = text;
+        updates[label]++;
+    }
+
+    /**
+     * Keeps the snake on its course until the border is ahead, then turns clockwise.
+     */
+    private static char steer(SnakeSimulation simulation) {
+        char direction = simulation.getDirection();
+        int turn = 0;
+        while (!isInside(simulation, direction)) {
+            int current = 0;
+            while (DIRECTIONS[current] != direction && current < DIRECTIONS.length - 1) {
+                current++;
+            }
+            direction = DIRECTIONS[(current + 1) % DIRECTIONS.length];
+            if (++turn == DIRECTIONS.length) {
+                break;
+            }
+        }
+        return direction;
+    }
+
+    private static boolean isInside(SnakeSimulation simulation, char direction) {
+        int x = simulation.getBody().getHeadX() + (direction == 'R' ? SnakeSimulation.UNIT_SIZE : direction == 'L' ? -SnakeSimulation.UNIT_SIZE : 0);
+        int y = simulation.getBody().getHeadY() + (direction == 'D' ? SnakeSimulation.UNIT_SIZE : direction == 'U' ? -SnakeSimulation.UNIT_SIZE : 0);
+        return x >= simulation.getLeftBorder() && x < simulation.getRightBorder()
+                && y >= simulation.getTopBorder() && y < simulation.getBottomBorder();
+    }
+}
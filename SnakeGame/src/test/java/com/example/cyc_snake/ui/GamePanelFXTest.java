@@ -6,7 +6,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author wjscyc
@@ -40,5 +46,109 @@ class GamePanelFXTest {
         assertEquals(testColor, gamePanelFX.getSnakeColor(), "Snake color should be set to red");
     }
 
+    @Test
+    void drawRepaintsOnlyChangedCellsTest() {
+        GameModel model = new GameModel(20 * GameModel.UNIT_SIZE, 20 * GameModel.UNIT_SIZE);
+        model.resetGame(new SplittableRandom(3));
+        gamePanelFX.setGameModel(model);
+        assertEquals(400, gamePanelFX.getRepaintedCellCount(), "First frame should repaint the whole board");
+
+        model.handleInput('D');
+        for (int frame = 0; frame < 40; frame++) {
+            if (frame % 4 == 0) {
+                model.update();
+            }
+            gamePanelFX.draw((frame % 4) / 4.0);
+            assertTrue(gamePanelFX.getRepaintedCellCount() <= 12, "Frames should only repaint the changed cells");
+        }
+
+        gamePanelFX.setBackgroundColor(Color.BLUE);
+        gamePanelFX.draw(0);
+        assertEquals(400, gamePanelFX.getRepaintedCellCount(), "Color changes should repaint the whole board");
+    }
+
+    @Test
+    void drawRepaintsEveryCellPassedBetweenFramesTest() {
+        GameModel model = new GameModel(20 * GameModel.UNIT_SIZE, 20 * GameModel.UNIT_SIZE);
+        model.resetGame(new SplittableRandom(3));
+        gamePanelFX.setGameModel(model);
+
+        int frames = 0;
+        boolean warned = false;
+        while (model.isRunning() && model.getTick() < 95) {
+            Set<Long> before = shownCells(model);
+            int ticks = 1 + frames % 4; // Up to MAX_INCREMENTAL_TICKS updates between frames
+            for (int i = 0; i < ticks; i++) {
+                steer(model);
+                model.update();
+            }
+            if (!model.isRunning()) {
+                break;
+            }
+            gamePanelFX.draw(1.0);
+            frames++;
+            Set<Long> changed = shownCells(model);
+            Set<Long> after = new HashSet<>(changed);
+            changed.removeAll(before);
+            before.removeAll(after);
+            changed.addAll(before); // Cells filled or emptied since the last frame
+            changed.add(cell(model.getSegmentX(0), model.getSegmentY(0)));
+            for (long cell : changed) {
+                int x = (int) (cell >> 32);
+                int y = (int) cell;
+                assertTrue(gamePanelFX.wasRepainted(x, y),
+                        "Cell (" + x + "," + y + ") changed after " + ticks + " updates but was not repainted");
+            }
+            if (model.isAboutToShrink()) {
+                warned = true;
+                assertTrue(gamePanelFX.getRepaintedCellCount() < 400,
+                        "The shrink warning should only repaint the cells under its text");
+            }
+        }
+        assertTrue(frames > 20, "The snake should stay alive for a while");
+        assertTrue(warned, "The shrink warning should have been drawn");
+    }
+
+    /**
+     * Steers the snake round a rectangle away from the board edges.
+     */
+    private static void steer(GameModel model) {
+        int x = model.getSegmentX(0);
+        int y = model.getSegmentY(0);
+        int unit = GameModel.UNIT_SIZE;
+        switch (model.getDirection()) {
+            case 'R': if (x >= 12 * unit) model.handleInput('D'); break;
+            case 'D': if (y >= 8 * unit) model.handleInput('L'); break;
+            case 'L': if (x <= 2 * unit) model.handleInput('U'); break;
+            case 'U': if (y <= 2 * unit) model.handleInput('R'); break;
+            default: break;
+        }
+    }
+
+    private static Set<Long> shownCells(GameModel model) {
+        Set<Long> cells = new HashSet<>();
+        for (int i = 0; i < model.getBodyParts(); i++) {
+            cells.add(cell(model.getSegmentX(i), model.getSegmentY(i)));
+        }
+        cells.add(cell(model.getAppleX(), model.getAppleY()));
+        if (model.isSpecialAppleExists()) {
+            cells.add(cell((int) model.getSpecialAppleX(), (int) model.getSpecialAppleY()));
+        }
+        return cells;
+    }
+
+    private static long cell(int x, int y) {
+        return (long) x << 32 | (y & 0xFFFFFFFFL);
+    }
+
+    @Test
+    void spriteAtlasIsSharedTest() {
+        SpriteAtlas atlas = SpriteAtlas.getShared();
+        assertSame(atlas, SpriteAtlas.getShared(), "All panels should share one atlas");
+        assertEquals(SpriteAtlas.Sprite.values().length * GameModel.UNIT_SIZE, atlas.getImage().getWidth(),
+                "Every sprite should have a slot of the unit size");
+        assertEquals(GameModel.UNIT_SIZE, atlas.getImage().getHeight());
+    }
+
     // Add more tests to cover different aspects of GamePanelFX
 }
@@ -0,0 +1,93 @@
+package com.example.cyc_snake.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the AssetPreloader class, run on an executor the test steps through. Images are not decoded here,
+ * since that needs a graphics pipeline.
+ *
+ * @author wjscyc
+ * @ClassName AssetPreloaderTest
+ * @date: 14/01/2024 14:05
+ * @Version: V1.0
+ */
+class AssetPreloaderTest {
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final Executor stepper = tasks::add;
+
+    /**
+     * Test method for the images of a view being found in its template, relative to the template.
+     */
+    @Test
+    void testTemplateImagesAreFound() throws Exception {
+        URL location = getClass().getResource("/com/example/cyc_snake/GameView.fxml");
+        byte[] template;
+        try (InputStream in = location.openStream()) {
+            template = in.readAllBytes();
+        }
+        List<URL> images = AssetPreloader.imageUrls(location, template);
+        assertEquals(5, images.size());
+        for (URL image : images) {
+            assertTrue(image.getPath().endsWith("Apple.png"), image.toString());
+            assertNotNull(image.openStream(), "Every image found should exist");
+        }
+        assertEquals(List.of(), AssetPreloader.imageUrls(location, "<AnchorPane/>".getBytes()));
+    }
+
+    /**
+     * Test method for the progress counting every asset once it is loaded, failed ones included, and dropping its
+     * listeners when everything is loaded.
+     */
+    @Test
+    void testProgressCountsEveryAsset() {
+        AssetPreloader assets = new AssetPreloader(stepper);
+        assets.preload(() -> { });
+        assets.preload(() -> {
+            throw new IllegalStateException("Missing asset");
+        });
+        assets.preload(() -> { });
+        List<Double> reported = new ArrayList<>();
+        assets.addProgressListener(reported::add);
+
+        runAll();
+        assertEquals(List.of(0.0, 1 / 3.0, 2 / 3.0, 1.0), reported);
+        assertEquals(1.0, assets.getProgress());
+
+        assets.preload(() -> { });
+        runAll();
+        assertEquals(4, reported.size(), "Listeners should be dropped once everything is loaded");
+    }
+
+    /**
+     * Test method for a view counting as one asset, queued once however often it is preloaded.
+     */
+    @Test
+    void testViewIsPreloadedOnce() {
+        AssetPreloader assets = new AssetPreloader(stepper);
+        assets.preloadView("/com/example/cyc_snake/HistoryPlayerView.fxml");
+        assets.preloadView("/com/example/cyc_snake/HistoryPlayerView.fxml");
+        assertEquals(1, tasks.size());
+        assertEquals(0.0, assets.getProgress());
+
+        runAll();
+        assertEquals(1.0, assets.getProgress());
+    }
+
+    private void runAll() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.cyc_snake.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the NumberTextCache class.
+ *
+ * @author wjscyc
+ * @ClassName NumberTextCacheTest
+ * @date: 30/12/2023 10:21
+ * @Version: V1.0
+ */
+class NumberTextCacheTest {
+
+    private final NumberTextCache scoreText = new NumberTextCache("Score: ", 100);
+
+    @Test
+    void testCachedTextIsReused() {
+        assertEquals("Score: 42", scoreText.get(42));
+        assertSame(scoreText.get(42), scoreText.get(42), "Cached values should return the same string");
+    }
+
+    @Test
+    void testValuesOutsideTheTable() {
+        assertEquals("Score: 100", scoreText.get(100));
+        assertEquals("Score: -1", scoreText.get(-1));
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.cyc_snake.utils;
+
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Test class for the SoundEffects class, played on recording clips since the test machine has no audio device.
+ *
+ * @author wjscyc
+ * @ClassName SoundEffectsTest
+ * @date: 14/01/2024 09:40
+ * @Version: V1.0
+ */
+class SoundEffectsTest {
+
+    private final List<RecordingClip> created = new ArrayList<>();
+
+    /**
+     * Test method for a long session decoding each effect once and reusing its clip, with no more copies playing
+     * than the polyphony of the effect.
+     */
+    @Test
+    void testApplesReuseBoundedClip() {
+        SoundEffects effects = new SoundEffects(this::createClip);
+        assertEquals(SoundEffects.Effect.values().length, created.size(), "Each effect should be decoded once");
+        int apples = SoundEffects.Effect.APPLE_EATING.getPolyphony();
+
+        for (int i = 0; i < 10_000; i++) {
+            effects.play(SoundEffects.Effect.APPLE_EATING);
+            assertTrue(clip(SoundEffects.Effect.APPLE_EATING).copies <= apples);
+        }
+        assertEquals(SoundEffects.Effect.values().length, created.size(), "Playing should not load clips");
+        for (RecordingClip clip : created) {
+            if (clip.effect == SoundEffects.Effect.APPLE_EATING) {
+                assertEquals(10_000, clip.plays);
+                assertEquals(10_000 / apples - 1, clip.stops, "The clip should be cut off once per polyphony");
+            } else {
+                assertEquals(0, clip.plays);
+            }
+        }
+    }
+
+    /**
+     * Test method for the copies playing being cut off once as many as the polyphony were started, and not before.
+     */
+    @Test
+    void testFullEffectIsCutOff() {
+        SoundEffects effects = new SoundEffects(this::createClip);
+        RecordingClip click = clip(SoundEffects.Effect.CLICK);
+        effects.play(SoundEffects.Effect.CLICK);
+        effects.play(SoundEffects.Effect.CLICK);
+        assertEquals(2, click.copies);
+        assertEquals(0, click.stops);
+
+        effects.play(SoundEffects.Effect.CLICK);
+        assertEquals(1, click.stops);
+        assertEquals(1, click.copies);
+
+        // Copies that finished on their own no longer count
+        click.copies = 0;
+        effects.play(SoundEffects.Effect.CLICK);
+        effects.play(SoundEffects.Effect.CLICK);
+        assertEquals(1, click.stops);
+        assertEquals(2, click.copies);
+    }
+
+    /**
+     * Test method for an effect that cannot be loaded staying silent while the others still play.
+     */
+    @Test
+    void testUnavailableEffectIsSilent() {
+        SoundEffects effects = new SoundEffects(effect -> {
+            if (effect == SoundEffects.Effect.GAME_OVER) {
+                throw new IllegalStateException("Missing resource");
+            }
+            return createClip(effect);
+        });
+        effects.play(SoundEffects.Effect.GAME_OVER);
+        effects.play(SoundEffects.Effect.APPLE_EATING);
+        assertEquals(1, clip(SoundEffects.Effect.APPLE_EATING).copies);
+    }
+
+    /**
+     * Test method for disposing stopping every clip and silencing later plays.
+     */
+    @Test
+    void testDisposeStopsClips() {
+        SoundEffects effects = new SoundEffects(this::createClip);
+        effects.play(SoundEffects.Effect.APPLE_EATING);
+        effects.play(SoundEffects.Effect.GAME_OVER);
+        effects.dispose();
+        for (RecordingClip clip : created) {
+            assertFalse(clip.isPlaying());
+        }
+        effects.play(SoundEffects.Effect.APPLE_EATING);
+        assertEquals(0, clip(SoundEffects.Effect.APPLE_EATING).copies);
+    }
+
+    /**
+     * Test method for playing an effect allocating nothing, so memory stays flat however many apples are eaten.
+     */
+    @Test
+    void testPlayingAllocatesNothing() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean, "Allocation counting is not available");
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Allocation counting is not available");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        SoundEffects effects = new SoundEffects(this::createClip);
+        for (int i = 0; i < 20_000; i++) {
+            effects.play(SoundEffects.Effect.APPLE_EATING);
+        }
+        int apples = 10_000;
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < apples; i++) {
+            effects.play(SoundEffects.Effect.APPLE_EATING);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        assertTrue(allocated / apples < 8, "Playing should allocate almost nothing, but allocated "
+                + allocated + " bytes over " + apples + " apples");
+    }
+
+    private SoundEffects.Clip createClip(SoundEffects.Effect effect) {
+        RecordingClip clip = new RecordingClip(effect);
+        created.add(clip);
+        return clip;
+    }
+
+    private RecordingClip clip(SoundEffects.Effect effect) {
+        for (RecordingClip clip : created) {
+            if (clip.effect == effect) {
+                return clip;
+            }
+        }
+        throw new AssertionError("No clip was loaded for " + effect);
+    }
+
+    /**
+     * A clip whose copies play until they are stopped, counting its copies, plays and stops.
+     */
+    private static final class RecordingClip implements SoundEffects.Clip {
+        private final SoundEffects.Effect effect;
+        private int copies;
+        private int plays;
+        private int stops;
+
+        RecordingClip(SoundEffects.Effect effect) {
+            this.effect = effect;
+        }
+
+        @Override
+        public boolean isPlaying() {
+            return copies > 0;
+        }
+
+        @Override
+        public void play() {
+            copies++;
+            plays++;
+        }
+
+        @Override
+        public void stop() {
+            copies = 0;
+            stops++;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.cyc_snake.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the UiUpdateDispatcher class, delivering its batches on a queue the test steps through instead of
+ * the JavaFX application thread.
+ *
+ * @author wjscyc
+ * @ClassName UiUpdateDispatcherTest
+ * @date: 14/01/2024 17:30
+ * @Version: V1.0
+ */
+class UiUpdateDispatcherTest {
+
+    private final Queue<Runnable> scheduled = new ArrayDeque<>();
+    private final UiUpdateDispatcher dispatcher = new UiUpdateDispatcher(scheduled::add);
+    private final List<String> applied = new ArrayList<>();
+
+    /**
+     * Test method for a burst of updates being delivered in one batch, with only the last value of each property.
+     */
+    @Test
+    void testBurstIsCoalescedIntoOneBatch() {
+        Object pane = new Object();
+        Object panel = new Object();
+        for (int i = 0; i < 1_000; i++) {
+            String color = "color " + i;
+            dispatcher.post(pane, "background", () -> applied.add("pane " + color));
+            dispatcher.post(panel, "background", () -> applied.add("panel " + color));
+            dispatcher.post(panel, "snakeColor", () -> applied.add("snake " + color));
+        }
+        assertEquals(1, scheduled.size(), "A burst should be delivered with a single task");
+        assertEquals(3, dispatcher.getQueueDepth());
+        assertEquals(List.of(), applied, "Nothing should be applied before the batch runs");
+
+        runScheduled();
+        assertEquals(List.of("pane color 999", "panel color 999", "snake color 999"), applied);
+        assertEquals(0, dispatcher.getQueueDepth());
+        assertEquals(3, dispatcher.getPeakQueueDepth());
+        assertEquals(3_000, dispatcher.getPostedCount());
+        assertEquals(2_997, dispatcher.getCoalescedCount());
+        assertEquals(1, dispatcher.getBatchCount());
+    }
+
+    /**
+     * Test method for an update posted after a batch ran being delivered in a new batch.
+     */
+    @Test
+    void testLaterUpdateStartsNewBatch() {
+        Object pane = new Object();
+        dispatcher.post(pane, "background", () -> applied.add("white"));
+        runScheduled();
+        dispatcher.post(pane, "background", () -> applied.add("black"));
+        assertEquals(1, scheduled.size());
+
+        runScheduled();
+        assertEquals(List.of("white", "black"), applied);
+        assertEquals(2, dispatcher.getBatchCount());
+        assertEquals(0, dispatcher.getCoalescedCount());
+    }
+
+    /**
+     * Test method for an update posted while a batch is applied going into the next batch.
+     */
+    @Test
+    void testUpdatePostedWhileApplyingGoesIntoNextBatch() {
+        Object pane = new Object();
+        dispatcher.post(pane, "background", () -> {
+            applied.add("first");
+            dispatcher.post(pane, "background", () -> applied.add("second"));
+        });
+        scheduled.poll().run();
+        assertEquals(List.of("first"), applied);
+        assertEquals(1, dispatcher.getQueueDepth());
+
+        runScheduled();
+        assertEquals(List.of("first", "second"), applied);
+    }
+
+    /**
+     * Test method for a failing update not stopping the rest of its batch.
+     */
+    @Test
+    void testFailingUpdateDoesNotStopBatch() {
+        dispatcher.post(new Object(), "background", () -> {
+            throw new IllegalStateException("Not attached to a scene");
+        });
+        dispatcher.post(new Object(), "background", () -> applied.add("applied"));
+        runScheduled();
+        assertEquals(List.of("applied"), applied);
+    }
+
+    /**
+     * Test method for updates being dropped, not stuck, when the batch cannot be scheduled.
+     */
+    @Test
+    void testUnschedulableBatchIsDropped() {
+        UiUpdateDispatcher closed = new UiUpdateDispatcher(task -> {
+            throw new IllegalStateException("Toolkit not initialized");
+        });
+        assertThrows(IllegalStateException.class, () -> closed.post(new Object(), "background", () -> { }));
+        assertEquals(0, closed.getQueueDepth());
+        assertThrows(IllegalStateException.class, () -> closed.post(new Object(), "background", () -> { }),
+                "Later updates should try to schedule their own batch");
+    }
+
+    private void runScheduled() {
+        Runnable task;
+        while ((task = scheduled.poll()) != null) {
+            task.run();
+        }
+    }
+}